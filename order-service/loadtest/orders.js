@@ -0,0 +1,35 @@
+// Order history load test for measuring how order-service throughput scales with the number of
+// order verticle instances (event loops).
+//
+// Runs a constant number of virtual users, each holding its own keep-alive connection, against
+// GET /orders/get-orders for a pool of users. See README.md for how to run it with 1 to N
+// instances through scaling.sh.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8084';
+const VUS = parseInt(__ENV.VUS || '500', 10);
+const DURATION = __ENV.DURATION || '1m';
+const USERS = (__ENV.USERS || 'user1,user2,user3').split(',');
+
+export const options = {
+  discardResponseBodies: true,
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  scenarios: {
+    orders: {
+      executor: 'constant-vus',
+      vus: VUS,
+      duration: DURATION,
+      gracefulStop: '30s',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export default function () {
+  const username = USERS[Math.floor(Math.random() * USERS.length)];
+  const response = http.get(`${BASE_URL}/orders/get-orders`, { headers: { username } });
+  check(response, { 'get-orders 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
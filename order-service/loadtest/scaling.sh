@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Runs orders.js against order-service deployed with 1, 2, 4, ... N order verticle instances and
+# prints the throughput and latency of every run. See README.md.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=${JAR:-target/order-service-1.0.0-SNAPSHOT.jar}
+BASE_URL=${BASE_URL:-http://localhost:8084}
+RESULTS=${RESULTS:-loadtest/results}
+CORES=$(nproc)
+if [ -z "${INSTANCES:-}" ]; then
+  INSTANCES=""
+  for ((n = 1; n < CORES; n *= 2)); do
+    INSTANCES="$INSTANCES $n"
+  done
+  INSTANCES="$INSTANCES $CORES"
+fi
+
+mkdir -p "$RESULTS"
+for n in $INSTANCES; do
+  echo "=== $n instance(s) ==="
+  java -jar "$JAR" --order.http.instances="$n" > "$RESULTS/instances-$n.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+  until curl -sf -o /dev/null "$BASE_URL/metrics"; do
+    sleep 1
+  done
+  k6 run --quiet --summary-export="$RESULTS/instances-$n.json" -e BASE_URL="$BASE_URL" \
+    loadtest/orders.js || true
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
+
+printf '\n%-10s %12s %10s %10s\n' "instances" "req/s" "p50 ms" "p99 ms"
+for n in $INSTANCES; do
+  jq -r --arg n "$n" '[$n, .metrics.http_reqs.rate, .metrics.http_req_duration["p(50)"],
+      .metrics.http_req_duration["p(99)"]] | @tsv' "$RESULTS/instances-$n.json" |
+    awk '{ printf "%-10s %12.1f %10.1f %10.1f\n", $1, $2, $3, $4 }'
+done
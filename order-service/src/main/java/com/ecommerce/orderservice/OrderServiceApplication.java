@@ -1,12 +1,19 @@
 package com.ecommerce.orderservice;
 
 import com.ecommerce.orderservice.verticle.MainVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.MicrometerMetricsOptions;
+import io.vertx.micrometer.VertxPrometheusOptions;
 import io.vertx.rxjava3.core.Vertx;
+import java.util.Objects;
 import javax.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.core.env.Environment;
 
 @SpringBootApplication
 public class OrderServiceApplication {
@@ -16,9 +23,12 @@ public class OrderServiceApplication {
 
   private final MainVerticle mainVerticle;
 
-  public OrderServiceApplication(MainVerticle mainVerticle) {
+  private final Environment environment;
+
+  public OrderServiceApplication(MainVerticle mainVerticle, Environment environment) {
 
     this.mainVerticle = mainVerticle;
+    this.environment = environment;
   }
 
   public static void main(String[] args) {
@@ -30,13 +40,93 @@ public class OrderServiceApplication {
   @PostConstruct
   public void deployServerVerticle() {
 
-    var vertx = Vertx.vertx();
+    var vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(
+        new MicrometerMetricsOptions()
+            .setPrometheusOptions(new VertxPrometheusOptions().setEnabled(true))
+            .setEnabled(true)));
     vertx.exceptionHandler(exception -> LOG.error("Unhandled Exception: ", exception.getCause()));
-    vertx.rxDeployVerticle(mainVerticle)
+    vertx.rxDeployVerticle(mainVerticle, new DeploymentOptions().setConfig(verticleConfig()))
          .doOnSuccess(success -> LOG.info("Deployed verticle: {} Successfully!",
              mainVerticle.getClass().getName()))
          .doOnError(error -> LOG.error("Failed to deploy: ", error.getCause()))
          .subscribe();
     LOG.info("Deployed verticle: {} Successfully!", mainVerticle.getClass().getName());
   }
+
+  /**
+   * Builds the verticle configuration from the application properties. Settings that are not
+   * configured are left out, so that the verticles fall back to their defaults.
+   *
+   * @return the configuration passed to the verticles
+   */
+  private JsonObject verticleConfig() {
+
+    JsonObject mongo = new JsonObject()
+        .put("connection_string", environment.getProperty("mongo.connection-string"))
+        .put("db_name", environment.getProperty("mongo.db-name"))
+        .put("maxPoolSize", environment.getProperty("mongo.max-pool-size", Integer.class))
+        .put("minPoolSize", environment.getProperty("mongo.min-pool-size", Integer.class))
+        .put("maxIdleTimeMS", environment.getProperty("mongo.max-idle-time-ms", Long.class))
+        .put("waitQueueTimeoutMS",
+            environment.getProperty("mongo.wait-queue-timeout-ms", Long.class));
+    mongo.getMap().values().removeIf(Objects::isNull);
+    JsonObject productLookup = new JsonObject()
+        .put("batch_size", environment.getProperty("product.lookup.batch-size", Integer.class))
+        .put("max_concurrency",
+            environment.getProperty("product.lookup.max-concurrency", Integer.class))
+        .put("cache_ttl_ms", environment.getProperty("product.lookup.cache-ttl-ms", Long.class))
+        .put("cache_max_entries",
+            environment.getProperty("product.lookup.cache-max-entries", Long.class));
+    productLookup.getMap().values().removeIf(Objects::isNull);
+    JsonObject orderPlacement = new JsonObject()
+        .put("max_attempts", environment.getProperty("order.placement.max-attempts", Integer.class))
+        .put("retry_delay_ms",
+            environment.getProperty("order.placement.retry-delay-ms", Long.class))
+        .put("lease_ms", environment.getProperty("order.placement.lease-ms", Long.class))
+        .put("poll_interval_ms",
+            environment.getProperty("order.placement.poll-interval-ms", Long.class))
+        .put("payment_authorization",
+            environment.getProperty("order.placement.payment-authorization"));
+    orderPlacement.getMap().values().removeIf(Objects::isNull);
+    JsonObject idempotency = new JsonObject()
+        .put("ttl_seconds", environment.getProperty("order.idempotency.ttl-seconds", Long.class))
+        .put("cache_max_entries",
+            environment.getProperty("order.idempotency.cache-max-entries", Long.class))
+        .put("wait_timeout_ms",
+            environment.getProperty("order.idempotency.wait-timeout-ms", Long.class))
+        .put("lease_ms", environment.getProperty("order.idempotency.lease-ms", Long.class));
+    idempotency.getMap().values().removeIf(Objects::isNull);
+    JsonObject circuitBreakers = new JsonObject()
+        .put("product_service", circuitBreaker("product-service"))
+        .put("payment_service", circuitBreaker("payment-service"));
+    return new JsonObject()
+        .put("mongo", mongo)
+        .put("product_lookup", productLookup)
+        .put("order_placement", orderPlacement)
+        .put("idempotency", idempotency)
+        .put("circuit_breakers", circuitBreakers)
+        .put("pincode_csv", environment.getProperty("address.pincode-csv"))
+        .put("http_port", environment.getProperty("server.port", Integer.class, 8084))
+        .put("http_instances", environment.getProperty("order.http.instances", Integer.class, 0));
+  }
+
+  /**
+   * Builds the circuit breaker configuration of a service from the {@code
+   * order.circuit-breaker.<service>} properties.
+   *
+   * @param service the name of the service, such as {@code product-service}
+   * @return the circuit breaker configuration of the service
+   */
+  private JsonObject circuitBreaker(String service) {
+
+    String prefix = "order.circuit-breaker." + service + ".";
+    JsonObject circuitBreaker = new JsonObject()
+        .put("max_failures", environment.getProperty(prefix + "max-failures", Integer.class))
+        .put("timeout_ms", environment.getProperty(prefix + "timeout-ms", Long.class))
+        .put("reset_timeout_ms", environment.getProperty(prefix + "reset-timeout-ms", Long.class))
+        .put("max_concurrent_requests",
+            environment.getProperty(prefix + "max-concurrent-requests", Integer.class));
+    circuitBreaker.getMap().values().removeIf(Objects::isNull);
+    return circuitBreaker;
+  }
 }
@@ -2,46 +2,140 @@ package com.ecommerce.orderservice.config;
 
 import static com.ecommerce.orderservice.constant.ApiConstants.COLLECTION;
 import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ID;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_PLACED_AT;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_PLACED_BY;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_STATS;
+import static com.ecommerce.orderservice.constant.ApiConstants.OUTBOX_NEXT_ATTEMPT_AT;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import io.reactivex.rxjava3.core.Completable;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.mongo.IndexOptions;
+import io.vertx.micrometer.backends.BackendRegistries;
 import io.vertx.rxjava3.core.Vertx;
 import io.vertx.rxjava3.ext.mongo.MongoClient;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The ConfigLoader class provides a configuration utility for establishing a connection
- * to a MongoDB database and setting up an index for a collection.
- * It is used to configure and create a shared MongoClient instance with predefined
- * database connection settings.
- *
- * This class ensures that a MongoClient is properly configured with a specific database URI
- * and database name, and that an index with unique constraints is created for the given collection.
+ * The ConfigLoader class provides the MongoDB configuration of the order verticles.
+ * <p>
+ * The connection settings are read from the {@code mongo} object of the verticle configuration,
+ * falling back to a local database. All clients created with the same configuration share one
+ * connection pool, which is sized by {@code maxPoolSize}, {@code minPoolSize}, {@code
+ * maxIdleTimeMS} and {@code waitQueueTimeoutMS}. When Vert.x metrics are enabled, the pool
+ * publishes its size, checked out connections and checkout wait times.
  */
 public class ConfigLoader {
 
   private static final Logger LOG = LoggerFactory.getLogger(ConfigLoader.class);
-  private static final Vertx vertx = Vertx.currentContext().owner();
-  private static final String DB_URI = "mongodb://localhost:27017";
-  private static final String DB_NAME = "orderDB";
+  private static final String MONGO = "mongo";
+  private static final String DATA_SOURCE_NAME = "orderDB";
+  private static final String DEFAULT_DB_URI = "mongodb://localhost:27017";
+  private static final String DEFAULT_DB_NAME = "orderDB";
+  private static final int DEFAULT_MAX_POOL_SIZE = 50;
+  private static final int DEFAULT_MIN_POOL_SIZE = 5;
+  private static final long DEFAULT_MAX_IDLE_TIME_MS = 60000;
+  private static final long DEFAULT_WAIT_QUEUE_TIMEOUT_MS = 2000;
+
+  private ConfigLoader() {
+  }
+
+  /**
+   * Returns the MongoDB configuration from the {@code mongo} object of a verticle configuration,
+   * with defaults for every missing setting.
+   *
+   * @param config the verticle configuration
+   * @return the MongoDB configuration
+   */
+  public static JsonObject mongoConfig(JsonObject config) {
+
+    JsonObject mongo = config.getJsonObject(MONGO, new JsonObject());
+    return new JsonObject()
+        .put("connection_string", mongo.getString("connection_string", DEFAULT_DB_URI))
+        .put("db_name", mongo.getString("db_name", DEFAULT_DB_NAME))
+        .put("maxPoolSize", mongo.getInteger("maxPoolSize", DEFAULT_MAX_POOL_SIZE))
+        .put("minPoolSize", mongo.getInteger("minPoolSize", DEFAULT_MIN_POOL_SIZE))
+        .put("maxIdleTimeMS", mongo.getLong("maxIdleTimeMS", DEFAULT_MAX_IDLE_TIME_MS))
+        .put("waitQueueTimeoutMS",
+            mongo.getLong("waitQueueTimeoutMS", DEFAULT_WAIT_QUEUE_TIMEOUT_MS));
+  }
 
   /**
-   * Configures and initializes a shared MongoClient instance for interacting with a MongoDB database.
-   * The configuration includes setting up the database connection string, database name,
-   * and creating a unique index for a collection.
+   * Creates a MongoClient on the shared connection pool of the order database. The client is
+   * meant to be created once when a verticle starts and closed when it stops; the pool is closed
+   * with the last client using it.
    *
+   * @param vertx the Vert.x instance of the verticle
+   * @param config the verticle configuration
    * @return a configured instance of MongoClient for interacting with the MongoDB database.
    */
-  public static MongoClient mongoConfig() {
-
-    final JsonObject mongoConfig =
-        new JsonObject().put("connection_string", DB_URI).put("db_name", DB_NAME);
-    LOG.info("MongoClient configured successfully!");
-    JsonObject index = new JsonObject().put(ORDER_ID, UUID.randomUUID().toString());
-    MongoClient mongoClient = MongoClient.createShared(vertx, mongoConfig);
-    mongoClient.createIndexWithOptions(COLLECTION, index, new IndexOptions().unique(true));
-    return mongoClient;
+  public static MongoClient mongoClient(Vertx vertx, JsonObject config) {
+
+    JsonObject mongoConfig = mongoConfig(config);
+    MongoClientSettings.Builder settings =
+        MongoClientSettings.builder()
+            .applyConnectionString(
+                new ConnectionString(mongoConfig.getString("connection_string")))
+            .applyToConnectionPoolSettings(pool -> {
+              pool.maxSize(mongoConfig.getInteger("maxPoolSize"))
+                  .minSize(mongoConfig.getInteger("minPoolSize"))
+                  .maxConnectionIdleTime(mongoConfig.getLong("maxIdleTimeMS"),
+                      TimeUnit.MILLISECONDS)
+                  .maxWaitTime(mongoConfig.getLong("waitQueueTimeoutMS"), TimeUnit.MILLISECONDS);
+              MeterRegistry registry = BackendRegistries.getDefaultNow();
+              if (Objects.nonNull(registry)) {
+                pool.addConnectionPoolListener(new MongoMetricsConnectionPoolListener(registry))
+                    .addConnectionPoolListener(new MongoPoolWaitTimeListener(registry));
+              }
+            });
+    LOG.info("MongoClient configured with a pool of {} connections",
+        mongoConfig.getInteger("maxPoolSize"));
+    return MongoClient.newInstance(io.vertx.ext.mongo.MongoClient.createWithMongoSettings(
+        vertx.getDelegate(), mongoConfig, DATA_SOURCE_NAME, settings.build()));
+  }
+
+  /**
+   * Creates the indexes the order queries rely on. Index creation is idempotent, so this runs
+   * once on every deployment. Orders are listed newest first by placement time and then by ID, so
+   * the listing index and the user and status indexes end with both; they replace the former
+   * indexes, which are dropped. Orders still being placed are found by the time their next
+   * placement step is due, on a sparse index holding only these orders.
+   *
+   * @param mongoClient the client to create the indexes with
+   * @return a Completable that completes when all indexes exist
+   */
+  public static Completable createIndexes(MongoClient mongoClient) {
+
+    return Completable.mergeArray(
+        mongoClient.rxCreateIndexWithOptions(COLLECTION,
+            new JsonObject().put(ORDER_PLACED_AT, -1).put(ORDER_ID, -1),
+            new IndexOptions().name("order_placed_at")),
+        mongoClient.rxCreateIndexWithOptions(COLLECTION,
+            new JsonObject().put(ORDER_PLACED_BY, 1).put(ORDER_PLACED_AT, -1).put(ORDER_ID, -1),
+            new IndexOptions().name("order_placed_by_placed_at")),
+        mongoClient.rxCreateIndexWithOptions(COLLECTION,
+            new JsonObject().put(ORDER_STATS, 1).put(ORDER_PLACED_AT, -1).put(ORDER_ID, -1),
+            new IndexOptions().name("order_status_placed_at")),
+        mongoClient.rxCreateIndexWithOptions(COLLECTION,
+            new JsonObject().put(OUTBOX_NEXT_ATTEMPT_AT, 1),
+            new IndexOptions().name("outbox_next_attempt_at").sparse(true)),
+        dropIndex(mongoClient, "order_placed_by_id"),
+        dropIndex(mongoClient, "order_status_id"),
+        dropIndex(mongoClient, "order_placed_by"),
+        dropIndex(mongoClient, "order_status"));
+  }
+
+  /**
+   * Drops a former index, completing as well when it does not exist.
+   */
+  private static Completable dropIndex(MongoClient mongoClient, String name) {
+
+    return mongoClient.rxDropIndex(COLLECTION, name).onErrorComplete();
   }
 }
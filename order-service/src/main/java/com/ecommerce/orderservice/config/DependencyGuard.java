@@ -0,0 +1,178 @@
+package com.ecommerce.orderservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.vertx.circuitbreaker.CircuitBreaker;
+import io.vertx.circuitbreaker.CircuitBreakerOptions;
+import io.vertx.circuitbreaker.OpenCircuitException;
+import io.vertx.circuitbreaker.TimeoutException;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.backends.BackendRegistries;
+import io.vertx.rxjava3.core.Vertx;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Guards the calls of the order verticles to another service with a circuit breaker, a timeout
+ * and a bulkhead, so that a slow or unavailable service cannot pile up requests in the order
+ * verticles.
+ * <p>
+ * A call that does not complete within {@code timeout_ms} fails. After {@code max_failures}
+ * consecutive failures the circuit opens, and calls fail immediately with an {@link
+ * OpenCircuitException} for {@code reset_timeout_ms}, after which one call is let through to
+ * test the service. At most {@code max_concurrent_requests} calls are in flight, further calls
+ * fail immediately with a {@link RejectedExecutionException}. The guarded calls are the requests
+ * sent to the service, so only unreachable or slow services open the circuit, not the error
+ * responses of a healthy one.
+ * <p>
+ * When Vert.x metrics are enabled, the guard publishes the state of its circuit, its calls in
+ * flight and its calls by outcome, tagged with the name of the service.
+ */
+public class DependencyGuard {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DependencyGuard.class.getName());
+  private static final String CIRCUIT_BREAKERS = "circuit_breakers";
+  private static final int DEFAULT_MAX_FAILURES = 5;
+  private static final long DEFAULT_TIMEOUT_MS = 5000;
+  private static final long DEFAULT_RESET_TIMEOUT_MS = 30000;
+  private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 20;
+  private static final String METRIC_PREFIX = "order.dependency.";
+  private static final String DEPENDENCY_TAG = "dependency";
+
+  private final String name;
+  private final CircuitBreaker circuitBreaker;
+  private final int maxConcurrentRequests;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final MeterRegistry registry;
+
+  private DependencyGuard(String name, CircuitBreaker circuitBreaker, int maxConcurrentRequests) {
+
+    this.name = name;
+    this.circuitBreaker = circuitBreaker;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.registry = BackendRegistries.getDefaultNow();
+    if (Objects.nonNull(registry)) {
+      Gauge.builder(METRIC_PREFIX + "circuit.state", this, DependencyGuard::circuitState)
+           .description("State of the circuit breaker: 0 closed, 1 half open, 2 open")
+           .tag(DEPENDENCY_TAG, name)
+           .register(registry);
+      Gauge.builder(METRIC_PREFIX + "requests.in.flight", inFlight, AtomicInteger::get)
+           .description("Calls to the dependency in flight")
+           .tag(DEPENDENCY_TAG, name)
+           .register(registry);
+    }
+  }
+
+  /**
+   * Creates the guard of a service from the {@code circuit_breakers} object of a verticle
+   * configuration. The guard is meant to be created once and shared by all order verticles
+   * calling the service.
+   *
+   * @param vertx the Vert.x instance
+   * @param name the name of the service, such as {@code product-service}
+   * @param config the verticle configuration
+   * @return the guard of the service
+   */
+  public static DependencyGuard create(Vertx vertx, String name, JsonObject config) {
+
+    JsonObject settings = config.getJsonObject(CIRCUIT_BREAKERS, new JsonObject())
+                                .getJsonObject(name.replace('-', '_'), new JsonObject());
+    CircuitBreakerOptions options = new CircuitBreakerOptions()
+        .setMaxFailures(settings.getInteger("max_failures", DEFAULT_MAX_FAILURES))
+        .setTimeout(settings.getLong("timeout_ms", DEFAULT_TIMEOUT_MS))
+        .setResetTimeout(settings.getLong("reset_timeout_ms", DEFAULT_RESET_TIMEOUT_MS));
+    CircuitBreaker circuitBreaker =
+        CircuitBreaker.create(name, vertx.getDelegate(), options)
+                      .openHandler(v -> LOG.warn("Circuit of {} opened", name))
+                      .halfOpenHandler(v -> LOG.info("Circuit of {} half open", name))
+                      .closeHandler(v -> LOG.info("Circuit of {} closed", name));
+    return new DependencyGuard(name, circuitBreaker,
+        settings.getInteger("max_concurrent_requests", DEFAULT_MAX_CONCURRENT_REQUESTS));
+  }
+
+  /**
+   * Tells whether a call failed without reaching the service, because its circuit is open or
+   * too many calls are in flight.
+   *
+   * @param error the error of the call
+   * @return true when the call was rejected by a guard
+   */
+  public static boolean isRejected(Throwable error) {
+
+    return error instanceof OpenCircuitException || error instanceof RejectedExecutionException;
+  }
+
+  /**
+   * Calls the service through the guard.
+   *
+   * @param command supplies the call to the service, subscribed once the call is let through
+   * @param <T> the type of the result of the call
+   * @return a Single emitting the result of the call, or failing immediately when the call is
+   *         rejected
+   */
+  public <T> Single<T> call(Supplier<Single<T>> command) {
+
+    return Single.defer(() -> {
+      if (inFlight.incrementAndGet() > maxConcurrentRequests) {
+        inFlight.decrementAndGet();
+        count("rejected_full");
+        return Single.error(new RejectedExecutionException(
+            name + " has " + maxConcurrentRequests + " calls in flight"));
+      }
+      Future<T> result = circuitBreaker.execute(promise -> {
+        Disposable call = command.get().subscribe(promise::tryComplete, promise::tryFail);
+        promise.future().onComplete(done -> call.dispose());
+      });
+      return Single.create(emitter -> result.onComplete(ar -> {
+        inFlight.decrementAndGet();
+        if (ar.succeeded()) {
+          count("success");
+          emitter.onSuccess(ar.result());
+        } else {
+          count(outcome(ar.cause()));
+          emitter.onError(ar.cause());
+        }
+      }));
+    });
+  }
+
+  private static String outcome(Throwable error) {
+
+    if (error instanceof OpenCircuitException) {
+      return "rejected_open";
+    }
+    return error instanceof TimeoutException ? "timeout" : "failure";
+  }
+
+  private void count(String outcome) {
+
+    if (Objects.nonNull(registry)) {
+      Counter.builder(METRIC_PREFIX + "calls")
+             .description("Calls to the dependency by outcome")
+             .tag(DEPENDENCY_TAG, name)
+             .tag("outcome", outcome)
+             .register(registry)
+             .increment();
+    }
+  }
+
+  private double circuitState() {
+
+    switch (circuitBreaker.state()) {
+      case CLOSED:
+        return 0;
+      case HALF_OPEN:
+        return 1;
+      default:
+        return 2;
+    }
+  }
+}
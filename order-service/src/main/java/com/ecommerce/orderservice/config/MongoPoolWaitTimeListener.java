@@ -0,0 +1,48 @@
+package com.ecommerce.orderservice.config;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long operations wait to check a connection out of the MongoDB pool in the {@code
+ * mongodb.driver.pool.checkout.wait} timer, tagged with the outcome of the checkout. A growing
+ * wait time means the pool is too small for the load of the order verticles.
+ */
+public class MongoPoolWaitTimeListener implements ConnectionPoolListener {
+
+  private static final String METRIC_NAME = "mongodb.driver.pool.checkout.wait";
+
+  private final Timer checkedOut;
+  private final MeterRegistry registry;
+
+  public MongoPoolWaitTimeListener(MeterRegistry registry) {
+
+    this.registry = registry;
+    this.checkedOut = timer("success");
+  }
+
+  @Override
+  public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+
+    checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+
+    timer(event.getReason().name().toLowerCase())
+        .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+  }
+
+  private Timer timer(String outcome) {
+
+    return Timer.builder(METRIC_NAME)
+                .description("Time waited to check out a connection from the MongoDB pool")
+                .tag("outcome", outcome)
+                .register(registry);
+  }
+}
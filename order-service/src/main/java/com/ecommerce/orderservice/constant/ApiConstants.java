@@ -13,7 +13,7 @@ package com.ecommerce.orderservice.constant;
  * - PRODUCT_ORDER_ENDPOINT: Endpoint for creating or handling product orders.
  * - PAYMENT_ORDER_ENDPOINT: Endpoint for initiating payment processing.
  * - PAYMENT_STATUS_ENDPOINT: Endpoint to check payment status.
- * - PRODUCT_BY_ID_ENDPOINT: Endpoint to fetch product details by ID.
+ * - PRODUCT_LOOKUP_ENDPOINT: Endpoint to look up the details of many products by ID.
  * - PRODUCT_HOST: Hostname for product-related services.
  * - PORT: Port number used for product service connection.
  * - PAYMENT_HOST: Hostname for payment-related services.
@@ -25,11 +25,24 @@ package com.ecommerce.orderservice.constant;
  * - PLACE_ORDER_ENDPOINT: API endpoint to place new orders.
  * - GET_ALL_ORDERS_ENDPOINT: API endpoint to fetch all orders, typically for admins.
  * - GET_ORDERS_BY_USER_ENDPOINT: API endpoint to fetch orders by a specific user.
+ * - GET_ORDER_STATUS_ENDPOINT: API endpoint to poll the status of an order being placed.
  * - UPDATE_ORDER_STATS_ENDPOINT: API endpoint for updating order statuses, exclusively for admins.
  * - UPDATE_ORDER_PAYMENT_STATS_ENDPOINT: Endpoint for updating payment-related statuses of orders.
+ * - RELOAD_PINCODES_ENDPOINT: API endpoint to reload the pincode index, exclusively for admins.
  * - PRODUCT_SERVICE_PAYMENT_FAILURE_URL: URL to handle payment failure scenarios for the product service.
  * - PRODUCT_SERVICE_PAYMENT_SUCCESS_URL: URL to handle payment success scenarios for the product service.
+ * - ORDER_PLACEMENT_ADDRESS: Event bus address of the orders whose placement is to be completed.
  * - STATUS: Generic field identifier for status.
+ * - CURSOR: Query parameter carrying the placement time and ID of the last order of the previous page.
+ * - LIMIT: Query parameter for the maximum number of orders to list.
+ * - FROM: Query parameter for the start of the order date range, inclusive.
+ * - TO: Query parameter for the end of the order date range, exclusive.
+ * - STREAM: Query parameter to stream the whole order listing instead of a page.
+ * - NEXT_CURSOR_HEADER: Response header carrying the cursor of the next page of orders.
+ * - LOCATION_HEADER: Response header carrying the URL to poll the status of a placed order at.
+ * - IDEMPOTENCY_KEY_HEADER: Request header carrying the client key that makes a request idempotent.
+ * - IDEMPOTENT_REPLAYED_HEADER: Response header marking a response replayed for a repeated key.
+ * - RESPONSE_BODY: Routing context key of the response body sent for a request.
  * - ID: Field key representing an identifier.
  * - SET: MongoDB operator used for setting values in documents.
  * - ORDER_ITEMS: Key to reference the collection of individual order items.
@@ -38,13 +51,25 @@ package com.ecommerce.orderservice.constant;
  * - ORDER_PLACED_AT: Timestamp indicating when the order was created.
  * - ORDER_UPDATED_AT: Timestamp indicating when the order was last updated.
  * - PAYMENT_METHOD: Key representing the order payment method.
+ * - TOTAL_AMOUNT: Field for the total amount of an order.
+ * - OUTBOX: Field for the placement work still to do for an order.
+ * - OUTBOX_NEXT_ATTEMPT_AT: Field for the time the next placement step of an order is due.
+ * - PLACEMENT_ERROR: Field for the reason the placement of an order failed.
  * - USERNAME: Field to represent usernames.
+ * - ROLE: Header carrying the role of the authenticated user.
  * - CONTACT: Key to store or reference user contact details.
  * - COLLECTION: Represents the database collection name for storing orders.
+ * - IDEMPOTENCY_COLLECTION: Database collection of the idempotency keys and their responses.
  * - SUCCESS_STATUS_CODE: HTTP status code for successful requests.
  * - ERROR_STATUS_CODE: HTTP status code for server errors.
  * - BAD_REQUEST_STATUS_CODE: HTTP status code for invalid client requests.
+ * - UNAUTHORIZED_STATUS_CODE: HTTP status code for requests lacking the required role.
  * - CREATED_STATUS_CODE: HTTP status code for successful resource creation.
+ * - ACCEPTED_STATUS_CODE: HTTP status code for requests accepted for asynchronous processing.
+ * - NOT_FOUND_STATUS_CODE: HTTP status code for resources that do not exist.
+ * - CONFLICT_STATUS_CODE: HTTP status code for requests conflicting with one in progress.
+ * - UNPROCESSABLE_ENTITY_STATUS_CODE: HTTP status code for idempotency keys reused with another
+ *   request.
  */
 public class ApiConstants {
 
@@ -52,7 +77,7 @@ public class ApiConstants {
   public static final String PRODUCT_ORDER_ENDPOINT = "/products/v1/order";
   public static final String PAYMENT_ORDER_ENDPOINT = "/payments/checkout/";
   public static final String PAYMENT_STATUS_ENDPOINT = "/payments/status/";
-  public static final String PRODUCT_BY_ID_ENDPOINT = "/products/v1/get/";
+  public static final String PRODUCT_LOOKUP_ENDPOINT = "/products/v1/lookup";
   public static final String PRODUCT_HOST = "localhost";
   public static final Integer PORT = 8081;
   public static final String PAYMENT_HOST = "localhost";
@@ -64,11 +89,24 @@ public class ApiConstants {
   public static final String PLACE_ORDER_ENDPOINT = "/orders/place-order";
   public static final String GET_ALL_ORDERS_ENDPOINT = "/orders/all"; // only by admins
   public static final String GET_ORDERS_BY_USER_ENDPOINT = "/orders/get-orders";
+  public static final String GET_ORDER_STATUS_ENDPOINT = "/orders/order-status";
   public static final String UPDATE_ORDER_STATS_ENDPOINT = "/orders"; // only by admins
   public static final String UPDATE_ORDER_PAYMENT_STATS_ENDPOINT = "/orders/update-status"; // only by admins
+  public static final String RELOAD_PINCODES_ENDPOINT = "/orders/admin/pincodes/reload"; // only by admins
   public static final String PRODUCT_SERVICE_PAYMENT_FAILURE_URL = "http://localhost:8081/products/v1/reserved-stocks/release";
   public static final String PRODUCT_SERVICE_PAYMENT_SUCCESS_URL = "http://localhost:8081/products/v1/confirm-stocks/count";
+  public static final String ORDER_PLACEMENT_ADDRESS = "orders.placement";
   public static final String STATUS = "status";
+  public static final String CURSOR = "cursor";
+  public static final String LIMIT = "limit";
+  public static final String FROM = "from";
+  public static final String TO = "to";
+  public static final String STREAM = "stream";
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  public static final String LOCATION_HEADER = "Location";
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+  public static final String RESPONSE_BODY = "response_body";
   public static final String ID = "id";
   public static final String SET = "$set";
   public static final String ORDER_ITEMS = "order_items";
@@ -77,11 +115,22 @@ public class ApiConstants {
   public static final String ORDER_PLACED_AT = "order_placed_at";
   public static final String ORDER_UPDATED_AT = "order_updated_at";
   public static final String PAYMENT_METHOD = "payment_method";
+  public static final String TOTAL_AMOUNT = "total_amount";
+  public static final String OUTBOX = "outbox";
+  public static final String OUTBOX_NEXT_ATTEMPT_AT = "outbox.next_attempt_at";
+  public static final String PLACEMENT_ERROR = "placement_error";
   public static final String USERNAME = "username";
+  public static final String ROLE = "role";
   public static final String CONTACT = "contact";
   public static final String COLLECTION = "orders";
+  public static final String IDEMPOTENCY_COLLECTION = "idempotency_keys";
   public static final Integer SUCCESS_STATUS_CODE = 200;
   public static final Integer ERROR_STATUS_CODE = 500;
   public static final Integer BAD_REQUEST_STATUS_CODE = 400;
+  public static final Integer UNAUTHORIZED_STATUS_CODE = 401;
   public static final Integer CREATED_STATUS_CODE = 201;
+  public static final Integer ACCEPTED_STATUS_CODE = 202;
+  public static final Integer NOT_FOUND_STATUS_CODE = 404;
+  public static final Integer CONFLICT_STATUS_CODE = 409;
+  public static final Integer UNPROCESSABLE_ENTITY_STATUS_CODE = 422;
 }
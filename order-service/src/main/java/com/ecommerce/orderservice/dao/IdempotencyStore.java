@@ -0,0 +1,192 @@
+package com.ecommerce.orderservice.dao;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.IDEMPOTENCY_COLLECTION;
+import static com.ecommerce.orderservice.constant.ApiConstants.SET;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.IndexOptions;
+import io.vertx.rxjava3.core.RxHelper;
+import io.vertx.rxjava3.core.Vertx;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the requests made with an idempotency key and their responses, so that a request
+ * retried with the same key gets the response of the first one instead of being processed again.
+ * <p>
+ * A key is claimed by inserting its record, so that only one request per key is processed even
+ * across instances of the service. The claim is a lease of {@code lease_ms}: a record still
+ * without a response once {@code locked_until} has passed belongs to a request whose instance
+ * stopped, and the next request with the key takes it over. The lease should outlast the longest
+ * request. Records are removed by a TTL index {@code ttl_seconds} after they were created.
+ */
+public class IdempotencyStore {
+
+  private static final String IDEMPOTENCY = "idempotency";
+  private static final long DEFAULT_TTL_SECONDS = 86400;
+  private static final long DEFAULT_LEASE_MS = 30000;
+  private static final long POLL_INTERVAL_MS = 200;
+  private static final String ID = "_id";
+  private static final String REQUEST_HASH = "request_hash";
+  private static final String RESPONSE = "response";
+  private static final String CREATED_AT = "created_at";
+  private static final String LOCKED_UNTIL = "locked_until";
+  // markers of a record without a response and of a released key while polling
+  private static final JsonObject IN_PROGRESS = new JsonObject();
+  private static final JsonObject RELEASED = new JsonObject();
+
+  private final Vertx vertx;
+  private final MongoClient mongoClient;
+  private final long leaseMs;
+
+  public IdempotencyStore(Vertx vertx, MongoClient mongoClient, JsonObject config) {
+
+    this.vertx = vertx;
+    this.mongoClient = mongoClient;
+    this.leaseMs = config.getJsonObject(IDEMPOTENCY, new JsonObject())
+                         .getLong("lease_ms", DEFAULT_LEASE_MS);
+  }
+
+  /**
+   * Creates the TTL index expiring the records.
+   *
+   * @param mongoClient the client to create the index with
+   * @param config the verticle configuration
+   * @return a Completable that completes when the index exists
+   */
+  public static Completable createIndexes(MongoClient mongoClient, JsonObject config) {
+
+    long ttlSeconds = config.getJsonObject(IDEMPOTENCY, new JsonObject())
+                            .getLong("ttl_seconds", DEFAULT_TTL_SECONDS);
+    return mongoClient.rxCreateIndexWithOptions(IDEMPOTENCY_COLLECTION,
+        new JsonObject().put(CREATED_AT, 1),
+        new IndexOptions().name("created_at_ttl").expireAfter(ttlSeconds, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Claims a key for a request.
+   *
+   * @param key the idempotency key, scoped to the endpoint and user
+   * @param requestHash the hash of the request body
+   * @return a Maybe that is empty when the key was claimed, or emits the record of the request
+   *         that claimed it first
+   */
+  public Maybe<JsonObject> claim(String key, String requestHash) {
+
+    Instant now = Instant.now();
+    JsonObject record = new JsonObject().put(ID, key)
+                                        .put(REQUEST_HASH, requestHash)
+                                        .put(CREATED_AT, MongoDates.toDate(now))
+                                        .put(LOCKED_UNTIL, MongoDates.toDate(
+                                            now.plusMillis(leaseMs)));
+    return mongoClient.rxInsert(IDEMPOTENCY_COLLECTION, record)
+                      .ignoreElement()
+                      .<JsonObject>toMaybe()
+                      .onErrorResumeNext(error -> isDuplicateKey(error)
+                          ? takeOver(record, now)
+                          : Maybe.error(error));
+  }
+
+  /**
+   * Takes over a key whose lease expired without a response, which records without a lease are
+   * treated as.
+   *
+   * @return a Maybe that is empty when the key was taken over, or emits the record of the request
+   *         holding it
+   */
+  private Maybe<JsonObject> takeOver(JsonObject record, Instant now) {
+
+    JsonObject query = new JsonObject()
+        .put(ID, record.getString(ID))
+        .put(RESPONSE, new JsonObject().put("$exists", false))
+        .put(LOCKED_UNTIL, new JsonObject().put("$not",
+            new JsonObject().put("$gte", MongoDates.toDate(now))));
+    JsonObject fields = record.copy();
+    fields.remove(ID);
+    JsonObject update = new JsonObject().put(SET, fields);
+    return mongoClient.rxFindOneAndUpdate(IDEMPOTENCY_COLLECTION, query, update)
+                      .isEmpty()
+                      .flatMapMaybe(held -> held
+                          ? mongoClient.rxFindOne(IDEMPOTENCY_COLLECTION,
+                              new JsonObject().put(ID, record.getString(ID)), null)
+                          : Maybe.empty());
+  }
+
+  /**
+   * Stores the response of the request that claimed a key.
+   */
+  public Completable complete(String key, JsonObject response) {
+
+    return mongoClient.rxUpdateCollection(IDEMPOTENCY_COLLECTION, new JsonObject().put(ID, key),
+        new JsonObject().put(SET, new JsonObject().put(RESPONSE, response))).ignoreElement();
+  }
+
+  /**
+   * Releases a key whose request failed, so that it can be retried.
+   */
+  public Completable release(String key) {
+
+    return mongoClient.rxRemoveDocument(IDEMPOTENCY_COLLECTION, new JsonObject().put(ID, key))
+                      .ignoreElement();
+  }
+
+  /**
+   * Waits for the response of the request that claimed a key, polling its record.
+   *
+   * @param key the idempotency key
+   * @param timeoutMs how long to wait for the response
+   * @return a Maybe emitting the response, or empty when the request did not complete in time or
+   *         failed and released the key or its lease
+   */
+  public Maybe<JsonObject> awaitResponse(String key, long timeoutMs) {
+
+    JsonObject query = new JsonObject().put(ID, key);
+    JsonObject fields = new JsonObject().put(RESPONSE, 1).put(LOCKED_UNTIL, 1);
+    long polls = Math.max(1, timeoutMs / POLL_INTERVAL_MS);
+    return Completable.timer(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS, RxHelper.scheduler(vertx))
+                      .andThen(mongoClient.rxFindOne(IDEMPOTENCY_COLLECTION, query, fields))
+                      .map(IdempotencyStore::pollResult)
+                      .defaultIfEmpty(RELEASED)
+                      .repeat(polls)
+                      .filter(response -> response != IN_PROGRESS)
+                      .firstElement()
+                      .filter(response -> response != RELEASED);
+  }
+
+  private static JsonObject pollResult(JsonObject record) {
+
+    JsonObject response = record.getJsonObject(RESPONSE);
+    if (response != null) {
+      return response;
+    }
+    Instant lockedUntil = MongoDates.fromDate(record.getValue(LOCKED_UNTIL));
+    return lockedUntil == null || lockedUntil.isBefore(Instant.now()) ? RELEASED : IN_PROGRESS;
+  }
+
+  /**
+   * Returns the hash of the request body a record was claimed with.
+   */
+  public static String requestHash(JsonObject record) {
+
+    return record.getString(REQUEST_HASH);
+  }
+
+  /**
+   * Returns the response stored in a record, or null while its request is in progress.
+   */
+  public static JsonObject response(JsonObject record) {
+
+    return record.getJsonObject(RESPONSE);
+  }
+
+  private static boolean isDuplicateKey(Throwable error) {
+
+    return error instanceof MongoWriteException
+        && ((MongoWriteException) error).getError().getCategory() == ErrorCategory.DUPLICATE_KEY;
+  }
+}
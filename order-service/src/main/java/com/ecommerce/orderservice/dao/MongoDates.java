@@ -0,0 +1,30 @@
+package com.ecommerce.orderservice.dao;
+
+import io.vertx.core.json.JsonObject;
+import java.time.Instant;
+
+/**
+ * Converts between instants and the {@code $date} objects the MongoDB client reads and writes
+ * BSON dates as.
+ */
+final class MongoDates {
+
+  private static final String DATE = "$date";
+
+  private MongoDates() {
+  }
+
+  static JsonObject toDate(Instant instant) {
+
+    return new JsonObject().put(DATE, instant.toString());
+  }
+
+  /**
+   * Returns the instant of a date read from MongoDB, or null for a value that is not a date, such
+   * as a timestamp not yet migrated from a string.
+   */
+  static Instant fromDate(Object date) {
+
+    return date instanceof JsonObject ? ((JsonObject) date).getInstant(DATE) : null;
+  }
+}
@@ -1,8 +1,11 @@
 package com.ecommerce.orderservice.dao;
 
+import com.ecommerce.orderservice.payload.request.order.OrderQuery;
 import com.ecommerce.orderservice.payload.request.order.OrderRequest;
+import com.ecommerce.orderservice.payload.response.OrderPage;
 import com.ecommerce.orderservice.payload.response.OrderResponse;
 import com.ecommerce.orderservice.payload.response.OrderResponseList;
+import io.reactivex.rxjava3.core.Flowable;
 import io.vertx.core.Future;
 import io.vertx.rxjava3.ext.mongo.MongoClient;
 import java.util.List;
@@ -10,14 +13,18 @@ import java.util.List;
 public interface OrderDao {
 
   Future<OrderResponse> saveOrder(MongoClient mongoClient, OrderRequest orderRequest,
-                                  String username, String contactNumber, String token);
+                                  String username, String contactNumber);
+
+  Future<OrderResponse> getOrderStatus(MongoClient mongoClient, String orderId, String username);
 
   Future<OrderResponse> updateOrder(MongoClient mongoClient, String orderId, String orderStatus);
 
   Future<OrderResponse> updateOrderStats(MongoClient mongoClient, String orderId,
                                          String paymentStatus, String paymentMethod);
 
-  Future<List<OrderResponseList>> getAllOrders(MongoClient mongoClient);
+  Future<OrderPage> getAllOrders(MongoClient mongoClient, OrderQuery query);
+
+  Flowable<OrderResponseList> streamAllOrders(MongoClient mongoClient, OrderQuery query);
 
   Future<List<OrderResponseList>> getOrdersByUsername(MongoClient mongoClient, String username);
 }
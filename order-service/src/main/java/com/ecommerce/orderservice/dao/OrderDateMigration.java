@@ -0,0 +1,103 @@
+package com.ecommerce.orderservice.dao;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.COLLECTION;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ID;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_PLACED_AT;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_UPDATED_AT;
+import static com.ecommerce.orderservice.constant.ApiConstants.SET;
+
+import io.reactivex.rxjava3.core.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.stream.Collectors;
+
+/**
+ * Migrates the timestamps of orders stored as {@code dd/MM/yyyy hh:mm:ss a} strings to BSON dates,
+ * so that orders can be filtered and sorted by date in MongoDB.
+ * <p>
+ * The strings were written in the time zone of the server, which is assumed to be unchanged.
+ * Orders are migrated in pages of {@code PAGE_SIZE}, each rewritten with one bulk write. A
+ * timestamp that cannot be parsed is replaced by the creation time held by the order ID.
+ */
+public class OrderDateMigration {
+
+  private static final int PAGE_SIZE = 500;
+  private static final DateTimeFormatter LEGACY_FORMATTER =
+      DateTimeFormatter.ofPattern("dd/MM/yyyy hh:mm:ss a");
+  private static final JsonObject WITH_STRING_DATES = new JsonObject().put("$or", new JsonArray()
+      .add(new JsonObject().put(ORDER_PLACED_AT, new JsonObject().put("$type", "string")))
+      .add(new JsonObject().put(ORDER_UPDATED_AT, new JsonObject().put("$type", "string"))));
+
+  private final MongoClient mongoClient;
+
+  public OrderDateMigration(MongoClient mongoClient) {
+
+    this.mongoClient = mongoClient;
+  }
+
+  /**
+   * Migrates all orders that still have a timestamp stored as a string.
+   *
+   * @return a Single emitting the number of orders migrated
+   */
+  public Single<Integer> run() {
+
+    return migratePage().repeat()
+                        .takeUntil(count -> count < PAGE_SIZE)
+                        .reduce(0, Integer::sum);
+  }
+
+  private Single<Integer> migratePage() {
+
+    FindOptions options = new FindOptions().setLimit(PAGE_SIZE)
+                                           .setFields(new JsonObject().put(ORDER_PLACED_AT, 1)
+                                                                      .put(ORDER_UPDATED_AT, 1));
+    return mongoClient.rxFindWithOptions(COLLECTION, WITH_STRING_DATES, options)
+                      .flatMap(orders -> {
+                        if (orders.isEmpty()) {
+                          return Single.just(0);
+                        }
+                        return mongoClient.rxBulkWrite(COLLECTION,
+                                              orders.stream()
+                                                    .map(OrderDateMigration::dateUpdate)
+                                                    .collect(Collectors.toList()))
+                                          .ignoreElement()
+                                          .toSingleDefault(orders.size());
+                      });
+  }
+
+  private static BulkOperation dateUpdate(JsonObject order) {
+
+    String orderId = order.getString(ORDER_ID);
+    JsonObject dates = new JsonObject();
+    for (String field : new String[] {ORDER_PLACED_AT, ORDER_UPDATED_AT}) {
+      Object value = order.getValue(field);
+      if (value instanceof String) {
+        dates.put(field, MongoDates.toDate(parseLegacy((String) value, orderId)));
+      }
+    }
+    return BulkOperation.createUpdate(new JsonObject().put(ORDER_ID, orderId),
+        new JsonObject().put(SET, dates));
+  }
+
+  private static Instant parseLegacy(String value, String orderId) {
+
+    try {
+      return LocalDateTime.parse(value, LEGACY_FORMATTER)
+                          .atZone(ZoneId.systemDefault())
+                          .toInstant();
+    } catch (DateTimeParseException exception) {
+      return orderId != null && orderId.matches("[0-9a-f]{24}")
+          ? Instant.ofEpochSecond(Long.parseLong(orderId.substring(0, 8), 16))
+          : Instant.EPOCH;
+    }
+  }
+}
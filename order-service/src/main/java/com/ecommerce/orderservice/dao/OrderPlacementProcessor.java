@@ -0,0 +1,521 @@
+package com.ecommerce.orderservice.dao;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.AUTH_HEADER;
+import static com.ecommerce.orderservice.constant.ApiConstants.COLLECTION;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ID;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ITEMS;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_STATS;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_UPDATED_AT;
+import static com.ecommerce.orderservice.constant.ApiConstants.OUTBOX;
+import static com.ecommerce.orderservice.constant.ApiConstants.OUTBOX_NEXT_ATTEMPT_AT;
+import static com.ecommerce.orderservice.constant.ApiConstants.PAYMENT_HOST;
+import static com.ecommerce.orderservice.constant.ApiConstants.PAYMENT_ORDER_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.PAYMENT_STATUS_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.PLACEMENT_ERROR;
+import static com.ecommerce.orderservice.constant.ApiConstants.PORT;
+import static com.ecommerce.orderservice.constant.ApiConstants.PRODUCT_HOST;
+import static com.ecommerce.orderservice.constant.ApiConstants.PRODUCT_ORDER_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.PRODUCT_SERVICE_PAYMENT_FAILURE_URL;
+import static com.ecommerce.orderservice.constant.ApiConstants.SET;
+import static com.ecommerce.orderservice.constant.ApiConstants.SUCCESS_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.TOTAL_AMOUNT;
+
+import com.ecommerce.orderservice.config.DependencyGuard;
+import com.ecommerce.orderservice.exception.ClientInputException;
+import com.ecommerce.orderservice.payload.request.order.OrderItemRequest;
+import com.ecommerce.orderservice.payload.request.order.OrderStatus;
+import com.ecommerce.orderservice.payload.request.payment.PaymentRequest;
+import com.ecommerce.orderservice.payload.request.payment.PaymentStatus;
+import com.ecommerce.orderservice.payload.response.PaymentResponse;
+import com.ecommerce.orderservice.payload.response.ProductResponse;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.UpdateOptions;
+import io.vertx.rxjava3.core.Promise;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
+import io.vertx.rxjava3.ext.web.client.HttpRequest;
+import io.vertx.rxjava3.ext.web.client.WebClient;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Completes the placement of the orders accepted by the order API. A placed order is saved as
+ * PENDING together with its outbox, the record of the placement work still to do, in one document
+ * write; the processor then takes the order through the steps of the outbox: pricing the order
+ * lines, reserving their stock in product-service, creating the payment in payment-service and
+ * reading the payment status, after which the outbox is removed and the order gets its status.
+ * <p>
+ * An order is processed by whoever claims its outbox, which moves {@code next_attempt_at} a lease
+ * of {@code lease_ms} into the future, so that each order is processed by one worker at a time
+ * and an order whose worker stopped is picked up again once the lease expires. A failed step is
+ * retried after {@code retry_delay_ms}, doubled on every attempt, up to {@code max_attempts}
+ * times. An order that cannot be completed is compensated by releasing its reserved stock and
+ * marked as failed, with the reason in {@code placement_error}.
+ * <p>
+ * The calls that change another service are keyed by the order id, so a step whose outcome is
+ * unknown after a timeout, a transport error or a worker that stopped is simply repeated.
+ * product-service records the order lines it has reserved stock for, skips the lines an order
+ * has already reserved, and releases only the lines an order has reserved, so compensation never
+ * releases stock the order did not hold. payment-service returns the payment it has already
+ * created for an order instead of creating another.
+ * <p>
+ * No customer credentials are stored with the outbox. The calls to payment-service carry the
+ * service credential configured as {@code payment_authorization}, if any.
+ * <p>
+ * The calls to product-service and payment-service go through their {@link DependencyGuard}. A
+ * step rejected because the circuit of its service is open or the service has too many calls in
+ * flight is postponed by {@code retry_delay_ms} without counting as an attempt, so that orders
+ * are not failed while a service recovers. When the payment status cannot be read for that
+ * reason, the order falls back to AWAITING_PAYMENT right away and its payment is left to the
+ * payment webhook.
+ */
+public class OrderPlacementProcessor {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OrderPlacementProcessor.class.getName());
+  private static final String ORDER_PLACEMENT = "order_placement";
+  private static final int DEFAULT_MAX_ATTEMPTS = 5;
+  private static final long DEFAULT_RETRY_DELAY_MS = 2000;
+  private static final long DEFAULT_LEASE_MS = 60000;
+  private static final int POLL_BATCH_SIZE = 100;
+  private static final int MAX_CONCURRENCY = 4;
+  // fields of the outbox
+  private static final String STEP = "step";
+  private static final String ATTEMPTS = "attempts";
+  private static final String NEXT_ATTEMPT_AT = "next_attempt_at";
+  private static final String ORDER_ID_PARAM = "order_id";
+  private static final String LAST_ERROR = "last_error";
+
+  /**
+   * The steps of an order placement, in the order they run.
+   */
+  private enum Step {
+    PRICE_ORDER, RESERVE_STOCK, CREATE_PAYMENT, CONFIRM_PAYMENT
+  }
+
+  private final MongoClient mongoClient;
+  private final WebClient webClient;
+  private final ProductCatalogClient productCatalogClient;
+  private final DependencyGuard productService;
+  private final DependencyGuard paymentService;
+  private final int maxAttempts;
+  private final long retryDelayMs;
+  private final long leaseMs;
+  private final String paymentAuthorization;
+
+  public OrderPlacementProcessor(MongoClient mongoClient, WebClient webClient,
+                                 ProductCatalogClient productCatalogClient,
+                                 DependencyGuard productService, DependencyGuard paymentService,
+                                 JsonObject config) {
+
+    JsonObject placement = config.getJsonObject(ORDER_PLACEMENT, new JsonObject());
+    this.mongoClient = mongoClient;
+    this.webClient = webClient;
+    this.productCatalogClient = productCatalogClient;
+    this.productService = productService;
+    this.paymentService = paymentService;
+    this.maxAttempts = placement.getInteger("max_attempts", DEFAULT_MAX_ATTEMPTS);
+    this.retryDelayMs = placement.getLong("retry_delay_ms", DEFAULT_RETRY_DELAY_MS);
+    this.leaseMs = placement.getLong("lease_ms", DEFAULT_LEASE_MS);
+    this.paymentAuthorization = placement.getString("payment_authorization");
+  }
+
+  /**
+   * Creates the outbox saved with a newly placed order, due immediately.
+   *
+   * @return the outbox of the order
+   */
+  static JsonObject newOutbox() {
+
+    return new JsonObject().put(STEP, Step.PRICE_ORDER.name())
+                           .put(ATTEMPTS, 0)
+                           .put(NEXT_ATTEMPT_AT, MongoDates.toDate(Instant.now()));
+  }
+
+  /**
+   * Processes the placement of an order if it is due and not claimed by another worker.
+   *
+   * @param orderId the ID of the order
+   * @return a Completable that completes once the order is placed, failed or scheduled for a retry
+   */
+  public Completable process(String orderId) {
+
+    return claim(orderId).flatMapCompletable(this::advance);
+  }
+
+  /**
+   * Processes the orders whose placement is due: orders whose step is to be retried, and orders
+   * whose worker stopped before completing them.
+   *
+   * @return a Completable that completes once the due orders are processed
+   */
+  public Completable processDue() {
+
+    JsonObject due = new JsonObject().put(OUTBOX_NEXT_ATTEMPT_AT,
+        new JsonObject().put("$lte", MongoDates.toDate(Instant.now())));
+    FindOptions options = new FindOptions().setFields(new JsonObject().put(ORDER_ID, 1))
+                                           .setLimit(POLL_BATCH_SIZE);
+    return mongoClient.rxFindWithOptions(COLLECTION, due, options)
+                      .flattenAsFlowable(orders -> orders)
+                      .flatMapCompletable(order -> process(order.getString(ORDER_ID))
+                          .doOnError(error -> LOG.error("Failed to process order {}: {}",
+                              order.getString(ORDER_ID), error.getMessage()))
+                          .onErrorComplete(), false, MAX_CONCURRENCY);
+  }
+
+  /**
+   * Claims the outbox of an order for one lease.
+   *
+   * @return a Maybe emitting the claimed order, or empty when it is not due
+   */
+  private Maybe<JsonObject> claim(String orderId) {
+
+    Instant now = Instant.now();
+    JsonObject query = new JsonObject()
+        .put(ORDER_ID, orderId)
+        .put(OUTBOX_NEXT_ATTEMPT_AT, new JsonObject().put("$lte", MongoDates.toDate(now)));
+    JsonObject update = new JsonObject().put(SET, new JsonObject()
+        .put(OUTBOX_NEXT_ATTEMPT_AT, MongoDates.toDate(now.plusMillis(leaseMs))));
+    return mongoClient.rxFindOneAndUpdateWithOptions(COLLECTION, query, update, new FindOptions(),
+        new UpdateOptions().setReturningNewDocument(true));
+  }
+
+  /**
+   * Runs the current step of a claimed order and then the following steps, until the order is
+   * complete or a step fails.
+   */
+  private Completable advance(JsonObject order) {
+
+    Step step = Step.valueOf(order.getJsonObject(OUTBOX).getString(STEP));
+    return runStep(step, order)
+        .onErrorResumeNext(error -> handleFailure(order, step, error)
+            .andThen(Maybe.<JsonObject>empty()))
+        .flatMapCompletable(this::advance);
+  }
+
+  /**
+   * Runs one step of an order.
+   *
+   * @return a Maybe emitting the order at its next step, or empty when the order is complete
+   */
+  private Maybe<JsonObject> runStep(Step step, JsonObject order) {
+
+    String orderId = order.getString(ORDER_ID);
+    switch (step) {
+      case PRICE_ORDER:
+        return priceOrder(order);
+      case RESERVE_STOCK:
+        return toSingle(validateProducts(orderId, orderItems(order)))
+            .flatMapMaybe(items -> nextStep(order, step, new JsonObject()));
+      case CREATE_PAYMENT:
+        return toSingle(processPayment(orderId, paymentRequest(order)))
+            .flatMapMaybe(payment -> nextStep(order, step, new JsonObject()));
+      default:
+        return toSingle(fetchPaymentStatusFromDb(orderId))
+            .flatMapCompletable(paymentStatus -> complete(order, step,
+                PaymentStatus.SUCCESS.name().equalsIgnoreCase(paymentStatus)
+                    ? OrderStatus.CONFIRMED : OrderStatus.AWAITING_PAYMENT, null))
+            .andThen(Maybe.<JsonObject>empty());
+    }
+  }
+
+  /**
+   * Records the product snapshot of every order line, as in {@link
+   * OrderItemRequest#applySnapshot}, and the total amount of the order.
+   */
+  private Maybe<JsonObject> priceOrder(JsonObject order) {
+
+    List<OrderItemRequest> orderItems = orderItems(order);
+    List<Integer> productIds = orderItems.stream()
+                                         .map(OrderItemRequest::getProductId)
+                                         .collect(Collectors.toList());
+    return productCatalogClient.fetchProducts(productIds).flatMapMaybe(products -> {
+      float totalAmount = 0;
+      JsonArray pricedItems = new JsonArray();
+      for (OrderItemRequest item : orderItems) {
+        ProductResponse product = products.get(item.getProductId());
+        if (product == null) {
+          return Maybe.error(
+              new ClientInputException("Product not found with id: " + item.getProductId()));
+        }
+        item.applySnapshot(product);
+        totalAmount += product.getTotalPrice() * item.getQuantity();
+        pricedItems.add(JsonObject.mapFrom(item));
+      }
+      return nextStep(order, Step.PRICE_ORDER,
+          new JsonObject().put(ORDER_ITEMS, pricedItems).put(TOTAL_AMOUNT, totalAmount));
+    });
+  }
+
+  /**
+   * Moves a claimed order from a step to the next one, keeping the claim.
+   *
+   * @param fields the results of the step to store with the order
+   * @return a Maybe emitting the order at its next step, or empty when the claim was lost
+   */
+  private Maybe<JsonObject> nextStep(JsonObject order, Step step, JsonObject fields) {
+
+    JsonObject update = new JsonObject().put(SET, fields.copy()
+        .put(OUTBOX + "." + STEP, Step.values()[step.ordinal() + 1].name())
+        .put(OUTBOX + "." + ATTEMPTS, 0));
+    return mongoClient.rxFindOneAndUpdateWithOptions(COLLECTION, atStep(order, step), update,
+        new FindOptions(), new UpdateOptions().setReturningNewDocument(true));
+  }
+
+  /**
+   * Completes the placement of an order by removing its outbox and setting its final status. The
+   * status is only set while the order is PENDING, as the payment webhook may have already
+   * updated it.
+   */
+  private Completable complete(JsonObject order, Step step, OrderStatus status, String error) {
+
+    JsonObject fields = new JsonObject().put(ORDER_STATS, status.name())
+                                        .put(ORDER_UPDATED_AT, MongoDates.toDate(Instant.now()));
+    if (error != null) {
+      fields.put(PLACEMENT_ERROR, error);
+    }
+    JsonObject removeOutbox = new JsonObject().put("$unset", new JsonObject().put(OUTBOX, ""));
+    JsonObject update = removeOutbox.copy().put(SET, fields);
+    JsonObject pending = atStep(order, step).put(ORDER_STATS, OrderStatus.PENDING.name());
+    return mongoClient.rxUpdateCollection(COLLECTION, pending, update)
+                      .flatMapCompletable(result -> result.getDocMatched() > 0
+                          ? Completable.complete()
+                          : mongoClient.rxUpdateCollection(COLLECTION, atStep(order, step),
+                              removeOutbox).ignoreElement());
+  }
+
+  /**
+   * Schedules a failed step for a retry, or fails the order once it cannot be completed.
+   */
+  private Completable handleFailure(JsonObject order, Step step, Throwable error) {
+
+    String orderId = order.getString(ORDER_ID);
+    int attempts = order.getJsonObject(OUTBOX).getInteger(ATTEMPTS, 0) + 1;
+    if (DependencyGuard.isRejected(error)) {
+      LOG.warn("Placement of order {} postponed at {}: {}", orderId, step, error.getMessage());
+      return scheduleRetry(order, step, attempts - 1, retryDelayMs, error);
+    }
+    if (error instanceof ClientInputException || attempts >= maxAttempts) {
+      LOG.error("Placement of order {} failed at {} after {} attempts: {}", orderId, step,
+          attempts, error.getMessage());
+      if (step == Step.CONFIRM_PAYMENT) {
+        // the payment exists, its outcome is left to the payment webhook
+        return complete(order, step, OrderStatus.AWAITING_PAYMENT, null);
+      }
+      OrderStatus status = step == Step.CREATE_PAYMENT
+          ? OrderStatus.PAYMENT_FAILED : OrderStatus.PLACEMENT_FAILED;
+      return compensate(order, step)
+          .andThen(complete(order, step, status, error.getMessage()))
+          .onErrorResumeNext(compensationError ->
+              scheduleRetry(order, step, attempts, backoff(attempts), compensationError));
+    }
+    LOG.warn("Placement of order {} failed at {}, attempt {} of {}: {}", orderId, step, attempts,
+        maxAttempts, error.getMessage());
+    return scheduleRetry(order, step, attempts, backoff(attempts), error);
+  }
+
+  private long backoff(int attempts) {
+
+    return retryDelayMs << Math.min(attempts - 1, 16);
+  }
+
+  private Completable scheduleRetry(JsonObject order, Step step, int attempts, long delay,
+                                    Throwable error) {
+
+    JsonObject update = new JsonObject().put(SET, new JsonObject()
+        .put(OUTBOX + "." + ATTEMPTS, attempts)
+        .put(OUTBOX_NEXT_ATTEMPT_AT, MongoDates.toDate(Instant.now().plusMillis(delay)))
+        .put(OUTBOX + "." + LAST_ERROR, String.valueOf(error.getMessage())));
+    return mongoClient.rxUpdateCollection(COLLECTION, atStep(order, step), update)
+                      .ignoreElement();
+  }
+
+  /**
+   * Releases the stock reserved for an order, if its reservation was started. product-service
+   * only releases the lines the order has reserved, so a reservation that failed part way or
+   * never applied is released correctly too.
+   */
+  private Completable compensate(JsonObject order, Step step) {
+
+    if (step == Step.PRICE_ORDER) {
+      return Completable.complete();
+    }
+    String orderId = order.getString(ORDER_ID);
+    LOG.info("*** Calling product-service to release the stock of order {} ***", orderId);
+    List<OrderItemRequest> orderItems = orderItems(order);
+    return productService.call(() -> webClient.postAbs(PRODUCT_SERVICE_PAYMENT_FAILURE_URL)
+                                              .addQueryParam(ORDER_ID_PARAM, orderId)
+                                              .rxSendJson(orderItems))
+                         .flatMapCompletable(response ->
+                             response.statusCode() == SUCCESS_STATUS_CODE
+                                 ? Completable.complete()
+                                 : Completable.error(new IllegalStateException(
+                                     "Failed to release stock: " + response.bodyAsString())));
+  }
+
+  /**
+   * Adds the configured service credential of order-service to a request to payment-service.
+   */
+  private <T> HttpRequest<T> authorized(HttpRequest<T> request) {
+
+    return paymentAuthorization == null || paymentAuthorization.isEmpty()
+        ? request : request.putHeader(AUTH_HEADER, paymentAuthorization);
+  }
+
+  private static PaymentRequest paymentRequest(JsonObject order) {
+
+    PaymentRequest paymentRequest = new PaymentRequest();
+    paymentRequest.setPaymentDate(LocalDateTime.now());
+    paymentRequest.setTotalAmount(order.getFloat(TOTAL_AMOUNT));
+    return paymentRequest;
+  }
+
+  private static JsonObject atStep(JsonObject order, Step step) {
+
+    return new JsonObject().put(ORDER_ID, order.getString(ORDER_ID))
+                           .put(OUTBOX + "." + STEP, step.name());
+  }
+
+  private static List<OrderItemRequest> orderItems(JsonObject order) {
+
+    JsonArray items = order.getJsonArray(ORDER_ITEMS, new JsonArray());
+    List<OrderItemRequest> orderItems = new ArrayList<>(items.size());
+    for (int i = 0; i < items.size(); i++) {
+      orderItems.add(items.getJsonObject(i).mapTo(OrderItemRequest.class));
+    }
+    return orderItems;
+  }
+
+  /**
+   * Validates a list of order items by invoking the product-service, which reserves their stock.
+   * Ensures that the provided order items meet the necessary criteria. The reservation is keyed
+   * by the order id, so repeating it does not reserve the stock twice.
+   *
+   * @param orderId the ID of the order the stock is reserved for
+   * @param orderItems the list of {@link OrderItemRequest} to be validated
+   * @return a {@link Future} containing the validated list of {@link OrderItemRequest} if
+   *         successful, or a failure if validation fails; a {@link ClientInputException} when
+   *         product-service rejected the items
+   */
+  private Future<List<OrderItemRequest>> validateProducts(String orderId,
+                                                          List<OrderItemRequest> orderItems) {
+
+    Promise<List<OrderItemRequest>> promise = Promise.promise();
+    LOG.info("*** Calling product-service to validate the products ***");
+
+    productService.call(() -> webClient.put(PORT, PRODUCT_HOST, PRODUCT_ORDER_ENDPOINT)
+                                       .addQueryParam(ORDER_ID_PARAM, orderId)
+                                       .rxSendJson(orderItems)).subscribe(ar -> {
+      if (ar.statusCode() == SUCCESS_STATUS_CODE) {
+        promise.complete(orderItems);
+      } else {
+        LOG.error("Some error occurred in product-service: {}", ar.bodyAsString());
+        promise.fail(new ClientInputException("Unable to reserve stock: " + ar.bodyAsString()));
+      }
+    }, throwable -> {
+      LOG.error("Request to product-service failed", throwable);
+      promise.fail(throwable);
+    });
+
+    return promise.future();
+  }
+
+  /**
+   * Processes a payment for a specific order by communicating with the payment service.
+   * Sends a payment request to the payment service and retrieves a payment response.
+   * If the payment is successful, the future is completed with the payment response,
+   * otherwise, it fails with the appropriate error details.
+   *
+   * @param orderId the unique identifier of the order for which payment is to be processed
+   * @param paymentRequest the payment request containing details such as the total amount and payment date
+   * @return a future representing the asynchronous result of the payment processing;
+   *         contains a {@link PaymentResponse} if successful, otherwise the future fails
+   */
+  private Future<PaymentResponse> processPayment(String orderId, PaymentRequest paymentRequest) {
+
+    Promise<PaymentResponse> promise = Promise.promise();
+    LOG.info("*** Calling payment-service to do the payment ***");
+
+    paymentService.call(() -> authorized(
+                      webClient.post(PORT, PAYMENT_HOST, PAYMENT_ORDER_ENDPOINT + orderId))
+                      .rxSendJson(paymentRequest)).subscribe(ar -> {
+      if (ar.statusCode() == SUCCESS_STATUS_CODE) {
+        PaymentResponse paymentResponse = ar.bodyAsJsonObject().mapTo(PaymentResponse.class);
+        promise.complete(paymentResponse);
+      } else {
+        LOG.error("Some error occurred in payment-service for orderId: {}", orderId);
+        promise.fail(ar.bodyAsString());
+      }
+    }, throwable -> {
+      LOG.error("Request to payment-service failed", throwable);
+      promise.fail(throwable);
+    });
+
+    return promise.future();
+  }
+
+  /**
+   * Fetches the payment status for a specific order from the payment service
+   * and logs the result. If successful, it resolves with the payment status.
+   * Otherwise, it resolves with an appropriate failure message in case of an error.
+   *
+   * @param orderId The unique identifier of the order whose payment status needs to be fetched.
+   * @return A Future that resolves with the payment status on success, or an error message on failure.
+   *         Resolves with PENDING when the call is rejected by the guard of payment-service.
+   */
+  private Future<String> fetchPaymentStatusFromDb(String orderId) {
+    Promise<String> promise = Promise.promise();
+    paymentService.call(() -> authorized(
+                      webClient.get(PORT, PAYMENT_HOST, PAYMENT_STATUS_ENDPOINT + orderId))
+                      .rxSend()).subscribe(response -> {
+      if (response.statusCode() == SUCCESS_STATUS_CODE) {
+        String status = response.bodyAsString();
+        LOG.info("Received payment status: {}", status);
+        promise.complete(status);
+      } else {
+        LOG.error("Error from payment service: {}", response.bodyAsString());
+        promise.fail("Failed to fetch status");
+      }
+    }, err -> {
+      if (DependencyGuard.isRejected(err)) {
+        LOG.warn("Payment status of order {} unavailable: {}", orderId, err.getMessage());
+        promise.complete(PaymentStatus.PENDING.name());
+        return;
+      }
+      LOG.error("Exception while fetching status", err);
+      promise.fail(err);
+    });
+    return promise.future();
+  }
+
+  /**
+   * Converts a {@code Future} into a {@code Single}. This method bridges Vert.x {@code Future}
+   * with RxJava {@code Single} for reactive programming.
+   *
+   * @param future the {@code Future} to be converted into a {@code Single}
+   * @param <T> the type of the result contained in the {@code Future} and {@code Single}
+   * @return a {@code Single} that represents the result of the given {@code Future},
+   *         emitting success when the future succeeds or an error when the future fails
+   */
+  public static <T> Single<T> toSingle(Future<T> future) {
+    return Single.create(emitter ->
+        future.onComplete(ar -> {
+          if (ar.succeeded()) {
+            emitter.onSuccess(ar.result());
+          } else {
+            emitter.onError(ar.cause());
+          }
+        })
+    );
+  }
+}
@@ -0,0 +1,205 @@
+package com.ecommerce.orderservice.dao;
+
+import io.reactivex.rxjava3.core.Single;
+import io.vertx.rxjava3.core.Vertx;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of the valid (pincode, district, state) combinations used to validate order
+ * addresses.
+ * <p>
+ * The index is read from the address metadata CSV on a worker thread, once at startup and again
+ * on every reload requested by an admin. District and state names are interned to small integer
+ * IDs and every 6-digit pincode owns one slot of a flat {@code int} array holding its packed
+ * (district ID, state ID) pair. The few pincodes that span several districts keep their other
+ * pairs in a sorted overflow array. A lookup therefore reads one array slot, falls back to a binary
+ * search only for those pincodes, and compares names case-insensitively without allocating.
+ */
+public class PincodeIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PincodeIndex.class.getName());
+
+  private static final int MIN_PINCODE = 100000;
+  private static final int MAX_PINCODE = 999999;
+
+  private final Path csvPath;
+
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  public PincodeIndex(String csvPath) {
+
+    this.csvPath = Paths.get(csvPath);
+  }
+
+  /**
+   * Checks whether the given pincode belongs to the given district and state, ignoring case.
+   *
+   * @param pincode the postal code of the address
+   * @param district the district name of the address
+   * @param state the state name of the address
+   * @return true if the combination exists in the address metadata, false otherwise
+   */
+  public boolean isValid(Long pincode, String district, String state) {
+
+    return snapshot.isValid(pincode, district, state);
+  }
+
+  /**
+   * Reads the address metadata CSV on a worker thread and replaces the index once it has been
+   * read completely. Lookups keep using the previous index until then.
+   *
+   * @param vertx the Vert.x instance whose worker pool reads the file
+   * @return a Single emitting the number of pincodes in the new index
+   */
+  public Single<Integer> load(Vertx vertx) {
+
+    return vertx.rxExecuteBlocking(() -> Snapshot.read(csvPath))
+                .toSingle()
+                .map(loaded -> {
+                  snapshot = loaded;
+                  LOG.info("Pincode index loaded with {} pincodes, {} districts and {} states",
+                      loaded.pincodeCount, loaded.districts.length - 1, loaded.states.length - 1);
+                  return loaded.pincodeCount;
+                });
+  }
+
+  /**
+   * An immutable version of the index.
+   */
+  private static final class Snapshot {
+
+    private static final Snapshot EMPTY =
+        new Snapshot(new int[0], new int[0], new int[0], new String[1], new String[1], 0);
+
+    /** Packed (district ID, state ID) pair per pincode, 0 if the pincode is unknown. */
+    private final int[] locations;
+    /** Slots of the pincodes with more than one pair, sorted. */
+    private final int[] overflowSlots;
+    /** The additional pairs, in the order of {@code overflowSlots}. */
+    private final int[] overflowLocations;
+    /** District names by ID, starting at ID 1. */
+    private final String[] districts;
+    /** State names by ID, starting at ID 1. */
+    private final String[] states;
+    private final int pincodeCount;
+
+    private Snapshot(int[] locations, int[] overflowSlots, int[] overflowLocations,
+                     String[] districts, String[] states, int pincodeCount) {
+
+      this.locations = locations;
+      this.overflowSlots = overflowSlots;
+      this.overflowLocations = overflowLocations;
+      this.districts = districts;
+      this.states = states;
+      this.pincodeCount = pincodeCount;
+    }
+
+    private boolean isValid(Long pincode, String district, String state) {
+
+      if (pincode == null || district == null || state == null || pincode < MIN_PINCODE
+          || pincode > MAX_PINCODE || locations.length == 0) {
+        return false;
+      }
+      int slot = (int) (pincode - MIN_PINCODE);
+      if (matches(locations[slot], district, state)) {
+        return true;
+      }
+      int index = Arrays.binarySearch(overflowSlots, slot);
+      if (index < 0) {
+        return false;
+      }
+      while (index > 0 && overflowSlots[index - 1] == slot) {
+        index--;
+      }
+      for (; index < overflowSlots.length && overflowSlots[index] == slot; index++) {
+        if (matches(overflowLocations[index], district, state)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean matches(int location, String district, String state) {
+
+      return location != 0
+          && districts[location >>> 16].equalsIgnoreCase(district)
+          && states[location & 0xFFFF].equalsIgnoreCase(state);
+    }
+
+    /**
+     * Reads the address metadata CSV, whose 5th, 8th and 9th columns hold the pincode, district
+     * and state of a post office.
+     */
+    private static Snapshot read(Path csvPath) throws IOException {
+
+      int[] locations = new int[MAX_PINCODE - MIN_PINCODE + 1];
+      TreeSet<Long> overflow = new TreeSet<>();
+      Map<String, Integer> districtIds = new HashMap<>();
+      Map<String, Integer> stateIds = new HashMap<>();
+      List<String> districts = new ArrayList<>(List.of(""));
+      List<String> states = new ArrayList<>(List.of(""));
+      int pincodeCount = 0;
+      try (BufferedReader reader = Files.newBufferedReader(csvPath, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] fields = line.split(",");
+          if (fields.length < 9 || fields[4].equalsIgnoreCase("pincode")) {
+            continue;
+          }
+          int pincode;
+          try {
+            pincode = Integer.parseInt(fields[4].trim());
+          } catch (NumberFormatException exception) {
+            continue;
+          }
+          if (pincode < MIN_PINCODE || pincode > MAX_PINCODE) {
+            continue;
+          }
+          int location = (intern(fields[7].trim(), districtIds, districts) << 16)
+              | intern(fields[8].trim(), stateIds, states);
+          int slot = pincode - MIN_PINCODE;
+          if (locations[slot] == 0) {
+            locations[slot] = location;
+            pincodeCount++;
+          } else if (locations[slot] != location) {
+            overflow.add(((long) slot << 32) | (location & 0xFFFFFFFFL));
+          }
+        }
+      }
+      int[] overflowSlots = new int[overflow.size()];
+      int[] overflowLocations = new int[overflow.size()];
+      int index = 0;
+      for (long entry : overflow) {
+        overflowSlots[index] = (int) (entry >>> 32);
+        overflowLocations[index++] = (int) entry;
+      }
+      return new Snapshot(locations, overflowSlots, overflowLocations,
+          districts.toArray(new String[0]), states.toArray(new String[0]), pincodeCount);
+    }
+
+    private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+
+      return ids.computeIfAbsent(name.toUpperCase(Locale.ROOT), key -> {
+        if (names.size() > 0xFFFF) {
+          throw new IllegalStateException("Too many distinct names in address metadata");
+        }
+        names.add(name);
+        return names.size() - 1;
+      });
+    }
+  }
+}
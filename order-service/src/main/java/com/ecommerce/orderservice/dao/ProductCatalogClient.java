@@ -0,0 +1,170 @@
+package com.ecommerce.orderservice.dao;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.PORT;
+import static com.ecommerce.orderservice.constant.ApiConstants.PRODUCT_HOST;
+import static com.ecommerce.orderservice.constant.ApiConstants.PRODUCT_LOOKUP_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.SUCCESS_STATUS_CODE;
+
+import com.ecommerce.orderservice.config.DependencyGuard;
+import com.ecommerce.orderservice.payload.response.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.ext.web.client.WebClient;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client of the product-service batch lookup, used to enrich orders with product details.
+ * <p>
+ * The product IDs of a call are deduplicated, and the ones missing from the product cache are
+ * looked up in chunks of {@code batch_size} IDs with at most {@code max_concurrency} chunks in
+ * flight. The cache is shared by all order verticles and keeps every product for {@code
+ * cache_ttl_ms}, so a page of order history costs at most one lookup per distinct product that was
+ * not requested recently, however many order lines refer to it. Lookups go through the {@link
+ * DependencyGuard} of product-service and fail fast while it is unavailable: products that are
+ * not found are treated as unknown by the callers, so there is no fallback result.
+ */
+public class ProductCatalogClient {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProductCatalogClient.class.getName());
+  private static final String PRODUCT_LOOKUP = "product_lookup";
+  private static final int DEFAULT_BATCH_SIZE = 100;
+  private static final int DEFAULT_MAX_CONCURRENCY = 4;
+  private static final long DEFAULT_CACHE_TTL_MS = 30000;
+  private static final long DEFAULT_CACHE_MAX_ENTRIES = 10000;
+
+  private final WebClient webClient;
+  private final Cache<Integer, ProductResponse> productCache;
+  private final DependencyGuard productService;
+  private final int batchSize;
+  private final int maxConcurrency;
+
+  public ProductCatalogClient(WebClient webClient, Cache<Integer, ProductResponse> productCache,
+                              DependencyGuard productService, JsonObject config) {
+
+    JsonObject lookup = config.getJsonObject(PRODUCT_LOOKUP, new JsonObject());
+    this.webClient = webClient;
+    this.productCache = productCache;
+    this.productService = productService;
+    this.batchSize = lookup.getInteger("batch_size", DEFAULT_BATCH_SIZE);
+    this.maxConcurrency = lookup.getInteger("max_concurrency", DEFAULT_MAX_CONCURRENCY);
+  }
+
+  /**
+   * Creates the product cache shared by the clients of all order verticles.
+   *
+   * @param config the verticle configuration
+   * @return a cache expiring products {@code cache_ttl_ms} after they were looked up
+   */
+  public static Cache<Integer, ProductResponse> createCache(JsonObject config) {
+
+    JsonObject lookup = config.getJsonObject(PRODUCT_LOOKUP, new JsonObject());
+    return Caffeine.newBuilder()
+                   .expireAfterWrite(lookup.getLong("cache_ttl_ms", DEFAULT_CACHE_TTL_MS),
+                       TimeUnit.MILLISECONDS)
+                   .maximumSize(lookup.getLong("cache_max_entries", DEFAULT_CACHE_MAX_ENTRIES))
+                   .build();
+  }
+
+  /**
+   * Finds the products with the given IDs, taking recently looked up products from the cache.
+   * Meant for displaying orders, where product details may be a few seconds old.
+   *
+   * @param productIds the product IDs, possibly with duplicates
+   * @return a Single emitting the products found by ID; unknown or disabled products are absent
+   */
+  public Single<Map<Integer, ProductResponse>> findProducts(Collection<Integer> productIds) {
+
+    Map<Integer, ProductResponse> products = new HashMap<>();
+    List<Integer> uncachedProductIds = new ArrayList<>();
+    for (Integer productId : new LinkedHashSet<>(productIds)) {
+      if (productId == null) {
+        continue;
+      }
+      ProductResponse cached = productCache.getIfPresent(productId);
+      if (cached != null) {
+        products.put(productId, cached);
+      } else {
+        uncachedProductIds.add(productId);
+      }
+    }
+    if (uncachedProductIds.isEmpty()) {
+      return Single.just(products);
+    }
+    return lookup(uncachedProductIds).map(found -> {
+      products.putAll(found);
+      return products;
+    });
+  }
+
+  /**
+   * Fetches the current details of the products with the given IDs, bypassing the cache. Meant
+   * for pricing new orders.
+   *
+   * @param productIds the product IDs, possibly with duplicates
+   * @return a Single emitting the products found by ID; unknown or disabled products are absent
+   */
+  public Single<Map<Integer, ProductResponse>> fetchProducts(Collection<Integer> productIds) {
+
+    List<Integer> distinctProductIds =
+        productIds.stream()
+                  .filter(Objects::nonNull)
+                  .distinct()
+                  .collect(Collectors.toList());
+    if (distinctProductIds.isEmpty()) {
+      return Single.just(new HashMap<>());
+    }
+    return lookup(distinctProductIds);
+  }
+
+  /**
+   * Looks the given distinct product IDs up in chunks and caches the products found.
+   */
+  private Single<Map<Integer, ProductResponse>> lookup(List<Integer> productIds) {
+
+    List<List<Integer>> chunks = new ArrayList<>();
+    for (int from = 0; from < productIds.size(); from += batchSize) {
+      chunks.add(new ArrayList<>(
+          productIds.subList(from, Math.min(from + batchSize, productIds.size()))));
+    }
+    return Flowable.fromIterable(chunks)
+                   .flatMapSingle(this::lookupChunk, false, maxConcurrency)
+                   .flatMapIterable(products -> products)
+                   .toMap(ProductResponse::getProductId)
+                   .doOnSuccess(productCache::putAll);
+  }
+
+  private Single<List<ProductResponse>> lookupChunk(List<Integer> productIds) {
+
+    JsonArray request = new JsonArray(new ArrayList<Object>(productIds));
+    return productService.call(() -> webClient.post(PORT, PRODUCT_HOST, PRODUCT_LOOKUP_ENDPOINT)
+                                              .rxSendJson(request))
+                         .flatMap(res -> {
+                           if (res.statusCode() != SUCCESS_STATUS_CODE) {
+                             LOG.error("Product lookup failed in product-service: {}",
+                                 res.bodyAsString());
+                             return Single.error(new IllegalStateException(
+                                 "Failed to look up products: " + productIds));
+                           }
+                           JsonArray body = res.bodyAsJsonArray();
+                           List<ProductResponse> products = new ArrayList<>(body.size());
+                           for (int i = 0; i < body.size(); i++) {
+                             products.add(body.getJsonObject(i).mapTo(ProductResponse.class));
+                           }
+                           return Single.just(products);
+                         });
+  }
+}
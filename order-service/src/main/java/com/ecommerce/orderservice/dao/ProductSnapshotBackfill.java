@@ -0,0 +1,103 @@
+package com.ecommerce.orderservice.dao;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.COLLECTION;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ID;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ITEMS;
+import static com.ecommerce.orderservice.constant.ApiConstants.OUTBOX;
+import static com.ecommerce.orderservice.constant.ApiConstants.PRODUCT_ID;
+import static com.ecommerce.orderservice.constant.ApiConstants.SET;
+
+import com.ecommerce.orderservice.payload.request.order.OrderItemRequest;
+import com.ecommerce.orderservice.payload.response.ProductResponse;
+import io.reactivex.rxjava3.core.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Backfills the product snapshots of the orders placed before order lines stored them, so that
+ * these orders are listed with their product details without calling product-service either.
+ * <p>
+ * Orders are processed in pages of {@code PAGE_SIZE}: the products of a page are looked up in one
+ * batch through the {@link ProductCatalogClient} and the page is rewritten with one bulk write.
+ * As the price paid per line was not recorded for these orders, their snapshots hold the current
+ * product details. Lines whose product no longer exists get an empty snapshot, so that their
+ * orders are not read again. Orders still being placed are left to the {@link
+ * OrderPlacementProcessor}, which records their snapshots when pricing them.
+ */
+public class ProductSnapshotBackfill {
+
+  private static final int PAGE_SIZE = 100;
+  private static final JsonObject WITHOUT_SNAPSHOT = new JsonObject()
+      .put(ORDER_ITEMS, new JsonObject().put("$elemMatch",
+          new JsonObject().put("unit_price", new JsonObject().put("$exists", false))))
+      .put(OUTBOX, new JsonObject().put("$exists", false));
+
+  private final MongoClient mongoClient;
+  private final ProductCatalogClient productCatalogClient;
+
+  public ProductSnapshotBackfill(MongoClient mongoClient,
+                                 ProductCatalogClient productCatalogClient) {
+
+    this.mongoClient = mongoClient;
+    this.productCatalogClient = productCatalogClient;
+  }
+
+  /**
+   * Backfills the snapshots of all orders that have lines without one.
+   *
+   * @return a Single emitting the number of orders backfilled
+   */
+  public Single<Integer> run() {
+
+    return backfillPage().repeat()
+                         .takeUntil(count -> count < PAGE_SIZE)
+                         .reduce(0, Integer::sum);
+  }
+
+  private Single<Integer> backfillPage() {
+
+    FindOptions options =
+        new FindOptions().setLimit(PAGE_SIZE).setFields(new JsonObject().put(ORDER_ITEMS, 1));
+    return mongoClient.rxFindWithOptions(COLLECTION, WITHOUT_SNAPSHOT, options)
+                      .flatMap(orders -> {
+                        if (orders.isEmpty()) {
+                          return Single.just(0);
+                        }
+                        List<Integer> productIds =
+                            orders.stream()
+                                  .flatMap(order -> order.getJsonArray(ORDER_ITEMS).stream())
+                                  .map(item -> ((JsonObject) item).getInteger(PRODUCT_ID))
+                                  .collect(Collectors.toList());
+                        return productCatalogClient.findProducts(productIds)
+                            .flatMap(products -> mongoClient.rxBulkWrite(COLLECTION,
+                                orders.stream()
+                                      .map(order -> snapshotUpdate(order, products))
+                                      .collect(Collectors.toList()))
+                                .ignoreElement()
+                                .toSingleDefault(orders.size()));
+                      });
+  }
+
+  private static BulkOperation snapshotUpdate(JsonObject order,
+                                              Map<Integer, ProductResponse> products) {
+
+    JsonArray orderItems = order.getJsonArray(ORDER_ITEMS);
+    JsonArray snapshots = new JsonArray();
+    for (int i = 0; i < orderItems.size(); i++) {
+      OrderItemRequest orderItem = orderItems.getJsonObject(i).mapTo(OrderItemRequest.class);
+      ProductResponse product = products.get(orderItem.getProductId());
+      if (orderItem.getUnitPrice() == null && product != null) {
+        orderItem.applySnapshot(product);
+      }
+      snapshots.add(JsonObject.mapFrom(orderItem));
+    }
+    return BulkOperation.createUpdate(new JsonObject().put(ORDER_ID, order.getString(ORDER_ID)),
+        new JsonObject().put(SET, new JsonObject().put(ORDER_ITEMS, snapshots)));
+  }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.orderservice.payload.request.order;
 
+import com.ecommerce.orderservice.payload.response.ProductResponse;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
@@ -23,4 +24,24 @@ public class OrderItemRequest {
   private int quantity;
   private String size;
   private String color;
+  // snapshot of the product taken when the order is placed
+  private String productBrand;
+  private String productMainImage;
+  private Float unitPrice;
+  private Float discountedPrice;
+
+  /**
+   * Records the product as it is sold at the time of the order: its name, brand and main image,
+   * its unit price and its unit price after discount.
+   *
+   * @param product the current details of the ordered product
+   */
+  public void applySnapshot(ProductResponse product) {
+
+    this.productName = product.getProductName();
+    this.productBrand = product.getProductBrand();
+    this.productMainImage = product.getProductMainImage();
+    this.unitPrice = product.getProductPrice();
+    this.discountedPrice = product.getTotalPrice();
+  }
 }
@@ -0,0 +1,61 @@
+package com.ecommerce.orderservice.payload.request.order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Filters and page of an admin order listing. Every filter is optional; orders are listed newest
+ * first, starting after the order placed at {@code afterPlacedAt} with ID {@code afterOrderId}.
+ * Orders whose placement time is still a string, until they are migrated to dates, are listed
+ * after all other orders, and {@code afterLegacyPlacedAt} holds that string when the listing
+ * continues after one of them.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@ToString
+public class OrderQuery {
+
+  private OrderStatus status;
+  private String username;
+  private Instant from;
+  private Instant to;
+  private Instant afterPlacedAt;
+  private String afterLegacyPlacedAt;
+  private String afterOrderId;
+  private Integer limit;
+
+  /**
+   * Returns the cursor of the listing continuing after the given order, which is the placement
+   * time of the order in epoch milliseconds and its ID.
+   *
+   * @param placedAt the placement time of the last order listed
+   * @param orderId the ID of the last order listed
+   * @return the cursor of the next page
+   */
+  public static String cursorAfter(Instant placedAt, String orderId) {
+
+    return placedAt.toEpochMilli() + "-" + orderId;
+  }
+
+  /**
+   * Returns the cursor of the listing continuing after an order whose placement time is still a
+   * string, which is {@code legacy-}, the ID of the order and the base64url encoded string.
+   *
+   * @param placedAt the placement time string of the last order listed
+   * @param orderId the ID of the last order listed
+   * @return the cursor of the next page
+   */
+  public static String cursorAfterLegacy(String placedAt, String orderId) {
+
+    return "legacy-" + orderId + "-" + Base64.getUrlEncoder()
+                                             .withoutPadding()
+                                             .encodeToString(
+                                                 placedAt.getBytes(StandardCharsets.UTF_8));
+  }
+}
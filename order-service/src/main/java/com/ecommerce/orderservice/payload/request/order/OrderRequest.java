@@ -2,17 +2,13 @@ package com.ecommerce.orderservice.payload.request.order;
 
 import com.ecommerce.orderservice.payload.request.address.AddressRequest;
 import com.ecommerce.orderservice.payload.request.payment.PaymentMethod;
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
-import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import io.vertx.core.json.JsonObject;
 import java.io.Serializable;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -27,14 +23,11 @@ import lombok.ToString;
 public class OrderRequest implements Serializable {
 
   private List<OrderItemRequest> orderItems;
-  @JsonSerialize(using = LocalDateTimeSerializer.class)
-  @JsonDeserialize(using = LocalDateTimeDeserializer.class)
-  @JsonFormat(pattern = "dd/MM/yyyy hh:mm:ss a")
-  private LocalDateTime orderPlacedAt;
-  @JsonSerialize(using = LocalDateTimeSerializer.class)
-  @JsonDeserialize(using = LocalDateTimeDeserializer.class)
-  @JsonFormat(pattern = "dd/MM/yyyy hh:mm:ss a")
-  private LocalDateTime orderUpdatedAt;
+  // stored as BSON dates by the DAO
+  @JsonIgnore
+  private Instant orderPlacedAt;
+  @JsonIgnore
+  private Instant orderUpdatedAt;
   private OrderStatus orderStatus;
   private AddressRequest address;
   private PaymentMethod paymentMethod;
@@ -1,7 +1,7 @@
 package com.ecommerce.orderservice.payload.request.order;
 
 public enum OrderStatus {
-  PENDING, CONFIRMED, PAYMENT_FAILED, AWAITING_PAYMENT, AWAITING_SHIPMENT;
+  PENDING, CONFIRMED, PAYMENT_FAILED, AWAITING_PAYMENT, AWAITING_SHIPMENT, PLACEMENT_FAILED;
 
   public static boolean isValid(String value) {
 
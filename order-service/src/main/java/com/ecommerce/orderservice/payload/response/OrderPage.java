@@ -0,0 +1,18 @@
+package com.ecommerce.orderservice.payload.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A page of an order listing, with the cursor of the next page or null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OrderPage {
+
+  private List<OrderResponseList> orders;
+  private String nextCursor;
+}
@@ -33,4 +33,5 @@ public class OrderResponse {
   private OrderStatus orderStatus;
   private LocalDateTime orderDate;
   private LocalDateTime cancelDate;
+  private String failureReason;
 }
@@ -2,31 +2,44 @@ package com.ecommerce.orderservice.payload.response;
 
 import static com.ecommerce.orderservice.constant.ApiConstants.CONTENT_TYPE;
 import static com.ecommerce.orderservice.constant.ApiConstants.JSON_CONTENT_TYPE;
+import static com.ecommerce.orderservice.constant.ApiConstants.RESPONSE_BODY;
 import static com.ecommerce.orderservice.constant.ApiConstants.SUCCESS_STATUS_CODE;
 
 import com.ecommerce.orderservice.exception.ApiErrorResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.reactivex.rxjava3.core.Flowable;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.buffer.Buffer;
+import io.vertx.rxjava3.core.http.HttpServerResponse;
 import io.vertx.rxjava3.ext.web.RoutingContext;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * This class is used to handle success and failure order responses.
+ * This class is used to handle success and failure order responses. The body of every response
+ * sent in one piece is also kept in the routing context under {@code RESPONSE_BODY}, so that it
+ * can be replayed for a repeated idempotent request.
  */
 @Builder
 @NoArgsConstructor
 public class OrderResponseBuilder {
 
+  private static final Logger LOG = LoggerFactory.getLogger(OrderResponseBuilder.class.getName());
+
   public void handleSuccessResponse(final RoutingContext routingContext, Integer statusCode,
                                     final OrderResponse response) {
 
+    String body = JsonObject.mapFrom(response).encodePrettily();
+    routingContext.put(RESPONSE_BODY, body);
     routingContext.response()
                   .putHeader(CONTENT_TYPE, JSON_CONTENT_TYPE)
                   .setStatusCode(statusCode)
-                  .rxEnd(JsonObject.mapFrom(response).encodePrettily())
+                  .rxEnd(body)
                   .subscribe();
   }
 
@@ -34,20 +47,51 @@ public class OrderResponseBuilder {
                                         final List<OrderResponseList> response)
       throws JsonProcessingException {
 
+    String body = Json.encodePrettily(OrderResponseList.toJsonList(response));
+    routingContext.put(RESPONSE_BODY, body);
     routingContext.response()
                   .putHeader(CONTENT_TYPE, JSON_CONTENT_TYPE)
                   .setStatusCode(SUCCESS_STATUS_CODE)
-                  .rxEnd(Json.encodePrettily(OrderResponseList.toJsonList(response)))
+                  .rxEnd(body)
                   .subscribe();
   }
 
+  /**
+   * Writes the orders as a JSON array in a chunked response, one order at a time. The orders are
+   * only requested as fast as the client reads them; if the stream fails after the response has
+   * started, the connection is reset so that the client does not take a truncated array for a
+   * complete one.
+   *
+   * @param routingContext the context of the HTTP request
+   * @param response the orders to write
+   */
+  public void handleStreamingListResponse(final RoutingContext routingContext,
+                                          final Flowable<OrderResponseList> response) {
+
+    AtomicBoolean first = new AtomicBoolean(true);
+    Flowable<Buffer> body = Flowable.concat(
+        Flowable.just(Buffer.buffer("[")),
+        response.map(order -> Buffer.buffer(first.getAndSet(false) ? "" : ",")
+                                    .appendString(JsonObject.mapFrom(order).encode())),
+        Flowable.just(Buffer.buffer("]")));
+    HttpServerResponse httpResponse = routingContext.response()
+                                                    .putHeader(CONTENT_TYPE, JSON_CONTENT_TYPE)
+                                                    .setStatusCode(SUCCESS_STATUS_CODE);
+    httpResponse.rxSend(body).subscribe(() -> { }, error -> {
+      LOG.error("Streaming orders failed: {}", error.getMessage());
+      httpResponse.reset();
+    });
+  }
+
   public void handleFailureResponse(final RoutingContext routingContext, int statusCode,
                                     final List<ApiErrorResponse> apiErrorResponse) {
 
+    String body = Json.encodePrettily(apiErrorResponse);
+    routingContext.put(RESPONSE_BODY, body);
     routingContext.response()
                   .putHeader(CONTENT_TYPE, JSON_CONTENT_TYPE)
                   .setStatusCode(statusCode)
-                  .rxEnd(Json.encodePrettily(apiErrorResponse))
+                  .rxEnd(body)
                   .subscribe();
   }
 }
@@ -1,16 +1,11 @@
 package com.ecommerce.orderservice.payload.response;
 
 import com.ecommerce.orderservice.payload.request.order.OrderStatus;
-import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
-import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -29,10 +24,7 @@ public class OrderResponseList {
 
   private String orderId;
   private OrderStatus orderStatus;
-  @JsonSerialize(using = LocalDateTimeSerializer.class)
-  @JsonDeserialize(using = LocalDateTimeDeserializer.class)
-  @JsonFormat(pattern = "dd/MM/yyyy hh:mm:ss a")
-  private LocalDateTime orderDate;
+  private Instant orderDate;
   private JsonArray orderItems;
   private String username;
   private List<ProductResponse> products;
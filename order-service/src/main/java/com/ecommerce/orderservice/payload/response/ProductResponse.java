@@ -55,7 +55,7 @@ public class ProductResponse {
 
   public String getShortDescription() {
 
-    return shortDescription.length() > 50 ? shortDescription.substring(0, 50).concat("...") :
-        shortDescription;
+    return shortDescription != null && shortDescription.length() > 50
+        ? shortDescription.substring(0, 50).concat("...") : shortDescription;
   }
 }
@@ -11,6 +11,9 @@ public interface OrderService {
   void saveOrder(MongoClient mongoClient, JsonObject requestBody, String username, String contactNumber,
                  List<ApiErrorResponse> errorResponses, RoutingContext routingContext);
 
+  void retrieveOrderStatus(MongoClient mongoClient, String orderId, String username,
+                           RoutingContext routingContext);
+
   void updateOrderById(MongoClient mongoClient, String orderId, String orderStatus,
                        RoutingContext routingContext);
 
@@ -1,23 +1,35 @@
 package com.ecommerce.orderservice.service;
 
+import static com.ecommerce.orderservice.constant.ApiConstants.ACCEPTED_STATUS_CODE;
 import static com.ecommerce.orderservice.constant.ApiConstants.ADDRESS;
-import static com.ecommerce.orderservice.constant.ApiConstants.AUTH_HEADER;
 import static com.ecommerce.orderservice.constant.ApiConstants.BAD_REQUEST_STATUS_CODE;
-import static com.ecommerce.orderservice.constant.ApiConstants.CREATED_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.CURSOR;
 import static com.ecommerce.orderservice.constant.ApiConstants.ERROR_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.FROM;
+import static com.ecommerce.orderservice.constant.ApiConstants.GET_ORDER_STATUS_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.LIMIT;
+import static com.ecommerce.orderservice.constant.ApiConstants.LOCATION_HEADER;
+import static com.ecommerce.orderservice.constant.ApiConstants.NEXT_CURSOR_HEADER;
+import static com.ecommerce.orderservice.constant.ApiConstants.NOT_FOUND_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ID;
 import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ITEMS;
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_PLACEMENT_ADDRESS;
+import static com.ecommerce.orderservice.constant.ApiConstants.STATUS;
+import static com.ecommerce.orderservice.constant.ApiConstants.STREAM;
 import static com.ecommerce.orderservice.constant.ApiConstants.SUCCESS_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.TO;
+import static com.ecommerce.orderservice.constant.ApiConstants.USERNAME;
 import static com.ecommerce.orderservice.payload.request.order.OrderStatus.PENDING;
 
-import com.ecommerce.orderservice.config.AddressSeedLoader;
 import com.ecommerce.orderservice.dao.OrderDao;
-import com.ecommerce.orderservice.dao.OrderDaoImpl;
 import com.ecommerce.orderservice.exception.ApiErrorResponse;
 import com.ecommerce.orderservice.exception.ClientInputException;
 import com.ecommerce.orderservice.payload.request.address.AddressRequest;
 import com.ecommerce.orderservice.payload.request.order.OrderItemRequest;
+import com.ecommerce.orderservice.payload.request.order.OrderQuery;
 import com.ecommerce.orderservice.payload.request.order.OrderRequest;
 import com.ecommerce.orderservice.payload.request.order.OrderStatus;
+import com.ecommerce.orderservice.payload.response.OrderPage;
 import com.ecommerce.orderservice.payload.response.OrderResponse;
 import com.ecommerce.orderservice.payload.response.OrderResponseBuilder;
 import com.ecommerce.orderservice.payload.response.OrderResponseList;
@@ -25,13 +37,23 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import io.vertx.core.Future;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.MultiMap;
 import io.vertx.rxjava3.ext.mongo.MongoClient;
 import io.vertx.rxjava3.ext.web.RoutingContext;
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,10 +68,20 @@ import org.slf4j.LoggerFactory;
 public class OrderServiceImpl implements OrderService {
 
   private static final Logger LOG = LoggerFactory.getLogger(OrderServiceImpl.class);
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int MAX_PAGE_SIZE = 200;
+  private static final Pattern CURSOR_PATTERN = Pattern.compile("(\\d{1,15})-([0-9a-f]{24})");
+  private static final Pattern LEGACY_CURSOR_PATTERN =
+      Pattern.compile("legacy-([0-9a-f]{24})-([A-Za-z0-9_-]{1,100})");
 
-  private final OrderDao orderDao = new OrderDaoImpl();
+  private final OrderDao orderDao;
   private final OrderResponseBuilder responseBuilder = new OrderResponseBuilder();
 
+  public OrderServiceImpl(OrderDao orderDao) {
+
+    this.orderDao = orderDao;
+  }
+
   /**
    * Retrieves orders for a specific user.
    * <p>
@@ -128,7 +160,11 @@ public class OrderServiceImpl implements OrderService {
   }
 
   /**
-   * Retrieves all orders from the database and sends the response to the client.
+   * Retrieves a page of orders from the database and sends it to the client, newest first. The
+   * orders can be filtered by {@code status}, {@code username} and a {@code from}/{@code to} date
+   * range (ISO-8601 dates or instants, {@code to} excluded). A page holds {@code limit} orders and
+   * the cursor of the next page is returned in the {@code X-Next-Cursor} header. With {@code
+   * stream=true}, all matching orders are streamed instead.
    *
    * @param mongoClient the Mongo client instance used to communicate with the database
    * @param routingContext the routing context instance used to handle HTTP request and response
@@ -136,11 +172,28 @@ public class OrderServiceImpl implements OrderService {
   @Override
   public void retrieveAllOrders(MongoClient mongoClient, RoutingContext routingContext) {
 
-    Future<List<OrderResponseList>> orders = orderDao.getAllOrders(mongoClient);
-    orders.onSuccess(res -> {
+    MultiMap params = routingContext.queryParams();
+    List<ApiErrorResponse> errorResponses = new ArrayList<>();
+    boolean stream = Boolean.parseBoolean(params.get(STREAM));
+    OrderQuery query = parseOrderQuery(params, stream, errorResponses);
+    if (!errorResponses.isEmpty()) {
+      responseBuilder.handleFailureResponse(routingContext, BAD_REQUEST_STATUS_CODE,
+          errorResponses);
+      return;
+    }
+    if (stream) {
+      responseBuilder.handleStreamingListResponse(routingContext,
+          orderDao.streamAllOrders(mongoClient, query));
+      return;
+    }
+    Future<OrderPage> orders = orderDao.getAllOrders(mongoClient, query);
+    orders.onSuccess(page -> {
       LOG.info("Orders found successfully");
+      if (page.getNextCursor() != null) {
+        routingContext.response().putHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+      }
       try {
-        responseBuilder.handleSuccessListResponse(routingContext, res);
+        responseBuilder.handleSuccessListResponse(routingContext, page.getOrders());
       } catch (JsonProcessingException e) {
         throw new RuntimeException(e);
       }
@@ -148,6 +201,79 @@ public class OrderServiceImpl implements OrderService {
         "Some error occurred while finding orders"));
   }
 
+  /**
+   * Reads the filters and page of an admin order listing from the query parameters, adding an
+   * error response for every invalid parameter.
+   *
+   * @param params the query parameters of the request
+   * @param stream whether all orders are streamed, in which case the limit is optional
+   * @param errorResponses a list to which validation errors are added
+   * @return the order query
+   */
+  OrderQuery parseOrderQuery(MultiMap params, boolean stream,
+                             List<ApiErrorResponse> errorResponses) {
+
+    OrderQuery.OrderQueryBuilder query = OrderQuery.builder().username(params.get(USERNAME));
+    String status = params.get(STATUS);
+    if (status != null) {
+      if (OrderStatus.isValid(status)) {
+        query.status(OrderStatus.valueOf(status.toUpperCase()));
+      } else {
+        errorResponses.add(new ApiErrorResponse("Invalid order status: " + status,
+            "status must be one of " + Arrays.toString(OrderStatus.values())));
+      }
+    }
+    query.from(parseInstant(FROM, params.get(FROM), errorResponses));
+    query.to(parseInstant(TO, params.get(TO), errorResponses));
+    String cursor = params.get(CURSOR);
+    if (cursor != null) {
+      Matcher matcher = CURSOR_PATTERN.matcher(cursor);
+      Matcher legacyMatcher = LEGACY_CURSOR_PATTERN.matcher(cursor);
+      if (matcher.matches()) {
+        query.afterPlacedAt(Instant.ofEpochMilli(Long.parseLong(matcher.group(1))))
+             .afterOrderId(matcher.group(2));
+      } else if (legacyMatcher.matches()) {
+        query.afterLegacyPlacedAt(new String(Base64.getUrlDecoder().decode(legacyMatcher.group(2)),
+                 StandardCharsets.UTF_8))
+             .afterOrderId(legacyMatcher.group(1));
+      } else {
+        errorResponses.add(new ApiErrorResponse("Invalid cursor: " + cursor,
+            "cursor must be the X-Next-Cursor header of the previous page"));
+      }
+    }
+    String limit = params.get(LIMIT);
+    int maxLimit = stream ? Integer.MAX_VALUE : MAX_PAGE_SIZE;
+    if (limit == null) {
+      query.limit(stream ? null : DEFAULT_PAGE_SIZE);
+    } else if (limit.matches("\\d{1,9}") && Integer.parseInt(limit) >= 1
+        && Integer.parseInt(limit) <= maxLimit) {
+      query.limit(Integer.parseInt(limit));
+    } else {
+      errorResponses.add(new ApiErrorResponse("Invalid limit: " + limit,
+          "limit must be between 1 and " + maxLimit));
+    }
+    return query.build();
+  }
+
+  /**
+   * Parses an ISO-8601 instant, or an ISO-8601 date standing for its start in UTC.
+   */
+  private Instant parseInstant(String name, String value, List<ApiErrorResponse> errorResponses) {
+
+    if (value == null) {
+      return null;
+    }
+    try {
+      return value.length() == 10
+          ? LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant()
+          : Instant.parse(value);
+    } catch (DateTimeParseException e) {
+      errorResponses.add(new ApiErrorResponse("Invalid " + name + " date: " + value,
+          name + " must be an ISO-8601 date or instant, e.g. 2024-01-31 or 2024-01-31T10:15:30Z"));
+      return null;
+    }
+  }
+
   /**
    * Saves an order after validating the request and order items, and persists the order in the
    * database.
@@ -164,8 +290,6 @@ public class OrderServiceImpl implements OrderService {
   public void saveOrder(MongoClient mongoClient, JsonObject requestBody, String username, String contactNumber,
                         List<ApiErrorResponse> errorResponses, RoutingContext routingContext) {
 
-    new AddressSeedLoader().run();
-
     JsonObject address = requestBody.getJsonObject(ADDRESS);
 
     if (validateSaveOrderRequest(requestBody, errorResponses)) {
@@ -314,6 +438,10 @@ public class OrderServiceImpl implements OrderService {
    * {@code OrderRequest} object with the provided details, attempts to save
    * it in the database, and sends appropriate responses based on success or
    * failure.
+   * <p>
+   * The order is accepted as PENDING with a {@code 202} response whose {@code Location} header is
+   * the URL to poll its status at, and its ID is sent to the order placement worker on the event
+   * bus, which completes the placement.
    *
    * @param mongoClient the MongoDB client for database operations
    * @param address a {@code JsonObject} representing the address details of the order
@@ -329,17 +457,20 @@ public class OrderServiceImpl implements OrderService {
     OrderRequest orderRequest = new OrderRequest();
     orderRequest.setOrderItems(orderItems);
     orderRequest.setOrderStatus(PENDING);
-    orderRequest.setOrderPlacedAt(LocalDateTime.now());
-    orderRequest.setOrderUpdatedAt(LocalDateTime.now());
+    Instant now = Instant.now();
+    orderRequest.setOrderPlacedAt(now);
+    orderRequest.setOrderUpdatedAt(now);
     orderRequest.setOrderPlacedBy(username);
     orderRequest.setAddress(address.mapTo(AddressRequest.class));
 
-    String token = routingContext.request().getHeader(AUTH_HEADER);
     Optional.ofNullable(username).ifPresentOrElse(user -> {
-      Future<OrderResponse> orderInDb = orderDao.saveOrder(mongoClient, orderRequest, username, contactNumber, token);
+      Future<OrderResponse> orderInDb = orderDao.saveOrder(mongoClient, orderRequest, username, contactNumber);
       orderInDb.onSuccess(res -> {
-        LOG.info("Order placed successfully with Id: {}", res.getOrderId());
-        responseBuilder.handleSuccessResponse(routingContext, CREATED_STATUS_CODE, res);
+        LOG.info("Order accepted with Id: {}", res.getOrderId());
+        routingContext.vertx().eventBus().send(ORDER_PLACEMENT_ADDRESS, res.getOrderId());
+        routingContext.response().putHeader(LOCATION_HEADER,
+            GET_ORDER_STATUS_ENDPOINT + "?" + ORDER_ID + "=" + res.getOrderId());
+        responseBuilder.handleSuccessResponse(routingContext, ACCEPTED_STATUS_CODE, res);
       }).onFailure(throwable -> {
         if (throwable instanceof ClientInputException) {
           responseBuilder.handleFailureResponse(routingContext, BAD_REQUEST_STATUS_CODE,
@@ -353,6 +484,39 @@ public class OrderServiceImpl implements OrderService {
             "Please authenticate through JWT"))));
   }
 
+  /**
+   * Retrieves the status of an order placed by the user, so that clients can follow the placement
+   * of the orders they placed until it completes.
+   *
+   * @param mongoClient the MongoDB client used for database operations
+   * @param orderId the ID of the order
+   * @param username the username of the user who placed the order
+   * @param routingContext the routing context containing request and response details
+   */
+  @Override
+  public void retrieveOrderStatus(MongoClient mongoClient, String orderId, String username,
+                                  RoutingContext routingContext) {
+
+    if (orderId == null || username == null) {
+      responseBuilder.handleFailureResponse(routingContext, BAD_REQUEST_STATUS_CODE,
+          List.of(new ApiErrorResponse("Unable to retrieve order status",
+              "Order ID and username are required")));
+      return;
+    }
+    orderDao.getOrderStatus(mongoClient, orderId, username)
+            .onSuccess(res -> responseBuilder.handleSuccessResponse(routingContext,
+                SUCCESS_STATUS_CODE, res))
+            .onFailure(throwable -> {
+              if (throwable instanceof NoSuchElementException) {
+                responseBuilder.handleFailureResponse(routingContext, NOT_FOUND_STATUS_CODE,
+                    List.of(new ApiErrorResponse("Order not found", throwable.getMessage())));
+              } else {
+                handleFailureResponse(routingContext, throwable,
+                    "Some error occurred while retrieving order status with id: " + orderId);
+              }
+            });
+  }
+
   /**
    * Updates the status of an order by its ID in the database.
    * Validates the input parameters, performs the update operation,
@@ -0,0 +1,266 @@
+package com.ecommerce.orderservice.verticle;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.BAD_REQUEST_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.CONFLICT_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.CONTENT_TYPE;
+import static com.ecommerce.orderservice.constant.ApiConstants.ERROR_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.IDEMPOTENCY_KEY_HEADER;
+import static com.ecommerce.orderservice.constant.ApiConstants.IDEMPOTENT_REPLAYED_HEADER;
+import static com.ecommerce.orderservice.constant.ApiConstants.JSON_CONTENT_TYPE;
+import static com.ecommerce.orderservice.constant.ApiConstants.LOCATION_HEADER;
+import static com.ecommerce.orderservice.constant.ApiConstants.RESPONSE_BODY;
+import static com.ecommerce.orderservice.constant.ApiConstants.UNPROCESSABLE_ENTITY_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.USERNAME;
+
+import com.ecommerce.orderservice.dao.IdempotencyStore;
+import com.ecommerce.orderservice.exception.ApiErrorResponse;
+import com.ecommerce.orderservice.payload.response.OrderResponseBuilder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.reactivex.rxjava3.core.Maybe;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.RxHelper;
+import io.vertx.rxjava3.core.buffer.Buffer;
+import io.vertx.rxjava3.core.http.HttpServerResponse;
+import io.vertx.rxjava3.ext.web.RoutingContext;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Makes an endpoint idempotent for the requests carrying an {@code Idempotency-Key} header: the
+ * first request with a key is processed, and the requests repeating it get the response of the
+ * first one, with an {@code Idempotent-Replayed} header, instead of being processed again.
+ * <p>
+ * Keys are scoped to the endpoint and the user, and are claimed in the {@link IdempotencyStore}
+ * so that a key is processed once across instances of the service. Responses are also kept in an
+ * in-process LRU cache of {@code cache_max_entries} keys shared by the order verticles, which
+ * holds the requests in progress too: a duplicate arriving while the first request is processed
+ * waits for its response, for at most {@code wait_timeout_ms}, and then gets a {@code 409}.
+ * <p>
+ * A key repeated with a different request body is rejected with a {@code 422}. A request that
+ * fails with a server error, or whose connection closes before its response is sent, releases its
+ * key, so that it can be retried. A key whose instance stopped is taken over once its lease
+ * expires, as described in {@link IdempotencyStore}.
+ */
+public class IdempotencyHandler implements Handler<RoutingContext> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IdempotencyHandler.class.getName());
+  private static final String IDEMPOTENCY = "idempotency";
+  private static final long DEFAULT_TTL_SECONDS = 86400;
+  private static final long DEFAULT_CACHE_MAX_ENTRIES = 10000;
+  private static final long DEFAULT_WAIT_TIMEOUT_MS = 10000;
+  private static final int MAX_KEY_LENGTH = 255;
+  // fields of a stored response
+  private static final String STATUS_CODE = "status_code";
+  private static final String BODY = "body";
+  private static final String LOCATION = "location";
+
+  /**
+   * A request processed with an idempotency key: the hash of its body and its response, once it
+   * is sent.
+   */
+  public static final class IdempotentRequest {
+
+    private final String requestHash;
+    private final Promise<JsonObject> response = Promise.promise();
+
+    private IdempotentRequest(String requestHash) {
+
+      this.requestHash = requestHash;
+    }
+  }
+
+  private final String scope;
+  private final IdempotencyStore store;
+  private final Cache<String, IdempotentRequest> requests;
+  private final long waitTimeoutMs;
+  private final OrderResponseBuilder responseBuilder = new OrderResponseBuilder();
+
+  public IdempotencyHandler(String scope, IdempotencyStore store,
+                            Cache<String, IdempotentRequest> requests, JsonObject config) {
+
+    this.scope = scope;
+    this.store = store;
+    this.requests = requests;
+    this.waitTimeoutMs = config.getJsonObject(IDEMPOTENCY, new JsonObject())
+                               .getLong("wait_timeout_ms", DEFAULT_WAIT_TIMEOUT_MS);
+  }
+
+  /**
+   * Creates the cache of idempotent requests shared by the handlers of all order verticles.
+   *
+   * @param config the verticle configuration
+   * @return a cache of at most {@code cache_max_entries} requests, each kept as long as its key
+   */
+  public static Cache<String, IdempotentRequest> createCache(JsonObject config) {
+
+    JsonObject idempotency = config.getJsonObject(IDEMPOTENCY, new JsonObject());
+    return Caffeine.newBuilder()
+                   .expireAfterWrite(idempotency.getLong("ttl_seconds", DEFAULT_TTL_SECONDS),
+                       TimeUnit.SECONDS)
+                   .maximumSize(idempotency.getLong("cache_max_entries",
+                       DEFAULT_CACHE_MAX_ENTRIES))
+                   .build();
+  }
+
+  @Override
+  public void handle(RoutingContext routingContext) {
+
+    String idempotencyKey = routingContext.request().getHeader(IDEMPOTENCY_KEY_HEADER);
+    if (idempotencyKey == null) {
+      routingContext.next();
+      return;
+    }
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      responseBuilder.handleFailureResponse(routingContext, BAD_REQUEST_STATUS_CODE,
+          List.of(new ApiErrorResponse("Invalid " + IDEMPOTENCY_KEY_HEADER + " header",
+              "The key must have 1 to " + MAX_KEY_LENGTH + " characters")));
+      return;
+    }
+    String username = routingContext.request().getHeader(USERNAME);
+    String key = scope + ":" + (username != null ? username : "") + ":" + idempotencyKey;
+    IdempotentRequest request = new IdempotentRequest(hash(routingContext.body().buffer()));
+    IdempotentRequest first = requests.asMap().putIfAbsent(key, request);
+    if (first != null) {
+      if (!first.requestHash.equals(request.requestHash)) {
+        rejectMismatch(routingContext);
+      } else {
+        replay(routingContext, waitFor(first));
+      }
+      return;
+    }
+    store.claim(key, request.requestHash)
+         .observeOn(RxHelper.scheduler(routingContext.vertx().getOrCreateContext()))
+         .subscribe(record -> {
+           // the key was claimed by an earlier request, in this instance or another one
+           if (!request.requestHash.equals(IdempotencyStore.requestHash(record))) {
+             requests.asMap().remove(key, request);
+             request.response.tryFail("Idempotency key reused with a different request");
+             rejectMismatch(routingContext);
+             return;
+           }
+           JsonObject response = IdempotencyStore.response(record);
+           Maybe<JsonObject> firstResponse = response != null
+               ? Maybe.just(response) : store.awaitResponse(key, waitTimeoutMs);
+           replay(routingContext, firstResponse.doOnSuccess(request.response::tryComplete)
+                                               .doOnComplete(() -> {
+                                                 requests.asMap().remove(key, request);
+                                                 request.response.tryFail("Request in progress");
+                                               }));
+         }, error -> {
+           LOG.error("Failed to claim idempotency key {}: {}", key, error.getMessage());
+           requests.asMap().remove(key, request);
+           request.response.tryFail(error);
+           responseBuilder.handleFailureResponse(routingContext, ERROR_STATUS_CODE,
+               List.of(new ApiErrorResponse("Unable to process the request",
+                   error.getMessage())));
+         }, () -> process(routingContext, key, request));
+  }
+
+  /**
+   * Processes the first request with a key, recording its response once it is sent, or releasing
+   * the key if the connection closes first.
+   */
+  private void process(RoutingContext routingContext, String key, IdempotentRequest request) {
+
+    AtomicBoolean recorded = new AtomicBoolean();
+    routingContext.response().closeHandler(closed -> {
+      if (!recorded.compareAndSet(false, true)) {
+        return;
+      }
+      requests.asMap().remove(key, request);
+      request.response.tryFail("Connection closed");
+      store.release(key).subscribe(() -> { },
+          error -> LOG.error("Failed to release idempotency key {}: {}", key, error.getMessage()));
+    });
+    routingContext.addBodyEndHandler(ended -> {
+      if (!recorded.compareAndSet(false, true)) {
+        return;
+      }
+      HttpServerResponse httpResponse = routingContext.response();
+      JsonObject response = new JsonObject()
+          .put(STATUS_CODE, httpResponse.getStatusCode())
+          .put(BODY, routingContext.<String>get(RESPONSE_BODY))
+          .put(LOCATION, httpResponse.headers().get(LOCATION_HEADER));
+      request.response.tryComplete(response);
+      boolean failed = httpResponse.getStatusCode() >= ERROR_STATUS_CODE;
+      if (failed) {
+        requests.asMap().remove(key, request);
+      }
+      (failed ? store.release(key) : store.complete(key, response)).subscribe(() -> { },
+          error -> LOG.error("Failed to record idempotency key {}: {}", key, error.getMessage()));
+    });
+    routingContext.next();
+  }
+
+  /**
+   * Waits for the response of the first request with a key processed by this instance.
+   */
+  private Maybe<JsonObject> waitFor(IdempotentRequest first) {
+
+    return Maybe.<JsonObject>create(emitter -> first.response.future().onComplete(result -> {
+                  if (result.succeeded()) {
+                    emitter.onSuccess(result.result());
+                  } else {
+                    emitter.onComplete();
+                  }
+                }))
+                .timeout(waitTimeoutMs, TimeUnit.MILLISECONDS, Maybe.empty());
+  }
+
+  /**
+   * Sends the response of the first request with a key, or a {@code 409} when it is not available
+   * because the first request is still in progress.
+   */
+  private void replay(RoutingContext routingContext, Maybe<JsonObject> firstResponse) {
+
+    firstResponse.observeOn(RxHelper.scheduler(routingContext.vertx().getOrCreateContext()))
+                 .subscribe(response -> {
+                   HttpServerResponse httpResponse =
+                       routingContext.response()
+                                     .putHeader(IDEMPOTENT_REPLAYED_HEADER, "true")
+                                     .setStatusCode(response.getInteger(STATUS_CODE));
+                   if (response.getString(LOCATION) != null) {
+                     httpResponse.putHeader(LOCATION_HEADER, response.getString(LOCATION));
+                   }
+                   String body = response.getString(BODY);
+                   if (body != null) {
+                     httpResponse.putHeader(CONTENT_TYPE, JSON_CONTENT_TYPE);
+                   }
+                   httpResponse.rxEnd(body != null ? body : "").subscribe();
+                 }, error -> responseBuilder.handleFailureResponse(routingContext,
+                     ERROR_STATUS_CODE, List.of(new ApiErrorResponse(
+                         "Unable to process the request", error.getMessage()))),
+                     () -> responseBuilder.handleFailureResponse(routingContext,
+                         CONFLICT_STATUS_CODE, List.of(new ApiErrorResponse(
+                             "A request with this " + IDEMPOTENCY_KEY_HEADER + " is in progress",
+                             "Retry the request later"))));
+  }
+
+  private void rejectMismatch(RoutingContext routingContext) {
+
+    responseBuilder.handleFailureResponse(routingContext, UNPROCESSABLE_ENTITY_STATUS_CODE,
+        List.of(new ApiErrorResponse("Idempotency key already used",
+            "The " + IDEMPOTENCY_KEY_HEADER + " was used with a different request body")));
+  }
+
+  private static String hash(Buffer body) {
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] bytes = body != null ? body.getBytes() : "".getBytes(StandardCharsets.UTF_8);
+      return Base64.getEncoder().encodeToString(digest.digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,30 +1,130 @@
 package com.ecommerce.orderservice.verticle;
 
+import com.ecommerce.orderservice.config.ConfigLoader;
+import com.ecommerce.orderservice.config.DependencyGuard;
+import com.ecommerce.orderservice.dao.IdempotencyStore;
+import com.ecommerce.orderservice.dao.OrderDateMigration;
+import com.ecommerce.orderservice.dao.PincodeIndex;
+import com.ecommerce.orderservice.dao.ProductCatalogClient;
+import com.ecommerce.orderservice.dao.ProductSnapshotBackfill;
+import com.ecommerce.orderservice.payload.response.ProductResponse;
+import com.ecommerce.orderservice.verticle.IdempotencyHandler.IdempotentRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Promise;
 import io.vertx.rxjava3.core.AbstractVerticle;
-import io.vertx.rxjava3.ext.web.Router;
-import io.vertx.rxjava3.ext.web.handler.BodyHandler;
-import io.vertx.rxjava3.ext.web.handler.StaticHandler;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
+import io.vertx.rxjava3.ext.web.client.WebClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * The MainVerticle prepares what the order verticles share and deploys them. It creates the
+ * indexes of the order database, loads the pincode index, creates the product cache, the cache of
+ * idempotent requests and the {@link DependencyGuard} of product-service and payment-service, and
+ * then deploys the {@link OrderPlacementVerticle} and {@code http_instances} instances of {@link
+ * OrderVerticle}, one per available processor by default.
+ * Orders placed before product snapshots were stored are backfilled, and order timestamps stored
+ * as strings are migrated to dates, in the background.
+ */
 @Component
 public class MainVerticle extends AbstractVerticle {
 
   private static final Logger LOG = LoggerFactory.getLogger(MainVerticle.class.getName());
+  private static final String PINCODE_CSV = "pincode_csv";
+  private static final String DEFAULT_PINCODE_CSV =
+      "src/main/resources/data/user_address_metadata.csv";
+  private static final String HTTP_INSTANCES = "http_instances";
+  private static final String PRODUCT_SERVICE = "product-service";
+  private static final String PAYMENT_SERVICE = "payment-service";
 
   @Override
   public void start(Promise<Void> startPromise) {
 
-    final Router router = Router.router(vertx);
-    router.route("/*").handler(StaticHandler.create());
-    router.route().handler(BodyHandler.create().setHandleFileUploads(true));
-    vertx.deployVerticle(new OrderVerticle(router));
-    LOG.info("Deployed verticle: {} Successfully!", OrderVerticle.class.getName());
-    vertx.createHttpServer().requestHandler(router).listen(8084).doOnError(error -> {
-      LOG.info("Http Server error occurred on port: 8084");
-      startPromise.fail(error.getCause());
-    }).subscribe();
+    createIndexes();
+    PincodeIndex pincodeIndex =
+        new PincodeIndex(config().getString(PINCODE_CSV, DEFAULT_PINCODE_CSV));
+    Cache<Integer, ProductResponse> productCache = ProductCatalogClient.createCache(config());
+    Cache<String, IdempotentRequest> idempotentRequests =
+        IdempotencyHandler.createCache(config());
+    DependencyGuard productService = DependencyGuard.create(vertx, PRODUCT_SERVICE, config());
+    DependencyGuard paymentService = DependencyGuard.create(vertx, PAYMENT_SERVICE, config());
+    backfillProductSnapshots(productCache, productService);
+    migrateOrderDates();
+    int instances = config().getInteger(HTTP_INSTANCES, 0);
+    if (instances <= 0) {
+      instances = Runtime.getRuntime().availableProcessors();
+    }
+    DeploymentOptions options = new DeploymentOptions().setConfig(config()).setInstances(instances);
+    pincodeIndex.load(vertx)
+                .onErrorReturn(error -> {
+                  LOG.error("Failed to load pincode index: {}", error.getMessage());
+                  return 0;
+                })
+                .flatMap(pincodes -> vertx.rxDeployVerticle(
+                    new OrderPlacementVerticle(productCache, productService, paymentService),
+                    new DeploymentOptions().setConfig(config())))
+                .flatMap(placementId -> vertx.rxDeployVerticle(
+                    () -> new OrderVerticle(pincodeIndex, idempotentRequests), options))
+                .subscribe(id -> {
+                  LOG.info("Deployed {} instances of verticle: {} Successfully!",
+                      options.getInstances(), OrderVerticle.class.getName());
+                  startPromise.complete();
+                }, error -> {
+                  LOG.error("Failed to deploy: {}", error.getMessage());
+                  startPromise.fail(error);
+                });
+  }
+
+  /**
+   * Creates the indexes of the order database once per deployment, in the background so that the
+   * server starts even while MongoDB is unavailable.
+   */
+  private void createIndexes() {
+
+    MongoClient mongoClient = ConfigLoader.mongoClient(vertx, config());
+    ConfigLoader.createIndexes(mongoClient)
+                .mergeWith(IdempotencyStore.createIndexes(mongoClient, config()))
+                .doFinally(mongoClient::close)
+                .subscribe(() -> LOG.info("MongoDB indexes created successfully!"),
+                    error -> LOG.error("Failed to create MongoDB indexes: {}", error.getMessage()));
+  }
+
+  /**
+   * Backfills the product snapshots of older orders once per deployment, in the background. Orders
+   * left over because product-service was unavailable are backfilled on the next deployment.
+   *
+   * @param productCache the product cache shared with the order verticles
+   * @param productService the guard of product-service shared with the order verticles
+   */
+  private void backfillProductSnapshots(Cache<Integer, ProductResponse> productCache,
+                                        DependencyGuard productService) {
+
+    MongoClient mongoClient = ConfigLoader.mongoClient(vertx, config());
+    WebClient webClient = WebClient.create(vertx);
+    new ProductSnapshotBackfill(mongoClient,
+        new ProductCatalogClient(webClient, productCache, productService, config()))
+        .run()
+        .doFinally(() -> {
+          webClient.close();
+          mongoClient.close();
+        })
+        .subscribe(count -> LOG.info("Backfilled product snapshots of {} orders", count),
+            error -> LOG.error("Failed to backfill product snapshots: {}", error.getMessage()));
+  }
+
+  /**
+   * Migrates the string timestamps of older orders to dates once per deployment, in the
+   * background. Until an order is migrated, it is not matched by date filters of the listing.
+   */
+  private void migrateOrderDates() {
+
+    MongoClient mongoClient = ConfigLoader.mongoClient(vertx, config());
+    new OrderDateMigration(mongoClient)
+        .run()
+        .doFinally(mongoClient::close)
+        .subscribe(count -> LOG.info("Migrated the timestamps of {} orders", count),
+            error -> LOG.error("Failed to migrate order timestamps: {}", error.getMessage()));
   }
 }
@@ -0,0 +1,106 @@
+package com.ecommerce.orderservice.verticle;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_PLACEMENT_ADDRESS;
+
+import com.ecommerce.orderservice.config.ConfigLoader;
+import com.ecommerce.orderservice.config.DependencyGuard;
+import com.ecommerce.orderservice.dao.OrderPlacementProcessor;
+import com.ecommerce.orderservice.dao.ProductCatalogClient;
+import com.ecommerce.orderservice.payload.response.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.AbstractVerticle;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
+import io.vertx.rxjava3.ext.web.client.WebClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The OrderPlacementVerticle completes the placement of the orders accepted by the order
+ * verticles, through an {@link OrderPlacementProcessor}.
+ * <p>
+ * The order verticles send the ID of every order they accept on the event bus, and the order is
+ * processed as soon as it is received. Every {@code poll_interval_ms}, the verticle also processes
+ * the orders whose placement is due: failed steps to retry, and orders whose message was lost or
+ * whose processing was interrupted by a restart. All calls are asynchronous, so the verticle runs
+ * on an event loop like the order verticles. The calls to product-service and payment-service go
+ * through the {@link DependencyGuard} of each service, shared with the other verticles.
+ */
+public class OrderPlacementVerticle extends AbstractVerticle {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OrderPlacementVerticle.class.getName());
+  private static final String ORDER_PLACEMENT = "order_placement";
+  private static final long DEFAULT_POLL_INTERVAL_MS = 5000;
+
+  private final Cache<Integer, ProductResponse> productCache;
+  private final DependencyGuard productService;
+  private final DependencyGuard paymentService;
+  private MongoClient mongoClient;
+  private WebClient webClient;
+  private OrderPlacementProcessor processor;
+  private boolean polling;
+
+  public OrderPlacementVerticle(Cache<Integer, ProductResponse> productCache,
+                                DependencyGuard productService, DependencyGuard paymentService) {
+
+    this.productCache = productCache;
+    this.productService = productService;
+    this.paymentService = paymentService;
+  }
+
+  /**
+   * Starts the OrderPlacementVerticle by creating its clients, consuming the placed orders from
+   * the event bus and scheduling the polling of the orders that are due.
+   *
+   * @param startFuture the promise that is completed once the event bus consumer is registered
+   */
+  @Override
+  public void start(Promise<Void> startFuture) {
+
+    this.mongoClient = ConfigLoader.mongoClient(vertx, config());
+    this.webClient = WebClient.create(vertx);
+    this.processor = new OrderPlacementProcessor(mongoClient, webClient,
+        new ProductCatalogClient(webClient, productCache, productService, config()),
+        productService, paymentService, config());
+    long pollInterval = config().getJsonObject(ORDER_PLACEMENT, new JsonObject())
+                                .getLong("poll_interval_ms", DEFAULT_POLL_INTERVAL_MS);
+    vertx.setPeriodic(pollInterval, timerId -> processDueOrders());
+    vertx.eventBus()
+         .<String>consumer(ORDER_PLACEMENT_ADDRESS)
+         .handler(message -> processor.process(message.body()).subscribe(
+             () -> { },
+             error -> LOG.error("Failed to process order {}: {}", message.body(),
+                 error.getMessage())))
+         .rxCompletionHandler()
+         .subscribe(startFuture::complete, startFuture::fail);
+  }
+
+  /**
+   * Stops the OrderPlacementVerticle by releasing its clients. Orders being processed are picked
+   * up again once their lease expires.
+   *
+   * @param stopFuture the promise that is completed once the clients are closed
+   */
+  @Override
+  public void stop(Promise<Void> stopFuture) {
+
+    this.webClient.close();
+    this.mongoClient.rxClose().subscribe(stopFuture::complete, stopFuture::fail);
+  }
+
+  /**
+   * Processes the orders that are due, unless the previous poll is still processing orders.
+   */
+  private void processDueOrders() {
+
+    if (polling) {
+      return;
+    }
+    polling = true;
+    processor.processDue()
+             .doFinally(() -> polling = false)
+             .subscribe(() -> { },
+                 error -> LOG.error("Failed to process due orders: {}", error.getMessage()));
+  }
+}
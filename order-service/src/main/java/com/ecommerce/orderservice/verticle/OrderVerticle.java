@@ -1,51 +1,84 @@
 package com.ecommerce.orderservice.verticle;
 
 import static com.ecommerce.orderservice.constant.ApiConstants.CONTACT;
+import static com.ecommerce.orderservice.constant.ApiConstants.CONTENT_TYPE;
+import static com.ecommerce.orderservice.constant.ApiConstants.ERROR_STATUS_CODE;
 import static com.ecommerce.orderservice.constant.ApiConstants.GET_ALL_ORDERS_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.GET_ORDER_STATUS_ENDPOINT;
 import static com.ecommerce.orderservice.constant.ApiConstants.GET_ORDERS_BY_USER_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.JSON_CONTENT_TYPE;
 import static com.ecommerce.orderservice.constant.ApiConstants.ORDER_ID;
 import static com.ecommerce.orderservice.constant.ApiConstants.PLACE_ORDER_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.RELOAD_PINCODES_ENDPOINT;
+import static com.ecommerce.orderservice.constant.ApiConstants.ROLE;
 import static com.ecommerce.orderservice.constant.ApiConstants.STATUS;
+import static com.ecommerce.orderservice.constant.ApiConstants.SUCCESS_STATUS_CODE;
+import static com.ecommerce.orderservice.constant.ApiConstants.UNAUTHORIZED_STATUS_CODE;
 import static com.ecommerce.orderservice.constant.ApiConstants.UPDATE_ORDER_PAYMENT_STATS_ENDPOINT;
 import static com.ecommerce.orderservice.constant.ApiConstants.UPDATE_ORDER_STATS_ENDPOINT;
 import static com.ecommerce.orderservice.constant.ApiConstants.USERNAME;
 
 import com.ecommerce.orderservice.config.ConfigLoader;
+import com.ecommerce.orderservice.dao.IdempotencyStore;
+import com.ecommerce.orderservice.dao.OrderDaoImpl;
+import com.ecommerce.orderservice.dao.PincodeIndex;
 import com.ecommerce.orderservice.exception.ApiErrorResponse;
+import com.ecommerce.orderservice.payload.response.OrderResponseBuilder;
 import com.ecommerce.orderservice.service.OrderService;
 import com.ecommerce.orderservice.service.OrderServiceImpl;
+import com.ecommerce.orderservice.verticle.IdempotencyHandler.IdempotentRequest;
+import com.github.benmanes.caffeine.cache.Cache;
 import io.vertx.core.Promise;
 import io.vertx.core.json.JsonObject;
+import io.vertx.micrometer.PrometheusScrapingHandler;
+import io.vertx.rxjava3.core.AbstractVerticle;
 import io.vertx.rxjava3.core.MultiMap;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
 import io.vertx.rxjava3.ext.web.Router;
 import io.vertx.rxjava3.ext.web.RoutingContext;
+import io.vertx.rxjava3.ext.web.handler.BodyHandler;
+import io.vertx.rxjava3.ext.web.handler.StaticHandler;
 import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The OrderVerticle class is responsible for handling routing and processing HTTP requests
- * associated with order-related operations in the application.
+ * The OrderVerticle class is responsible for serving HTTP requests associated with order-related
+ * operations in the application.
  * <p>
- * It extends the MainVerticle class and uses Vert.x framework components like Router and
- * RoutingContext
- * to define and manage REST endpoints for order functionalities.
+ * It is deployed once per event loop, and every instance owns its router, HTTP server, Mongo
+ * client and services. The HTTP servers of all instances listen on the same port, and Vert.x
+ * distributes the incoming connections between them, so order traffic is spread over all cores.
+ * Only the {@link PincodeIndex} and the cache of idempotent requests, both thread-safe, are shared
+ * by the instances. Placing an order and updating its payment status are idempotent for the
+ * requests carrying an {@code Idempotency-Key} header, through an {@link IdempotencyHandler}.
+ * Placed orders are completed by the {@link OrderPlacementVerticle}, so placing an order does not
+ * wait for product-service or payment-service.
  */
-public class OrderVerticle extends MainVerticle {
+public class OrderVerticle extends AbstractVerticle {
 
   private static final Logger LOG = LoggerFactory.getLogger(OrderVerticle.class.getName());
+  private static final String HTTP_PORT = "http_port";
+  private static final int DEFAULT_HTTP_PORT = 8084;
 
-  private final Router router;
-  private final OrderService orderService = new OrderServiceImpl();
+  private final PincodeIndex pincodeIndex;
+  private final Cache<String, IdempotentRequest> idempotentRequests;
+  private final OrderResponseBuilder responseBuilder = new OrderResponseBuilder();
+  private MongoClient mongoClient;
+  private OrderService orderService;
+  private IdempotencyStore idempotencyStore;
 
-  public OrderVerticle(Router router) {
+  public OrderVerticle(PincodeIndex pincodeIndex,
+                       Cache<String, IdempotentRequest> idempotentRequests) {
 
-    this.router = router;
+    this.pincodeIndex = pincodeIndex;
+    this.idempotentRequests = idempotentRequests;
   }
 
   /**
-   * Starts the OrderVerticle by configuring the router with necessary routes.
+   * Starts the OrderVerticle by creating its clients and services once from the verticle
+   * configuration, configuring its router and listening on the shared HTTP port.
    *
    * @param startFuture the promise that can be completed or failed to indicate the start status
    *                    of the verticle
@@ -53,7 +86,33 @@ public class OrderVerticle extends MainVerticle {
   @Override
   public void start(Promise<Void> startFuture) {
 
+    this.mongoClient = ConfigLoader.mongoClient(vertx, config());
+    this.orderService = new OrderServiceImpl(new OrderDaoImpl(pincodeIndex));
+    this.idempotencyStore = new IdempotencyStore(vertx, mongoClient, config());
+    final Router router = Router.router(vertx);
+    router.get("/metrics").handler(
+        routingContext -> PrometheusScrapingHandler.create().handle(routingContext.getDelegate()));
+    router.route("/*").handler(StaticHandler.create());
+    router.route().handler(BodyHandler.create().setHandleFileUploads(true));
     configRoutes(router);
+    int port = config().getInteger(HTTP_PORT, DEFAULT_HTTP_PORT);
+    vertx.createHttpServer().requestHandler(router).rxListen(port).subscribe(
+        server -> startFuture.complete(),
+        error -> {
+          LOG.error("Http Server error occurred on port: {}", port);
+          startFuture.fail(error);
+        });
+  }
+
+  /**
+   * Stops the OrderVerticle by releasing its Mongo client.
+   *
+   * @param stopFuture the promise that is completed once the client is closed
+   */
+  @Override
+  public void stop(Promise<Void> stopFuture) {
+
+    this.mongoClient.rxClose().subscribe(stopFuture::complete, stopFuture::fail);
   }
 
   /**
@@ -64,11 +123,28 @@ public class OrderVerticle extends MainVerticle {
    */
   public void configRoutes(Router parentRoute) {
 
-    parentRoute.post(PLACE_ORDER_ENDPOINT).handler(this::placeOrder);
+    parentRoute.post(PLACE_ORDER_ENDPOINT)
+               .handler(idempotent(PLACE_ORDER_ENDPOINT))
+               .handler(this::placeOrder);
     parentRoute.get(GET_ORDERS_BY_USER_ENDPOINT).handler(this::getOrder);
+    parentRoute.get(GET_ORDER_STATUS_ENDPOINT).handler(this::getOrderStatus);
     parentRoute.get(GET_ALL_ORDERS_ENDPOINT).handler(this::getOrders);
     parentRoute.patch(UPDATE_ORDER_STATS_ENDPOINT).handler(this::updateOrder);
-    parentRoute.post(UPDATE_ORDER_PAYMENT_STATS_ENDPOINT).handler(this::updateOrderPaymentStats);
+    parentRoute.post(UPDATE_ORDER_PAYMENT_STATS_ENDPOINT)
+               .handler(idempotent(UPDATE_ORDER_PAYMENT_STATS_ENDPOINT))
+               .handler(this::updateOrderPaymentStats);
+    parentRoute.post(RELOAD_PINCODES_ENDPOINT).handler(this::reloadPincodes);
+  }
+
+  /**
+   * Creates the handler making the requests to an endpoint idempotent.
+   *
+   * @param endpoint the endpoint, which scopes the idempotency keys
+   * @return the handler to route the requests through before the endpoint handler
+   */
+  private IdempotencyHandler idempotent(String endpoint) {
+
+    return new IdempotencyHandler(endpoint, idempotencyStore, idempotentRequests, config());
   }
 
   /**
@@ -86,7 +162,7 @@ public class OrderVerticle extends MainVerticle {
     JsonObject requestBody = routingContext.body().asJsonObject();
     String username = routingContext.request().getHeader(USERNAME);
     String contactNumber = routingContext.request().getHeader(CONTACT);
-    this.orderService.saveOrder(ConfigLoader.mongoConfig(), requestBody, username, contactNumber,
+    this.orderService.saveOrder(this.mongoClient, requestBody, username, contactNumber,
         errorResponses,
         routingContext);
   }
@@ -106,7 +182,7 @@ public class OrderVerticle extends MainVerticle {
     MultiMap params = routingContext.queryParams();
     String orderId = params.get(ORDER_ID);
     String orderStatus = params.get(STATUS);
-    this.orderService.updateOrderById(ConfigLoader.mongoConfig(), orderId, orderStatus,
+    this.orderService.updateOrderById(this.mongoClient, orderId, orderStatus,
         routingContext);
   }
 
@@ -131,8 +207,9 @@ public class OrderVerticle extends MainVerticle {
       if (orderId == null || paymentStatus == null) {
         routingContext.response()
            .setStatusCode(400).end("Missing orderId or paymentStatus");
+        return;
       }
-      this.orderService.updateOrderStats(ConfigLoader.mongoConfig(), orderId, paymentStatus, paymentMethod, routingContext);
+      this.orderService.updateOrderStats(this.mongoClient, orderId, paymentStatus, paymentMethod, routingContext);
     } catch (Exception e) {
       routingContext.response().setStatusCode(500).end("Invalid request payload");
     }
@@ -149,7 +226,20 @@ public class OrderVerticle extends MainVerticle {
 
     LOG.info("Inside getOrder");
     String username = routingContext.request().getHeader(USERNAME);
-    this.orderService.retrieveOrders(ConfigLoader.mongoConfig(), username, routingContext);
+    this.orderService.retrieveOrders(this.mongoClient, username, routingContext);
+  }
+
+  /**
+   * Handles polling the status of an order placed by the user identified by the username header,
+   * with the order ID given as a query parameter.
+   *
+   * @param routingContext the context of the current HTTP request
+   */
+  public void getOrderStatus(RoutingContext routingContext) {
+
+    String orderId = routingContext.queryParams().get(ORDER_ID);
+    String username = routingContext.request().getHeader(USERNAME);
+    this.orderService.retrieveOrderStatus(this.mongoClient, orderId, username, routingContext);
   }
 
   /**
@@ -163,7 +253,35 @@ public class OrderVerticle extends MainVerticle {
   public void getOrders(RoutingContext routingContext) {
 
     LOG.info("Inside getOrders");
-    this.orderService.retrieveAllOrders(ConfigLoader.mongoConfig(), routingContext);
+    this.orderService.retrieveAllOrders(this.mongoClient, routingContext);
   }
 
+  /**
+   * Reloads the in-memory pincode index from the address metadata file on a worker thread.
+   * Orders keep being validated against the previous index until the new one is loaded.
+   *
+   * @param routingContext the routing context of the HTTP request, whose role header must not
+   *                       be that of a regular user
+   */
+  public void reloadPincodes(RoutingContext routingContext) {
+
+    LOG.info("Inside reloadPincodes");
+    String role = routingContext.request().getHeader(ROLE);
+    if ("ROLE_USER".equals(role)) {
+      responseBuilder.handleFailureResponse(routingContext, UNAUTHORIZED_STATUS_CODE,
+          List.of(new ApiErrorResponse("Unable to reload pincodes",
+              "Requires ROLE_ADMIN to reload pincodes")));
+      return;
+    }
+    this.pincodeIndex.load(vertx).subscribe(
+        pincodes -> routingContext.response()
+                                  .putHeader(CONTENT_TYPE, JSON_CONTENT_TYPE)
+                                  .setStatusCode(SUCCESS_STATUS_CODE)
+                                  .end(new JsonObject().put("pincodes", pincodes).encode()),
+        error -> {
+          LOG.error("Failed to reload pincodes: {}", error.getMessage());
+          responseBuilder.handleFailureResponse(routingContext, ERROR_STATUS_CODE,
+              List.of(new ApiErrorResponse("Unable to reload pincodes", error.getMessage())));
+        });
+  }
 }
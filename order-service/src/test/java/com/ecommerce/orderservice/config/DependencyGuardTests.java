@@ -0,0 +1,110 @@
+package com.ecommerce.orderservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.vertx.circuitbreaker.OpenCircuitException;
+import io.vertx.circuitbreaker.TimeoutException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.Vertx;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DependencyGuardTests {
+
+  private Vertx vertx;
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @BeforeEach
+  void createVertx() {
+
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void closeVertx() {
+
+    vertx.rxClose().blockingAwait();
+  }
+
+  @Test
+  void opensTheCircuitAfterConsecutiveFailures() {
+
+    DependencyGuard guard = guard(new JsonObject().put("max_failures", 2)
+                                                  .put("reset_timeout_ms", 60000));
+
+    for (int i = 0; i < 2; i++) {
+      assertThrows(IllegalStateException.class, () -> guard.call(this::failing).blockingGet());
+    }
+    RuntimeException rejected =
+        assertThrows(OpenCircuitException.class, () -> guard.call(this::failing).blockingGet());
+
+    assertEquals(2, calls.get());
+    assertTrue(DependencyGuard.isRejected(rejected));
+  }
+
+  @Test
+  void letsACallThroughOnceTheResetTimeoutHasPassed() throws InterruptedException {
+
+    DependencyGuard guard = guard(new JsonObject().put("max_failures", 1)
+                                                  .put("reset_timeout_ms", 200));
+    assertThrows(IllegalStateException.class, () -> guard.call(this::failing).blockingGet());
+    assertThrows(OpenCircuitException.class, () -> guard.call(this::succeeding).blockingGet());
+
+    Thread.sleep(400);
+
+    assertEquals("ok", guard.call(this::succeeding).blockingGet());
+    assertEquals("ok", guard.call(this::succeeding).blockingGet());
+  }
+
+  @Test
+  void failsACallThatDoesNotCompleteInTime() {
+
+    DependencyGuard guard = guard(new JsonObject().put("timeout_ms", 100));
+
+    RuntimeException error =
+        assertThrows(TimeoutException.class, () -> guard.call(Single::never).blockingGet());
+
+    assertFalse(DependencyGuard.isRejected(error));
+  }
+
+  @Test
+  void rejectsCallsBeyondTheCallsInFlight() {
+
+    DependencyGuard guard = guard(new JsonObject().put("max_concurrent_requests", 1));
+    Disposable pending = guard.call(Single::never).subscribe();
+
+    RuntimeException rejected = assertThrows(RejectedExecutionException.class,
+        () -> guard.call(this::succeeding).blockingGet());
+
+    assertTrue(DependencyGuard.isRejected(rejected));
+    assertEquals(0, calls.get());
+    pending.dispose();
+  }
+
+  private DependencyGuard guard(JsonObject settings) {
+
+    JsonObject config = new JsonObject().put("circuit_breakers",
+        new JsonObject().put("product_service", settings));
+    return DependencyGuard.create(vertx, "product-service", config);
+  }
+
+  private Single<String> failing() {
+
+    calls.incrementAndGet();
+    return Single.error(new IllegalStateException("Connection refused"));
+  }
+
+  private Single<String> succeeding() {
+
+    calls.incrementAndGet();
+    return Single.just("ok");
+  }
+}
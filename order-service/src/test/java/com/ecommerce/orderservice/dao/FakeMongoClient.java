@@ -0,0 +1,301 @@
+package com.ecommerce.orderservice.dao;
+
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.MongoClientDeleteResult;
+import io.vertx.ext.mongo.MongoClientUpdateResult;
+import io.vertx.ext.mongo.UpdateOptions;
+import io.vertx.rxjava3.ext.mongo.MongoClient;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.bson.BsonDocument;
+
+/**
+ * An in-memory MongoDB client holding the documents of each collection, for the tests of the
+ * classes writing to MongoDB. It implements the calls those classes make, and the query
+ * operators and update operators they use: equality on dotted paths, {@code $or}, {@code
+ * $exists}, {@code $lt}, {@code $lte}, {@code $gte}, {@code $not} and {@code $type: date} in
+ * queries, {@code $set} and {@code $unset} in updates, and the sort and limit of a find. Dates are
+ * compared as instants, values of different types never match a comparison and sort by type, as
+ * in MongoDB.
+ */
+public final class FakeMongoClient {
+
+  private static final String ID = "_id";
+  private static final String DATE = "$date";
+
+  private final Map<String, List<JsonObject>> collections = new HashMap<>();
+
+  /**
+   * Returns the documents of a collection, which tests may read and change.
+   */
+  public synchronized List<JsonObject> documents(String collection) {
+
+    return collections.computeIfAbsent(collection, name -> new ArrayList<>());
+  }
+
+  /**
+   * Returns a client reading and writing the documents of this fake.
+   */
+  @SuppressWarnings("unchecked")
+  public MongoClient client() {
+
+    io.vertx.ext.mongo.MongoClient delegate = (io.vertx.ext.mongo.MongoClient)
+        Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {io.vertx.ext.mongo.MongoClient.class},
+            (proxy, method, args) -> {
+              Future<Object> result;
+              try {
+                result = Future.succeededFuture(invoke(method.getName(), args));
+              } catch (RuntimeException e) {
+                result = Future.failedFuture(e);
+              }
+              if (args[args.length - 1] instanceof Handler) {
+                ((Handler<AsyncResult<Object>>) args[args.length - 1]).handle(result);
+                return proxy;
+              }
+              return result;
+            });
+    return MongoClient.newInstance(delegate);
+  }
+
+  private synchronized Object invoke(String method, Object[] args) {
+
+    List<JsonObject> documents = documents((String) args[0]);
+    JsonObject query = (JsonObject) args[1];
+    switch (method) {
+      case "insert":
+        return insert(documents, query);
+      case "find":
+        return documents.stream()
+                        .filter(document -> matches(document, query))
+                        .map(JsonObject::copy)
+                        .collect(Collectors.toList());
+      case "findWithOptions":
+        FindOptions options = (FindOptions) args[2];
+        return documents.stream()
+                        .filter(document -> matches(document, query))
+                        .sorted(sortOrder(options.getSort()))
+                        .limit(options.getLimit() <= 0 ? Long.MAX_VALUE : options.getLimit())
+                        .map(JsonObject::copy)
+                        .collect(Collectors.toList());
+      case "findOne":
+        return documents.stream()
+                        .filter(document -> matches(document, query))
+                        .findFirst()
+                        .map(JsonObject::copy)
+                        .orElse(null);
+      case "findOneAndUpdate":
+        return findOneAndUpdate(documents, query, (JsonObject) args[2], false);
+      case "findOneAndUpdateWithOptions":
+        return findOneAndUpdate(documents, query, (JsonObject) args[2],
+            ((UpdateOptions) args[4]).isReturningNewDocument());
+      case "updateCollection":
+        long matched = documents.stream()
+                                .filter(document -> matches(document, query))
+                                .peek(document -> update(document, (JsonObject) args[2]))
+                                .count();
+        return new MongoClientUpdateResult(matched, null, matched);
+      case "removeDocument":
+        JsonObject removed = documents.stream()
+                                      .filter(document -> matches(document, query))
+                                      .findFirst()
+                                      .orElse(null);
+        documents.remove(removed);
+        return new MongoClientDeleteResult(removed == null ? 0 : 1);
+      default:
+        throw new UnsupportedOperationException(method);
+    }
+  }
+
+  private static String insert(List<JsonObject> documents, JsonObject document) {
+
+    Object id = document.getValue(ID);
+    if (id != null && documents.stream().anyMatch(existing -> id.equals(existing.getValue(ID)))) {
+      throw new MongoWriteException(
+          new WriteError(11000, "E11000 duplicate key error", new BsonDocument()),
+          new ServerAddress());
+    }
+    documents.add(document.copy());
+    return null;
+  }
+
+  private static JsonObject findOneAndUpdate(List<JsonObject> documents, JsonObject query,
+                                             JsonObject update, boolean returnNew) {
+
+    for (JsonObject document : documents) {
+      if (matches(document, query)) {
+        JsonObject before = document.copy();
+        update(document, update);
+        return returnNew ? document.copy() : before;
+      }
+    }
+    return null;
+  }
+
+  private static void update(JsonObject document, JsonObject update) {
+
+    update.getJsonObject("$set", new JsonObject())
+          .forEach(field -> put(document, field.getKey(), field.getValue()));
+    update.getJsonObject("$unset", new JsonObject())
+          .fieldNames()
+          .forEach(path -> remove(document, path));
+  }
+
+  private static boolean matches(JsonObject document, JsonObject query) {
+
+    for (Map.Entry<String, Object> condition : query) {
+      if (condition.getKey().equals("$or")) {
+        JsonArray alternatives = (JsonArray) condition.getValue();
+        if (alternatives.stream().noneMatch(
+            alternative -> matches(document, (JsonObject) alternative))) {
+          return false;
+        }
+      } else if (!matchesValue(get(document, condition.getKey()), condition.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean matchesValue(Object value, Object condition) {
+
+    if (!(condition instanceof JsonObject) || ((JsonObject) condition).containsKey(DATE)) {
+      return condition.equals(value);
+    }
+    for (Map.Entry<String, Object> operator : (JsonObject) condition) {
+      Object operand = operator.getValue();
+      boolean matches;
+      switch (operator.getKey()) {
+        case "$exists":
+          matches = (value != null) == (Boolean) operand;
+          break;
+        case "$lt":
+          matches = compare(value, operand) < 0;
+          break;
+        case "$lte":
+          matches = compare(value, operand) <= 0;
+          break;
+        case "$gte":
+          matches = compare(value, operand) >= 0;
+          break;
+        case "$not":
+          matches = !matchesValue(value, operand);
+          break;
+        case "$type":
+          matches = "date".equals(operand) && MongoDates.fromDate(value) != null;
+          break;
+        default:
+          throw new UnsupportedOperationException(operator.getKey());
+      }
+      if (!matches) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Comparator<JsonObject> sortOrder(JsonObject sort) {
+
+    Comparator<JsonObject> order = (first, second) -> 0;
+    for (Map.Entry<String, Object> field : sort) {
+      Comparator<JsonObject> byField = (first, second) ->
+          sortCompare(get(first, field.getKey()), get(second, field.getKey()));
+      order = order.thenComparing(((Number) field.getValue()).intValue() < 0
+          ? byField.reversed() : byField);
+    }
+    return order;
+  }
+
+  /**
+   * Compares two values for a sort, ordering values of different types by type: missing values,
+   * numbers, strings, objects and then dates.
+   */
+  private static int sortCompare(Object value, Object other) {
+
+    int byType = Integer.compare(typeRank(value), typeRank(other));
+    return byType != 0 || value == null ? byType : (int) Math.signum(compare(value, other));
+  }
+
+  private static int typeRank(Object value) {
+
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof Number) {
+      return 1;
+    }
+    if (value instanceof String) {
+      return 2;
+    }
+    return MongoDates.fromDate(value) == null ? 3 : 4;
+  }
+
+  /**
+   * Compares two values of the same type, returning a value no comparison matches, as NaN, when
+   * their types differ.
+   */
+  private static double compare(Object value, Object operand) {
+
+    Instant date = MongoDates.fromDate(value);
+    Instant other = MongoDates.fromDate(operand);
+    if (date != null && other != null) {
+      return date.compareTo(other);
+    }
+    if (value instanceof String && operand instanceof String) {
+      return ((String) value).compareTo((String) operand);
+    }
+    if (value instanceof Number && operand instanceof Number) {
+      return Double.compare(((Number) value).doubleValue(), ((Number) operand).doubleValue());
+    }
+    return Double.NaN;
+  }
+
+  private static Object get(JsonObject document, String path) {
+
+    Object value = document;
+    for (String field : path.split("\\.")) {
+      if (!(value instanceof JsonObject)) {
+        return null;
+      }
+      value = ((JsonObject) value).getValue(field);
+    }
+    return value;
+  }
+
+  private static void put(JsonObject document, String path, Object value) {
+
+    String[] fields = path.split("\\.");
+    JsonObject parent = document;
+    for (int i = 0; i < fields.length - 1; i++) {
+      if (!(parent.getValue(fields[i]) instanceof JsonObject)) {
+        parent.put(fields[i], new JsonObject());
+      }
+      parent = parent.getJsonObject(fields[i]);
+    }
+    parent.put(fields[fields.length - 1],
+        value instanceof JsonObject ? ((JsonObject) value).copy() : value);
+  }
+
+  private static void remove(JsonObject document, String path) {
+
+    int dot = path.lastIndexOf('.');
+    Object parent = dot < 0 ? document : get(document, path.substring(0, dot));
+    if (parent instanceof JsonObject) {
+      ((JsonObject) parent).remove(path.substring(dot + 1));
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.orderservice.dao;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.IDEMPOTENCY_COLLECTION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.Vertx;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IdempotencyStoreTests {
+
+  private static final String KEY = "place-order:alice:key-1";
+
+  private Vertx vertx;
+  private FakeMongoClient mongo;
+  private IdempotencyStore store;
+
+  @BeforeEach
+  void createStore() {
+
+    vertx = Vertx.vertx();
+    mongo = new FakeMongoClient();
+    store = new IdempotencyStore(vertx, mongo.client(),
+        new JsonObject().put("idempotency", new JsonObject().put("lease_ms", 60000)));
+  }
+
+  @AfterEach
+  void closeVertx() {
+
+    vertx.rxClose().blockingAwait();
+  }
+
+  @Test
+  void claimsAKeyOnce() {
+
+    assertNull(store.claim(KEY, "hash-1").blockingGet());
+
+    JsonObject holder = store.claim(KEY, "hash-2").blockingGet();
+
+    assertEquals("hash-1", IdempotencyStore.requestHash(holder));
+    assertNull(IdempotencyStore.response(holder));
+  }
+
+  @Test
+  void takesOverAKeyWhoseLeaseExpired() {
+
+    store.claim(KEY, "hash-1").blockingGet();
+    expireLease();
+
+    assertNull(store.claim(KEY, "hash-2").blockingGet());
+
+    JsonObject record = mongo.documents(IDEMPOTENCY_COLLECTION).get(0);
+    assertEquals("hash-2", IdempotencyStore.requestHash(record));
+    assertTrue(MongoDates.fromDate(record.getValue("locked_until")).isAfter(Instant.now()));
+    assertEquals("hash-2", IdempotencyStore.requestHash(store.claim(KEY, "hash-3").blockingGet()));
+  }
+
+  @Test
+  void takesOverAKeyWithoutALease() {
+
+    store.claim(KEY, "hash-1").blockingGet();
+    mongo.documents(IDEMPOTENCY_COLLECTION).get(0).remove("locked_until");
+
+    assertNull(store.claim(KEY, "hash-2").blockingGet());
+  }
+
+  @Test
+  void neverTakesOverACompletedKey() {
+
+    JsonObject response = new JsonObject().put("status", 202);
+    store.claim(KEY, "hash-1").blockingGet();
+    store.complete(KEY, response).blockingAwait();
+    expireLease();
+
+    JsonObject holder = store.claim(KEY, "hash-1").blockingGet();
+
+    assertEquals(response, IdempotencyStore.response(holder));
+  }
+
+  @Test
+  void claimsAReleasedKeyAgain() {
+
+    store.claim(KEY, "hash-1").blockingGet();
+    store.release(KEY).blockingAwait();
+
+    assertNull(store.claim(KEY, "hash-2").blockingGet());
+  }
+
+  @Test
+  void awaitsTheResponseOfTheRequestHoldingTheKey() {
+
+    JsonObject response = new JsonObject().put("status", 202);
+    store.claim(KEY, "hash-1").blockingGet();
+    vertx.setTimer(300, id -> store.complete(KEY, response).subscribe());
+
+    assertEquals(response, store.awaitResponse(KEY, 2000).blockingGet());
+  }
+
+  @Test
+  void stopsAwaitingWhenTheKeyIsReleasedOrItsLeaseExpires() {
+
+    store.claim(KEY, "hash-1").blockingGet();
+    vertx.setTimer(300, id -> store.release(KEY).subscribe());
+
+    assertNull(store.awaitResponse(KEY, 2000).blockingGet());
+
+    store.claim(KEY, "hash-1").blockingGet();
+    expireLease();
+
+    assertNull(store.awaitResponse(KEY, 2000).blockingGet());
+  }
+
+  private void expireLease() {
+
+    mongo.documents(IDEMPOTENCY_COLLECTION).get(0)
+         .put("locked_until", MongoDates.toDate(Instant.now().minusSeconds(1)));
+  }
+}
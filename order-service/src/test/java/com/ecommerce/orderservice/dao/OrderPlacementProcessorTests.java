@@ -0,0 +1,260 @@
+package com.ecommerce.orderservice.dao;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.COLLECTION;
+import static com.ecommerce.orderservice.constant.ApiConstants.PORT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ecommerce.orderservice.config.DependencyGuard;
+import com.ecommerce.orderservice.payload.response.ProductResponse;
+import io.reactivex.rxjava3.core.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.Vertx;
+import io.vertx.rxjava3.core.http.HttpServer;
+import io.vertx.rxjava3.core.http.HttpServerRequest;
+import io.vertx.rxjava3.ext.web.client.WebClient;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs order placements against an in-memory MongoDB and a local server standing in for
+ * product-service and payment-service.
+ */
+class OrderPlacementProcessorTests {
+
+  private static final String ORDER_ID = "65f1c2a4b7e9d80123456789";
+  private static final String RESERVE = "/products/v1/order";
+  private static final String RELEASE = "/products/v1/reserved-stocks/release";
+  private static final String CHECKOUT = "/payments/checkout/" + ORDER_ID;
+  private static final String PAYMENT_STATUS = "/payments/status/" + ORDER_ID;
+  private static final String SERVICE_CREDENTIAL = "Bearer order-service";
+
+  private Vertx vertx;
+  private HttpServer server;
+  private WebClient webClient;
+  private FakeMongoClient mongo;
+  private final Map<String, Integer> statusCodes = new HashMap<>();
+  private final Map<String, String> bodies = new HashMap<>();
+  private final List<HttpServerRequest> requests = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void startServices() {
+
+    vertx = Vertx.vertx();
+    statusCodes.put(CHECKOUT, 200);
+    bodies.put(CHECKOUT, new JsonObject().put("payment_link_id", "plink_1")
+                                         .put("status", "PENDING")
+                                         .encode());
+    bodies.put(PAYMENT_STATUS, "SUCCESS");
+    server = vertx.createHttpServer().requestHandler(request -> {
+      requests.add(request);
+      Integer statusCode = statusCodes.get(request.path());
+      if (statusCode == null) {
+        request.connection().close();
+      } else {
+        request.response()
+               .setStatusCode(statusCode)
+               .end(bodies.getOrDefault(request.path(), ""));
+      }
+    }).rxListen(PORT).blockingGet();
+    webClient = WebClient.create(vertx);
+    mongo = new FakeMongoClient();
+    mongo.documents(COLLECTION).add(new JsonObject()
+        .put("_id", ORDER_ID)
+        .put("order_status", "PENDING")
+        .put("order_items", new JsonArray().add(new JsonObject().put("product_id", 7)
+                                                                .put("quantity", 2)
+                                                                .put("size", "M")))
+        .put("outbox", OrderPlacementProcessor.newOutbox()));
+  }
+
+  @AfterEach
+  void stopServices() {
+
+    server.rxClose().blockingAwait();
+    vertx.rxClose().blockingAwait();
+  }
+
+  @Test
+  void placesAnOrderThroughEveryStep() {
+
+    statusCodes.put(RESERVE, 200);
+    statusCodes.put(PAYMENT_STATUS, 200);
+
+    processor(new JsonObject()).process(ORDER_ID).blockingAwait();
+
+    JsonObject order = order();
+    assertEquals("CONFIRMED", order.getString("order_status"));
+    assertNull(order.getValue("outbox"));
+    assertEquals(200.0f, order.getFloat("total_amount").floatValue());
+    assertEquals("Shirt", order.getJsonArray("order_items").getJsonObject(0)
+                               .getString("product_name"));
+    assertEquals(List.of(RESERVE, CHECKOUT, PAYMENT_STATUS), paths());
+    assertEquals(ORDER_ID, request(RESERVE).getParam("order_id"));
+    assertEquals(SERVICE_CREDENTIAL, request(CHECKOUT).getHeader("Authorization"));
+    assertEquals(SERVICE_CREDENTIAL, request(PAYMENT_STATUS).getHeader("Authorization"));
+  }
+
+  @Test
+  void retriesAStepThatFailedInTransportWithBackoff() {
+
+    processor(new JsonObject()).process(ORDER_ID).blockingAwait();
+
+    JsonObject outbox = order().getJsonObject("outbox");
+    assertEquals("PENDING", order().getString("order_status"));
+    assertEquals("RESERVE_STOCK", outbox.getString("step"));
+    assertEquals(1, outbox.getInteger("attempts").intValue());
+    assertNotNull(outbox.getString("last_error"));
+    assertTrue(MongoDates.fromDate(outbox.getValue("next_attempt_at"))
+                         .isAfter(Instant.now().plusMillis(500)));
+    assertEquals(List.of(RESERVE), paths());
+  }
+
+  @Test
+  void doesNotProcessAnOrderBeforeItsRetryIsDue() {
+
+    OrderPlacementProcessor processor = processor(new JsonObject());
+    processor.process(ORDER_ID).blockingAwait();
+    requests.clear();
+
+    processor.process(ORDER_ID).blockingAwait();
+    processor.processDue().blockingAwait();
+
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  void releasesTheStockOfAnOrderWhoseReservationWasRejected() {
+
+    statusCodes.put(RESERVE, 400);
+    statusCodes.put(RELEASE, 200);
+
+    processor(new JsonObject()).process(ORDER_ID).blockingAwait();
+
+    JsonObject order = order();
+    assertEquals("PLACEMENT_FAILED", order.getString("order_status"));
+    assertNotNull(order.getString("placement_error"));
+    assertNull(order.getValue("outbox"));
+    assertEquals(List.of(RESERVE, RELEASE), paths());
+    assertEquals(ORDER_ID, request(RELEASE).getParam("order_id"));
+  }
+
+  @Test
+  void releasesTheStockOfAnOrderWhosePaymentFailed() {
+
+    statusCodes.put(RESERVE, 200);
+    statusCodes.put(CHECKOUT, 500);
+    statusCodes.put(RELEASE, 200);
+
+    processor(new JsonObject().put("max_attempts", 1)).process(ORDER_ID).blockingAwait();
+
+    assertEquals("PAYMENT_FAILED", order().getString("order_status"));
+    assertEquals(List.of(RESERVE, CHECKOUT, RELEASE), paths());
+  }
+
+  @Test
+  void keepsTheOutboxWhenTheStockCannotBeReleased() {
+
+    statusCodes.put(RESERVE, 400);
+    statusCodes.put(RELEASE, 500);
+
+    processor(new JsonObject()).process(ORDER_ID).blockingAwait();
+
+    JsonObject order = order();
+    assertEquals("PENDING", order.getString("order_status"));
+    assertEquals("RESERVE_STOCK", order.getJsonObject("outbox").getString("step"));
+    assertEquals(1, order.getJsonObject("outbox").getInteger("attempts").intValue());
+  }
+
+  @Test
+  void failsAnOrderForAnUnknownProductWithoutReleasingStock() {
+
+    mongo.documents(COLLECTION).get(0).getJsonArray("order_items").getJsonObject(0)
+         .put("product_id", 8);
+
+    processor(new JsonObject()).process(ORDER_ID).blockingAwait();
+
+    assertEquals("PLACEMENT_FAILED", order().getString("order_status"));
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  void postponesAStepRejectedByItsGuardWithoutCountingAnAttempt() {
+
+    JsonObject config = new JsonObject().put("circuit_breakers", new JsonObject()
+        .put("product_service", new JsonObject().put("max_concurrent_requests", 0)));
+
+    processor(new JsonObject(), config).process(ORDER_ID).blockingAwait();
+
+    JsonObject outbox = order().getJsonObject("outbox");
+    assertEquals("RESERVE_STOCK", outbox.getString("step"));
+    assertEquals(0, outbox.getInteger("attempts").intValue());
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  void leavesThePaymentToTheWebhookWhenItsStatusCannotBeRead() {
+
+    statusCodes.put(RESERVE, 200);
+    statusCodes.put(PAYMENT_STATUS, 500);
+
+    processor(new JsonObject().put("max_attempts", 1)).process(ORDER_ID).blockingAwait();
+
+    assertEquals("AWAITING_PAYMENT", order().getString("order_status"));
+    assertFalse(paths().contains(RELEASE));
+  }
+
+  private OrderPlacementProcessor processor(JsonObject placement) {
+
+    return processor(placement, new JsonObject());
+  }
+
+  private OrderPlacementProcessor processor(JsonObject placement, JsonObject config) {
+
+    config.put("order_placement", placement.copy()
+                                           .put("retry_delay_ms", 1000)
+                                           .put("payment_authorization", SERVICE_CREDENTIAL));
+    ProductCatalogClient catalog = new ProductCatalogClient(webClient, null, null, config) {
+      @Override
+      public Single<Map<Integer, ProductResponse>> fetchProducts(Collection<Integer> productIds) {
+
+        ProductResponse shirt = new ProductResponse();
+        shirt.setProductId(7);
+        shirt.setProductName("Shirt");
+        shirt.setTotalPrice(100.0f);
+        return Single.just(Map.of(7, shirt));
+      }
+    };
+    return new OrderPlacementProcessor(mongo.client(), webClient, catalog,
+        DependencyGuard.create(vertx, "product-service", config),
+        DependencyGuard.create(vertx, "payment-service", config), config);
+  }
+
+  private JsonObject order() {
+
+    return mongo.documents(COLLECTION).get(0);
+  }
+
+  private List<String> paths() {
+
+    return requests.stream().map(HttpServerRequest::path).collect(Collectors.toList());
+  }
+
+  private HttpServerRequest request(String path) {
+
+    return requests.stream().filter(request -> request.path().equals(path)).findFirst()
+                   .orElseThrow();
+  }
+}
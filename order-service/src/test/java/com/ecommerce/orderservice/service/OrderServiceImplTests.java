@@ -0,0 +1,141 @@
+package com.ecommerce.orderservice.service;
+
+import static com.ecommerce.orderservice.constant.ApiConstants.COLLECTION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ecommerce.orderservice.dao.FakeMongoClient;
+import com.ecommerce.orderservice.dao.OrderDaoImpl;
+import com.ecommerce.orderservice.exception.ApiErrorResponse;
+import com.ecommerce.orderservice.payload.request.order.OrderQuery;
+import com.ecommerce.orderservice.payload.response.OrderPage;
+import com.ecommerce.orderservice.payload.response.OrderResponseList;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.rxjava3.core.MultiMap;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the keyset cursors of the admin order listing, from the parameters of a request to the
+ * pages read from an in-memory MongoDB.
+ */
+class OrderServiceImplTests {
+
+  private static final String ORDER_ID = "65f1c2a4b7e9d80123456789";
+
+  private final OrderServiceImpl orderService = new OrderServiceImpl(null);
+
+  @Test
+  void parsesTheCursorOfAnOrderWithAPlacementDate() {
+
+    Instant placedAt = Instant.parse("2024-03-01T10:15:30.123Z");
+    List<ApiErrorResponse> errors = new ArrayList<>();
+
+    OrderQuery query =
+        parse(params().add("cursor", OrderQuery.cursorAfter(placedAt, ORDER_ID)), errors);
+
+    assertTrue(errors.isEmpty());
+    assertEquals(placedAt, query.getAfterPlacedAt());
+    assertEquals(ORDER_ID, query.getAfterOrderId());
+    assertNull(query.getAfterLegacyPlacedAt());
+  }
+
+  @Test
+  void parsesTheCursorOfAnOrderWithALegacyPlacementTime() {
+
+    String placedAt = "01/03/2024 10:15:30 am +05:30?";
+    List<ApiErrorResponse> errors = new ArrayList<>();
+
+    OrderQuery query =
+        parse(params().add("cursor", OrderQuery.cursorAfterLegacy(placedAt, ORDER_ID)), errors);
+
+    assertTrue(errors.isEmpty());
+    assertEquals(placedAt, query.getAfterLegacyPlacedAt());
+    assertEquals(ORDER_ID, query.getAfterOrderId());
+    assertNull(query.getAfterPlacedAt());
+  }
+
+  @Test
+  void rejectsInvalidCursorsAndLimits() {
+
+    for (String cursor : List.of("1709288130123", "1709288130123-" + ORDER_ID.toUpperCase(),
+        "legacy-" + ORDER_ID, "legacy-" + ORDER_ID + "-a+b/", "1709288130123-65f1c2a4")) {
+      List<ApiErrorResponse> errors = new ArrayList<>();
+      parse(params().add("cursor", cursor), errors);
+      assertEquals(1, errors.size(), cursor);
+    }
+    for (String limit : List.of("0", "201", "-1", "ten")) {
+      List<ApiErrorResponse> errors = new ArrayList<>();
+      parse(params().add("limit", limit), errors);
+      assertEquals(1, errors.size(), limit);
+    }
+  }
+
+  @Test
+  void listsEveryOrderOnceAcrossPagesOfDatedAndLegacyOrders() {
+
+    FakeMongoClient mongo = new FakeMongoClient();
+    List<JsonObject> orders = mongo.documents(COLLECTION);
+    orders.add(order("65f1c2a4b7e9d80123456701", date("2024-03-01T10:00:00Z")));
+    orders.add(order("65f1c2a4b7e9d80123456702", date("2024-03-02T10:00:00Z")));
+    orders.add(order("65f1c2a4b7e9d80123456703", date("2024-03-02T10:00:00Z")));
+    orders.add(order("65f1c2a4b7e9d80123456704", date("2024-03-02T10:00:00Z")));
+    orders.add(order("65f1c2a4b7e9d80123456705", "2023-12-31 23:59"));
+    orders.add(order("65f1c2a4b7e9d80123456706", "2023-12-31 23:59"));
+    orders.add(order("65f1c2a4b7e9d80123456707", "2023-01-15 08:00"));
+    OrderDaoImpl orderDao = new OrderDaoImpl(null);
+
+    List<String> listed = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      MultiMap params = params().add("limit", "2");
+      if (cursor != null) {
+        params.add("cursor", cursor);
+      }
+      List<ApiErrorResponse> errors = new ArrayList<>();
+      OrderQuery query = parse(params, errors);
+      assertTrue(errors.isEmpty(), cursor);
+      OrderPage page = orderDao.getAllOrders(mongo.client(), query)
+                               .toCompletionStage()
+                               .toCompletableFuture()
+                               .join();
+      page.getOrders().stream().map(OrderResponseList::getOrderId).forEach(listed::add);
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null && pages < 10);
+
+    assertEquals(List.of("65f1c2a4b7e9d80123456704", "65f1c2a4b7e9d80123456703",
+        "65f1c2a4b7e9d80123456702", "65f1c2a4b7e9d80123456701", "65f1c2a4b7e9d80123456706",
+        "65f1c2a4b7e9d80123456705", "65f1c2a4b7e9d80123456707"), listed);
+    assertEquals(4, pages);
+  }
+
+  private OrderQuery parse(MultiMap params, List<ApiErrorResponse> errors) {
+
+    return orderService.parseOrderQuery(params, false, errors);
+  }
+
+  private static MultiMap params() {
+
+    return MultiMap.caseInsensitiveMultiMap();
+  }
+
+  private static JsonObject date(String instant) {
+
+    return new JsonObject().put("$date", instant);
+  }
+
+  private static JsonObject order(String orderId, Object placedAt) {
+
+    return new JsonObject().put("_id", orderId)
+                           .put("order_status", "CONFIRMED")
+                           .put("order_placed_by", "alice")
+                           .put("order_placed_at", placedAt)
+                           .put("order_items", new JsonArray());
+  }
+}
@@ -29,4 +29,6 @@ public class Payment implements Serializable {
   private PaymentMethod paymentMethod;
 
   private Float totalAmount;
+
+  private String paymentLinkUrl;
 }
@@ -31,6 +31,10 @@ public class PaymentServiceImpl implements PaymentService {
 
   /**
    * Creates a payment link using Razorpay and initializes payment details for the specified order.
+   * The order id is the idempotency key of the checkout: a repeated checkout of an order, such as
+   * one retried by order-service after a timeout, returns the payment link created first, and
+   * Razorpay rejects a second link with the same {@code reference_id} if the first one was created
+   * but not saved.
    *
    * @param orderId the unique identifier for the order
    * @param fullName the full name of the customer
@@ -49,11 +53,20 @@ public class PaymentServiceImpl implements PaymentService {
       PaymentRequest paymentRequest)
       throws RazorpayException {
 
+    Payment existingPayment = paymentRepository.findByOrderId(orderId);
+    if (existingPayment != null) {
+      return new PaymentResponse(
+          existingPayment.getPaymentStatus().name(),
+          existingPayment.getPaymentId(),
+          existingPayment.getPaymentLinkUrl());
+    }
+
     RazorpayClient razorpayClient = new RazorpayClient(apiKey, apiSecret);
 
     JSONObject orderRequest = new JSONObject();
     orderRequest.put("amount", paymentRequest.getTotalAmount() * 100);
     orderRequest.put("currency", "INR");
+    orderRequest.put("reference_id", orderId);
 
     JSONObject customer = new JSONObject();
     customer.put("name", fullName);
@@ -76,6 +89,7 @@ public class PaymentServiceImpl implements PaymentService {
     payment.setOrderId(orderId);
     payment.setPaymentId(paymentLink.get("id"));
     payment.setTotalAmount(paymentRequest.getTotalAmount());
+    payment.setPaymentLinkUrl(paymentLink.get("short_url"));
     payment.setPaymentStatus(PaymentStatus.PENDING); // status will be updated later via webhook
 
     paymentRepository.save(payment);
@@ -0,0 +1,54 @@
+// Product browsing load test for comparing the servlet and the reactive read stacks.
+//
+// Runs 5,000 concurrent virtual users, each holding its own keep-alive connection, against
+// GET /v1/get/{productId}, /v1/get/all and /v1/get/by-category/{categoryId}. See README.md for how
+// to run it against both profiles and compare the results.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083/products';
+const VUS = parseInt(__ENV.VUS || '5000', 10);
+const DURATION = __ENV.DURATION || '3m';
+const MAX_PRODUCT_ID = parseInt(__ENV.MAX_PRODUCT_ID || '1000', 10);
+const CATEGORY_IDS = (__ENV.CATEGORY_IDS || '1,2,3').split(',');
+const PARAMS = { headers: { userRole: 'ROLE_USER' }, tags: {} };
+
+export const options = {
+  discardResponseBodies: true,
+  scenarios: {
+    browse: {
+      executor: 'constant-vus',
+      vus: VUS,
+      duration: DURATION,
+      gracefulStop: '30s',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    'http_req_duration{endpoint:by-id}': ['p(99)<1000'],
+    'http_req_duration{endpoint:all}': ['p(99)<1000'],
+    'http_req_duration{endpoint:by-category}': ['p(99)<1000'],
+  },
+};
+
+function randomInt(max) {
+  return Math.floor(Math.random() * max) + 1;
+}
+
+function get(url, endpoint) {
+  const response = http.get(url, Object.assign({}, PARAMS, { tags: { endpoint } }));
+  check(response, { [`${endpoint} 2xx`]: (r) => r.status >= 200 && r.status < 300 });
+}
+
+export default function () {
+  // 60% product pages, 25% catalogue pages, 15% category pages
+  const pick = Math.random();
+  if (pick < 0.6) {
+    get(`${BASE_URL}/v1/get/${randomInt(MAX_PRODUCT_ID)}`, 'by-id');
+  } else if (pick < 0.85) {
+    get(`${BASE_URL}/v1/get/all?page=${randomInt(10)}&size=20`, 'all');
+  } else {
+    const categoryId = CATEGORY_IDS[randomInt(CATEGORY_IDS.length) - 1];
+    get(`${BASE_URL}/v1/get/by-category/${categoryId}?page=${randomInt(5)}&size=20`, 'by-category');
+  }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -16,6 +17,7 @@ import org.springframework.web.filter.CorsFilter;
 
 @SpringBootApplication
 @EnableCaching
+@EnableScheduling
 public class ProductServiceApplication {
 
   public static void main(String[] args) {
@@ -46,6 +48,8 @@ public class ProductServiceApplication {
     corsConfiguration.addAllowedHeader("Authorization");
     corsConfiguration.addAllowedHeader("Content-Type");
     corsConfiguration.addAllowedHeader("Accept");
+    corsConfiguration.addAllowedHeader("If-Match");
+    corsConfiguration.addExposedHeader("ETag");
     corsConfiguration.addAllowedMethod("POST");
     corsConfiguration.addAllowedMethod("GET");
     corsConfiguration.addAllowedMethod("DELETE");
@@ -0,0 +1,182 @@
+package com.ecommerce.productservice.config;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.ecommerce.productservice.model.ImageBlob;
+import com.ecommerce.productservice.model.PriceHistory;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.model.ProductImage;
+import com.ecommerce.productservice.model.Review;
+import com.ecommerce.productservice.model.UploadSession;
+import com.ecommerce.productservice.util.ProductNameNormalizer;
+import com.mongodb.client.result.UpdateResult;
+import java.util.Date;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes the product queries rely on before the service starts taking traffic, since
+ * automatic index creation is disabled in Spring Boot. Index creation is idempotent, so this runs
+ * on every start.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductIndexInitializer implements ApplicationRunner {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductIndexInitializer.class);
+
+  private static final int BACKFILL_BATCH_SIZE = 1000;
+
+  private final MongoTemplate mongoTemplate;
+
+  @Override
+  public void run(ApplicationArguments args) {
+
+    // time-series collections cannot be created implicitly by the first insert
+    if (!mongoTemplate.collectionExists(PriceHistory.class)) {
+      mongoTemplate.createCollection(PriceHistory.class);
+      LOGGER.info("Created time-series collection: {}", PriceHistory.COLLECTION_NAME);
+    }
+    mongoTemplate
+        .indexOps(PriceHistory.class)
+        .ensureIndex(
+            new Index()
+                .on("product_id", Sort.Direction.ASC)
+                .on("timestamp", Sort.Direction.ASC)
+                .named("product_id_timestamp"));
+    IndexOperations reviewIndexes = mongoTemplate.indexOps(Review.class);
+    // one review per user and product
+    reviewIndexes.ensureIndex(
+        new Index()
+            .on("product_id", Sort.Direction.ASC)
+            .on("username", Sort.Direction.ASC)
+            .unique()
+            .named("product_id_username"));
+    // keyset order of the review listing
+    reviewIndexes.ensureIndex(
+        new Index()
+            .on("product_id", Sort.Direction.ASC)
+            .on("created_at", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("product_id_created_at_id"));
+    // one mapping per image name of a product
+    mongoTemplate
+        .indexOps(ProductImage.class)
+        .ensureIndex(
+            new Index()
+                .on("product_id", Sort.Direction.ASC)
+                .on("image_name", Sort.Direction.ASC)
+                .unique()
+                .named("product_id_image_name"));
+    // garbage collection of unreferenced image blobs
+    mongoTemplate
+        .indexOps(ImageBlob.class)
+        .ensureIndex(
+            new Index()
+                .on("ref_count", Sort.Direction.ASC)
+                .on("released_at", Sort.Direction.ASC)
+                .named("ref_count_released_at"));
+    // removal of expired uploads
+    mongoTemplate
+        .indexOps(UploadSession.class)
+        .ensureIndex(new Index().on("expires_at", Sort.Direction.ASC).named("expires_at"));
+    backfillUpdatedAt();
+    backfillNormalizedName();
+    IndexOperations indexOperations = mongoTemplate.indexOps(Product.class);
+    // keyset order of the change feed
+    indexOperations.ensureIndex(
+        new Index()
+            .on("updated_at", Sort.Direction.ASC)
+            .on("_id", Sort.Direction.ASC)
+            .named("updated_at_id"));
+    // removal of the stale order lines products keep their reserved stock for
+    indexOperations.ensureIndex(
+        new Index()
+            .on("stock_reservations.reserved_at", Sort.Direction.ASC)
+            .sparse()
+            .named("stock_reservations_reserved_at"));
+    // product names are unique among enabled products; is_enabled is part of the key so that the
+    // uniqueness check, which projects only the key, is a covered query. Without the index,
+    // concurrent creates could give enabled products the same name, so startup fails instead
+    try {
+      indexOperations.ensureIndex(
+          new Index()
+              .on("normalized_name", Sort.Direction.ASC)
+              .on("is_enabled", Sort.Direction.ASC)
+              .unique()
+              .partial(PartialIndexFilter.of(where("is_enabled").is(true)))
+              .named("normalized_name_enabled"));
+    } catch (DataAccessException exception) {
+      throw new IllegalStateException(
+          "Could not create the unique product name index, disable or rename the enabled products"
+              + " that share a name: "
+              + exception.getMessage(),
+          exception);
+    }
+    LOGGER.info("Product indexes ensured");
+  }
+
+  /** Products written before names were normalized get their normalized_name derived here. */
+  private void backfillNormalizedName() {
+
+    Query missing = query(where("normalized_name").exists(false));
+    missing.fields().include("product_name");
+    BulkOperations backfill =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+    int count = 0;
+    try (Stream<Product> products = mongoTemplate.stream(missing, Product.class)) {
+      for (Product product : (Iterable<Product>) products::iterator) {
+        backfill.updateOne(
+            query(where("_id").is(product.getProductId())),
+            new Update()
+                .set("normalized_name", ProductNameNormalizer.normalize(product.getProductName())));
+        if (++count % BACKFILL_BATCH_SIZE == 0) {
+          backfill.execute();
+          backfill = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        }
+      }
+    }
+    if (count % BACKFILL_BATCH_SIZE != 0) {
+      backfill.execute();
+    }
+    if (count > 0) {
+      LOGGER.info("Backfilled normalized_name on {} products", count);
+    }
+  }
+
+  /**
+   * Products written before the change feed existed may have no {@code updated_at}; they get
+   * their creation time, or the epoch if that is missing too, so the feed returns them on a full
+   * sync.
+   */
+  private void backfillUpdatedAt() {
+
+    UpdateResult result =
+        mongoTemplate.updateMulti(
+            query(where("updated_at").exists(false)),
+            AggregationUpdate.update()
+                .set("updated_at")
+                .toValue(ConditionalOperators.ifNull("created_at").then(new Date(0))),
+            Product.class);
+    if (result.getModifiedCount() > 0) {
+      LOGGER.info("Backfilled updated_at on {} products", result.getModifiedCount());
+    }
+  }
+}
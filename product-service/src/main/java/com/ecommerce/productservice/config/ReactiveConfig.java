@@ -0,0 +1,62 @@
+package com.ecommerce.productservice.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.support.WebStack;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Infrastructure of the non-blocking read stack, active with the {@code reactive} profile. Product
+ * reads go through {@code ReactiveMongoTemplate}, the shared Lettuce connection of {@link
+ * RedisConfig} and a load-balanced {@link WebClient}, served by Netty instead of Tomcat.
+ *
+ * <p>The reactive cache template reads and writes the same {@code products::<key>} entries as the
+ * {@link RedisConfig#cacheManager} of the servlet stack, with string keys and JDK serialized
+ * values, so both stacks can run side by side against one Redis and share their cached pages.
+ */
+@Configuration
+@Profile("reactive")
+@EnableHypermediaSupport(
+    type = EnableHypermediaSupport.HypermediaType.HAL,
+    stacks = WebStack.WEBFLUX)
+public class ReactiveConfig {
+
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+
+    // Tomcat is still on the classpath for the servlet stack, pin the reactive stack to Netty
+    return new NettyReactiveWebServerFactory();
+  }
+
+  @Bean
+  public ReactiveRedisTemplate<String, Object> reactiveCacheTemplate(
+      ReactiveRedisConnectionFactory reactiveRedisConnectionFactory) {
+
+    RedisSerializationContext<String, Object> serializationContext =
+        RedisSerializationContext.<String, Object>newSerializationContext(RedisSerializer.string())
+            .value(RedisSerializer.java(getClass().getClassLoader()))
+            .build();
+    return new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, serializationContext);
+  }
+
+  @Bean
+  @LoadBalanced
+  public WebClient.Builder loadBalancedWebClientBuilder() {
+
+    return WebClient.builder();
+  }
+
+  @Bean
+  public WebClient webClient(WebClient.Builder loadBalancedWebClientBuilder) {
+
+    return loadBalancedWebClientBuilder.build();
+  }
+}
@@ -1,7 +1,20 @@
 package com.ecommerce.productservice.config;
 
 import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import com.ecommerce.productservice.util.PipelinedProductCache;
+import com.ecommerce.productservice.util.ProductNearCache;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,17 +25,29 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
-import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.lang.NonNull;
 
 @Configuration
 public class RedisConfig implements CachingConfigurer {
 
   public static final String CACHE_NAME = "products";
+
+  /** Time to live of the entries in the {@code products} cache. */
+  public static final Duration CACHE_TTL = Duration.ofMinutes(10);
+
   private static final Logger LOGGER = LoggerFactory.getLogger(RedisConfig.class);
 
   @Value(value = "${spring.redis.host}")
@@ -34,24 +59,97 @@ public class RedisConfig implements CachingConfigurer {
   @Value(value = "${redis.timeout}")
   private String timeout;
 
+  @Value(value = "${redis.command-timeout-ms}")
+  private long commandTimeoutMs;
+
+  @Value(value = "${redis.maximumActiveConnectionCount}")
+  private int maximumActiveConnectionCount;
+
+  @Value(value = "${redis.pool.max-idle}")
+  private int maxIdleConnections;
+
+  @Value(value = "${redis.pool.min-idle}")
+  private int minIdleConnections;
+
+  @Value(value = "${redis.pool.max-wait-ms}")
+  private long maxWaitMs;
+
+  /**
+   * Provides the Lettuce client resources, recording the latency of every Redis command in the
+   * {@code lettuce.command.completion} and {@code lettuce.command.firstresponse} timers.
+   *
+   * @param meterRegistry the registry the command latencies are published to
+   * @return the client resources shared by all Redis connections
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ClientResources lettuceClientResources(MeterRegistry meterRegistry) {
+
+    return DefaultClientResources.builder()
+        .commandLatencyRecorder(
+            new MicrometerCommandLatencyRecorder(meterRegistry, MicrometerOptions.create()))
+        .build();
+  }
+
+  /**
+   * Provides the Lettuce connection factory. Regular commands are multiplexed over one shared
+   * native connection, while pipelines, transactions and blocking commands borrow a dedicated
+   * connection from a pool sized by {@code redis.maximumActiveConnectionCount} and {@code
+   * redis.pool.*}. Pipelined commands are buffered and written to the socket in one flush when the
+   * pipeline is closed.
+   *
+   * @param lettuceClientResources the client resources recording command latencies
+   * @return the connection factory used by the cache manager and all Redis templates
+   */
   @Bean
-  public JedisConnectionFactory jedisConnectionFactory() {
+  public LettuceConnectionFactory redisConnectionFactory(ClientResources lettuceClientResources) {
 
     RedisStandaloneConfiguration redisStandaloneConfiguration = new RedisStandaloneConfiguration();
     redisStandaloneConfiguration.setHostName(host);
     redisStandaloneConfiguration.setPort(port);
-    JedisClientConfiguration.JedisClientConfigurationBuilder jedisClientConfiguration =
-        JedisClientConfiguration.builder();
-    jedisClientConfiguration.connectTimeout(Duration.ofSeconds(Integer.parseInt(timeout)));
-    return new JedisConnectionFactory(
-        redisStandaloneConfiguration, jedisClientConfiguration.build());
+    GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+    poolConfig.setMaxTotal(maximumActiveConnectionCount);
+    poolConfig.setMaxIdle(maxIdleConnections);
+    poolConfig.setMinIdle(minIdleConnections);
+    poolConfig.setMaxWait(Duration.ofMillis(maxWaitMs));
+    // the pool registers itself with JMX under this prefix, see commonsPoolMetrics()
+    poolConfig.setJmxNamePrefix("redis");
+    SocketOptions socketOptions =
+        SocketOptions.builder()
+            .connectTimeout(Duration.ofSeconds(Integer.parseInt(timeout)))
+            .build();
+    LettuceClientConfiguration lettuceClientConfiguration =
+        LettucePoolingClientConfiguration.builder()
+            .poolConfig(poolConfig)
+            .clientResources(lettuceClientResources)
+            .clientOptions(ClientOptions.builder().socketOptions(socketOptions).build())
+            .commandTimeout(Duration.ofMillis(commandTimeoutMs))
+            .build();
+    LettuceConnectionFactory lettuceConnectionFactory =
+        new LettuceConnectionFactory(redisStandaloneConfiguration, lettuceClientConfiguration);
+    lettuceConnectionFactory.setShareNativeConnection(true);
+    lettuceConnectionFactory.setPipeliningFlushPolicy(
+        LettuceConnection.PipeliningFlushPolicy.flushOnClose());
+    return lettuceConnectionFactory;
+  }
+
+  /**
+   * Publishes the state of the Redis connection pool ({@code commons.pool2.num.active}, {@code
+   * commons.pool2.num.idle}, {@code commons.pool2.num.waiters}, ...) from its JMX registration.
+   *
+   * @return the binder for all commons-pool2 pools of the application
+   */
+  @Bean
+  public CommonsObjectPool2Metrics commonsPoolMetrics() {
+
+    return new CommonsObjectPool2Metrics();
   }
 
   @Bean
-  public RedisTemplate<String, ProductResponseDTO> redisTemplate() {
+  public RedisTemplate<String, ProductResponseDTO> redisTemplate(
+      RedisConnectionFactory redisConnectionFactory) {
 
     final RedisTemplate<String, ProductResponseDTO> redisTemplate = new RedisTemplate<>();
-    redisTemplate.setConnectionFactory(jedisConnectionFactory());
+    redisTemplate.setConnectionFactory(redisConnectionFactory);
     redisTemplate.setDefaultSerializer(new GenericJackson2JsonRedisSerializer());
     redisTemplate.setKeySerializer(new StringRedisSerializer());
     redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
@@ -60,13 +158,66 @@ public class RedisConfig implements CachingConfigurer {
     return redisTemplate;
   }
 
+  /**
+   * Provides a template over the raw entries of the Redis caches, with string keys and values
+   * serialized the way {@link RedisCacheManager} serializes them by default.
+   *
+   * @param redisConnectionFactory the connection factory
+   * @return the template used by {@link PipelinedProductCache}
+   */
   @Bean
-  public RedisCacheManager cacheManager() {
+  public RedisTemplate<String, Object> productCacheTemplate(
+      RedisConnectionFactory redisConnectionFactory) {
+
+    final RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+    redisTemplate.setConnectionFactory(redisConnectionFactory);
+    redisTemplate.setKeySerializer(RedisSerializer.string());
+    redisTemplate.setValueSerializer(RedisSerializer.java(getClass().getClassLoader()));
+    return redisTemplate;
+  }
+
+  @Bean
+  public RedisCacheManager cacheManager(
+      ProductNearCache productNearCache, RedisConnectionFactory redisConnectionFactory) {
 
     RedisCacheConfiguration config =
-        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10));
+        RedisCacheConfiguration.defaultCacheConfig().entryTtl(CACHE_TTL);
+
+    // put the in-process near cache in front of the Redis products cache
+    return new RedisCacheManager(
+        RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory), config) {
+
+      @Override
+      @NonNull
+      protected Cache decorateCache(@NonNull Cache cache) {
+
+        Cache decorated = super.decorateCache(cache);
+        return CACHE_NAME.equals(cache.getName())
+            ? new TwoLevelCache(decorated, productNearCache)
+            : decorated;
+      }
+    };
+  }
+
+  /**
+   * Applies the near cache evictions published by the other replicas to this replica's near
+   * cache.
+   *
+   * @param redisConnectionFactory the connection factory the subscription is made with
+   * @param productNearCache the near cache of this replica
+   * @return the listener container holding the subscription
+   */
+  @Bean
+  public RedisMessageListenerContainer nearCacheEvictionListener(
+      RedisConnectionFactory redisConnectionFactory, ProductNearCache productNearCache) {
 
-    return RedisCacheManager.builder(jedisConnectionFactory()).cacheDefaults(config).build();
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(
+        (message, pattern) ->
+            productNearCache.applyEviction(new String(message.getBody(), StandardCharsets.UTF_8)),
+        new ChannelTopic(ProductNearCache.EVICTION_CHANNEL));
+    return container;
   }
 
   @Override
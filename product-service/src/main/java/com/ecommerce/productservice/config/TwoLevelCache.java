@@ -0,0 +1,123 @@
+package com.ecommerce.productservice.config;
+
+import static java.util.Objects.isNull;
+
+import com.ecommerce.productservice.util.ProductNearCache;
+import java.util.concurrent.Callable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+
+/**
+ * A {@link Cache} that answers from the {@link ProductNearCache} first and falls back to the
+ * Redis cache it decorates. Values read from Redis are copied into the near cache, and writes and
+ * evictions are applied to both levels.
+ */
+public class TwoLevelCache implements Cache {
+
+  private final Cache delegate;
+
+  private final ProductNearCache nearCache;
+
+  public TwoLevelCache(Cache delegate, ProductNearCache nearCache) {
+
+    this.delegate = delegate;
+    this.nearCache = nearCache;
+  }
+
+  @Override
+  @NonNull
+  public String getName() {
+
+    return delegate.getName();
+  }
+
+  @Override
+  @NonNull
+  public Object getNativeCache() {
+
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(@NonNull Object key) {
+
+    Object local = nearCache.get(key);
+    if (!isNull(local)) {
+      return new SimpleValueWrapper(local);
+    }
+    ValueWrapper remote = delegate.get(key);
+    if (!isNull(remote)) {
+      nearCache.put(key, remote.get());
+    }
+    return remote;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(@NonNull Object key, Class<T> type) {
+
+    ValueWrapper wrapper = get(key);
+    Object value = isNull(wrapper) ? null : wrapper.get();
+    if (!isNull(value) && !isNull(type) && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+
+    Object local = nearCache.get(key);
+    if (!isNull(local)) {
+      return (T) local;
+    }
+    T value = delegate.get(key, valueLoader);
+    nearCache.put(key, value);
+    return value;
+  }
+
+  @Override
+  public void put(@NonNull Object key, Object value) {
+
+    delegate.put(key, value);
+    nearCache.put(key, value);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+
+    nearCache.evict(key);
+    return delegate.putIfAbsent(key, value);
+  }
+
+  @Override
+  public void evict(@NonNull Object key) {
+
+    nearCache.evict(key);
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(@NonNull Object key) {
+
+    nearCache.evict(key);
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+
+    nearCache.clear();
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+
+    nearCache.clear();
+    return delegate.invalidate();
+  }
+}
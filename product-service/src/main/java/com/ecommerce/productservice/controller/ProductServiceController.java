@@ -4,16 +4,36 @@ import static java.util.Objects.isNull;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import com.ecommerce.productservice.exception.InvalidProductPatchException;
+import com.ecommerce.productservice.exception.InvalidUploadException;
 import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.exception.UnAuthorizedException;
+import com.ecommerce.productservice.model.UploadSession;
+import com.ecommerce.productservice.payload.request.AvailabilityQueryDTO;
+import com.ecommerce.productservice.payload.request.BulkProductOperationDTO;
 import com.ecommerce.productservice.payload.request.OrderProductDTO;
 import com.ecommerce.productservice.payload.request.ProductRequestDTO;
+import com.ecommerce.productservice.payload.request.ReviewRequestDTO;
+import com.ecommerce.productservice.payload.response.BulkOperationResponseDTO;
+import com.ecommerce.productservice.payload.response.PriceHistoryPointDTO;
+import com.ecommerce.productservice.payload.response.ProductAvailabilityDTO;
+import com.ecommerce.productservice.payload.response.ProductChangesResponseDTO;
 import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import com.ecommerce.productservice.payload.response.ReviewPageResponseDTO;
+import com.ecommerce.productservice.payload.response.ReviewResponseDTO;
+import com.ecommerce.productservice.service.PriceHistoryService;
 import com.ecommerce.productservice.service.ProductService;
+import com.ecommerce.productservice.service.ResumableUploadService;
+import com.ecommerce.productservice.service.ReviewService;
 import com.ecommerce.productservice.service.export.ProductExcelExporter;
 import com.ecommerce.productservice.service.export.ProductPdfExporter;
+import com.ecommerce.productservice.util.ContentAddressedImageStore;
+import com.ecommerce.productservice.util.ContentAddressedImageStore.StoredImage;
 import com.ecommerce.productservice.util.FileDownloadUtil;
-import com.ecommerce.productservice.util.FileUploadUtil;
+import com.ecommerce.productservice.util.FrequentlyBoughtTogether;
+import com.ecommerce.productservice.util.ImageMediaTypes;
 import com.ecommerce.productservice.util.ProductModelAssembler;
+import com.ecommerce.productservice.util.RecentlyViewedProducts;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -27,36 +47,55 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * The ProductServiceController class is responsible for handling HTTP requests related to product
@@ -78,6 +117,7 @@ import org.springframework.web.multipart.MultipartFile;
  * processing.
  */
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Tag(
     name = "Product Service",
@@ -90,8 +130,30 @@ public class ProductServiceController {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ProductServiceController.class);
 
+  private static final String TUS_RESUMABLE = "Tus-Resumable";
+
+  private static final String TUS_VERSION = "1.0.0";
+
+  private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+  private static final String UPLOAD_LENGTH = "Upload-Length";
+
+  private static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
   private final ProductService productService;
 
+  private final PriceHistoryService priceHistoryService;
+
+  private final ReviewService reviewService;
+
+  private final RecentlyViewedProducts recentlyViewedProducts;
+
+  private final FrequentlyBoughtTogether frequentlyBoughtTogether;
+
+  private final ContentAddressedImageStore imageStore;
+
+  private final ResumableUploadService resumableUploadService;
+
   private final ProductModelAssembler productAssembler;
 
   private final ModelMapper modelMapper;
@@ -144,7 +206,10 @@ public class ProductServiceController {
    * <p>A GET request to fetch a product using its ID. This endpoint is accessible by both clients
    * and administrators.
    *
+   * <p>Views of signed-in users are added to their recently viewed products.
+   *
    * @param productId the unique identifier of the product to be retrieved
+   * @param username the username of the authenticated user, if any
    * @return a ResponseEntity containing an EntityModel of ProductResponseDTO if the product is
    *     found successfully, along with the appropriate HTTP status code
    */
@@ -164,9 +229,12 @@ public class ProductServiceController {
   @GetMapping("/v1/get/{productId}")
   public ResponseEntity<EntityModel<ProductResponseDTO>> getProductById(
       @Parameter(in = ParameterIn.PATH, description = "id of the product") @PathVariable
-          Integer productId) {
+          Integer productId,
+      @Schema(hidden = true) @RequestHeader(name = "username", required = false)
+          String username) {
 
     ProductResponseDTO productResponseDTO = this.productService.getProductById(productId);
+    this.recentlyViewedProducts.recordView(username, productId);
     EntityModel<ProductResponseDTO> response = this.productAssembler.toModel(productResponseDTO);
     return new ResponseEntity<>(response, HttpStatus.OK);
   }
@@ -341,11 +409,372 @@ public class ProductServiceController {
     return new ResponseEntity<>(entityProductModel, HttpStatus.OK);
   }
 
+  /**
+   * Partially updates an existing product with an RFC 7396 JSON merge patch. Only the members
+   * present in the patch are written, and the update is rejected if the product has been modified
+   * since the version given in the {@code If-Match} header. This method is only accessible to users
+   * with admin privileges.
+   *
+   * @param role the role of the authenticated user making the request
+   * @param ifMatch the optional version the patch is based on, as returned in the ETag header
+   * @param productId the ID of the product to be patched
+   * @param mergePatch the merge patch document
+   * @return a ResponseEntity containing the patched product details wrapped in an EntityModel, with
+   *     the new version in the ETag header
+   */
+  @Operation(
+      summary = "Patch product by Id",
+      description =
+          "A PATCH request to partially update product by Id with a JSON merge patch, accessible by"
+              + " <b> ADMINS </b> only",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully patched the product"),
+        @ApiResponse(responseCode = "400", description = "Invalid merge patch"),
+        @ApiResponse(responseCode = "404", description = "Product Not Found"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized user"),
+        @ApiResponse(responseCode = "409", description = "Product was modified concurrently"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @PatchMapping(
+      value = "/v1/update/{productId}",
+      consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<EntityModel<ProductResponseDTO>> patchProduct(
+      @Schema(hidden = true) @RequestHeader(name = "role") String role,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @PathVariable Integer productId,
+      @RequestBody Map<String, Object> mergePatch) {
+
+    ProductResponseDTO productResponseDTO =
+        this.productService.patchProductById(productId, mergePatch, parseVersion(ifMatch), role);
+    LOGGER.info("Product with Id: {} patched successfully", productId);
+    return ResponseEntity.ok()
+        .eTag(String.valueOf(productResponseDTO.getVersion()))
+        .body(this.productAssembler.toModel(productResponseDTO));
+  }
+
+  /**
+   * Retrieves the products the authenticated user viewed most recently, newest first.
+   *
+   * @param username the username of the authenticated user
+   * @param limit the maximum number of products to return
+   * @return a ResponseEntity containing a CollectionModel of the recently viewed products
+   */
+  @Operation(
+      summary = "Get recently viewed products",
+      description = "A GET request to get the products the user viewed most recently",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully fetched the products"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized user"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @GetMapping("/v1/recently-viewed")
+  public ResponseEntity<CollectionModel<EntityModel<ProductResponseDTO>>> getRecentlyViewed(
+      @Schema(hidden = true) @RequestHeader(name = "username") String username,
+      @Parameter(in = ParameterIn.QUERY, description = "maximum number of products to return")
+          @RequestParam(value = "limit", required = false, defaultValue = "20")
+          @Min(value = 1)
+          @Max(value = 50)
+          int limit) {
+
+    List<Integer> productIds = this.recentlyViewedProducts.recentProductIds(username, limit);
+    List<ProductResponseDTO> products = this.productService.getProductsByIds(productIds);
+    return new ResponseEntity<>(this.productAssembler.toCollectionModel(products), HttpStatus.OK);
+  }
+
+  /**
+   * Creates or replaces the review of the authenticated user for a product.
+   *
+   * @param productId the unique identifier of the reviewed product
+   * @param username the username of the authenticated user
+   * @param reviewRequest the rating, title and comment
+   * @return a ResponseEntity containing the saved review
+   */
+  @Operation(
+      summary = "Review product",
+      description = "A POST request to rate and review a product, accessible by all users",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully saved the review"),
+        @ApiResponse(responseCode = "400", description = "Input validation failed"),
+        @ApiResponse(responseCode = "404", description = "Product Not Found"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @PostMapping("/v1/{productId}/reviews")
+  public ResponseEntity<ReviewResponseDTO> saveReview(
+      @Parameter(in = ParameterIn.PATH, description = "id of the product") @PathVariable
+          Integer productId,
+      @Schema(hidden = true) @RequestHeader(name = "username") String username,
+      @Valid @RequestBody ReviewRequestDTO reviewRequest) {
+
+    ReviewResponseDTO review = this.reviewService.saveReview(productId, reviewRequest, username);
+    return new ResponseEntity<>(review, HttpStatus.OK);
+  }
+
+  /**
+   * Retrieves the reviews of a product, newest first, one page at a time.
+   *
+   * @param productId the unique identifier of the product
+   * @param cursor the cursor returned with the previous page, or empty for the first page
+   * @param pageSize the maximum number of reviews to return
+   * @return a ResponseEntity containing the reviews and the cursor of the next page
+   */
+  @Operation(
+      summary = "Get reviews of product",
+      description = "A GET request to get the reviews of a product, accessible by all users",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully fetched the reviews"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @GetMapping("/v1/{productId}/reviews")
+  public ResponseEntity<ReviewPageResponseDTO> getReviews(
+      @Parameter(in = ParameterIn.PATH, description = "id of the product") @PathVariable
+          Integer productId,
+      @Parameter(in = ParameterIn.QUERY, description = "cursor returned with the previous page")
+          @RequestParam(value = "cursor", required = false, defaultValue = "")
+          String cursor,
+      @Parameter(in = ParameterIn.QUERY, description = "maximum number of reviews to return")
+          @RequestParam(value = "size", required = false, defaultValue = "10")
+          @Min(value = 1)
+          @Max(value = 50)
+          int pageSize) {
+
+    ReviewPageResponseDTO reviews = this.reviewService.getReviews(productId, cursor, pageSize);
+    return new ResponseEntity<>(reviews, HttpStatus.OK);
+  }
+
+  /**
+   * Deletes the review of the authenticated user for a product.
+   *
+   * @param productId the unique identifier of the reviewed product
+   * @param username the username of the authenticated user
+   * @return a ResponseEntity with HTTP status OK
+   */
+  @Operation(
+      summary = "Delete review of product",
+      description = "A DELETE request to delete the user's own review of a product",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully deleted the review"),
+        @ApiResponse(responseCode = "404", description = "Review Not Found"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @DeleteMapping("/v1/{productId}/reviews")
+  public ResponseEntity<Void> deleteReview(
+      @Parameter(in = ParameterIn.PATH, description = "id of the product") @PathVariable
+          Integer productId,
+      @Schema(hidden = true) @RequestHeader(name = "username") String username) {
+
+    this.reviewService.deleteReview(productId, username);
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
+  /**
+   * Retrieves the products most frequently bought together with the given product. The related
+   * products are precomputed from confirmed orders, so this is a single lookup.
+   *
+   * @param productId the unique identifier of the product
+   * @param limit the maximum number of products to return
+   * @return a ResponseEntity containing a CollectionModel of the related products
+   */
+  @Operation(
+      summary = "Get products frequently bought together",
+      description = "A GET request to get the products frequently bought with a product",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully fetched the products"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @GetMapping("/v1/{productId}/related")
+  public ResponseEntity<CollectionModel<EntityModel<ProductResponseDTO>>> getRelatedProducts(
+      @Parameter(in = ParameterIn.PATH, description = "id of the product") @PathVariable
+          Integer productId,
+      @Parameter(in = ParameterIn.QUERY, description = "maximum number of products to return")
+          @RequestParam(value = "limit", required = false, defaultValue = "10")
+          @Min(value = 1)
+          @Max(value = 20)
+          int limit) {
+
+    List<Integer> productIds = this.frequentlyBoughtTogether.relatedProductIds(productId, limit);
+    List<ProductResponseDTO> products = this.productService.getProductsByIds(productIds);
+    return new ResponseEntity<>(this.productAssembler.toCollectionModel(products), HttpStatus.OK);
+  }
+
+  /**
+   * Retrieves the products created, updated or disabled since the given change token, so clients
+   * and edge caches can keep a local copy of the catalog in sync without refetching listing
+   * pages. Callers keep passing the returned token until the response has no more changes.
+   *
+   * @param since the token returned by the previous call, or empty for a full sync
+   * @param pageSize the maximum number of changes to return
+   * @return a ResponseEntity containing the changes and the token for the next call
+   */
+  @Operation(
+      summary = "Get catalog changes",
+      description = "A GET request to fetch the products changed since a change token",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully fetched the changes"),
+        @ApiResponse(responseCode = "400", description = "Invalid change token"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @GetMapping("/v1/changes")
+  public ResponseEntity<ProductChangesResponseDTO> getProductChanges(
+      @Parameter(in = ParameterIn.QUERY, description = "token returned by the previous call")
+          @RequestParam(value = "since", required = false, defaultValue = "")
+          String since,
+      @Parameter(in = ParameterIn.QUERY, description = "maximum number of changes to return")
+          @RequestParam(value = "size", required = false, defaultValue = "100")
+          @Min(value = 1)
+          @Max(value = 500)
+          int pageSize) {
+
+    ProductChangesResponseDTO changes = this.productService.getProductChanges(since, pageSize);
+    return new ResponseEntity<>(changes, HttpStatus.OK);
+  }
+
+  /**
+   * Retrieves the price history of a product, either as raw samples or downsampled to one point
+   * per day or week.
+   *
+   * @param productId the unique identifier of the product
+   * @param from the first day of the range (inclusive), defaults to one year before {@code to}
+   * @param to the last day of the range (inclusive), defaults to today
+   * @param resolution one of "raw", "day" or "week"
+   * @return a ResponseEntity containing the price points in chronological order
+   */
+  @Operation(
+      summary = "Get price history of product",
+      description =
+          "A GET request to fetch the price history of a product, accessible by all users",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully fetched the price history"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or resolution"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @GetMapping("/v1/{productId}/price-history")
+  public ResponseEntity<List<PriceHistoryPointDTO>> getPriceHistory(
+      @Parameter(in = ParameterIn.PATH, description = "id of the product") @PathVariable
+          Integer productId,
+      @Parameter(in = ParameterIn.QUERY, description = "first day, e.g. 2024-01-31")
+          @RequestParam(value = "from", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate from,
+      @Parameter(in = ParameterIn.QUERY, description = "last day, e.g. 2024-12-31")
+          @RequestParam(value = "to", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate to,
+      @Parameter(in = ParameterIn.QUERY, description = "raw, day or week")
+          @RequestParam(value = "resolution", required = false, defaultValue = "day")
+          String resolution) {
+
+    List<PriceHistoryPointDTO> priceHistory =
+        this.priceHistoryService.getPriceHistory(productId, from, to, resolution);
+    return new ResponseEntity<>(priceHistory, HttpStatus.OK);
+  }
+
+  /**
+   * Applies a batch of admin operations to many products at once, such as enabling or disabling
+   * products or changing their price or discount during a sale. This method is only accessible to
+   * users with admin privileges.
+   *
+   * @param role the role of the authenticated user making the request
+   * @param operations the operations to apply, in order
+   * @return a ResponseEntity containing a summary of the updated, unchanged and failed products
+   */
+  @Operation(
+      summary = "Bulk update products",
+      description =
+          "A POST request to enable, disable, reprice or discount many products at once,"
+              + " accessible by <b> ADMINS </b> only",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully applied the operations"),
+        @ApiResponse(responseCode = "400", description = "Invalid bulk operations"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized user"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @PostMapping("/v1/bulk")
+  public ResponseEntity<BulkOperationResponseDTO> bulkUpdateProducts(
+      @Schema(hidden = true) @RequestHeader(name = "role") String role,
+      @RequestBody List<BulkProductOperationDTO> operations) {
+
+    BulkOperationResponseDTO response = this.productService.bulkUpdateProducts(operations, role);
+    return new ResponseEntity<>(response, HttpStatus.OK);
+  }
+
+  /**
+   * Returns many products at once, for services that enrich their own data with product details.
+   *
+   * @param productIds the ids of the products to look up
+   * @return a ResponseEntity containing the enabled products found; unknown ids are left out
+   */
+  @Operation(
+      summary = "Look up products by ids",
+      description = "A POST request to get many products by their ids at once",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully found the products"),
+        @ApiResponse(responseCode = "400", description = "Invalid product ids"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized user"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @PostMapping("/v1/lookup")
+  public ResponseEntity<List<ProductResponseDTO>> lookupProducts(
+      @RequestBody List<Integer> productIds) {
+
+    List<ProductResponseDTO> products = this.productService.lookupProducts(productIds);
+    return new ResponseEntity<>(products, HttpStatus.OK);
+  }
+
+  /**
+   * Returns the availability level of many (product, size) pairs at once, for cart lines and
+   * product page badges that only need to know whether a size is in stock.
+   *
+   * @param items the (product_id, size) pairs to check
+   * @return a ResponseEntity containing the availability of every pair, in request order
+   */
+  @Operation(
+      summary = "Check product availability",
+      description =
+          "A POST request to get the stock level of many product sizes at once,"
+              + " accessible by all users",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully checked availability"),
+        @ApiResponse(responseCode = "400", description = "Invalid availability query"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized user"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @PostMapping("/v1/availability")
+  public ResponseEntity<List<ProductAvailabilityDTO>> getAvailability(
+      @RequestBody List<AvailabilityQueryDTO> items) {
+
+    List<ProductAvailabilityDTO> availability = this.productService.getAvailability(items);
+    return new ResponseEntity<>(availability, HttpStatus.OK);
+  }
+
   /**
    * Reduces the count of specified products by processing an order.
    *
    * @param products a list of products specified through OrderProductDTO, each containing
    *     information about the product and the quantity to order
+   * @param orderId the id of the order, which makes repeating the reservation safe
    * @return ResponseEntity<Void> indicating the status of the operation; HTTP status codes used
    *     include 200 (success), 400 (validation error), 401 (unauthorized user), 404 (product not
    *     found), and 500 (server error)
@@ -363,9 +792,13 @@ public class ProductServiceController {
         @ApiResponse(responseCode = "500", description = "Some error occurred")
       })
   @PutMapping("/v1/order")
-  public ResponseEntity<Void> orderProduct(@RequestBody List<OrderProductDTO> products) {
+  public ResponseEntity<Void> orderProduct(
+      @RequestBody List<OrderProductDTO> products,
+      @Parameter(in = ParameterIn.QUERY, description = "id of the order to reserve stock for")
+          @RequestParam(required = false, value = "order_id")
+          String orderId) {
 
-    this.productService.reduceProductCount(products);
+    this.productService.reduceProductCount(products, orderId);
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
@@ -374,11 +807,14 @@ public class ProductServiceController {
    *
    * @param products a list of {@code OrderProductDTO} objects representing the products whose
    *     reserved stock should be released
+   * @param orderId the id of the order, to release only the stock it has reserved
    * @return a {@code ResponseEntity<Void>} indicating the HTTP response status
    */
   @PostMapping("/v1/reserved-stocks/release")
-  public ResponseEntity<Void> releaseReservedStock(@RequestBody List<OrderProductDTO> products) {
-    this.productService.releaseReservedProductCount(products);
+  public ResponseEntity<Void> releaseReservedStock(
+      @RequestBody List<OrderProductDTO> products,
+      @RequestParam(required = false, value = "order_id") String orderId) {
+    this.productService.releaseReservedProductCount(products, orderId);
     return ResponseEntity.ok().build();
   }
 
@@ -498,19 +934,18 @@ public class ProductServiceController {
       @Schema(hidden = true) @RequestHeader(name = "username") String username)
       throws Exception {
 
+    if (!isNull(role) && role.equals("ROLE_USER")) {
+      LOGGER.error("*** {} ***", "Role needs to be ADMIN to upload product images");
+      throw new UnAuthorizedException("Requires ROLE_ADMIN to upload product images");
+    }
     ProductResponseDTO productResponseDTO = this.productService.getProductById(productId);
     Set<String> productImages = new LinkedHashSet<>();
+    storeImage(productId, mainImage);
     for (MultipartFile multipartFile : extraImages) {
-      productImages.add(multipartFile.getOriginalFilename());
+      productImages.add(storeImage(productId, multipartFile));
     }
-    FileUploadUtil.saveFile(
-        productId,
-        StringUtils.cleanPath(Objects.requireNonNull(mainImage.getOriginalFilename())),
-        mainImage,
-        role);
-    FileUploadUtil.saveMultiFiles(productId, extraImages, role);
     productResponseDTO.setExtraProductImages(productImages);
-    productResponseDTO.setProductMainImage(mainImage.getOriginalFilename());
+    productResponseDTO.setProductMainImage(imageName(mainImage));
     ProductRequestDTO productRequestDTO =
         this.modelMapper.map(productResponseDTO, ProductRequestDTO.class);
     this.productService.updateProductById(productId, productRequestDTO, role, username);
@@ -521,10 +956,13 @@ public class ProductServiceController {
   /**
    * Downloads the image file of a product based on the provided file name. This method handles GET
    * requests and provides the specified file as a resource for download. The file is identified
-   * using the product ID and the image name.
+   * using the product ID and the image name. Since a name can later be pointed at other content,
+   * the response carries the content hash as its ETag and must be revalidated; the immutable copy
+   * is linked in the Content-Location header.
    *
    * @param productId The unique identifier of the product whose image is to be downloaded.
    * @param imageName The name of the image file to be downloaded.
+   * @param webRequest the current request, used to answer conditional requests
    * @return A ResponseEntity containing the requested file as a resource if successful, or an
    *     appropriate HTTP status (e.g., 404 if the file is not found, 500 for server errors).
    */
@@ -535,6 +973,7 @@ public class ProductServiceController {
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Successfully downloaded image"),
+        @ApiResponse(responseCode = "304", description = "Image not modified"),
         @ApiResponse(responseCode = "404", description = "Image not found"),
         @ApiResponse(responseCode = "401", description = "Unauthorized user"),
         @ApiResponse(responseCode = "500", description = "Some Exception " + "Occurred")
@@ -546,8 +985,30 @@ public class ProductServiceController {
           Integer productId,
       @Parameter(in = ParameterIn.PATH, description = "product imageName to download")
           @PathVariable("imageName")
-          String imageName) {
+          String imageName,
+      @Parameter(hidden = true) WebRequest webRequest) {
 
+    Optional<StoredImage> storedImage = this.imageStore.findByName(productId, imageName);
+    if (storedImage.isPresent()) {
+      String eTag = "\"" + storedImage.get().hash() + "\"";
+      if (webRequest.checkNotModified(eTag)) {
+        return null;
+      }
+      return ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_OCTET_STREAM)
+          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + imageName + "\"")
+          .header(
+              HttpHeaders.CONTENT_LOCATION,
+              linkTo(
+                      methodOn(ProductServiceController.class)
+                          .getImage(storedImage.get().hash(), null))
+                  .toUri()
+                  .toString())
+          .eTag(eTag)
+          .cacheControl(CacheControl.noCache())
+          .body(new FileSystemResource(storedImage.get().path()));
+    }
+    // images uploaded before the content-addressed store are still served from their directory
     FileDownloadUtil downloadUtil = new FileDownloadUtil();
     Resource resource;
     try {
@@ -566,6 +1027,237 @@ public class ProductServiceController {
         .body(resource);
   }
 
+  /**
+   * Serves an image by the hash of its content. The content behind a hash never changes, so the
+   * response may be cached by browsers and CDNs for a year without revalidation. Only the raster
+   * types of {@link ImageMediaTypes#INLINE}, detected from the content when it was stored, are
+   * served inline; anything else, SVG included, is sent as an attachment. Every response is
+   * sandboxed by its {@code Content-Security-Policy}, so even a mislabelled image cannot run script
+   * in the origin of the service.
+   *
+   * @param hash the lowercase hex SHA-256 hash of the image
+   * @param webRequest the current request, used to answer conditional requests
+   * @return a ResponseEntity containing the image, or 404 if no image with this hash is stored
+   */
+  @Operation(
+      summary = "Get image by content hash",
+      description = "A GET request to get an immutable image by its hash, accessible by all users",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully found the image"),
+        @ApiResponse(responseCode = "304", description = "Image not modified"),
+        @ApiResponse(responseCode = "404", description = "Image not found"),
+        @ApiResponse(responseCode = "500", description = "Some error occurred")
+      })
+  @GetMapping("/v1/images/{hash}")
+  public ResponseEntity<Resource> getImage(
+      @Parameter(in = ParameterIn.PATH, description = "SHA-256 hash of the image") @PathVariable
+          String hash,
+      @Parameter(hidden = true) WebRequest webRequest) {
+
+    Optional<StoredImage> storedImage = this.imageStore.findByHash(hash);
+    if (storedImage.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    String eTag = "\"" + hash + "\"";
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+    MediaType contentType = imageMediaType(storedImage.get().contentType());
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(contentType)
+            .contentLength(storedImage.get().size())
+            .eTag(eTag)
+            .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+            .header("X-Content-Type-Options", "nosniff")
+            .header("Content-Security-Policy", "sandbox; default-src 'none'");
+    if (MediaType.APPLICATION_OCTET_STREAM.equals(contentType)) {
+      response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + hash + "\"");
+    }
+    return response.body(new FileSystemResource(storedImage.get().path()));
+  }
+
+  /**
+   * Creates a resumable upload of a product image, following the tus 1.0 creation extension. The
+   * image is then sent with {@code PATCH} requests and added to the product by finalizing the
+   * upload.
+   *
+   * @param productId the ID of the product the image belongs to
+   * @param uploadLength the total size of the image in bytes, from the {@code Upload-Length} header
+   * @param uploadMetadata the tus {@code Upload-Metadata} header, with the base64 encoded {@code
+   *     filename} and optional {@code filetype} of the image
+   * @param username the username of the uploader
+   * @param role the role of the uploader, which must be "ADMIN"
+   * @return a ResponseEntity with status 201 and the URL of the upload in the Location header
+   */
+  @Operation(
+      summary = "Create a resumable image upload",
+      description =
+          "A POST request to start a chunked image upload, accessible only by <b> ADMINS </b>",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "201", description = "Successfully created upload"),
+        @ApiResponse(responseCode = "400", description = "Invalid length or metadata"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized user"),
+        @ApiResponse(responseCode = "404", description = "Product not found with specified Id")
+      })
+  @PostMapping("/v1/{productId}/uploads")
+  public ResponseEntity<Void> createUpload(
+      @Parameter(in = ParameterIn.PATH, description = "id of the product") @PathVariable
+          Integer productId,
+      @RequestHeader(name = UPLOAD_LENGTH) long uploadLength,
+      @RequestHeader(name = "Upload-Metadata") String uploadMetadata,
+      @Schema(hidden = true) @RequestHeader(name = "username") String username,
+      @Schema(hidden = true) @RequestHeader(name = "role") String role) {
+
+    Map<String, String> metadata = parseUploadMetadata(uploadMetadata);
+    UploadSession session =
+        this.resumableUploadService.createUpload(
+            productId,
+            metadata.get("filename"),
+            metadata.get("filetype"),
+            uploadLength,
+            username,
+            role);
+    return ResponseEntity.created(
+            ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/v1/uploads/{uploadId}")
+                .buildAndExpand(session.getId())
+                .toUri())
+        .header(TUS_RESUMABLE, TUS_VERSION)
+        .build();
+  }
+
+  /**
+   * Returns the offset of a resumable upload, which is where a client resumes an interrupted
+   * upload.
+   *
+   * @param uploadId the ID of the upload
+   * @return a ResponseEntity with the Upload-Offset and Upload-Length headers
+   */
+  @Operation(
+      summary = "Get the offset of a resumable image upload",
+      description = "A HEAD request to get the received size of an upload",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully found upload"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired")
+      })
+  @RequestMapping(value = "/v1/uploads/{uploadId}", method = RequestMethod.HEAD)
+  public ResponseEntity<Void> getUploadOffset(@PathVariable String uploadId) {
+
+    UploadSession session = this.resumableUploadService.getUpload(uploadId);
+    return ResponseEntity.ok()
+        .header(TUS_RESUMABLE, TUS_VERSION)
+        .header(UPLOAD_OFFSET, String.valueOf(session.getUploadOffset()))
+        .header(UPLOAD_LENGTH, String.valueOf(session.getUploadLength()))
+        .cacheControl(CacheControl.noStore())
+        .build();
+  }
+
+  /**
+   * Appends a chunk to a resumable upload. The chunk is written on the upload I/O executor, so the
+   * request thread is released while the chunk is streamed to disk.
+   *
+   * @param uploadId the ID of the upload
+   * @param uploadOffset the offset the chunk starts at, which must be the current offset
+   * @param contentLength the length of the chunk, if sent
+   * @param chunk the chunk content
+   * @param role the role of the uploader, which must be "ADMIN"
+   * @return a future of a ResponseEntity with status 204 and the new Upload-Offset header
+   */
+  @Operation(
+      summary = "Append a chunk to a resumable image upload",
+      description = "A PATCH request to send part of an image, accessible only by <b> ADMINS </b>",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "204", description = "Successfully appended chunk"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired"),
+        @ApiResponse(responseCode = "409", description = "Offset does not match or upload busy"),
+        @ApiResponse(responseCode = "503", description = "Too many uploads in progress")
+      })
+  @PatchMapping(value = "/v1/uploads/{uploadId}", consumes = OFFSET_OCTET_STREAM)
+  public CompletableFuture<ResponseEntity<Void>> appendUploadChunk(
+      @PathVariable String uploadId,
+      @RequestHeader(name = UPLOAD_OFFSET) long uploadOffset,
+      @RequestHeader(name = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+      @Parameter(hidden = true) InputStream chunk,
+      @Schema(hidden = true) @RequestHeader(name = "role") String role) {
+
+    return this.resumableUploadService
+        .appendChunk(uploadId, uploadOffset, contentLength, chunk, role)
+        .thenApply(
+            newOffset ->
+                ResponseEntity.noContent()
+                    .header(TUS_RESUMABLE, TUS_VERSION)
+                    .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                    .build());
+  }
+
+  /**
+   * Adds a completely received upload to the product, as its main image or as an extra image.
+   *
+   * @param uploadId the ID of the upload
+   * @param mainImage whether the image replaces the main image of the product
+   * @param role the role of the uploader, which must be "ADMIN"
+   * @return a future of a ResponseEntity containing the updated product
+   */
+  @Operation(
+      summary = "Finalize a resumable image upload",
+      description =
+          "A POST request to add an uploaded image to its product, "
+              + "accessible only by <b> ADMINS </b>",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully added image"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired"),
+        @ApiResponse(responseCode = "409", description = "Upload incomplete or busy"),
+        @ApiResponse(responseCode = "503", description = "Too many uploads in progress")
+      })
+  @PostMapping("/v1/uploads/{uploadId}/finalize")
+  public CompletableFuture<ResponseEntity<ProductResponseDTO>> finalizeUpload(
+      @PathVariable String uploadId,
+      @RequestParam(value = "main", defaultValue = "false") boolean mainImage,
+      @Schema(hidden = true) @RequestHeader(name = "role") String role) {
+
+    return this.resumableUploadService
+        .finalizeUpload(uploadId, mainImage, role)
+        .thenApply(product -> new ResponseEntity<>(product, HttpStatus.OK));
+  }
+
+  /**
+   * Aborts a resumable upload and deletes the received bytes, following the tus termination
+   * extension.
+   *
+   * @param uploadId the ID of the upload
+   * @param role the role of the uploader, which must be "ADMIN"
+   * @return a ResponseEntity with status 204
+   */
+  @Operation(
+      summary = "Abort a resumable image upload",
+      description = "A DELETE request to abort an upload, accessible only by <b> ADMINS </b>",
+      tags = {"Product Service"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "204", description = "Successfully aborted upload"),
+        @ApiResponse(responseCode = "404", description = "Upload not found or expired"),
+        @ApiResponse(responseCode = "409", description = "Upload busy")
+      })
+  @DeleteMapping("/v1/uploads/{uploadId}")
+  public ResponseEntity<Void> abortUpload(
+      @PathVariable String uploadId,
+      @Schema(hidden = true) @RequestHeader(name = "role") String role) {
+
+    this.resumableUploadService.abortUpload(uploadId, role);
+    return ResponseEntity.noContent().header(TUS_RESUMABLE, TUS_VERSION).build();
+  }
+
   /**
    * Deletes a product by the specified product ID. Only users with admin roles are authorized to
    * perform this operation.
@@ -596,6 +1288,90 @@ public class ProductServiceController {
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
+  /**
+   * Parses the product version from an {@code If-Match} header value such as {@code "3"} or {@code
+   * W/"3"}.
+   *
+   * @param ifMatch the header value, may be null
+   * @return the version, or null if no header was sent
+   */
+  private Long parseVersion(String ifMatch) {
+
+    if (!StringUtils.hasText(ifMatch)) {
+      return null;
+    }
+    String version = ifMatch.trim().replaceFirst("^W/", "").replace("\"", "");
+    try {
+      return Long.valueOf(version);
+    } catch (NumberFormatException exception) {
+      throw new InvalidProductPatchException("If-Match must contain a product version");
+    }
+  }
+
+  /**
+   * Stores an uploaded image in the content-addressed image store under its cleaned original
+   * file name.
+   *
+   * @param productId the id of the product the image belongs to
+   * @param image the uploaded image
+   * @return the name the product refers to the image by
+   * @throws IOException if the image cannot be stored
+   */
+  private String storeImage(Integer productId, MultipartFile image) throws IOException {
+
+    String imageName = imageName(image);
+    try (InputStream content = image.getInputStream()) {
+      this.imageStore.store(productId, imageName, content);
+    }
+    return imageName;
+  }
+
+  private static String imageName(MultipartFile image) {
+
+    return StringUtils.cleanPath(Objects.requireNonNull(image.getOriginalFilename()));
+  }
+
+  /**
+   * Parses a tus {@code Upload-Metadata} header, a comma separated list of keys each followed by
+   * an optional base64 encoded value.
+   *
+   * @param uploadMetadata the header value
+   * @return the decoded values by key
+   */
+  private static Map<String, String> parseUploadMetadata(String uploadMetadata) {
+
+    Map<String, String> metadata = new HashMap<>();
+    for (String pair : uploadMetadata.split(",")) {
+      String[] keyAndValue = pair.trim().split(" ", 2);
+      try {
+        metadata.put(
+            keyAndValue[0],
+            keyAndValue.length < 2
+                ? ""
+                : new String(
+                    Base64.getDecoder().decode(keyAndValue[1].trim()), StandardCharsets.UTF_8));
+      } catch (IllegalArgumentException exception) {
+        throw new InvalidUploadException("Upload-Metadata values must be base64 encoded");
+      }
+    }
+    return metadata;
+  }
+
+  private static MediaType imageMediaType(String contentType) {
+
+    try {
+      MediaType mediaType = isNull(contentType) ? null : MediaType.parseMediaType(contentType);
+      // blobs stored before their type was detected may carry the type their uploader declared
+      if (!isNull(mediaType)
+          && ImageMediaTypes.INLINE.contains(mediaType.getType() + "/" + mediaType.getSubtype())) {
+        return mediaType;
+      }
+    } catch (InvalidMediaTypeException exception) {
+      LOGGER.warn("Ignoring invalid image content type: {}", contentType);
+    }
+    return MediaType.APPLICATION_OCTET_STREAM;
+  }
+
   /**
    * Adds pagination metadata and hypermedia links to a list of products.
    *
@@ -0,0 +1,182 @@
+package com.ecommerce.productservice.controller;
+
+import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import com.ecommerce.productservice.service.ReactiveProductService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.net.URI;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the product browsing reads on the non-blocking stack when the {@code reactive} profile is
+ * active, with the same paths, parameters, status codes and HAL bodies as the matching endpoints
+ * of {@link ProductServiceController}. Instances running this profile only serve reads; writes stay
+ * on instances running the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@Validated
+public class ReactiveProductController {
+
+  private final ReactiveProductService reactiveProductService;
+
+  /**
+   * Retrieves a product by its unique identifier.
+   *
+   * @param productId the unique identifier of the product
+   * @param request the current request, used to build the product's self link
+   * @return a {@link Mono} emitting the product wrapped in an {@link EntityModel}
+   */
+  @GetMapping("/v1/get/{productId}")
+  public Mono<ResponseEntity<EntityModel<ProductResponseDTO>>> getProductById(
+      @PathVariable Integer productId, ServerHttpRequest request) {
+
+    return reactiveProductService
+        .getProductById(productId)
+        .map(product -> ResponseEntity.ok(toModel(product, request)));
+  }
+
+  /**
+   * Retrieves all products with optional pagination and search functionality.
+   *
+   * @param pageNumber the page number to retrieve, must be greater than or equal to 1
+   * @param pageSize the number of products per page, must be between 5 and 20
+   * @param searchKey an optional search keyword to filter products
+   * @param request the current request, used to build the paging links
+   * @return a {@link Mono} emitting the page of products, or 204 if the page is past the last one
+   */
+  @GetMapping("/v1/get/all")
+  public Mono<ResponseEntity<CollectionModel<ProductResponseDTO>>> getAllProducts(
+      @RequestParam(required = false, defaultValue = "1", value = "page") @Min(value = 1)
+          int pageNumber,
+      @RequestParam(required = false, defaultValue = "5", value = "size")
+          @Min(value = 5)
+          @Max(value = 20)
+          int pageSize,
+      @RequestParam(required = false, defaultValue = "") String searchKey,
+      ServerHttpRequest request) {
+
+    return reactiveProductService
+        .getAllProducts(pageNumber, pageSize, searchKey)
+        .flatMap(
+            page -> {
+              if (page.getTotalElements() != 0 && page.getContent().isEmpty()) {
+                return Mono.just(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+              } else if (page.getTotalElements() == 0) {
+                return Mono.error(new ProductNotFoundException("No products founds"));
+              }
+              return Mono.just(ResponseEntity.ok(toPagedModel(page, request)));
+            });
+  }
+
+  /**
+   * Retrieves the products of a specific category with optional pagination and search.
+   *
+   * @param categoryId the ID of the category for which products are to be retrieved
+   * @param pageNumber the page number of the results to retrieve, starting from 1
+   * @param pageSize the number of products per page, with a minimum of 5 and a maximum of 20
+   * @param searchKey an optional keyword to filter the products by a search query
+   * @param role the user role provided in the request header
+   * @param request the current request, used to build the paging links
+   * @return a {@link Mono} emitting the page of products, or 204 if there are none
+   */
+  @GetMapping("/v1/get/by-category/{categoryId}")
+  public Mono<ResponseEntity<CollectionModel<ProductResponseDTO>>> getProductsByCategory(
+      @PathVariable Integer categoryId,
+      @RequestParam(required = false, defaultValue = "1", value = "page") @Min(value = 1)
+          int pageNumber,
+      @RequestParam(required = false, defaultValue = "5", value = "size")
+          @Min(value = 5)
+          @Max(value = 20)
+          int pageSize,
+      @RequestParam(value = "search", required = false, defaultValue = "") String searchKey,
+      @RequestHeader(name = "userRole") String role,
+      ServerHttpRequest request) {
+
+    return reactiveProductService
+        .findProductsByCategory(categoryId, pageNumber, pageSize, searchKey, role)
+        .map(
+            page ->
+                page.getContent().isEmpty()
+                    ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                    : ResponseEntity.ok(toPagedModel(page, request)));
+  }
+
+  private EntityModel<ProductResponseDTO> toModel(
+      ProductResponseDTO product, ServerHttpRequest request) {
+
+    return EntityModel.of(product, productLink(product, request));
+  }
+
+  /**
+   * Wraps a page of products with its page metadata, a self link on every product and first, prev,
+   * next and last links derived from the current request URI.
+   */
+  private CollectionModel<ProductResponseDTO> toPagedModel(
+      Page<ProductResponseDTO> page, ServerHttpRequest request) {
+
+    int pageNumber = page.getNumber() + 1;
+    long totalPages = page.getTotalPages();
+    PagedModel.PageMetadata pageMetadata =
+        new PagedModel.PageMetadata(
+            page.getSize(), pageNumber, page.getTotalElements(), totalPages);
+    CollectionModel<ProductResponseDTO> collectionModel =
+        PagedModel.of(page.getContent(), pageMetadata);
+    for (ProductResponseDTO product : page.getContent()) {
+      product.add(productLink(product, request));
+    }
+    collectionModel.add(pageLink(request, pageNumber, IanaLinkRelations.SELF));
+    if (pageNumber > 1) {
+      collectionModel.add(pageLink(request, 1, IanaLinkRelations.FIRST));
+      collectionModel.add(pageLink(request, pageNumber - 1, IanaLinkRelations.PREV));
+    }
+    if (pageNumber < totalPages) {
+      collectionModel.add(pageLink(request, pageNumber + 1, IanaLinkRelations.NEXT));
+      collectionModel.add(pageLink(request, (int) totalPages, IanaLinkRelations.LAST));
+    }
+    return collectionModel;
+  }
+
+  private static Link productLink(ProductResponseDTO product, ServerHttpRequest request) {
+
+    URI uri =
+        UriComponentsBuilder.fromUri(request.getURI())
+            .replacePath(request.getPath().contextPath().value())
+            .path("/v1/get/{productId}")
+            .replaceQuery(null)
+            .buildAndExpand(product.getProductId())
+            .toUri();
+    return Link.of(uri.toString()).withSelfRel();
+  }
+
+  private static Link pageLink(ServerHttpRequest request, int pageNumber, LinkRelation relation) {
+
+    return Link.of(
+        UriComponentsBuilder.fromUri(request.getURI())
+            .replaceQueryParam("page", pageNumber)
+            .build()
+            .toUriString(),
+        relation);
+  }
+}
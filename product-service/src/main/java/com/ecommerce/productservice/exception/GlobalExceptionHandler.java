@@ -88,6 +88,272 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         exceptionInResponse, HttpStatusCode.valueOf(exceptionInResponse.getErrorCode()));
   }
 
+  /**
+   * Handles the InvalidProductPatchException exception.
+   *
+   * @param invalidProductPatchException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidProductPatchException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidProductPatchException(
+      InvalidProductPatchException invalidProductPatchException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidProductPatchException.getMessage(),
+            "Please correct the merge patch document");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the InvalidBulkOperationException exception.
+   *
+   * @param invalidBulkOperationException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidBulkOperationException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidBulkOperationException(
+      InvalidBulkOperationException invalidBulkOperationException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidBulkOperationException.getMessage(),
+            "Please correct the bulk operations and try again");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the InvalidChangeTokenException exception.
+   *
+   * @param invalidChangeTokenException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidChangeTokenException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidChangeTokenException(
+      InvalidChangeTokenException invalidChangeTokenException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidChangeTokenException.getMessage(),
+            "Please restart the sync without a token");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the InvalidPriceHistoryQueryException exception.
+   *
+   * @param invalidPriceHistoryQueryException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidPriceHistoryQueryException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidPriceHistoryQueryException(
+      InvalidPriceHistoryQueryException invalidPriceHistoryQueryException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidPriceHistoryQueryException.getMessage(),
+            "Please correct the date range or resolution and try again");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the InvalidAvailabilityQueryException exception.
+   *
+   * @param invalidAvailabilityQueryException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidAvailabilityQueryException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidAvailabilityQueryException(
+      InvalidAvailabilityQueryException invalidAvailabilityQueryException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidAvailabilityQueryException.getMessage(),
+            "Please send product_id and size pairs within the allowed batch size");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the InvalidProductLookupException exception.
+   *
+   * @param invalidProductLookupException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidProductLookupException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidProductLookupException(
+      InvalidProductLookupException invalidProductLookupException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidProductLookupException.getMessage(),
+            "Please send product ids within the allowed batch size");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the ReviewNotFoundException exception.
+   *
+   * @param reviewNotFoundException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(ReviewNotFoundException.class)
+  public ResponseEntity<ExceptionInResponse> handleReviewNotFoundException(
+      ReviewNotFoundException reviewNotFoundException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.NOT_FOUND.value(),
+            reviewNotFoundException.getMessage(),
+            "Please try with different product Id");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.NOT_FOUND);
+  }
+
+  /**
+   * Handles the InvalidReviewCursorException exception.
+   *
+   * @param invalidReviewCursorException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidReviewCursorException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidReviewCursorException(
+      InvalidReviewCursorException invalidReviewCursorException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidReviewCursorException.getMessage(),
+            "Please start again from the first page of reviews");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the ProductVersionConflictException exception.
+   *
+   * @param productVersionConflictException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(ProductVersionConflictException.class)
+  public ResponseEntity<ExceptionInResponse> handleProductVersionConflictException(
+      ProductVersionConflictException productVersionConflictException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.CONFLICT.value(),
+            productVersionConflictException.getMessage(),
+            "Please fetch the latest version of the product and try again");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Handles the ReservedStockViolationException exception.
+   *
+   * @param reservedStockViolationException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(ReservedStockViolationException.class)
+  public ResponseEntity<ExceptionInResponse> handleReservedStockViolationException(
+      ReservedStockViolationException reservedStockViolationException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.UNPROCESSABLE_ENTITY.value(),
+            reservedStockViolationException.getMessage(),
+            "Please keep every size quantity at or above its reserved quantity");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  /**
+   * Handles the UploadNotFoundException exception.
+   *
+   * @param uploadNotFoundException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(UploadNotFoundException.class)
+  public ResponseEntity<ExceptionInResponse> handleUploadNotFoundException(
+      UploadNotFoundException uploadNotFoundException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.NOT_FOUND.value(),
+            uploadNotFoundException.getMessage(),
+            "Please create a new upload");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.NOT_FOUND);
+  }
+
+  /**
+   * Handles the UploadConflictException exception.
+   *
+   * @param uploadConflictException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(UploadConflictException.class)
+  public ResponseEntity<ExceptionInResponse> handleUploadConflictException(
+      UploadConflictException uploadConflictException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.CONFLICT.value(),
+            uploadConflictException.getMessage(),
+            "Please get the current offset of the upload and resume from there");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Handles the InvalidUploadException exception.
+   *
+   * @param invalidUploadException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(InvalidUploadException.class)
+  public ResponseEntity<ExceptionInResponse> handleInvalidUploadException(
+      InvalidUploadException invalidUploadException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            invalidUploadException.getMessage(),
+            "Please send a valid image name, media type and length");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.BAD_REQUEST);
+  }
+
+  /**
+   * Handles the UploadCapacityExceededException exception.
+   *
+   * @param uploadCapacityExceededException the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(UploadCapacityExceededException.class)
+  public ResponseEntity<ExceptionInResponse> handleUploadCapacityExceededException(
+      UploadCapacityExceededException uploadCapacityExceededException) {
+
+    ExceptionInResponse exceptionInResponse =
+        new ExceptionInResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            uploadCapacityExceededException.getMessage(),
+            "Please retry the upload later");
+    LOGGER.error("*** {} ***", exceptionInResponse.getErrorMessage());
+    return new ResponseEntity<>(exceptionInResponse, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   /**
    * Handles the Exception.
    *
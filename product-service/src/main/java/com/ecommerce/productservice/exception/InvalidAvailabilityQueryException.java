@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidAvailabilityQueryException extends RuntimeException {
+
+  public InvalidAvailabilityQueryException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidBulkOperationException extends RuntimeException {
+
+  public InvalidBulkOperationException(String msg) {
+
+    super(msg);
+  }
+}
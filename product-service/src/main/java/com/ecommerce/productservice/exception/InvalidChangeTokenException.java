@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidChangeTokenException extends RuntimeException {
+
+  public InvalidChangeTokenException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidPriceHistoryQueryException extends RuntimeException {
+
+  public InvalidPriceHistoryQueryException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidProductLookupException extends RuntimeException {
+
+  public InvalidProductLookupException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidProductPatchException extends RuntimeException {
+
+  public InvalidProductPatchException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidReviewCursorException extends RuntimeException {
+
+  public InvalidReviewCursorException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class InvalidUploadException extends RuntimeException {
+
+  public InvalidUploadException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class ProductVersionConflictException extends RuntimeException {
+
+  public ProductVersionConflictException(String msg) {
+
+    super(msg);
+  }
+}
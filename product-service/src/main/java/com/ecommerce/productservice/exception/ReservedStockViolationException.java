@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class ReservedStockViolationException extends RuntimeException {
+
+  public ReservedStockViolationException(String msg) {
+
+    super(msg);
+  }
+}
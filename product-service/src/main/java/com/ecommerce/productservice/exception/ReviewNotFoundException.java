@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class ReviewNotFoundException extends RuntimeException {
+
+  public ReviewNotFoundException(String msg) {
+
+    super(msg);
+  }
+}
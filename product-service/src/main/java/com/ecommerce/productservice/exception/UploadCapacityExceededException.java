@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class UploadCapacityExceededException extends RuntimeException {
+
+  public UploadCapacityExceededException(String msg) {
+
+    super(msg);
+  }
+}
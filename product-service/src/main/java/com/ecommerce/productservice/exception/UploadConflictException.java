@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class UploadConflictException extends RuntimeException {
+
+  public UploadConflictException(String msg) {
+
+    super(msg);
+  }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.exception;
+
+public class UploadNotFoundException extends RuntimeException {
+
+  public UploadNotFoundException(String msg) {
+
+    super(msg);
+  }
+}
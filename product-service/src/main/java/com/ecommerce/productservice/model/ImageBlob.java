@@ -0,0 +1,41 @@
+package com.ecommerce.productservice.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * An image stored once on disk under the SHA-256 hash of its content, together with the number of
+ * product image names that currently refer to it.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Document(collection = "image_blobs")
+public class ImageBlob {
+
+  @Id private String hash; // lowercase hex SHA-256 of the content
+
+  @Field("ref_count")
+  private Long refCount;
+
+  @Field("size")
+  private Long size;
+
+  @Field("content_type")
+  private String contentType;
+
+  @Field("created_at")
+  private LocalDateTime createdAt;
+
+  @Field("released_at")
+  private LocalDateTime releasedAt; // last time ref_count dropped to zero
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.productservice.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+/**
+ * A single price observation of a product, written whenever its price or discount changes. Stored
+ * in a time-series collection with the product id as meta field, so MongoDB buckets the samples of
+ * each product together.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Document(collection = PriceHistory.COLLECTION_NAME)
+@TimeSeries(
+    collection = PriceHistory.COLLECTION_NAME,
+    timeField = "timestamp",
+    metaField = "productId",
+    granularity = Granularity.HOURS)
+public class PriceHistory {
+
+  public static final String COLLECTION_NAME = "price_history";
+
+  @Id private String id;
+
+  @Field("timestamp")
+  private Instant timestamp;
+
+  @Field("product_id")
+  private Integer productId;
+
+  @Field("product_price")
+  private Float productPrice;
+
+  @Field("discount_percent")
+  private Integer discountPercent;
+
+  @Field("total_price")
+  private Float totalPrice;
+}
@@ -44,6 +44,9 @@ public class Product implements Serializable {
   @Field("product_name")
   private String productName;
 
+  @Field("normalized_name")
+  private String normalizedName; // unique among enabled products, see ProductNameNormalizer
+
   @Field("product_brand")
   private String productBrand;
 
@@ -98,9 +101,18 @@ public class Product implements Serializable {
   @Field("review_count")
   private Integer reviewCount;
 
+  @Field("rating_total")
+  private Long ratingTotal; // sum of all ratings, maintained with review_count
+
   @Field("average_rating")
   private Float averageRating;
 
+  @Field("version")
+  private Long version; // incremented on every catalog write, used for optimistic checks
+
+  @Field("stock_version")
+  private Long stockVersion; // incremented on every stock write, orders the availability cache
+
   @Field("is_enabled")
   private boolean enabled;
 
@@ -0,0 +1,36 @@
+package com.ecommerce.productservice.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/** Maps an image name of a product to the {@link ImageBlob} holding its content. */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Document(collection = "product_images")
+public class ProductImage {
+
+  @Id private ObjectId id;
+
+  @Field("product_id")
+  private Integer productId;
+
+  @Field("image_name")
+  private String imageName;
+
+  @Field("hash")
+  private String hash;
+
+  @Field("updated_at")
+  private LocalDateTime updatedAt;
+}
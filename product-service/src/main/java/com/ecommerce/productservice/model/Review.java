@@ -0,0 +1,48 @@
+package com.ecommerce.productservice.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * A rating and review of a product by one user. Each user has at most one review per product;
+ * writing again replaces it.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Document(collection = "reviews")
+public class Review {
+
+  @Id private ObjectId id;
+
+  @Field("product_id")
+  private Integer productId;
+
+  @Field("username")
+  private String username;
+
+  @Field("rating")
+  private Integer rating;
+
+  @Field("title")
+  private String title;
+
+  @Field("comment")
+  private String comment;
+
+  @Field("created_at")
+  private LocalDateTime createdAt;
+
+  @Field("updated_at")
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.productservice.model;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * A resumable upload of a product image. The received bytes are appended to a file in the upload
+ * directory, and {@code upload_offset} only advances once a chunk has been forced to disk.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@Document(collection = "upload_sessions")
+public class UploadSession {
+
+  @Id private String id;
+
+  @Field("product_id")
+  private Integer productId;
+
+  @Field("image_name")
+  private String imageName;
+
+  @Field("content_type")
+  private String contentType;
+
+  @Field("upload_length")
+  private Long uploadLength;
+
+  @Field("upload_offset")
+  private Long uploadOffset;
+
+  @Field("username")
+  private String username;
+
+  @Field("created_at")
+  private LocalDateTime createdAt;
+
+  @Field("expires_at")
+  private LocalDateTime expiresAt;
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.productservice.payload.request;
+
+public enum BulkOperationType {
+  ENABLE,
+  DISABLE,
+  SET_PRICE,
+  SET_DISCOUNT
+}
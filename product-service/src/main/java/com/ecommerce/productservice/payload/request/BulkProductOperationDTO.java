@@ -0,0 +1,37 @@
+package com.ecommerce.productservice.payload.request;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@JsonNaming(value = PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class BulkProductOperationDTO {
+
+  @NotNull
+  @Schema(description = "Operation to apply", example = "SET_DISCOUNT")
+  private BulkOperationType operation;
+
+  @NotNull
+  @Schema(description = "Id of the product to apply the operation to", example = "1")
+  private Integer productId;
+
+  @Positive
+  @Schema(description = "New product price, required for SET_PRICE", example = "1500.0")
+  private Float productPrice;
+
+  @Positive
+  @Schema(
+      description = "New discount percent from 0 to 100, required for SET_DISCOUNT",
+      example = "20")
+  private Integer discountPercent;
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.productservice.payload.request;
+
+public enum PriceHistoryResolution {
+  RAW,
+  DAY,
+  WEEK
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.productservice.payload.request;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@ToString
+public class ReviewRequestDTO {
+
+  @NotNull
+  @Min(value = 1)
+  @Max(value = 5)
+  @Schema(description = "Rating from 1 to 5", example = "4")
+  private Integer rating;
+
+  @Size(max = 120)
+  @Schema(description = "Review Title", example = "Great fit")
+  private String title;
+
+  @Size(max = 4000)
+  @Schema(description = "Review Comment", example = "Soft fabric, true to size.")
+  private String comment;
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.productservice.payload.response;
+
+public enum AvailabilityLevel {
+  IN_STOCK,
+  LOW_STOCK,
+  OUT_OF_STOCK,
+  UNKNOWN // no enabled product with this id, or the product has no such size
+}
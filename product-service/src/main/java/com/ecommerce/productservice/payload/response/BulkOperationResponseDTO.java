@@ -0,0 +1,29 @@
+package com.ecommerce.productservice.payload.response;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class BulkOperationResponseDTO {
+
+  private int requestedOperations;
+
+  private int updatedProducts;
+
+  private int unchangedProducts;
+
+  private Map<Integer, String> failedProducts;
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.productservice.payload.response;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class PriceHistoryPointDTO {
+
+  private Instant timestamp; // sample time, or start of the day or week bucket
+
+  private Double minPrice;
+
+  private Double maxPrice;
+
+  private Double averagePrice;
+
+  private Double closingPrice; // last product price in the bucket
+
+  private Double closingTotalPrice; // last price after discount in the bucket
+
+  private Integer closingDiscountPercent;
+
+  private Integer samples;
+}
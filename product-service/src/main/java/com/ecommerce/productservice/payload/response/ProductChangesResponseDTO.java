@@ -0,0 +1,29 @@
+package com.ecommerce.productservice.payload.response;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class ProductChangesResponseDTO {
+
+  private List<ProductResponseDTO> changedProducts; // created or updated enabled products
+
+  private List<Integer> removedProductIds; // products disabled since the token
+
+  private String nextToken;
+
+  private boolean hasMore;
+}
@@ -50,7 +50,8 @@ import org.springframework.hateoas.server.core.Relation;
   "reviewCount",
   "averageRating",
   "enabled",
-  "inStock"
+  "inStock",
+  "version"
 })
 public class ProductResponseDTO extends CollectionModel<ProductResponseDTO>
     implements Serializable {
@@ -107,6 +108,8 @@ public class ProductResponseDTO extends CollectionModel<ProductResponseDTO>
 
   private boolean inStock;
 
+  private Long version;
+
   @CreatedBy @LastModifiedBy private String username;
 
   public String getShortDescription() {
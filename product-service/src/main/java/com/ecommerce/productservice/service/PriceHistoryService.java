@@ -0,0 +1,11 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.payload.response.PriceHistoryPointDTO;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PriceHistoryService {
+
+  List<PriceHistoryPointDTO> getPriceHistory(
+      Integer productId, LocalDate from, LocalDate to, String resolution);
+}
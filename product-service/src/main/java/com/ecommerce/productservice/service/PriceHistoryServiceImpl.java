@@ -0,0 +1,150 @@
+package com.ecommerce.productservice.service;
+
+import static java.util.Objects.isNull;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.ecommerce.productservice.exception.InvalidPriceHistoryQueryException;
+import com.ecommerce.productservice.model.PriceHistory;
+import com.ecommerce.productservice.payload.request.PriceHistoryResolution;
+import com.ecommerce.productservice.payload.response.PriceHistoryPointDTO;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryServiceImpl implements PriceHistoryService {
+
+  private final MongoTemplate mongoTemplate;
+
+  @Value(value = "${product.price-history.max-raw-points}")
+  private int maxRawPoints;
+
+  /**
+   * Retrieves the price history of a product between two dates (both inclusive, in UTC). At raw
+   * resolution every recorded sample is returned, up to a configured limit. At day or week
+   * resolution the samples are downsampled in MongoDB with {@code $dateTrunc}, returning one point
+   * per bucket with the minimum, maximum, average and closing price, so the response size depends
+   * on the range and not on how often the price changed.
+   *
+   * @param productId the ID of the product
+   * @param from the first day of the range, defaults to one year before {@code to}
+   * @param to the last day of the range, defaults to today
+   * @param resolution one of "raw", "day" or "week"
+   * @return the price points in chronological order
+   * @throws InvalidPriceHistoryQueryException if the resolution is unknown or the range is empty
+   */
+  @Override
+  public List<PriceHistoryPointDTO> getPriceHistory(
+      Integer productId, LocalDate from, LocalDate to, String resolution) {
+
+    PriceHistoryResolution bucketSize = parseResolution(resolution);
+    LocalDate end = isNull(to) ? LocalDate.now(ZoneOffset.UTC) : to;
+    LocalDate start = isNull(from) ? end.minusYears(1) : from;
+    if (start.isAfter(end)) {
+      throw new InvalidPriceHistoryQueryException("from must not be after to");
+    }
+    Criteria range =
+        where("product_id")
+            .is(productId)
+            .and("timestamp")
+            .gte(start.atStartOfDay(ZoneOffset.UTC).toInstant())
+            .lt(end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+    if (bucketSize == PriceHistoryResolution.RAW) {
+      Query rawQuery =
+          query(range).with(Sort.by(Sort.Direction.ASC, "timestamp")).limit(maxRawPoints);
+      return this.mongoTemplate.find(rawQuery, PriceHistory.class).stream()
+          .map(PriceHistoryServiceImpl::toPricePoint)
+          .toList();
+    }
+    DateOperators.DateTrunc bucket =
+        bucketSize == PriceHistoryResolution.WEEK
+            ? DateOperators.dateOf("timestamp").truncate("week").startOfWeek(DayOfWeek.MONDAY)
+            : DateOperators.dateOf("timestamp").truncate("day");
+    Aggregation aggregation =
+        newAggregation(
+            match(range),
+            sort(Sort.Direction.ASC, "timestamp"),
+            project("product_price", "discount_percent", "total_price").and(bucket).as("bucket"),
+            group("bucket")
+                .min("product_price")
+                .as("min_price")
+                .max("product_price")
+                .as("max_price")
+                .avg("product_price")
+                .as("average_price")
+                .last("product_price")
+                .as("closing_price")
+                .last("total_price")
+                .as("closing_total_price")
+                .last("discount_percent")
+                .as("closing_discount_percent")
+                .count()
+                .as("samples"),
+            sort(Sort.Direction.ASC, "_id"));
+    return this.mongoTemplate
+        .aggregate(aggregation, PriceHistory.COLLECTION_NAME, Document.class)
+        .getMappedResults()
+        .stream()
+        .map(PriceHistoryServiceImpl::toPricePoint)
+        .toList();
+  }
+
+  private static PriceHistoryResolution parseResolution(String resolution) {
+
+    try {
+      return PriceHistoryResolution.valueOf(resolution.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException | NullPointerException exception) {
+      throw new InvalidPriceHistoryQueryException(
+          "Unknown resolution: " + resolution + ", expected raw, day or week");
+    }
+  }
+
+  private static PriceHistoryPointDTO toPricePoint(PriceHistory sample) {
+
+    double price = sample.getProductPrice();
+    return PriceHistoryPointDTO.builder()
+        .timestamp(sample.getTimestamp())
+        .minPrice(price)
+        .maxPrice(price)
+        .averagePrice(price)
+        .closingPrice(price)
+        .closingTotalPrice(sample.getTotalPrice().doubleValue())
+        .closingDiscountPercent(sample.getDiscountPercent())
+        .samples(1)
+        .build();
+  }
+
+  private static PriceHistoryPointDTO toPricePoint(Document bucket) {
+
+    return PriceHistoryPointDTO.builder()
+        .timestamp(bucket.get("_id", Date.class).toInstant())
+        .minPrice(bucket.get("min_price", Number.class).doubleValue())
+        .maxPrice(bucket.get("max_price", Number.class).doubleValue())
+        .averagePrice(bucket.get("average_price", Number.class).doubleValue())
+        .closingPrice(bucket.get("closing_price", Number.class).doubleValue())
+        .closingTotalPrice(bucket.get("closing_total_price", Number.class).doubleValue())
+        .closingDiscountPercent(bucket.get("closing_discount_percent", Number.class).intValue())
+        .samples(bucket.get("samples", Number.class).intValue())
+        .build();
+  }
+}
@@ -1,9 +1,15 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.payload.request.AvailabilityQueryDTO;
+import com.ecommerce.productservice.payload.request.BulkProductOperationDTO;
 import com.ecommerce.productservice.payload.request.OrderProductDTO;
 import com.ecommerce.productservice.payload.request.ProductRequestDTO;
+import com.ecommerce.productservice.payload.response.BulkOperationResponseDTO;
+import com.ecommerce.productservice.payload.response.ProductAvailabilityDTO;
+import com.ecommerce.productservice.payload.response.ProductChangesResponseDTO;
 import com.ecommerce.productservice.payload.response.ProductResponseDTO;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 
 public interface ProductService {
@@ -23,11 +29,25 @@ public interface ProductService {
       Integer productId, ProductRequestDTO productRequestDTO, String username, String role)
       throws Exception;
 
+  ProductResponseDTO patchProductById(
+      Integer productId, Map<String, Object> mergePatch, Long expectedVersion, String role);
+
   void deleteProductById(Integer productId, String role) throws Exception;
 
-  void reduceProductCount(List<OrderProductDTO> products);
+  BulkOperationResponseDTO bulkUpdateProducts(
+      List<BulkProductOperationDTO> operations, String role);
+
+  ProductChangesResponseDTO getProductChanges(String since, int pageSize);
+
+  List<ProductResponseDTO> getProductsByIds(List<Integer> productIds);
+
+  List<ProductResponseDTO> lookupProducts(List<Integer> productIds);
+
+  List<ProductAvailabilityDTO> getAvailability(List<AvailabilityQueryDTO> items);
+
+  void reduceProductCount(List<OrderProductDTO> products, String orderId);
 
-  void releaseReservedProductCount(List<OrderProductDTO> products);
+  void releaseReservedProductCount(List<OrderProductDTO> products, String orderId);
 
   void confirmProductCount(List<OrderProductDTO> products);
 
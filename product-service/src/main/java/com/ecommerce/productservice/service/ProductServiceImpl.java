@@ -6,35 +6,72 @@ import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
 import com.ecommerce.productservice.exception.DuplicateProductException;
+import com.ecommerce.productservice.exception.InvalidAvailabilityQueryException;
+import com.ecommerce.productservice.exception.InvalidBulkOperationException;
+import com.ecommerce.productservice.exception.InvalidProductLookupException;
 import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.exception.ProductVersionConflictException;
 import com.ecommerce.productservice.exception.UnAuthorizedException;
 import com.ecommerce.productservice.model.Product;
 import com.ecommerce.productservice.model.Size;
+import com.ecommerce.productservice.payload.request.AvailabilityQueryDTO;
+import com.ecommerce.productservice.payload.request.BulkProductOperationDTO;
 import com.ecommerce.productservice.payload.request.OrderProductDTO;
 import com.ecommerce.productservice.payload.request.ProductRequestDTO;
+import com.ecommerce.productservice.payload.response.AvailabilityLevel;
+import com.ecommerce.productservice.payload.response.BulkOperationResponseDTO;
+import com.ecommerce.productservice.payload.response.ProductAvailabilityDTO;
+import com.ecommerce.productservice.payload.response.ProductChangesResponseDTO;
 import com.ecommerce.productservice.payload.response.ProductResponseDTO;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.util.ChangeToken;
+import com.ecommerce.productservice.util.ContentAddressedImageStore;
+import com.ecommerce.productservice.util.FrequentlyBoughtTogether;
 import com.ecommerce.productservice.util.MongoSequenceGenerator;
+import com.ecommerce.productservice.util.PipelinedProductCache;
+import com.ecommerce.productservice.util.PriceHistoryRecorder;
+import com.ecommerce.productservice.util.ProductAvailabilityCache;
+import com.ecommerce.productservice.util.ProductCacheInvalidator;
+import com.ecommerce.productservice.util.ProductExistenceFilter;
+import com.ecommerce.productservice.util.ProductMergePatch;
+import com.ecommerce.productservice.util.ProductNameNormalizer;
+import com.ecommerce.productservice.util.ProductNearCache;
+import com.mongodb.client.result.UpdateResult;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -42,6 +79,7 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -56,7 +94,9 @@ import org.springframework.web.client.RestTemplate;
  * Used for making HTTP requests. - mongoTemplate: Template for operations with MongoDB. -
  * redisTemplate: Template for operations with Redis cache. - modelMapper: Mapper tool to convert
  * between entity and DTO objects. - mongoSequenceGenerator: Utility for generating unique sequence
- * IDs in MongoDB.
+ * IDs in MongoDB. - productExistenceFilter: Bloom filter and negative cache that keep lookups for
+ * nonexistent product IDs away from MongoDB. - productCacheInvalidator: Evicts only the cache
+ * entries affected by a write.
  */
 @Service
 @RequiredArgsConstructor
@@ -64,6 +104,18 @@ public class ProductServiceImpl implements ProductService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+  private static final int DUPLICATE_KEY_ERROR = 11000;
+
+  /** Fields maintained by reviews, which a product update must not overwrite. */
+  private static final Set<String> REVIEW_AGGREGATES =
+      Set.of("review_count", "rating_total", "average_rating");
+
+  /** Field incremented on every stock write, which orders the writes to the availability cache. */
+  private static final String STOCK_VERSION = "stock_version";
+
+  /** The order lines whose stock a product holds reserved, so that they are reserved once. */
+  public static final String STOCK_RESERVATIONS = "stock_reservations";
+
   private final ProductRepository productRepository;
 
   private final RestTemplate restTemplate;
@@ -76,6 +128,40 @@ public class ProductServiceImpl implements ProductService {
 
   private final MongoSequenceGenerator mongoSequenceGenerator;
 
+  private final ProductExistenceFilter productExistenceFilter;
+
+  private final ProductCacheInvalidator productCacheInvalidator;
+
+  private final PriceHistoryRecorder priceHistoryRecorder;
+
+  private final ProductNearCache productNearCache;
+
+  private final FrequentlyBoughtTogether frequentlyBoughtTogether;
+
+  private final PipelinedProductCache pipelinedProductCache;
+
+  private final ProductAvailabilityCache productAvailabilityCache;
+
+  private final ContentAddressedImageStore imageStore;
+
+  @Value(value = "${product.bulk.max-operations}")
+  private int maxBulkOperations;
+
+  @Value(value = "${product.changes.settle-lag-ms}")
+  private long changesSettleLagMs;
+
+  @Value(value = "${product.availability.max-items}")
+  private int maxAvailabilityItems;
+
+  @Value(value = "${product.availability.low-stock-threshold}")
+  private int lowStockThreshold;
+
+  @Value(value = "${product.stock-reservations.retention-hours}")
+  private long stockReservationRetentionHours;
+
+  @Value(value = "${product.lookup.max-ids}")
+  private int maxLookupIds;
+
   /**
    * Saves a product to the database after performing validations and mapping the given product
    * data. If the product is valid and unique, it is persisted in the database, and cached.
@@ -113,6 +199,9 @@ public class ProductServiceImpl implements ProductService {
       // map the product request DTO to a product object
       Product product = modelMapper.map(productRequest, Product.class);
       product.setCreatedAt(LocalDateTime.now());
+      product.setUpdatedAt(product.getCreatedAt());
+      product.setNormalizedName(ProductNameNormalizer.normalize(product.getProductName()));
+      product.setVersion(nextVersion(null));
       product.setShortDescription(product.getShortDescription());
       if (categoryResponse.getStatusCode().is2xxSuccessful()) {
         product.setProductCount(product.getProductCount());
@@ -137,8 +226,15 @@ public class ProductServiceImpl implements ProductService {
                     }
                   });
         }
-        // save the product to the database
-        Product productToSaveInDB = productRepository.save(product);
+        // save the product to the database, the unique name index settles concurrent inserts
+        Product productToSaveInDB;
+        try {
+          productToSaveInDB = productRepository.save(product);
+        } catch (DuplicateKeyException exception) {
+          throw new DuplicateProductException("Products cannot be duplicated");
+        }
+        this.productExistenceFilter.recordInsert(productToSaveInDB.getProductId());
+        this.priceHistoryRecorder.recordIfChanged(null, null, productToSaveInDB);
         this.redisTemplate
             .opsForHash()
             .put(CACHE_NAME, productToSaveInDB.getProductId(), productToSaveInDB);
@@ -159,8 +255,9 @@ public class ProductServiceImpl implements ProductService {
 
   /**
    * Retrieves a product by its unique identifier. If the product is not found in the cache, it
-   * fetches the product from the database. The product must be enabled to be returned. If no
-   * product exists with the given identifier, a {@link ProductNotFoundException} is thrown.
+   * fetches the product from the database, unless the {@link ProductExistenceFilter} already knows
+   * that no such product exists. The product must be enabled to be returned. If no product exists
+   * with the given identifier, a {@link ProductNotFoundException} is thrown.
    *
    * @param productId the unique identifier of the product to retrieve
    * @return a {@link ProductResponseDTO} containing the details of the product
@@ -170,6 +267,10 @@ public class ProductServiceImpl implements ProductService {
   @Cacheable(value = CACHE_NAME, key = "#productId")
   public ProductResponseDTO getProductById(Integer productId) {
 
+    // skip the database for ids that are known not to exist
+    if (!productExistenceFilter.mightExist(productId)) {
+      throw new ProductNotFoundException("Product not found with ID: " + productId);
+    }
     LOGGER.info(
         "*** Searching in database as product with Id: {} not found in cache ***", productId);
     Optional<Product> product = productRepository.findById(Long.valueOf(productId));
@@ -177,6 +278,7 @@ public class ProductServiceImpl implements ProductService {
       // map the product to a product response DTO and return it
       return modelMapper.map(product.get(), ProductResponseDTO.class);
     }
+    productExistenceFilter.recordMiss(productId);
     throw new ProductNotFoundException("Product not found with ID: " + productId);
   }
 
@@ -230,6 +332,7 @@ public class ProductServiceImpl implements ProductService {
    * Updates an existing product by its ID. This method allows updating product details such as
    * color, images, sizes, name, brand, descriptions, discount, price, and other related
    * information. Note that only users with the 'ADMIN' role are permitted to perform this action.
+   * The review count, rating total and average rating are maintained by reviews and left as stored.
    *
    * @param productId The unique identifier of the product to be updated.
    * @param productRequestDTO An object containing the updated product details.
@@ -250,13 +353,15 @@ public class ProductServiceImpl implements ProductService {
     // save updatedProduct to database
     ProductResponseDTO productInDB = this.getProductById(productId);
     Product product = this.modelMapper.map(productInDB, Product.class);
+    LocalDateTime updatedAt = LocalDateTime.now();
     // set values to existing product from payload
     product.setProductColor(productRequestDTO.getProductColor());
-    product.setUpdatedAt(LocalDateTime.now());
+    product.setUpdatedAt(updatedAt);
     product.setExtraProductImages(productRequestDTO.getExtraProductImages());
     product.setProductMainImage(productRequestDTO.getProductMainImage());
     product.setProductSizes(productRequestDTO.getProductSizes());
     product.setProductName(productRequestDTO.getProductName());
+    product.setNormalizedName(ProductNameNormalizer.normalize(productRequestDTO.getProductName()));
     product.setProductBrand(productRequestDTO.getProductBrand());
     product.setCreatedAt(product.getCreatedAt());
     product.setShortDescription(productRequestDTO.getShortDescription());
@@ -267,22 +372,146 @@ public class ProductServiceImpl implements ProductService {
     product.setDiscountedPrice(product.getDiscountedPrice());
     product.setTotalPrice(product.getTotalPrice());
     product.setUsername(username);
-    // find and replace the product
-    Optional<Product> findAndReplaceProduct =
-        this.mongoTemplate
-            .update(Product.class)
-            .matching(query(where("_id").is(productId)))
-            .replaceWith(product)
-            .withOptions(FindAndReplaceOptions.options().upsert().returnNew())
-            .as(Product.class)
-            .findAndReplace();
+    // update every field of the product except the review aggregates
+    Optional<Product> findAndReplaceProduct;
+    try {
+      findAndReplaceProduct =
+          this.mongoTemplate
+              .update(Product.class)
+              .matching(query(where("_id").is(productId)))
+              .apply(updateExceptReviewAggregates(product))
+              .withOptions(FindAndModifyOptions.options().upsert(true).returnNew(true))
+              .findAndModify();
+    } catch (DuplicateKeyException exception) {
+      throw new DuplicateProductException("Products cannot be duplicated");
+    }
     findAndReplaceProduct.ifPresent(
         value -> this.redisTemplate.opsForHash().put(CACHE_NAME, value.getProductId(), value));
+    findAndReplaceProduct.ifPresent(this.productAvailabilityCache::update);
+    findAndReplaceProduct.ifPresent(
+        value ->
+            this.priceHistoryRecorder.recordIfChanged(
+                productInDB.getProductPrice(), productInDB.getDiscountPercent(), value));
+    findAndReplaceProduct.ifPresent(value -> releaseUnreferencedImages(value, updatedAt));
     ProductResponseDTO responseDTO;
     responseDTO = modelMapper.map(findAndReplaceProduct.get(), ProductResponseDTO.class);
     return responseDTO;
   }
 
+  /**
+   * Builds an update that gives a product the fields of the given one, like a replacement would,
+   * except for the review aggregates, which the cached product the update is based on may not hold
+   * or hold stale. The version and the stock version are incremented in the same write, so that
+   * no other write can end up with the same version.
+   */
+  private Update updateExceptReviewAggregates(Product product) {
+
+    Document document = new Document();
+    this.mongoTemplate.getConverter().write(product, document);
+    Update update = new Update();
+    this.mongoTemplate
+        .getConverter()
+        .getMappingContext()
+        .getRequiredPersistentEntity(Product.class)
+        .forEach(
+            property -> {
+              String field = property.getFieldName();
+              if (property.isIdProperty()
+                  || REVIEW_AGGREGATES.contains(field)
+                  || "version".equals(field)
+                  || STOCK_VERSION.equals(field)) {
+                return;
+              }
+              if (document.containsKey(field)) {
+                update.set(field, document.get(field));
+              } else {
+                update.unset(field);
+              }
+            });
+    return update.inc("version", 1).inc(STOCK_VERSION, 1);
+  }
+
+  /**
+   * Applies an RFC 7396 JSON merge patch to a product. The patch is compiled into a minimal
+   * {@code $set}/{@code $unset} update that only touches the patched fields, so concurrent stock
+   * reservations on the product are preserved. The update is only applied if the stored version
+   * still matches, and only the cache entries of the product and of its category listings are
+   * invalidated afterwards.
+   *
+   * @param productId the ID of the product to be patched
+   * @param mergePatch the merge patch document, keyed by the snake_case product property names
+   * @param expectedVersion the version the client based its patch on, or null to use the version
+   *     currently stored
+   * @param role the role of the user attempting the update; must be 'ADMIN'
+   * @return a ProductResponseDTO object containing the patched product details
+   * @throws UnAuthorizedException if the user is not authorized to update the product
+   * @throws ProductVersionConflictException if the product was modified since the expected version
+   */
+  @Override
+  public ProductResponseDTO patchProductById(
+      Integer productId, Map<String, Object> mergePatch, Long expectedVersion, String role) {
+    // if the user's role is not admin, throw an exception
+    if (!isNull(role) && role.equals("ROLE_USER")) {
+      LOGGER.error("*** {} ***", "Role needs to be ADMIN to update a product");
+      throw new UnAuthorizedException("Requires ROLE_ADMIN to update a product");
+    }
+    Product current =
+        this.productRepository
+            .findById(Long.valueOf(productId))
+            .filter(Product::isEnabled)
+            .orElseThrow(
+                () -> new ProductNotFoundException("Product not found with ID: " + productId));
+    long currentVersion = isNull(current.getVersion()) ? 0 : current.getVersion();
+    if (!isNull(expectedVersion) && expectedVersion != currentVersion) {
+      throw new ProductVersionConflictException(
+          "Product with ID: " + productId + " is at version " + currentVersion);
+    }
+    Update update = ProductMergePatch.toUpdate(mergePatch, current);
+    if (isNull(update)) {
+      return this.modelMapper.map(current, ProductResponseDTO.class);
+    }
+    String productName = ProductMergePatch.patchedProductName(mergePatch);
+    if (!isNull(productName)
+        && !ProductNameNormalizer.normalize(productName).equals(current.getNormalizedName())
+        && !productIsUnique(productName)) {
+      throw new DuplicateProductException("Products cannot be duplicated");
+    }
+    LocalDateTime updatedAt = LocalDateTime.now();
+    update.set("updated_at", updatedAt).inc("version", 1).inc(STOCK_VERSION, 1);
+    // only apply the patch if nobody else has written the product in the meantime
+    Query patchQuery =
+        versionedQuery(productId, currentVersion).addCriteria(where("is_enabled").is(true));
+    Criteria reservedStock = ProductMergePatch.reservedStockCriteria(mergePatch);
+    if (!isNull(reservedStock)) {
+      // a reservation made since the product was read must not be undercut either
+      patchQuery.addCriteria(reservedStock);
+    }
+    Product patchedProduct;
+    try {
+      patchedProduct =
+          this.mongoTemplate.findAndModify(
+              patchQuery, update, FindAndModifyOptions.options().returnNew(true), Product.class);
+    } catch (DuplicateKeyException exception) {
+      throw new DuplicateProductException("Products cannot be duplicated");
+    }
+    if (isNull(patchedProduct)) {
+      throw new ProductVersionConflictException(
+          "Product with ID: " + productId + " was modified concurrently");
+    }
+    this.productCacheInvalidator.evict(
+        List.of(productId), Set.of(patchedProduct.getCategoryId()));
+    this.productAvailabilityCache.update(patchedProduct);
+    this.priceHistoryRecorder.recordIfChanged(
+        current.getProductPrice(), current.getDiscountPercent(), patchedProduct);
+    if (mergePatch.containsKey("product_main_image")
+        || mergePatch.containsKey("extra_product_images")) {
+      releaseUnreferencedImages(patchedProduct, updatedAt);
+    }
+    LOGGER.info(
+        "Product with Id: {} patched to version: {}", productId, patchedProduct.getVersion());
+    return this.modelMapper.map(patchedProduct, ProductResponseDTO.class);
+  }
+
   /**
    * Deletes a product by its ID. The product is marked as disabled in the database. Only users with
    * the "ROLE_ADMIN" role are authorized to perform this operation.
@@ -300,22 +529,438 @@ public class ProductServiceImpl implements ProductService {
       LOGGER.error("*** {} ***", "Role needs to be ADMIN to delete a product");
       throw new UnAuthorizedException("Requires ROLE_ADMIN to delete a product");
     }
-    Optional<Product> findAndReplaceProduct =
-        this.productRepository.findById(Long.valueOf(productId));
-    if (findAndReplaceProduct.isPresent()) {
-      Product product = findAndReplaceProduct.get();
-      product.setEnabled(false);
-      this.mongoTemplate
-          .update(Product.class)
-          .matching(query(where("_id").is(productId)))
-          .replaceWith(product)
-          .withOptions(FindAndReplaceOptions.options().upsert().returnNew())
-          .as(Product.class)
-          .findAndReplace();
+    // only the flag is written, so concurrent reservations and review aggregates are kept
+    LocalDateTime updatedAt = LocalDateTime.now();
+    Product deletedProduct =
+        this.mongoTemplate.findAndModify(
+            query(where("_id").is(productId)),
+            new Update()
+                .set("is_enabled", false)
+                .set("updated_at", updatedAt)
+                .inc("version", 1)
+                .inc(STOCK_VERSION, 1),
+            FindAndModifyOptions.options().returnNew(true),
+            Product.class);
+    if (!isNull(deletedProduct)) {
+      this.productAvailabilityCache.update(deletedProduct);
+      this.imageStore.releaseUnreferenced(productId, Set.of(), updatedAt);
     }
     LOGGER.info("Product with Id: {} deleted successfully", productId);
   }
 
+  /**
+   * Releases the stored images a product no longer refers to after a write of its images. Images
+   * uploaded since the write started are kept, as their product write may still be to come.
+   */
+  private void releaseUnreferencedImages(Product product, LocalDateTime mappedBefore) {
+
+    Set<String> imageNames = new HashSet<>();
+    if (!isNull(product.getProductMainImage())) {
+      imageNames.add(product.getProductMainImage());
+    }
+    if (!isNull(product.getExtraProductImages())) {
+      imageNames.addAll(product.getExtraProductImages());
+    }
+    this.imageStore.releaseUnreferenced(product.getProductId(), imageNames, mappedBefore);
+  }
+
+  /**
+   * Applies a batch of admin operations (enable, disable, set price, set discount) to many
+   * products at once. The current pricing state of all affected products is read with a single
+   * projected query, the operations for each product are folded into one update with the derived
+   * price fields recomputed server-side, and all updates are sent as a single unordered bulk
+   * write. Each update only applies if the product's version is unchanged, and the cache is
+   * invalidated once for all affected products and categories.
+   *
+   * @param operations the operations to apply, in order
+   * @param role the role of the user; must be "ROLE_ADMIN"
+   * @return a summary of the updated, unchanged and failed products
+   * @throws UnAuthorizedException if the user's role is not "ROLE_ADMIN"
+   * @throws InvalidBulkOperationException if an operation is incomplete or the batch is too large
+   */
+  @Override
+  public BulkOperationResponseDTO bulkUpdateProducts(
+      List<BulkProductOperationDTO> operations, String role) {
+    // if the user's role is not admin, throw an exception
+    if (!isNull(role) && role.equals("ROLE_USER")) {
+      LOGGER.error("*** {} ***", "Role needs to be ADMIN to update products");
+      throw new UnAuthorizedException("Requires ROLE_ADMIN to update products");
+    }
+    if (isNull(operations) || operations.isEmpty() || operations.size() > maxBulkOperations) {
+      throw new InvalidBulkOperationException(
+          "A bulk request must contain between 1 and " + maxBulkOperations + " operations");
+    }
+    operations.forEach(ProductServiceImpl::validateBulkOperation);
+    // read the state the operations depend on for all products in one query
+    Set<Integer> productIds =
+        operations.stream()
+            .map(BulkProductOperationDTO::getProductId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    Query stateQuery = query(where("_id").in(productIds));
+    stateQuery
+        .fields()
+        .include("category_id", "product_price", "discount_percent", "is_enabled", "version");
+    Map<Integer, Product> currentProducts =
+        this.mongoTemplate.find(stateQuery, Product.class).stream()
+            .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+    // fold all operations of a product into its target state
+    Map<Integer, String> failedProducts = new LinkedHashMap<>();
+    Map<Integer, PricingState> targetStates = new LinkedHashMap<>();
+    for (BulkProductOperationDTO operation : operations) {
+      Product product = currentProducts.get(operation.getProductId());
+      if (isNull(product)) {
+        failedProducts.put(operation.getProductId(), "Product not found");
+        continue;
+      }
+      PricingState state =
+          targetStates.getOrDefault(operation.getProductId(), PricingState.of(product));
+      targetStates.put(operation.getProductId(), state.apply(operation));
+    }
+    // one conditional update per changed product, sent as a single unordered bulk write
+    BulkOperations bulkOperations =
+        this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+    LocalDateTime updatedAt = LocalDateTime.now();
+    List<Integer> updatedProductIds = new ArrayList<>();
+    int unchangedProducts = 0;
+    for (Map.Entry<Integer, PricingState> target : targetStates.entrySet()) {
+      Product product = currentProducts.get(target.getKey());
+      PricingState state = target.getValue();
+      if (state.equals(PricingState.of(product))) {
+        unchangedProducts++;
+        continue;
+      }
+      Float discountedPrice = state.productPrice() * state.discountPercent() / 100;
+      Update update =
+          new Update()
+              .set("is_enabled", state.enabled())
+              .set("product_price", state.productPrice())
+              .set("discount_percent", state.discountPercent())
+              .set("discount_price", discountedPrice)
+              .set("total_price", state.productPrice() - discountedPrice)
+              .set("updated_at", updatedAt)
+              .inc("version", 1)
+              .inc(STOCK_VERSION, 1);
+      long version = isNull(product.getVersion()) ? 0 : product.getVersion();
+      bulkOperations.updateOne(versionedQuery(target.getKey(), version), update);
+      updatedProductIds.add(target.getKey());
+    }
+    if (!updatedProductIds.isEmpty()) {
+      int matchedCount;
+      try {
+        matchedCount = bulkOperations.execute().getMatchedCount();
+      } catch (BulkOperationException exception) {
+        LOGGER.error("Bulk product update partially failed: {}", exception.getErrors());
+        matchedCount = exception.getResult().getMatchedCount();
+        // enabling a product whose name is now used by another enabled product
+        List<Integer> duplicateProductIds =
+            exception.getErrors().stream()
+                .filter(error -> error.getCode() == DUPLICATE_KEY_ERROR)
+                .map(error -> updatedProductIds.get(error.getIndex()))
+                .toList();
+        duplicateProductIds.forEach(
+            productId -> failedProducts.put(productId, "Product name is already in use"));
+        updatedProductIds.removeAll(duplicateProductIds);
+      }
+      if (matchedCount < updatedProductIds.size()) {
+        // products that did not get this batch's timestamp were written concurrently
+        Query writtenQuery =
+            query(where("_id").in(updatedProductIds).and("updated_at").is(updatedAt));
+        writtenQuery.fields().include("_id");
+        Set<Integer> writtenProductIds =
+            this.mongoTemplate.find(writtenQuery, Product.class).stream()
+                .map(Product::getProductId)
+                .collect(Collectors.toSet());
+        updatedProductIds.stream()
+            .filter(productId -> !writtenProductIds.contains(productId))
+            .forEach(
+                productId -> failedProducts.put(productId, "Product was modified concurrently"));
+        updatedProductIds.retainAll(writtenProductIds);
+      }
+      updatedProductIds.stream()
+          .filter(productId -> targetStates.get(productId).enabled())
+          .forEach(this.productExistenceFilter::recordInsert);
+      Set<Integer> categoryIds =
+          updatedProductIds.stream()
+              .map(productId -> currentProducts.get(productId).getCategoryId())
+              .collect(Collectors.toSet());
+      this.productCacheInvalidator.evict(updatedProductIds, categoryIds);
+      this.productAvailabilityCache.evict(updatedProductIds);
+      List<Product> repricedProducts =
+          updatedProductIds.stream()
+              .filter(
+                  productId ->
+                      !targetStates.get(productId).hasSamePricing(currentProducts.get(productId)))
+              .map(productId -> targetStates.get(productId).applyTo(currentProducts.get(productId)))
+              .toList();
+      this.priceHistoryRecorder.recordAll(repricedProducts);
+    }
+    LOGGER.info(
+        "Bulk update of {} operations: {} products updated, {} failed",
+        operations.size(),
+        updatedProductIds.size(),
+        failedProducts.size());
+    return BulkOperationResponseDTO.builder()
+        .requestedOperations(operations.size())
+        .updatedProducts(updatedProductIds.size())
+        .unchangedProducts(unchangedProducts)
+        .failedProducts(failedProducts)
+        .build();
+  }
+
+  /**
+   * Returns the next page of the catalog change feed. Products are read in {@code (updated_at,
+   * _id)} order starting after the given token, using the {@code updated_at_id} index. Products
+   * written within the settle lag are held back until a later call, so a write that commits with a
+   * slightly older timestamp than one already returned is never skipped.
+   *
+   * @param since the token returned by the previous call, or blank for a full sync
+   * @param pageSize the maximum number of changes to return
+   * @return the changed and removed products together with the token for the next call
+   * @throws InvalidChangeTokenException if the token was not issued by this service
+   */
+  @Override
+  public ProductChangesResponseDTO getProductChanges(String since, int pageSize) {
+
+    ChangeToken position = ChangeToken.parse(since);
+    LocalDateTime settledBefore = LocalDateTime.now().minus(Duration.ofMillis(changesSettleLagMs));
+    Query changesQuery = query(where("updated_at").lte(settledBefore));
+    if (!position.equals(ChangeToken.INITIAL)) {
+      LocalDateTime updatedAt = position.updatedAtTime();
+      changesQuery.addCriteria(
+          new Criteria()
+              .orOperator(
+                  where("updated_at").gt(updatedAt),
+                  where("updated_at").is(updatedAt).and("_id").gt(position.productId())));
+    }
+    changesQuery
+        .with(Sort.by(Sort.Direction.ASC, "updated_at").and(Sort.by(Sort.Direction.ASC, "_id")))
+        .limit(pageSize + 1);
+    List<Product> changes = this.mongoTemplate.find(changesQuery, Product.class);
+    boolean hasMore = changes.size() > pageSize;
+    if (hasMore) {
+      changes = changes.subList(0, pageSize);
+    }
+    List<ProductResponseDTO> changedProducts = new ArrayList<>();
+    List<Integer> removedProductIds = new ArrayList<>();
+    for (Product product : changes) {
+      if (product.isEnabled()) {
+        changedProducts.add(this.modelMapper.map(product, ProductResponseDTO.class));
+      } else {
+        removedProductIds.add(product.getProductId());
+      }
+    }
+    if (!changes.isEmpty()) {
+      Product last = changes.get(changes.size() - 1);
+      position = ChangeToken.of(last.getUpdatedAt(), last.getProductId());
+    }
+    return ProductChangesResponseDTO.builder()
+        .changedProducts(changedProducts)
+        .removedProductIds(removedProductIds)
+        .nextToken(position.encode())
+        .hasMore(hasMore)
+        .build();
+  }
+
+  /**
+   * Retrieves several enabled products at once, in the order of the given ids. Products held by
+   * the near cache are taken from there, the rest are looked up in Redis with a single {@code MGET}
+   * and only the remaining ones are read with a single {@code $in} query. Products read from the
+   * database are written back to Redis in one pipeline. Ids without an enabled product are
+   * skipped.
+   *
+   * @param productIds the ids of the products to retrieve
+   * @return the products found, in the order of the given ids
+   */
+  @Override
+  public List<ProductResponseDTO> getProductsByIds(List<Integer> productIds) {
+
+    Map<Integer, ProductResponseDTO> products = new HashMap<>();
+    List<Integer> uncachedProductIds = new ArrayList<>();
+    for (Integer productId : productIds) {
+      if (this.productNearCache.get(productId) instanceof ProductResponseDTO cached) {
+        products.put(productId, cached);
+      } else {
+        uncachedProductIds.add(productId);
+      }
+    }
+    if (uncachedProductIds.isEmpty()) {
+      return productIds.stream().map(products::get).filter(Objects::nonNull).toList();
+    }
+    this.pipelinedProductCache
+        .getAll(uncachedProductIds)
+        .forEach(
+            (productId, cached) -> {
+              if (cached instanceof ProductResponseDTO product) {
+                products.put(productId, product);
+                this.productNearCache.put(productId, product);
+              }
+            });
+    List<Integer> missingProductIds =
+        uncachedProductIds.stream().filter(id -> !products.containsKey(id)).toList();
+    if (!missingProductIds.isEmpty()) {
+      Map<Integer, ProductResponseDTO> loaded = new HashMap<>();
+      this.mongoTemplate
+          .find(
+              query(where("_id").in(missingProductIds).and("is_enabled").is(true)), Product.class)
+          .forEach(
+              product ->
+                  loaded.put(
+                      product.getProductId(),
+                      this.modelMapper.map(product, ProductResponseDTO.class)));
+      this.pipelinedProductCache.putAll(loaded);
+      loaded.forEach(this.productNearCache::put);
+      products.putAll(loaded);
+    }
+    return productIds.stream().map(products::get).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Looks many products up at once for other services, such as order-service enriching order
+   * lines. Duplicate ids are looked up once and the products are read like in {@link
+   * #getProductsByIds(List)}, so a whole batch costs at most one Redis round trip and one query.
+   *
+   * @param productIds the ids of the products to look up
+   * @return the enabled products found, in the order their ids first appear
+   * @throws InvalidProductLookupException if an id is missing or there are too many ids
+   */
+  @Override
+  public List<ProductResponseDTO> lookupProducts(List<Integer> productIds) {
+
+    if (isNull(productIds) || productIds.isEmpty() || productIds.size() > maxLookupIds) {
+      throw new InvalidProductLookupException(
+          "Products can be looked up for 1 to " + maxLookupIds + " ids at once");
+    }
+    if (productIds.stream().anyMatch(Objects::isNull)) {
+      throw new InvalidProductLookupException("Product ids must not be null");
+    }
+    return getProductsByIds(productIds.stream().distinct().toList());
+  }
+
+  /**
+   * Returns the availability level of many (product, size) pairs at once, served from the
+   * availability map of {@link ProductAvailabilityCache} rather than from the product cache. Sizes
+   * with no stock left are {@code OUT_OF_STOCK}, sizes with at most {@code
+   * product.availability.low-stock-threshold} items left are {@code LOW_STOCK}, and pairs without
+   * an enabled product or without such a size are {@code UNKNOWN}.
+   *
+   * @param items the (product_id, size) pairs to check
+   * @return the availability of every pair, in the order of the given pairs
+   * @throws InvalidAvailabilityQueryException if a pair is incomplete or there are too many pairs
+   */
+  @Override
+  public List<ProductAvailabilityDTO> getAvailability(List<AvailabilityQueryDTO> items) {
+
+    if (isNull(items) || items.isEmpty() || items.size() > maxAvailabilityItems) {
+      throw new InvalidAvailabilityQueryException(
+          "Availability can be checked for 1 to " + maxAvailabilityItems + " items at once");
+    }
+    for (AvailabilityQueryDTO item : items) {
+      if (isNull(item) || isNull(item.getProductId()) || isNull(item.getSize())) {
+        throw new InvalidAvailabilityQueryException("Every item needs a product_id and a size");
+      }
+    }
+    Map<Integer, Map<String, Integer>> availability =
+        this.productAvailabilityCache.availableBySize(
+            items.stream().map(AvailabilityQueryDTO::getProductId).toList());
+    return items.stream()
+        .map(
+            item -> {
+              Integer available =
+                  availability.getOrDefault(item.getProductId(), Map.of()).get(item.getSize());
+              AvailabilityLevel level;
+              if (isNull(available)) {
+                level = AvailabilityLevel.UNKNOWN;
+              } else if (available <= 0) {
+                level = AvailabilityLevel.OUT_OF_STOCK;
+              } else if (available <= lowStockThreshold) {
+                level = AvailabilityLevel.LOW_STOCK;
+              } else {
+                level = AvailabilityLevel.IN_STOCK;
+              }
+              return ProductAvailabilityDTO.builder()
+                  .productId(item.getProductId())
+                  .size(item.getSize())
+                  .availability(level)
+                  .build();
+            })
+        .toList();
+  }
+
+  /**
+   * Checks that a bulk operation carries the values its type requires.
+   *
+   * @param operation the operation to validate
+   * @throws InvalidBulkOperationException if a required value is missing or out of range
+   */
+  private static void validateBulkOperation(BulkProductOperationDTO operation) {
+
+    if (isNull(operation.getOperation()) || isNull(operation.getProductId())) {
+      throw new InvalidBulkOperationException("Every operation needs an operation and product_id");
+    }
+    switch (operation.getOperation()) {
+      case SET_PRICE -> {
+        if (isNull(operation.getProductPrice()) || operation.getProductPrice() <= 0) {
+          throw new InvalidBulkOperationException(
+              "SET_PRICE needs a positive product_price for product: "
+                  + operation.getProductId());
+        }
+      }
+      case SET_DISCOUNT -> {
+        if (isNull(operation.getDiscountPercent())
+            || operation.getDiscountPercent() < 0
+            || operation.getDiscountPercent() > 100) {
+          throw new InvalidBulkOperationException(
+              "SET_DISCOUNT needs a discount_percent between 0 and 100 for product: "
+                  + operation.getProductId());
+        }
+      }
+      default -> {
+        // ENABLE and DISABLE carry no values
+      }
+    }
+  }
+
+  /**
+   * The part of a product that bulk operations can change.
+   *
+   * @param enabled whether the product is enabled
+   * @param productPrice the product price
+   * @param discountPercent the discount percent
+   */
+  private record PricingState(boolean enabled, Float productPrice, Integer discountPercent) {
+
+    static PricingState of(Product product) {
+
+      return new PricingState(
+          product.isEnabled(), product.getProductPrice(), product.getDiscountPercent());
+    }
+
+    boolean hasSamePricing(Product product) {
+
+      return Objects.equals(productPrice, product.getProductPrice())
+          && Objects.equals(discountPercent, product.getDiscountPercent());
+    }
+
+    Product applyTo(Product product) {
+
+      product.setEnabled(enabled);
+      product.setProductPrice(productPrice);
+      product.setDiscountPercent(discountPercent);
+      return product;
+    }
+
+    PricingState apply(BulkProductOperationDTO operation) {
+
+      return switch (operation.getOperation()) {
+        case ENABLE -> new PricingState(true, productPrice, discountPercent);
+        case DISABLE -> new PricingState(false, productPrice, discountPercent);
+        case SET_PRICE -> new PricingState(enabled, operation.getProductPrice(), discountPercent);
+        case SET_DISCOUNT ->
+            new PricingState(enabled, productPrice, operation.getDiscountPercent());
+      };
+    }
+  }
+
   /**
    * Reduces product count by updating the reserved quantities for each product size in the
    * inventory. This method first deduplicates the list of products, aggregates the quantities for
@@ -323,26 +968,21 @@ public class ProductServiceImpl implements ProductService {
    * ensures stock availability and throws an exception if requested quantities exceed available
    * stock.
    *
+   * <p>When an order id is given, every reserved line is recorded in the {@code
+   * stock_reservations} of its product in the same write, and a line the order has already
+   * reserved is skipped. A reservation whose outcome the caller does not know can then be sent
+   * again, and {@link #releaseReservedProductCount} releases exactly the lines that were applied.
+   *
    * @param products a list of {@code OrderProductDTO} objects representing the ordered products
    *     with their respective IDs, sizes, and quantities. The list may contain duplicates which
    *     will be aggregated within the method.
+   * @param orderId the id of the order the stock is reserved for, may be null
    */
   @Override
   @Caching(evict = {@CacheEvict(value = CACHE_NAME, key = "#productId", allEntries = true)})
-  public void reduceProductCount(List<OrderProductDTO> products) {
+  public void reduceProductCount(List<OrderProductDTO> products, String orderId) {
 
-    Map<String, OrderProductDTO> uniqueMap = new HashMap<>();
-    for (OrderProductDTO item : products) {
-      String key = item.getProductId() + "-" + item.getSize();
-      uniqueMap.merge(
-          key,
-          item,
-          (existing, dup) -> {
-            existing.setQuantity(existing.getQuantity() + dup.getQuantity());
-            return existing;
-          });
-    }
-    List<OrderProductDTO> deduplicatedList = new ArrayList<>(uniqueMap.values());
+    List<OrderProductDTO> deduplicatedList = mergeOrderLines(products);
 
     Map<Integer, Product> productMap =
         deduplicatedList.stream()
@@ -385,9 +1025,36 @@ public class ProductServiceImpl implements ProductService {
                   .and("product_sizes.name")
                   .is(prod.getSize()));
       Update reserveUpdate =
-          new Update().inc("product_sizes.$.reservedQuantity", prod.getQuantity());
+          new Update()
+              .inc("product_sizes.$[size].reservedQuantity", prod.getQuantity())
+              .inc(STOCK_VERSION, 1)
+              .filterArray(where("size.name").is(prod.getSize()));
+      if (!isNull(orderId)) {
+        reserveQuery.addCriteria(
+            where(STOCK_RESERVATIONS).not().elemMatch(reservationOf(orderId, prod.getSize())));
+        reserveUpdate.push(
+            STOCK_RESERVATIONS,
+            new Document("order_id", orderId)
+                .append("size", prod.getSize())
+                .append("quantity", prod.getQuantity())
+                .append("reserved_at", new Date()));
+      }
 
-      mongoTemplate.findAndModify(reserveQuery, reserveUpdate, Product.class);
+      Product reservedProduct =
+          mongoTemplate.findAndModify(
+              reserveQuery,
+              reserveUpdate,
+              FindAndModifyOptions.options().returnNew(true),
+              Product.class);
+      if (isNull(reservedProduct) && !isNull(orderId)) {
+        LOGGER.info(
+            "Product ID: {}, size: {} already reserved for order: {}",
+            prod.getProductId(),
+            prod.getSize(),
+            orderId);
+        continue;
+      }
+      productAvailabilityCache.update(reservedProduct);
 
       LOGGER.info(
           "✅ Reserved Product ID: {}, Size: {}, Quantity: {}",
@@ -421,13 +1088,47 @@ public class ProductServiceImpl implements ProductService {
    * @return true if no enabled products with the given name exist, false otherwise
    */
   private boolean productIsUnique(String productName) {
-    // get the products with the given product name
-    List<Product> products =
-        productRepository.findByProductName(productName).stream()
-            .filter(Product::isEnabled)
-            .toList();
-    // check if any products were found
-    return products.isEmpty();
+    // projects only the key of the partial unique index of enabled product names, so the lookup
+    // is covered and never fetches a document; exists queries project _id, which is not covered
+    Query enabledWithName =
+        query(
+                where("normalized_name")
+                    .is(ProductNameNormalizer.normalize(productName))
+                    .and("is_enabled")
+                    .is(true))
+            .limit(1);
+    enabledWithName.fields().include("normalized_name", "is_enabled").exclude("_id");
+    return isNull(
+        mongoTemplate.findOne(
+            enabledWithName, Document.class, mongoTemplate.getCollectionName(Product.class)));
+  }
+
+  /**
+   * Builds a query that only matches a product while it still has the given version. Products
+   * written before versioning was introduced have no version field and count as version 0.
+   *
+   * @param productId the ID of the product
+   * @param version the expected version
+   * @return the query matching the product at that version
+   */
+  private static Query versionedQuery(Integer productId, long version) {
+
+    return query(where("_id").is(productId))
+        .addCriteria(
+            version == 0
+                ? new Criteria().orOperator(where("version").is(0L), where("version").exists(false))
+                : where("version").is(version));
+  }
+
+  /**
+   * Returns the version a product gets on its next write.
+   *
+   * @param version the current version, null for products written before versioning
+   * @return the next version
+   */
+  private static long nextVersion(Long version) {
+
+    return isNull(version) ? 1 : version + 1;
   }
 
   /**
@@ -520,11 +1221,19 @@ public class ProductServiceImpl implements ProductService {
    * updates the reserve counts for each product and size combination by decreasing the reserved
    * quantity.
    *
+   * <p>When an order id is given, only the lines the order has reserved, as recorded by {@link
+   * #reduceProductCount}, are released, each at most once.
+   *
    * @param products a list of {@code OrderProductDTO} objects containing product IDs, sizes, and
    *     quantities to be released.
+   * @param orderId the id of the order the stock was reserved for, may be null
    */
-  public void releaseReservedProductCount(List<OrderProductDTO> products) {
+  public void releaseReservedProductCount(List<OrderProductDTO> products, String orderId) {
 
+    if (!isNull(orderId)) {
+      mergeOrderLines(products).forEach(prod -> releaseOrderLine(prod, orderId));
+      return;
+    }
     products.forEach(
         prod -> {
           ProductResponseDTO productInDB = this.getProductById(prod.getProductId());
@@ -554,9 +1263,15 @@ public class ProductServiceImpl implements ProductService {
                   .and("product_sizes.name")
                   .is(prod.getSize()));
 
-          Update update = new Update().inc("product_sizes.$.reservedQuantity", -prod.getQuantity());
+          Update update =
+              new Update()
+                  .inc("product_sizes.$.reservedQuantity", -prod.getQuantity())
+                  .inc(STOCK_VERSION, 1);
 
-          this.mongoTemplate.findAndModify(query, update, Product.class);
+          Product releasedProduct =
+              this.mongoTemplate.findAndModify(
+                  query, update, FindAndModifyOptions.options().returnNew(true), Product.class);
+          this.productAvailabilityCache.update(releasedProduct);
 
           LOGGER.info(
               "↩️ Released reserved product Id: {}, size: {}, quantity: {}",
@@ -567,16 +1282,73 @@ public class ProductServiceImpl implements ProductService {
   }
 
   /**
-   * Confirms the product count for the given list of products by checking reserved quantities,
-   * updating stock levels, and ensuring consistency for each specified product size.
-   *
-   * @param products a list of {@code OrderProductDTO} objects, where each object contains details
-   *     about the product including its ID, size, and the quantity to confirm. The method processes
-   *     this list to check stock availability and then updates the product's reserved and available
-   *     quantities.
+   * Forgets the order lines reserved longer ago than the retention. By then the order has been
+   * placed or failed, so its reservation is neither repeated nor released by order id any more.
    */
-  @Override
-  public void confirmProductCount(List<OrderProductDTO> products) {
+  @Scheduled(
+      initialDelayString = "${product.stock-reservations.cleanup-interval-ms}",
+      fixedDelayString = "${product.stock-reservations.cleanup-interval-ms}")
+  public void removeStaleStockReservations() {
+
+    Date reservedBefore =
+        Date.from(Instant.now().minus(stockReservationRetentionHours, ChronoUnit.HOURS));
+    UpdateResult result =
+        this.mongoTemplate.updateMulti(
+            query(where(STOCK_RESERVATIONS + ".reserved_at").lt(reservedBefore)),
+            new Update()
+                .pull(
+                    STOCK_RESERVATIONS,
+                    new Document("reserved_at", new Document("$lt", reservedBefore))),
+            Product.class);
+    if (result.getModifiedCount() > 0) {
+      LOGGER.info("Removed stale stock reservations from {} products", result.getModifiedCount());
+    }
+  }
+
+  /** Releases the stock an order has reserved for one line, if it has and not yet released it. */
+  private void releaseOrderLine(OrderProductDTO prod, String orderId) {
+
+    Query query =
+        query(
+            where("_id")
+                .is(prod.getProductId())
+                .and(STOCK_RESERVATIONS)
+                .elemMatch(reservationOf(orderId, prod.getSize())));
+    Update update =
+        new Update()
+            .inc("product_sizes.$[size].reservedQuantity", -prod.getQuantity())
+            .inc(STOCK_VERSION, 1)
+            .pull(
+                STOCK_RESERVATIONS,
+                new Document("order_id", orderId).append("size", prod.getSize()))
+            .filterArray(where("size.name").is(prod.getSize()));
+    Product releasedProduct =
+        this.mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(true), Product.class);
+    if (isNull(releasedProduct)) {
+      LOGGER.info(
+          "Product ID: {}, size: {} holds no reservation of order: {}",
+          prod.getProductId(),
+          prod.getSize(),
+          orderId);
+      return;
+    }
+    this.productAvailabilityCache.update(releasedProduct);
+    LOGGER.info(
+        "↩️ Released reserved product Id: {}, size: {}, quantity: {} of order: {}",
+        prod.getProductId(),
+        prod.getSize(),
+        prod.getQuantity(),
+        orderId);
+  }
+
+  private static Criteria reservationOf(String orderId, String size) {
+
+    return where("order_id").is(orderId).and("size").is(size);
+  }
+
+  /** Aggregates the quantities of the order lines of the same product and size. */
+  private static List<OrderProductDTO> mergeOrderLines(List<OrderProductDTO> products) {
 
     Map<String, OrderProductDTO> mergedProducts = new HashMap<>();
     for (OrderProductDTO prod : products) {
@@ -589,7 +1361,22 @@ public class ProductServiceImpl implements ProductService {
             return existing;
           });
     }
-    List<OrderProductDTO> deduplicatedList = new ArrayList<>(mergedProducts.values());
+    return new ArrayList<>(mergedProducts.values());
+  }
+
+  /**
+   * Confirms the product count for the given list of products by checking reserved quantities,
+   * updating stock levels, and ensuring consistency for each specified product size.
+   *
+   * @param products a list of {@code OrderProductDTO} objects, where each object contains details
+   *     about the product including its ID, size, and the quantity to confirm. The method processes
+   *     this list to check stock availability and then updates the product's reserved and available
+   *     quantities.
+   */
+  @Override
+  public void confirmProductCount(List<OrderProductDTO> products) {
+
+    List<OrderProductDTO> deduplicatedList = mergeOrderLines(products);
 
     for (OrderProductDTO prod : deduplicatedList) {
 
@@ -622,16 +1409,27 @@ public class ProductServiceImpl implements ProductService {
       Update stockUpdate =
           new Update()
               .inc("product_sizes.$.quantity", -prod.getQuantity())
-              .inc("product_sizes.$.reservedQuantity", -prod.getQuantity());
+              .inc("product_sizes.$.reservedQuantity", -prod.getQuantity())
+              .inc(STOCK_VERSION, 1);
 
-      mongoTemplate.findAndModify(stockUpdateQuery, stockUpdate, Product.class);
+      Product confirmedProduct =
+          mongoTemplate.findAndModify(
+              stockUpdateQuery,
+              stockUpdate,
+              FindAndModifyOptions.options().returnNew(true),
+              Product.class);
+      productAvailabilityCache.update(confirmedProduct);
 
       Product updatedProduct = modelMapper.map(getProductById(prod.getProductId()), Product.class);
 
       int totalCount = updatedProduct.getProductSizes().stream().mapToInt(Size::getQuantity).sum();
 
       Query countUpdateQuery = new Query(where("_id").is(prod.getProductId()));
-      Update countUpdate = new Update().set("product_count", totalCount);
+      Update countUpdate =
+          new Update()
+              .set("product_count", totalCount)
+              .set("updated_at", LocalDateTime.now())
+              .inc("version", 1);
       mongoTemplate.findAndModify(countUpdateQuery, countUpdate, Product.class);
 
       LOGGER.info(
@@ -640,5 +1438,8 @@ public class ProductServiceImpl implements ProductService {
           prod.getSize(),
           prod.getQuantity());
     }
+    // a confirmed order feeds the frequently bought together recommendations
+    this.frequentlyBoughtTogether.recordOrder(
+        deduplicatedList.stream().map(OrderProductDTO::getProductId).toList());
   }
 }
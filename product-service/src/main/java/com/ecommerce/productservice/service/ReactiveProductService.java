@@ -0,0 +1,16 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import org.springframework.data.domain.Page;
+import reactor.core.publisher.Mono;
+
+/** Non-blocking counterpart of the product browsing reads of {@link ProductService}. */
+public interface ReactiveProductService {
+
+  Mono<ProductResponseDTO> getProductById(Integer productId);
+
+  Mono<Page<ProductResponseDTO>> findProductsByCategory(
+      Integer categoryId, int pageNumber, int pageSize, String searchKey, String role);
+
+  Mono<Page<ProductResponseDTO>> getAllProducts(int pageNumber, int pageSize, String searchKey);
+}
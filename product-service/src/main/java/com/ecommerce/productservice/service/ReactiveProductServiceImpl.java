@@ -0,0 +1,251 @@
+package com.ecommerce.productservice.service;
+
+import static com.ecommerce.productservice.config.RedisConfig.CACHE_NAME;
+import static com.ecommerce.productservice.config.RedisConfig.CACHE_TTL;
+import static java.util.Objects.isNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.ecommerce.productservice.exception.ClientException;
+import com.ecommerce.productservice.exception.ProductNotFoundException;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import com.ecommerce.productservice.util.ProductExistenceFilter;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of the {@link ReactiveProductService} interface on top of {@link
+ * ReactiveMongoTemplate}, a reactive Redis template and {@link WebClient}, so that no request
+ * thread ever waits on MongoDB, Redis or the category service.
+ *
+ * <p>Entries are read from and written to the Redis {@code products} cache under the same keys the
+ * servlet stack's {@code @Cacheable} methods use, and evictions done by {@code
+ * ProductCacheInvalidator} on writes apply to both stacks. Cache failures are logged and treated
+ * as misses, like the {@code CacheErrorHandler} of the servlet stack does.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveProductServiceImpl.class);
+
+  private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+  private final ReactiveRedisTemplate<String, Object> reactiveCacheTemplate;
+
+  private final WebClient webClient;
+
+  private final ModelMapper modelMapper;
+
+  private final ProductExistenceFilter productExistenceFilter;
+
+  /**
+   * Retrieves an enabled product by its unique identifier, from the cache if present and from the
+   * database otherwise.
+   *
+   * @param productId the unique identifier of the product to retrieve
+   * @return a {@link Mono} emitting the product, or failing with a {@link
+   *     ProductNotFoundException} if no enabled product exists with the given ID
+   */
+  @Override
+  public Mono<ProductResponseDTO> getProductById(Integer productId) {
+
+    String key = cacheKey(productId);
+    return cacheGet(key, ProductResponseDTO.class)
+        .switchIfEmpty(
+            Mono.defer(
+                () -> {
+                  // skip the database for ids that are known not to exist
+                  if (!productExistenceFilter.mightExist(productId)) {
+                    return Mono.error(
+                        new ProductNotFoundException("Product not found with ID: " + productId));
+                  }
+                  LOGGER.info(
+                      "*** Searching in database as product with Id: {} not found in cache ***",
+                      productId);
+                  Query query = new Query(where("_id").is(productId).and("is_enabled").is(true));
+                  return reactiveMongoTemplate
+                      .findOne(query, Product.class)
+                      .map(product -> modelMapper.map(product, ProductResponseDTO.class))
+                      .flatMap(product -> cachePut(key, product).thenReturn(product))
+                      .switchIfEmpty(
+                          Mono.defer(
+                              () -> {
+                                productExistenceFilter.recordMiss(productId);
+                                return Mono.error(
+                                    new ProductNotFoundException(
+                                        "Product not found with ID: " + productId));
+                              }));
+                }));
+  }
+
+  /**
+   * Retrieves a page of the products of the given category. The category is checked with the
+   * category service before the database is queried.
+   *
+   * @param categoryId the unique identifier of the category
+   * @param pageNumber the page number to retrieve (1-based index)
+   * @param pageSize the number of products per page
+   * @param searchKey an optional search query to filter products by name or other attributes
+   * @param role the role of the user making the request, admins also see disabled products
+   * @return a {@link Mono} emitting the page of products
+   */
+  @Override
+  public Mono<Page<ProductResponseDTO>> findProductsByCategory(
+      Integer categoryId, int pageNumber, int pageSize, String searchKey, String role) {
+
+    String key = cacheKey(categoryId, pageNumber, pageSize, searchKey, role);
+    return cachedPage(key)
+        .switchIfEmpty(
+            Mono.defer(
+                () ->
+                    webClient
+                        .get()
+                        .uri("http://category-service/categories/v1/get/{categoryId}", categoryId)
+                        .retrieve()
+                        .onStatus(
+                            HttpStatusCode::isError,
+                            response ->
+                                response
+                                    .bodyToMono(String.class)
+                                    .defaultIfEmpty("")
+                                    .map(
+                                        body ->
+                                            new ClientException(
+                                                response.statusCode().value(),
+                                                body,
+                                                response.statusCode().toString())))
+                        .toBodilessEntity()
+                        .then(
+                            loadPage(
+                                key,
+                                categoryId,
+                                PageRequest.of(pageNumber - 1, pageSize),
+                                searchKey,
+                                role))));
+  }
+
+  /**
+   * Retrieves a page of all enabled products, optionally filtered by a search key.
+   *
+   * @param pageNumber the number of the page to retrieve, starting from 1
+   * @param pageSize the number of products per page
+   * @param searchKey an optional search keyword to filter products
+   * @return a {@link Mono} emitting the page of products
+   */
+  @Override
+  public Mono<Page<ProductResponseDTO>> getAllProducts(
+      int pageNumber, int pageSize, String searchKey) {
+
+    String key = cacheKey(pageNumber, pageSize, searchKey);
+    return cachedPage(key)
+        .switchIfEmpty(
+            Mono.defer(
+                () -> loadPage(key, 0, PageRequest.of(pageNumber - 1, pageSize), searchKey, null)));
+  }
+
+  /**
+   * Queries one page of products and its total count concurrently. The page is built the way
+   * {@link ProductServiceImpl#getPageOfFilteredProducts} builds it, with the category filtered out
+   * of the queried page and the total counting all categories, because both stacks cache their
+   * pages under the same keys. Non-empty pages are cached.
+   */
+  private Mono<Page<ProductResponseDTO>> loadPage(
+      String key, Integer categoryId, Pageable pageable, String searchKey, String role) {
+
+    Query query = new Query();
+    if (isNull(role) || !role.equals("ROLE_ADMIN")) {
+      query.addCriteria(where("is_enabled").is(true));
+    }
+    query.addCriteria(
+        new Criteria()
+            .orOperator(
+                where("product_name").regex(searchKey, "i"),
+                where("product_brand").regex(searchKey, "i"),
+                where("short_desc").regex(searchKey, "i"),
+                where("long_desc").regex(searchKey, "i"),
+                where("product_color").regex(searchKey, "i")));
+    Mono<List<ProductResponseDTO>> content =
+        reactiveMongoTemplate
+            .find(Query.of(query).with(pageable), Product.class)
+            .filter(product -> categoryId == 0 || categoryId.equals(product.getCategoryId()))
+            .map(product -> modelMapper.map(product, ProductResponseDTO.class))
+            .collectList();
+    return Mono.zip(content, reactiveMongoTemplate.count(query, Product.class))
+        .<Page<ProductResponseDTO>>map(
+            pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()))
+        .flatMap(
+            page ->
+                page.getContent().isEmpty()
+                    ? Mono.just(page)
+                    : cachePut(key, page).thenReturn(page));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Mono<Page<ProductResponseDTO>> cachedPage(String key) {
+
+    return cacheGet(key, Page.class).map(page -> (Page<ProductResponseDTO>) page);
+  }
+
+  private <T> Mono<T> cacheGet(String key, Class<T> type) {
+
+    return reactiveCacheTemplate
+        .opsForValue()
+        .get(key)
+        .filter(type::isInstance)
+        .map(type::cast)
+        .onErrorResume(
+            exception -> {
+              LOGGER.error(
+                  "Failure getting from cache: " + CACHE_NAME + ", exception: " + exception);
+              return Mono.empty();
+            });
+  }
+
+  private Mono<Boolean> cachePut(String key, Object value) {
+
+    return reactiveCacheTemplate
+        .opsForValue()
+        .set(key, value, CACHE_TTL)
+        .onErrorResume(
+            exception -> {
+              LOGGER.error(
+                  "Failure putting into cache: " + CACHE_NAME + ", exception: " + exception);
+              return Mono.just(false);
+            });
+  }
+
+  /**
+   * Renders a cache key the way the {@code @Cacheable} key expressions of {@link
+   * ProductServiceImpl} are rendered by the Redis cache: the elements of a key list joined by
+   * commas, prefixed with the cache name.
+   */
+  private static String cacheKey(Object... keyParts) {
+
+    StringBuilder key = new StringBuilder(CACHE_NAME).append("::");
+    for (int i = 0; i < keyParts.length; i++) {
+      if (i > 0) {
+        key.append(',');
+      }
+      key.append(keyParts[i]);
+    }
+    return key.toString();
+  }
+}
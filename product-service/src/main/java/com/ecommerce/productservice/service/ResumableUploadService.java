@@ -0,0 +1,27 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.model.UploadSession;
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+public interface ResumableUploadService {
+
+  UploadSession createUpload(
+      Integer productId,
+      String imageName,
+      String contentType,
+      long uploadLength,
+      String username,
+      String role);
+
+  UploadSession getUpload(String uploadId);
+
+  CompletableFuture<Long> appendChunk(
+      String uploadId, long offset, Long contentLength, InputStream chunk, String role);
+
+  CompletableFuture<ProductResponseDTO> finalizeUpload(
+      String uploadId, boolean mainImage, String role);
+
+  void abortUpload(String uploadId, String role);
+}
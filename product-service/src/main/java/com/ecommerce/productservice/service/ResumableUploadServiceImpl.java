@@ -0,0 +1,453 @@
+package com.ecommerce.productservice.service;
+
+import static java.util.Objects.isNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.ecommerce.productservice.exception.InvalidUploadException;
+import com.ecommerce.productservice.exception.ProductVersionConflictException;
+import com.ecommerce.productservice.exception.UnAuthorizedException;
+import com.ecommerce.productservice.exception.UploadCapacityExceededException;
+import com.ecommerce.productservice.exception.UploadConflictException;
+import com.ecommerce.productservice.exception.UploadNotFoundException;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.model.UploadSession;
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import com.ecommerce.productservice.util.ContentAddressedImageStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+@Service
+@RequiredArgsConstructor
+public class ResumableUploadServiceImpl implements ResumableUploadService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResumableUploadServiceImpl.class);
+
+  /** Upper bound of the bytes moved by one {@link FileChannel#transferFrom} call. */
+  private static final long TRANSFER_SIZE = 8L * 1024 * 1024;
+
+  /** Attempts to add a finalized image to a product that is written concurrently. */
+  private static final int MAX_IMAGE_PATCH_ATTEMPTS = 3;
+
+  private final MongoTemplate mongoTemplate;
+
+  private final ProductService productService;
+
+  private final ContentAddressedImageStore imageStore;
+
+  /** The uploads a chunk is being written to or that are being finalized on this instance. */
+  private final Set<String> busyUploads = ConcurrentHashMap.newKeySet();
+
+  private ThreadPoolExecutor uploadExecutor;
+
+  @Value(value = "${product.uploads.dir}")
+  private Path uploadDirectory;
+
+  @Value(value = "${product.uploads.max-length}")
+  private long maxUploadLength;
+
+  @Value(value = "${product.uploads.expiry-hours}")
+  private long expiryHours;
+
+  @Value(value = "${product.uploads.io-threads}")
+  private int ioThreads;
+
+  @Value(value = "${product.uploads.queue-capacity}")
+  private int queueCapacity;
+
+  @PostConstruct
+  void start() throws IOException {
+
+    Files.createDirectories(uploadDirectory);
+    AtomicInteger threadCount = new AtomicInteger();
+    // a bounded pool and queue, so slow uploads cannot tie up the request threads or the heap
+    uploadExecutor =
+        new ThreadPoolExecutor(
+            ioThreads,
+            ioThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "upload-io-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @PreDestroy
+  void stop() {
+
+    uploadExecutor.shutdown();
+  }
+
+  /**
+   * Creates an upload of a product image. The image is sent afterwards in one or more chunks and
+   * is only handed to the image store when the upload is finalized.
+   *
+   * @param productId the id of the product the image belongs to, which must be enabled
+   * @param imageName the file name the product will refer to the image by
+   * @param contentType the media type of the image, may be null
+   * @param uploadLength the total size of the image in bytes
+   * @param username the username of the uploader
+   * @param role the role of the uploader; must be 'ADMIN'
+   * @return the created upload, with an offset of 0
+   * @throws InvalidUploadException if the name, media type or length is not acceptable
+   */
+  @Override
+  public UploadSession createUpload(
+      Integer productId,
+      String imageName,
+      String contentType,
+      long uploadLength,
+      String username,
+      String role) {
+
+    checkAdmin(role);
+    String cleanName = isNull(imageName) ? "" : StringUtils.cleanPath(imageName);
+    if (!StringUtils.hasText(cleanName) || cleanName.contains("..") || cleanName.contains("/")) {
+      throw new InvalidUploadException("Upload-Metadata must contain a valid filename");
+    }
+    if (!isNull(contentType) && !contentType.startsWith("image/")) {
+      throw new InvalidUploadException("Only images can be uploaded, not: " + contentType);
+    }
+    if (uploadLength <= 0 || uploadLength > maxUploadLength) {
+      throw new InvalidUploadException(
+          "Upload-Length must be between 1 and " + maxUploadLength + " bytes");
+    }
+    // only enabled products can get new images
+    this.productService.getProductById(productId);
+    LocalDateTime now = LocalDateTime.now();
+    UploadSession session =
+        new UploadSession(
+            UUID.randomUUID().toString(),
+            productId,
+            cleanName,
+            contentType,
+            uploadLength,
+            0L,
+            username,
+            now,
+            now.plusHours(expiryHours));
+    this.mongoTemplate.insert(session);
+    LOGGER.info(
+        "Upload: {} of image: {} ({} bytes) created for product: {}",
+        session.getId(),
+        cleanName,
+        uploadLength,
+        productId);
+    return session;
+  }
+
+  /**
+   * Returns an upload that has not expired.
+   *
+   * @param uploadId the id of the upload
+   * @return the upload with its current offset
+   * @throws UploadNotFoundException if the upload does not exist or has expired
+   */
+  @Override
+  public UploadSession getUpload(String uploadId) {
+
+    UploadSession session = this.mongoTemplate.findById(uploadId, UploadSession.class);
+    if (isNull(session) || session.getExpiresAt().isBefore(LocalDateTime.now())) {
+      throw new UploadNotFoundException("Upload not found with ID: " + uploadId);
+    }
+    return session;
+  }
+
+  /**
+   * Appends a chunk to an upload on the upload I/O executor. The chunk is written at the given
+   * offset through a {@link FileChannel}, dropping whatever an interrupted earlier chunk left after
+   * it, and forced to disk before the offset is advanced. The offset is advanced only if it still
+   * is the one the chunk was written at, so a chunk sent twice to different instances is counted
+   * once.
+   *
+   * @param uploadId the id of the upload
+   * @param offset the offset the chunk starts at, which must be the current offset of the upload
+   * @param contentLength the length of the chunk if known, may be null
+   * @param chunk the chunk content, read to the end but not closed
+   * @param role the role of the uploader; must be 'ADMIN'
+   * @return the offset of the upload after the chunk
+   * @throws UploadConflictException if the offset does not match or a chunk is already being
+   *     written to the upload
+   * @throws UploadCapacityExceededException if the upload I/O executor is saturated
+   */
+  @Override
+  public CompletableFuture<Long> appendChunk(
+      String uploadId, long offset, Long contentLength, InputStream chunk, String role) {
+
+    checkAdmin(role);
+    UploadSession session = getUpload(uploadId);
+    if (offset != session.getUploadOffset()) {
+      throw new UploadConflictException(
+          "Upload-Offset " + offset + " does not match the offset " + session.getUploadOffset());
+    }
+    if (!isNull(contentLength) && offset + contentLength > session.getUploadLength()) {
+      throw new InvalidUploadException("Chunk exceeds the Upload-Length of the upload");
+    }
+    return runExclusively(
+        uploadId,
+        () -> {
+          long newOffset = writeChunk(session, offset, chunk);
+          LocalDateTime now = LocalDateTime.now();
+          boolean advanced =
+              this.mongoTemplate
+                      .updateFirst(
+                          query(where("_id").is(uploadId).and("upload_offset").is(offset)),
+                          new Update()
+                              .set("upload_offset", newOffset)
+                              .set("expires_at", now.plusHours(expiryHours)),
+                          UploadSession.class)
+                      .getModifiedCount()
+                  > 0;
+          if (!advanced) {
+            throw new UploadConflictException("Upload: " + uploadId + " was modified concurrently");
+          }
+          return newOffset;
+        });
+  }
+
+  /**
+   * Hands a completely received upload to the content-addressed image store and adds the image
+   * to the product, either as its main image or as an extra image. The upload is removed
+   * afterwards.
+   *
+   * @param uploadId the id of the upload
+   * @param mainImage whether the image replaces the main image of the product
+   * @param role the role of the uploader; must be 'ADMIN'
+   * @return the patched product
+   * @throws UploadConflictException if the upload is not complete or is busy
+   * @throws UploadCapacityExceededException if the upload I/O executor is saturated
+   */
+  @Override
+  public CompletableFuture<ProductResponseDTO> finalizeUpload(
+      String uploadId, boolean mainImage, String role) {
+
+    checkAdmin(role);
+    UploadSession session = getUpload(uploadId);
+    if (!session.getUploadOffset().equals(session.getUploadLength())) {
+      throw new UploadConflictException(
+          "Upload: "
+              + uploadId
+              + " is incomplete, "
+              + session.getUploadOffset()
+              + " of "
+              + session.getUploadLength()
+              + " bytes received");
+    }
+    return runExclusively(
+        uploadId,
+        () -> {
+          try (InputStream content = Files.newInputStream(chunkFile(uploadId))) {
+            this.imageStore.store(session.getProductId(), session.getImageName(), content);
+          } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+          }
+          ProductResponseDTO product = patchImages(session, mainImage, role);
+          remove(session);
+          LOGGER.info(
+              "Upload: {} finalized as image: {} of product: {}",
+              uploadId,
+              session.getImageName(),
+              session.getProductId());
+          return product;
+        });
+  }
+
+  /**
+   * Removes an upload and its received bytes.
+   *
+   * @param uploadId the id of the upload
+   * @param role the role of the uploader; must be 'ADMIN'
+   * @throws UploadConflictException if a chunk is being written to the upload
+   */
+  @Override
+  public void abortUpload(String uploadId, String role) {
+
+    checkAdmin(role);
+    UploadSession session = getUpload(uploadId);
+    if (!this.busyUploads.add(uploadId)) {
+      throw new UploadConflictException("Upload: " + uploadId + " is busy");
+    }
+    try {
+      remove(session);
+    } finally {
+      this.busyUploads.remove(uploadId);
+    }
+    LOGGER.info("Upload: {} aborted", uploadId);
+  }
+
+  /** Removes the expired uploads and their received bytes. */
+  @Scheduled(
+      initialDelayString = "${product.uploads.cleanup-interval-ms}",
+      fixedDelayString = "${product.uploads.cleanup-interval-ms}")
+  public void removeExpiredUploads() {
+
+    int removed = 0;
+    for (UploadSession session :
+        this.mongoTemplate.find(
+            query(where("expires_at").lt(LocalDateTime.now())), UploadSession.class)) {
+      if (!this.busyUploads.add(session.getId())) {
+        continue;
+      }
+      try {
+        remove(session);
+        removed++;
+      } finally {
+        this.busyUploads.remove(session.getId());
+      }
+    }
+    if (removed > 0) {
+      LOGGER.info("Removed {} expired uploads", removed);
+    }
+  }
+
+  /**
+   * Runs a task on the upload I/O executor while holding the busy mark of an upload, so chunks of
+   * one upload are never written concurrently on this instance.
+   */
+  private <T> CompletableFuture<T> runExclusively(String uploadId, Supplier<T> task) {
+
+    if (!this.busyUploads.add(uploadId)) {
+      throw new UploadConflictException("Upload: " + uploadId + " is busy");
+    }
+    try {
+      return CompletableFuture.supplyAsync(task, this.uploadExecutor)
+          .whenComplete((result, exception) -> this.busyUploads.remove(uploadId));
+    } catch (RejectedExecutionException exception) {
+      this.busyUploads.remove(uploadId);
+      LOGGER.warn("Upload I/O executor is saturated, rejecting upload: {}", uploadId);
+      throw new UploadCapacityExceededException("Too many uploads in progress");
+    }
+  }
+
+  private long writeChunk(UploadSession session, long offset, InputStream chunk) {
+
+    long position = offset;
+    try (FileChannel file =
+            FileChannel.open(
+                chunkFile(session.getId()), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        ReadableByteChannel source = Channels.newChannel(chunk)) {
+      // drop the tail an interrupted chunk may have written after the acknowledged offset
+      file.truncate(offset);
+      long remaining = session.getUploadLength() - offset;
+      while (remaining > 0) {
+        long transferred = file.transferFrom(source, position, Math.min(remaining, TRANSFER_SIZE));
+        if (transferred == 0) {
+          break;
+        }
+        position += transferred;
+        remaining -= transferred;
+      }
+      if (remaining == 0 && chunk.read() != -1) {
+        throw new InvalidUploadException("Chunk exceeds the Upload-Length of the upload");
+      }
+      file.force(false);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    return position;
+  }
+
+  /**
+   * Adds the image of a finalized upload to its product. Extra images are added to the images
+   * stored at the version the patch is based on, so that a concurrent write of the product makes
+   * the patch conflict and be retried instead of dropping the images the write added.
+   */
+  private ProductResponseDTO patchImages(UploadSession session, boolean mainImage, String role) {
+
+    if (mainImage) {
+      return this.productService.patchProductById(
+          session.getProductId(),
+          Map.of("product_main_image", session.getImageName()),
+          null,
+          role);
+    }
+    for (int attempt = 1; ; attempt++) {
+      Query productQuery = query(where("_id").is(session.getProductId()));
+      productQuery.fields().include("product_images", "version");
+      Product current = this.mongoTemplate.findOne(productQuery, Product.class);
+      Set<String> extraImages = new LinkedHashSet<>();
+      Long version = null;
+      if (!isNull(current)) {
+        if (!isNull(current.getExtraProductImages())) {
+          extraImages.addAll(current.getExtraProductImages());
+        }
+        version = isNull(current.getVersion()) ? 0L : current.getVersion();
+      }
+      extraImages.add(session.getImageName());
+      try {
+        return this.productService.patchProductById(
+            session.getProductId(),
+            Map.of("extra_product_images", extraImages.stream().toList()),
+            version,
+            role);
+      } catch (ProductVersionConflictException exception) {
+        if (attempt == MAX_IMAGE_PATCH_ATTEMPTS) {
+          throw exception;
+        }
+        LOGGER.info(
+            "Product: {} changed while adding image: {}, retrying",
+            session.getProductId(),
+            session.getImageName());
+      }
+    }
+  }
+
+  private void remove(UploadSession session) {
+
+    this.mongoTemplate.remove(query(where("_id").is(session.getId())), UploadSession.class);
+    try {
+      Files.deleteIfExists(chunkFile(session.getId()));
+    } catch (IOException exception) {
+      LOGGER.error("Failed to delete upload {}: {}", session.getId(), exception.toString());
+    }
+  }
+
+  private Path chunkFile(String uploadId) {
+
+    return this.uploadDirectory.resolve(uploadId);
+  }
+
+  private static void checkAdmin(String role) {
+
+    if (!isNull(role) && role.equals("ROLE_USER")) {
+      LOGGER.error("*** {} ***", "Role needs to be ADMIN to upload product images");
+      throw new UnAuthorizedException("Requires ROLE_ADMIN to upload product images");
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.payload.request.ReviewRequestDTO;
+import com.ecommerce.productservice.payload.response.ReviewPageResponseDTO;
+import com.ecommerce.productservice.payload.response.ReviewResponseDTO;
+
+public interface ReviewService {
+
+  ReviewResponseDTO saveReview(Integer productId, ReviewRequestDTO reviewRequest, String username);
+
+  ReviewPageResponseDTO getReviews(Integer productId, String cursor, int pageSize);
+
+  void deleteReview(Integer productId, String username);
+}
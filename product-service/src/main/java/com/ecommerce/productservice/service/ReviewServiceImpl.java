@@ -0,0 +1,221 @@
+package com.ecommerce.productservice.service;
+
+import static java.util.Objects.isNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.ecommerce.productservice.exception.ReviewNotFoundException;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.model.Review;
+import com.ecommerce.productservice.payload.request.ReviewRequestDTO;
+import com.ecommerce.productservice.payload.response.ReviewPageResponseDTO;
+import com.ecommerce.productservice.payload.response.ReviewResponseDTO;
+import com.ecommerce.productservice.util.ProductCacheInvalidator;
+import com.ecommerce.productservice.util.ReviewCursor;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ReviewServiceImpl implements ReviewService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReviewServiceImpl.class);
+
+  private final MongoTemplate mongoTemplate;
+
+  private final ProductService productService;
+
+  private final ProductCacheInvalidator productCacheInvalidator;
+
+  /**
+   * Creates or replaces the review of a user for a product. The previous review, if any, is
+   * returned by the same atomic upsert, so the product's rating aggregates are adjusted by the
+   * exact difference: a new review adds one to {@code review_count} and its rating to {@code
+   * rating_total}, a replaced review only adds the change in rating. When two first reviews of the
+   * same user race, the one losing on the unique index is retried as a replacement.
+   *
+   * @param productId the ID of the reviewed product, which must be enabled
+   * @param reviewRequest the rating, title and comment
+   * @param username the username of the reviewer
+   * @return the saved review
+   * @throws com.ecommerce.productservice.exception.ProductNotFoundException if the product does
+   *     not exist
+   */
+  @Override
+  public ReviewResponseDTO saveReview(
+      Integer productId, ReviewRequestDTO reviewRequest, String username) {
+
+    // only enabled products can be reviewed
+    this.productService.getProductById(productId);
+    LocalDateTime now = LocalDateTime.now();
+    Query reviewQuery = reviewOf(productId, username);
+    Update update =
+        new Update()
+            .set("rating", reviewRequest.getRating())
+            .set("title", reviewRequest.getTitle())
+            .set("comment", reviewRequest.getComment())
+            .set("updated_at", now)
+            .setOnInsert("created_at", now);
+    Review previous;
+    try {
+      previous =
+          this.mongoTemplate.findAndModify(
+              reviewQuery, update, FindAndModifyOptions.options().upsert(true), Review.class);
+    } catch (DuplicateKeyException exception) {
+      // a concurrent first review was inserted, this one now replaces it
+      previous =
+          this.mongoTemplate.findAndModify(
+              reviewQuery, update, FindAndModifyOptions.options().upsert(true), Review.class);
+    }
+    if (isNull(previous)) {
+      applyRatingChange(productId, 1, reviewRequest.getRating());
+    } else {
+      applyRatingChange(productId, 0, reviewRequest.getRating() - previous.getRating());
+    }
+    LOGGER.info("Review of product: {} by user: {} saved", productId, username);
+    return toResponse(this.mongoTemplate.findOne(reviewQuery, Review.class));
+  }
+
+  /**
+   * Retrieves a page of the reviews of a product, newest first. Pages are addressed by a cursor on
+   * {@code (created_at, _id)} instead of an offset, so deep pages cost the same as the first one.
+   *
+   * @param productId the ID of the product
+   * @param cursor the cursor returned with the previous page, or blank for the first page
+   * @param pageSize the maximum number of reviews to return
+   * @return the reviews and the cursor of the next page
+   * @throws com.ecommerce.productservice.exception.InvalidReviewCursorException if the cursor was
+   *     not issued by this service
+   */
+  @Override
+  public ReviewPageResponseDTO getReviews(Integer productId, String cursor, int pageSize) {
+
+    ReviewCursor position = ReviewCursor.parse(cursor);
+    Query reviewsQuery = query(where("product_id").is(productId));
+    if (!isNull(position)) {
+      LocalDateTime createdAt = position.createdAtTime();
+      reviewsQuery.addCriteria(
+          new Criteria()
+              .orOperator(
+                  where("created_at").lt(createdAt),
+                  where("created_at").is(createdAt).and("_id").lt(position.reviewId())));
+    }
+    reviewsQuery
+        .with(Sort.by(Sort.Direction.DESC, "created_at").and(Sort.by(Sort.Direction.DESC, "_id")))
+        .limit(pageSize + 1);
+    List<Review> reviews = this.mongoTemplate.find(reviewsQuery, Review.class);
+    String nextCursor = null;
+    if (reviews.size() > pageSize) {
+      reviews = reviews.subList(0, pageSize);
+      Review last = reviews.get(pageSize - 1);
+      nextCursor = ReviewCursor.of(last.getCreatedAt(), last.getId()).encode();
+    }
+    return ReviewPageResponseDTO.builder()
+        .reviews(reviews.stream().map(ReviewServiceImpl::toResponse).toList())
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  /**
+   * Deletes the review of a user for a product and removes its rating from the product's
+   * aggregates.
+   *
+   * @param productId the ID of the reviewed product
+   * @param username the username of the reviewer
+   * @throws ReviewNotFoundException if the user has not reviewed the product
+   */
+  @Override
+  public void deleteReview(Integer productId, String username) {
+
+    Review deleted = this.mongoTemplate.findAndRemove(reviewOf(productId, username), Review.class);
+    if (isNull(deleted)) {
+      throw new ReviewNotFoundException(
+          "Review not found for product ID: " + productId + " and user: " + username);
+    }
+    applyRatingChange(productId, -1, -deleted.getRating());
+    LOGGER.info("Review of product: {} by user: {} deleted", productId, username);
+  }
+
+  /**
+   * Adjusts {@code review_count} and {@code rating_total} of a product and recomputes {@code
+   * average_rating} from them in a single atomic pipeline update, so listings can show ratings
+   * without aggregating over the reviews. The cached product and the cached listing pages of its
+   * category are evicted, as they show the rating.
+   *
+   * @param productId the ID of the product
+   * @param countChange the change in the number of reviews
+   * @param ratingChange the change in the sum of ratings
+   */
+  private void applyRatingChange(Integer productId, int countChange, int ratingChange) {
+
+    AggregationUpdate update =
+        AggregationUpdate.update()
+            .set("review_count")
+            .toValue(
+                ArithmeticOperators.Add.valueOf(ConditionalOperators.ifNull("review_count").then(0))
+                    .add(countChange))
+            .set("rating_total")
+            .toValue(
+                ArithmeticOperators.Add.valueOf(ConditionalOperators.ifNull("rating_total").then(0))
+                    .add(ratingChange))
+            .set("average_rating")
+            .toValue(
+                ConditionalOperators.when(
+                        ComparisonOperators.valueOf("review_count").greaterThanValue(0))
+                    .thenValueOf(
+                        ArithmeticOperators.valueOf("rating_total").divideBy("review_count"))
+                    .otherwise(0))
+            .set("updated_at")
+            .toValue(new Date())
+            .set("version")
+            .toValue(
+                ArithmeticOperators.Add.valueOf(ConditionalOperators.ifNull("version").then(0))
+                    .add(1));
+    Query productQuery = query(where("_id").is(productId));
+    productQuery.fields().include("category_id");
+    Product product =
+        this.mongoTemplate.findAndModify(
+            productQuery, update, FindAndModifyOptions.options(), Product.class);
+    this.productCacheInvalidator.evict(
+        List.of(productId),
+        isNull(product) || isNull(product.getCategoryId())
+            ? Set.of()
+            : Set.of(product.getCategoryId()));
+  }
+
+  private static Query reviewOf(Integer productId, String username) {
+
+    return query(where("product_id").is(productId).and("username").is(username));
+  }
+
+  private static ReviewResponseDTO toResponse(Review review) {
+
+    return ReviewResponseDTO.builder()
+        .reviewId(review.getId().toHexString())
+        .productId(review.getProductId())
+        .username(review.getUsername())
+        .rating(review.getRating())
+        .title(review.getTitle())
+        .comment(review.getComment())
+        .createdAt(review.getCreatedAt())
+        .updatedAt(review.getUpdatedAt())
+        .build();
+  }
+}
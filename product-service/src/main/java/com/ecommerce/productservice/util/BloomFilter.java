@@ -0,0 +1,117 @@
+package com.ecommerce.productservice.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over integer keys, sized from the expected number of insertions and
+ * the desired false-positive probability. Bits are kept in an {@link AtomicLongArray} so that
+ * concurrent inserts and lookups never need a lock; the filter can only answer "definitely absent"
+ * or "possibly present", and keys can never be removed.
+ */
+public class BloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray bits;
+
+  private final long bitSize;
+
+  private final int hashFunctions;
+
+  private final AtomicLong bitsSet = new AtomicLong();
+
+  /**
+   * Creates a filter able to hold {@code expectedInsertions} keys at roughly the given false
+   * positive probability.
+   *
+   * @param expectedInsertions the number of keys the filter is sized for, must be positive
+   * @param falsePositiveProbability the target false-positive probability, between 0 and 1
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+
+    long insertions = Math.max(1, expectedInsertions);
+    long optimalBits =
+        (long) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (LN2 * LN2));
+    int words = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+    this.bits = new AtomicLongArray(words);
+    this.bitSize = (long) words * Long.SIZE;
+    this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / insertions * LN2));
+  }
+
+  /**
+   * Adds the given key to the filter.
+   *
+   * @param key the key to add
+   */
+  public void put(int key) {
+
+    long hash = mix(key);
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctions; i++) {
+      setBit(index(hash1 + i * hash2));
+    }
+  }
+
+  /**
+   * Checks whether the given key might have been added to the filter.
+   *
+   * @param key the key to look up
+   * @return false if the key was definitely never added, true if it possibly was
+   */
+  public boolean mightContain(int key) {
+
+    long hash = mix(key);
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctions; i++) {
+      long bitIndex = index(hash1 + i * hash2);
+      if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Estimates the current false-positive probability from the fraction of bits that are set.
+   *
+   * @return the expected probability that {@link #mightContain(int)} returns true for an absent key
+   */
+  public double expectedFalsePositiveProbability() {
+
+    return Math.pow((double) bitsSet.get() / bitSize, hashFunctions);
+  }
+
+  private long index(int combinedHash) {
+
+    return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitSize;
+  }
+
+  private void setBit(long bitIndex) {
+
+    int word = (int) (bitIndex >>> 6);
+    long mask = 1L << bitIndex;
+    long current;
+    do {
+      current = bits.get(word);
+      if ((current & mask) != 0) {
+        return;
+      }
+    } while (!bits.compareAndSet(word, current, current | mask));
+    bitsSet.incrementAndGet();
+  }
+
+  /** Finalization step of MurmurHash3, spreads the key over all 64 bits. */
+  private static long mix(long key) {
+
+    long hash = key;
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
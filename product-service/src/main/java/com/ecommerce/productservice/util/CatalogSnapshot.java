@@ -0,0 +1,345 @@
+package com.ecommerce.productservice.util;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a warm-up snapshot of the hottest {@link ProductNearCache} entries on local disk, so that
+ * a restarted replica does not send its first requests to MongoDB.
+ *
+ * <p>The snapshot is written periodically to a temporary file that is then atomically moved into
+ * place. Its layout is a fixed header ({@code magic, format version, written-at millis, entry
+ * count}) followed by length-prefixed UTF-8 keys and serialized values, which lets it be read
+ * through a memory-mapped buffer. It is loaded from an {@link ApplicationRunner}, which completes
+ * before the application reports readiness. Once the application is ready, the loaded entries are
+ * verified in the background against {@code updated_at} and stale ones are evicted.
+ *
+ * <p>The snapshot lives in a directory owned by the service user and closed to other users, and
+ * it is only loaded while both the directory and the file are. Values are deserialized through an
+ * allowlist of exactly the classes a cached product or product page is made of. Loaded entries
+ * live for the TTL of the near cache like any other entry, so the snapshot only absorbs the
+ * requests of the first {@code product.near-cache.ttl-seconds} after a restart; later misses are
+ * served by the shared Redis cache, which survives the restart of a replica.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogSnapshot implements ApplicationRunner {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+  private static final int MAGIC = 0x50534e50;
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int VERIFY_BATCH_SIZE = 500;
+
+  private static final ObjectInputFilter SNAPSHOT_CLASSES =
+      ObjectInputFilter.Config.createFilter(
+          String.join(
+              ";",
+              "maxdepth=16",
+              "maxarray=100000",
+              "com.ecommerce.productservice.payload.response.ProductResponseDTO",
+              "com.ecommerce.productservice.model.Size",
+              "org.springframework.data.domain.PageImpl",
+              "org.springframework.data.domain.Chunk",
+              "org.springframework.data.domain.PageRequest",
+              "org.springframework.data.domain.AbstractPageRequest",
+              "org.springframework.data.domain.Sort",
+              "org.springframework.data.domain.Sort$Order",
+              "org.springframework.data.domain.Sort$Direction",
+              "org.springframework.data.domain.Sort$NullHandling",
+              "java.lang.Object",
+              "java.lang.Enum",
+              "java.lang.Number",
+              "java.lang.Integer",
+              "java.lang.Long",
+              "java.lang.Float",
+              "java.lang.Boolean",
+              "java.lang.String",
+              "java.time.Ser",
+              "java.time.LocalDateTime",
+              "java.util.ArrayList",
+              "java.util.Arrays$ArrayList",
+              "java.util.HashSet",
+              "java.util.Map$Entry",
+              "!*"));
+
+  private static final Set<PosixFilePermission> OWNER_ONLY =
+      PosixFilePermissions.fromString("rwx------");
+
+  private final ProductNearCache nearCache;
+
+  private final MongoTemplate mongoTemplate;
+
+  private volatile Map<Integer, LocalDateTime> loadedVersions = Map.of();
+
+  @Value(value = "${product.snapshot.path}")
+  private Path snapshotPath;
+
+  @Value(value = "${product.snapshot.max-entries}")
+  private int maxSnapshotEntries;
+
+  @Value(value = "${product.snapshot.max-age-minutes}")
+  private long maxAgeMinutes;
+
+  /** Loads the snapshot into the near cache before the application reports readiness. */
+  @Override
+  public void run(ApplicationArguments args) {
+
+    if (!Files.isReadable(snapshotPath)) {
+      LOGGER.info("No catalog snapshot found at {}", snapshotPath);
+      return;
+    }
+    try {
+      if (!isPrivate(snapshotPath.toAbsolutePath().getParent()) || !isPrivate(snapshotPath)) {
+        LOGGER.warn("Ignoring catalog snapshot open to other users: {}", snapshotPath);
+        return;
+      }
+    } catch (IOException exception) {
+      LOGGER.error("Failed to check catalog snapshot: {}", exception.toString());
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+        LOGGER.warn("Ignoring catalog snapshot with unknown format: {}", snapshotPath);
+        return;
+      }
+      long writtenAt = buffer.getLong();
+      if (System.currentTimeMillis() - writtenAt > Duration.ofMinutes(maxAgeMinutes).toMillis()) {
+        LOGGER.info("Ignoring catalog snapshot older than {} minutes", maxAgeMinutes);
+        return;
+      }
+      int count = buffer.getInt();
+      Map<Integer, LocalDateTime> versions = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        byte[] key = new byte[buffer.getInt()];
+        buffer.get(key);
+        byte[] value = new byte[buffer.getInt()];
+        buffer.get(value);
+        Object entry = deserialize(value);
+        productsOf(entry)
+            .forEach(product -> versions.put(product.getProductId(), product.getUpdatedAt()));
+        nearCache.put(new String(key, StandardCharsets.UTF_8), entry);
+      }
+      loadedVersions = versions;
+      LOGGER.info("Loaded {} cache entries from catalog snapshot", count);
+    } catch (IOException | ClassNotFoundException | RuntimeException exception) {
+      LOGGER.error("Failed to load catalog snapshot: {}", exception.toString());
+    }
+  }
+
+  /** Starts verifying the loaded entries once the application is serving requests. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void verifyOnStartup() {
+
+    if (!loadedVersions.isEmpty()) {
+      CompletableFuture.runAsync(this::verifyLoadedEntries);
+    }
+  }
+
+  /** Writes the hottest near-cache entries to the snapshot file. */
+  @Scheduled(
+      initialDelayString = "${product.snapshot.write-interval-ms}",
+      fixedDelayString = "${product.snapshot.write-interval-ms}")
+  public void write() {
+
+    List<Map.Entry<String, Object>> hottest = nearCache.hottest(maxSnapshotEntries);
+    if (hottest.isEmpty()) {
+      return;
+    }
+    Map<byte[], byte[]> serialized = new LinkedHashMap<>();
+    for (Map.Entry<String, Object> entry : hottest) {
+      try {
+        serialized.put(
+            entry.getKey().getBytes(StandardCharsets.UTF_8), serialize(entry.getValue()));
+      } catch (IOException exception) {
+        LOGGER.warn("Skipping snapshot entry {}: {}", entry.getKey(), exception.toString());
+      }
+    }
+    try {
+      Path directory = snapshotPath.toAbsolutePath().getParent();
+      createPrivateDirectories(directory);
+      if (!isPrivate(directory)) {
+        LOGGER.error("Not writing catalog snapshot to a directory open to others: {}", directory);
+        return;
+      }
+      Path temporary = Files.createTempFile(directory, "catalog", ".tmp");
+      try (OutputStream file = Files.newOutputStream(temporary);
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(serialized.size());
+        for (Map.Entry<byte[], byte[]> entry : serialized.entrySet()) {
+          out.writeInt(entry.getKey().length);
+          out.write(entry.getKey());
+          out.writeInt(entry.getValue().length);
+          out.write(entry.getValue());
+        }
+      }
+      Files.move(
+          temporary,
+          snapshotPath,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      LOGGER.info("Wrote {} cache entries to catalog snapshot", serialized.size());
+    } catch (IOException exception) {
+      LOGGER.error("Failed to write catalog snapshot: {}", exception.toString());
+    }
+  }
+
+  /**
+   * Compares the {@code updated_at} of every product held by the loaded entries with the database
+   * and evicts the entries holding products that changed, were disabled or no longer exist.
+   */
+  private void verifyLoadedEntries() {
+
+    Map<Integer, LocalDateTime> versions = loadedVersions;
+    loadedVersions = Map.of();
+    List<Integer> productIds = List.copyOf(versions.keySet());
+    Set<Integer> staleProductIds = new HashSet<>(productIds);
+    for (int from = 0; from < productIds.size(); from += VERIFY_BATCH_SIZE) {
+      List<Integer> batch =
+          productIds.subList(from, Math.min(from + VERIFY_BATCH_SIZE, productIds.size()));
+      Query currentQuery = query(where("_id").in(batch).and("is_enabled").is(true));
+      currentQuery.fields().include("updated_at");
+      mongoTemplate.find(currentQuery, Product.class).stream()
+          .filter(
+              product ->
+                  Objects.equals(product.getUpdatedAt(), versions.get(product.getProductId())))
+          .forEach(product -> staleProductIds.remove(product.getProductId()));
+    }
+    if (!staleProductIds.isEmpty()) {
+      nearCache.evictValues(
+          value ->
+              productsOf(value).stream()
+                  .anyMatch(product -> staleProductIds.contains(product.getProductId())));
+    }
+    LOGGER.info(
+        "Verified {} products from catalog snapshot, {} were stale",
+        productIds.size(),
+        staleProductIds.size());
+  }
+
+  private static void createPrivateDirectories(Path directory) throws IOException {
+
+    if (Files.isDirectory(directory)) {
+      return;
+    }
+    FileAttribute<?>[] attributes =
+        supportsPosix()
+            ? new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(OWNER_ONLY)}
+            : new FileAttribute<?>[0];
+    Files.createDirectories(directory, attributes);
+  }
+
+  /**
+   * Tells whether a path is owned by the service user, is not a symbolic link and cannot be
+   * written by other users. Always true on file systems without POSIX permissions.
+   */
+  private static boolean isPrivate(Path path) throws IOException {
+
+    if (!supportsPosix()) {
+      return true;
+    }
+    PosixFileAttributes attributes =
+        Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    Set<PosixFilePermission> permissions = attributes.permissions();
+    return !attributes.isSymbolicLink()
+        && attributes
+            .owner()
+            .equals(
+                FileSystems.getDefault()
+                    .getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name")))
+        && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+        && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+  }
+
+  private static boolean supportsPosix() {
+
+    return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+  }
+
+  private static List<ProductResponseDTO> productsOf(Object value) {
+
+    if (value instanceof ProductResponseDTO product) {
+      return List.of(product);
+    }
+    if (value instanceof Page<?> page) {
+      return page.getContent().stream()
+          .filter(ProductResponseDTO.class::isInstance)
+          .map(ProductResponseDTO.class::cast)
+          .collect(Collectors.toList());
+    }
+    return List.of();
+  }
+
+  static byte[] serialize(Object value) throws IOException {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    return bytes.toByteArray();
+  }
+
+  static Object deserialize(byte[] value) throws IOException, ClassNotFoundException {
+
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(value))) {
+      in.setObjectInputFilter(SNAPSHOT_CLASSES);
+      return in.readObject();
+    }
+  }
+}
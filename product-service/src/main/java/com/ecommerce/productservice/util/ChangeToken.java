@@ -0,0 +1,82 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+
+import com.ecommerce.productservice.exception.InvalidChangeTokenException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * An opaque position in the catalog change feed. Products are ordered by {@code (updated_at, _id)},
+ * so a token holds the {@code updated_at} and id of the last product a client has seen and the
+ * next page starts strictly after it. Tokens are URL-safe and only meaningful to this service.
+ *
+ * @param updatedAt the {@code updated_at} of the last product seen, in epoch milliseconds
+ * @param productId the id of the last product seen
+ */
+public record ChangeToken(long updatedAt, int productId) {
+
+  /** The position before the first change, used for a full sync. */
+  public static final ChangeToken INITIAL = new ChangeToken(Long.MIN_VALUE, Integer.MIN_VALUE);
+
+  /**
+   * Parses a token received from a client.
+   *
+   * @param token the token, or blank to start from the beginning of the feed
+   * @return the parsed position
+   * @throws InvalidChangeTokenException if the token was not issued by this service
+   */
+  public static ChangeToken parse(String token) {
+
+    if (isNull(token) || token.isBlank()) {
+      return INITIAL;
+    }
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = decoded.indexOf(':');
+      return new ChangeToken(
+          Long.parseLong(decoded.substring(0, separator)),
+          Integer.parseInt(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+      throw new InvalidChangeTokenException("Invalid change token: " + token);
+    }
+  }
+
+  /**
+   * Creates the token pointing at the given product.
+   *
+   * @param updatedAt the product's {@code updated_at}
+   * @param productId the product's id
+   * @return the token
+   */
+  public static ChangeToken of(LocalDateTime updatedAt, Integer productId) {
+
+    return new ChangeToken(
+        updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), productId);
+  }
+
+  /**
+   * Returns the {@code updated_at} of this position as stored by the service.
+   *
+   * @return the timestamp of the last product seen
+   */
+  public LocalDateTime updatedAtTime() {
+
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(updatedAt), ZoneId.systemDefault());
+  }
+
+  /**
+   * Encodes this position for a client.
+   *
+   * @return the URL-safe token
+   */
+  public String encode() {
+
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((updatedAt + ":" + productId).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,309 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.ecommerce.productservice.model.ImageBlob;
+import com.ecommerce.productservice.model.ProductImage;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores product images once per distinct content. Uploads are hashed with SHA-256 while they are
+ * streamed to a temporary file, which is then moved to {@code <blob-dir>/<first two hex
+ * digits>/<hash>} unless a blob with that hash already exists. {@code image_blobs} counts the
+ * product image names referring to every blob and {@code product_images} maps each (product, image
+ * name) pair to a hash, so identical images shared across colour variants are kept and served
+ * once, under a URL that never changes its content.
+ *
+ * <p>Product writes release the image names the product no longer refers to, and deleting a
+ * product releases all of its names. Blobs that lost their last reference are only deleted after
+ * {@code product.images.gc-grace-minutes}, by a periodic sweep. The sweep first moves the file of
+ * a blob into a trash directory and then removes its record only while it is still unreferenced.
+ * If a reference was counted in the meantime, the file is moved back, unless the upload that
+ * counted it has already put its own copy in place. A new reference is counted before the blob
+ * file is checked, so an upload either sees the file missing and moves its copy in, or its
+ * reference makes the sweep keep the file.
+ *
+ * <p>The media type of a blob is detected from its content by {@link ImageMediaTypes}, so it is
+ * the same for every upload of the same bytes, whatever type the uploaders declared.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentAddressedImageStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContentAddressedImageStore.class);
+
+  private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+  private final MongoTemplate mongoTemplate;
+
+  @Value(value = "${product.images.blob-dir}")
+  private Path blobDirectory;
+
+  @Value(value = "${product.images.gc-grace-minutes}")
+  private long gcGraceMinutes;
+
+  private Path temporaryDirectory;
+
+  private Path trashDirectory;
+
+  /** The content of a stored image. */
+  public record StoredImage(String hash, Path path, String contentType, long size) {}
+
+  @PostConstruct
+  void createDirectories() throws IOException {
+
+    temporaryDirectory = blobDirectory.resolve("tmp");
+    trashDirectory = blobDirectory.resolve("trash");
+    Files.createDirectories(temporaryDirectory);
+    Files.createDirectories(trashDirectory);
+  }
+
+  /**
+   * Stores an image and points the given image name of the product at it. If the name referred to
+   * another image before, that image loses one reference.
+   *
+   * @param productId the id of the product the image belongs to
+   * @param imageName the name under which the product refers to the image
+   * @param content the image content, read to the end but not closed
+   * @return the hash the image is stored under
+   * @throws IOException if the image cannot be written
+   */
+  public String store(Integer productId, String imageName, InputStream content)
+      throws IOException {
+
+    Path temporary = Files.createTempFile(temporaryDirectory, "upload", ".tmp");
+    try {
+      MessageDigest digest = sha256();
+      long size =
+          Files.copy(
+              new DigestInputStream(content, digest),
+              temporary,
+              StandardCopyOption.REPLACE_EXISTING);
+      String hash = HexFormat.of().formatHex(digest.digest());
+      String contentType = ImageMediaTypes.detect(temporary);
+      LocalDateTime now = LocalDateTime.now();
+      // count the reference before looking at the file, so a concurrent sweep leaves it alone
+      mongoTemplate.upsert(
+          query(where("_id").is(hash)),
+          new Update()
+              .inc("ref_count", 1)
+              .unset("released_at")
+              .setOnInsert("size", size)
+              .set("content_type", contentType)
+              .setOnInsert("created_at", now),
+          ImageBlob.class);
+      Path blob = blobPath(hash);
+      try {
+        if (!Files.exists(blob)) {
+          Files.createDirectories(blob.getParent());
+          Files.move(
+              temporary,
+              blob,
+              StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+        }
+      } catch (IOException exception) {
+        // the name is not mapped to the blob, so the reference counted above is given back
+        release(hash);
+        throw exception;
+      }
+      ProductImage previous =
+          mongoTemplate.findAndModify(
+              query(where("product_id").is(productId).and("image_name").is(imageName)),
+              new Update().set("hash", hash).set("updated_at", now),
+              FindAndModifyOptions.options().upsert(true).returnNew(false),
+              ProductImage.class);
+      if (!isNull(previous)) {
+        release(previous.getHash());
+      }
+      LOGGER.info(
+          "Image: {} of product: {} stored as blob: {} ({} bytes)",
+          imageName,
+          productId,
+          hash,
+          size);
+      return hash;
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Releases the image names of a product that it no longer refers to. Names mapped at or after
+   * {@code mappedBefore} are kept, as they may belong to an upload whose product write is still to
+   * come.
+   *
+   * @param productId the id of the product
+   * @param imageNames the image names the product refers to, empty to release all of them
+   * @param mappedBefore the time the product write started
+   */
+  public void releaseUnreferenced(
+      Integer productId, Collection<String> imageNames, LocalDateTime mappedBefore) {
+
+    Query unreferenced =
+        query(
+            where("product_id")
+                .is(productId)
+                .and("image_name")
+                .nin(imageNames)
+                .and("updated_at")
+                .lt(mappedBefore));
+    for (ProductImage image : mongoTemplate.find(unreferenced, ProductImage.class)) {
+      ProductImage removed =
+          mongoTemplate.findAndRemove(
+              query(
+                  where("_id")
+                      .is(image.getId())
+                      .and("hash")
+                      .is(image.getHash())
+                      .and("updated_at")
+                      .lt(mappedBefore)),
+              ProductImage.class);
+      if (!isNull(removed)) {
+        release(removed.getHash());
+        LOGGER.info(
+            "Released image: {} of product: {}", removed.getImageName(), removed.getProductId());
+      }
+    }
+  }
+
+  /**
+   * Looks up the image a product refers to by name.
+   *
+   * @param productId the id of the product
+   * @param imageName the name of the image
+   * @return the stored image, or empty if the name is not mapped or its blob is missing
+   */
+  public Optional<StoredImage> findByName(Integer productId, String imageName) {
+
+    ProductImage image =
+        mongoTemplate.findOne(
+            query(where("product_id").is(productId).and("image_name").is(imageName)),
+            ProductImage.class);
+    return isNull(image) ? Optional.empty() : findByHash(image.getHash());
+  }
+
+  /**
+   * Looks up a stored image by the hash of its content.
+   *
+   * @param hash the lowercase hex SHA-256 hash of the image
+   * @return the stored image, or empty if no blob with this hash exists
+   */
+  public Optional<StoredImage> findByHash(String hash) {
+
+    if (isNull(hash) || !HASH.matcher(hash).matches()) {
+      return Optional.empty();
+    }
+    ImageBlob blob = mongoTemplate.findById(hash, ImageBlob.class);
+    Path path = blobPath(hash);
+    if (isNull(blob) || !Files.isReadable(path)) {
+      return Optional.empty();
+    }
+    return Optional.of(new StoredImage(hash, path, blob.getContentType(), blob.getSize()));
+  }
+
+  /**
+   * Deletes the blobs that have been unreferenced for longer than the grace period. The file is
+   * moved to the trash first, then the record is removed only while it is still unreferenced, and
+   * the file is deleted or, if the blob was referenced again, moved back.
+   */
+  @Scheduled(
+      initialDelayString = "${product.images.gc-interval-ms}",
+      fixedDelayString = "${product.images.gc-interval-ms}")
+  public void collectGarbage() {
+
+    Query unreferenced =
+        query(
+            where("ref_count")
+                .lte(0)
+                .and("released_at")
+                .lt(LocalDateTime.now().minusMinutes(gcGraceMinutes)));
+    unreferenced.fields().include("_id");
+    int deleted = 0;
+    for (ImageBlob candidate : mongoTemplate.find(unreferenced, ImageBlob.class)) {
+      String hash = candidate.getHash();
+      Path blob = blobPath(hash);
+      Path trashed = trashDirectory.resolve(hash + "." + UUID.randomUUID());
+      try {
+        boolean moved = Files.exists(blob);
+        if (moved) {
+          Files.move(blob, trashed, StandardCopyOption.ATOMIC_MOVE);
+        }
+        ImageBlob removed =
+            mongoTemplate.findAndRemove(
+                query(where("_id").is(hash).and("ref_count").lte(0)), ImageBlob.class);
+        if (!moved) {
+          continue;
+        }
+        if (!isNull(removed) || Files.exists(blob)) {
+          Files.delete(trashed);
+          deleted += isNull(removed) ? 0 : 1;
+        } else {
+          // referenced again while the file was in the trash
+          Files.move(trashed, blob, StandardCopyOption.ATOMIC_MOVE);
+        }
+      } catch (IOException exception) {
+        LOGGER.error("Failed to collect image blob {}: {}", hash, exception.toString());
+      }
+    }
+    if (deleted > 0) {
+      LOGGER.info("Deleted {} unreferenced image blobs", deleted);
+    }
+  }
+
+  private void release(String hash) {
+
+    ImageBlob blob =
+        mongoTemplate.findAndModify(
+            query(where("_id").is(hash)),
+            new Update().inc("ref_count", -1),
+            FindAndModifyOptions.options().returnNew(true),
+            ImageBlob.class);
+    if (!isNull(blob) && blob.getRefCount() <= 0) {
+      mongoTemplate.updateFirst(
+          query(where("_id").is(hash).and("ref_count").lte(0)),
+          new Update().set("released_at", LocalDateTime.now()),
+          ImageBlob.class);
+    }
+  }
+
+  private Path blobPath(String hash) {
+
+    return blobDirectory.resolve(hash.substring(0, 2)).resolve(hash);
+  }
+
+  private static MessageDigest sha256() {
+
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException("SHA-256 is not available", exception);
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains "frequently bought together" recommendations from confirmed orders.
+ *
+ * <p>Every confirmed order adds one to the co-occurrence count of each pair of distinct products
+ * in it. The counts are accumulated in a primitive {@link LongIntHashMap} keyed by the packed
+ * product pair, and periodically added to the per-product Redis hashes {@code
+ * co-occurrence:<productId>} with {@code HINCRBY}, so replicas share the same totals. For every
+ * product whose counts changed, the top-k related products are then materialized into the string
+ * {@code related:<productId>}, which makes serving recommendations a single {@code GET}.
+ *
+ * <p>The increments of a flush are sent as one {@code MULTI}/{@code EXEC} transaction, so a flush
+ * that fails has applied none of them and its counts are merged back into the pending ones for the
+ * next flush. Products whose materialization failed are retried the same way. Each hash is trimmed
+ * to its {@code product.related.max-counts-per-product} highest counts when it is materialized,
+ * so that the hashes of popular products do not grow with every product ever bought with them.
+ */
+@Component
+@RequiredArgsConstructor
+public class FrequentlyBoughtTogether {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FrequentlyBoughtTogether.class);
+
+  private static final String COUNTS_KEY_PREFIX = "co-occurrence:";
+
+  private static final String RELATED_KEY_PREFIX = "related:";
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  private LongIntHashMap pendingPairs = new LongIntHashMap(1024);
+
+  private Set<Integer> unmaterializedProducts = new HashSet<>();
+
+  @Value(value = "${product.related.top-k}")
+  private int topK;
+
+  @Value(value = "${product.related.max-items-per-order}")
+  private int maxItemsPerOrder;
+
+  @Value(value = "${product.related.max-counts-per-product}")
+  private int maxCountsPerProduct;
+
+  /**
+   * Counts the product pairs of a confirmed order.
+   *
+   * @param productIds the products of the order
+   */
+  public void recordOrder(Collection<Integer> productIds) {
+
+    int[] products =
+        productIds.stream()
+            .distinct()
+            .limit(maxItemsPerOrder)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    if (products.length < 2) {
+      return;
+    }
+    Arrays.sort(products);
+    synchronized (this) {
+      for (int i = 0; i < products.length; i++) {
+        for (int j = i + 1; j < products.length; j++) {
+          pendingPairs.addTo(((long) products[i] << 32) | (products[j] & 0xffffffffL), 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the materialized related products of a product, most frequently co-bought first.
+   *
+   * @param productId the product
+   * @param limit the maximum number of ids to return
+   * @return the related product ids
+   */
+  public List<Integer> relatedProductIds(Integer productId, int limit) {
+
+    String related = stringRedisTemplate.opsForValue().get(RELATED_KEY_PREFIX + productId);
+    if (isNull(related) || related.isEmpty()) {
+      return List.of();
+    }
+    return Arrays.stream(related.split(",")).limit(limit).map(Integer::valueOf).toList();
+  }
+
+  /**
+   * Adds the pending pair counts to Redis and rematerializes the related products of every product
+   * they touched.
+   */
+  @Scheduled(
+      initialDelayString = "${product.related.flush-interval-ms}",
+      fixedDelayString = "${product.related.flush-interval-ms}")
+  @PreDestroy
+  public void flush() {
+
+    LongIntHashMap pairs;
+    Set<Integer> productsToMaterialize;
+    synchronized (this) {
+      if (pendingPairs.size() == 0 && unmaterializedProducts.isEmpty()) {
+        return;
+      }
+      pairs = pendingPairs;
+      pendingPairs = new LongIntHashMap(1024);
+      productsToMaterialize = unmaterializedProducts;
+      unmaterializedProducts = new HashSet<>();
+    }
+    try {
+      increment(pairs);
+    } catch (DataAccessException exception) {
+      LOGGER.error("Failed to update co-occurrence counts: {}", exception.getMessage());
+      synchronized (this) {
+        pairs.forEach(pendingPairs::addTo);
+        unmaterializedProducts.addAll(productsToMaterialize);
+      }
+      return;
+    }
+    pairs.forEach(
+        (pair, count) -> {
+          productsToMaterialize.add((int) (pair >>> 32));
+          productsToMaterialize.add((int) pair);
+        });
+    try {
+      materialize(new ArrayList<>(productsToMaterialize));
+      LOGGER.info(
+          "Flushed {} co-occurrence pairs, refreshed related products of {} products",
+          pairs.size(),
+          productsToMaterialize.size());
+    } catch (DataAccessException exception) {
+      LOGGER.error("Failed to update related products: {}", exception.getMessage());
+      synchronized (this) {
+        unmaterializedProducts.addAll(productsToMaterialize);
+      }
+    }
+  }
+
+  private void increment(LongIntHashMap pairs) {
+
+    if (pairs.size() == 0) {
+      return;
+    }
+    stringRedisTemplate.executePipelined(
+        (RedisCallback<Object>)
+            connection -> {
+              StringRedisConnection redis = (StringRedisConnection) connection;
+              redis.multi();
+              pairs.forEach(
+                  (pair, count) -> {
+                    int first = (int) (pair >>> 32);
+                    int second = (int) pair;
+                    redis.hIncrBy(COUNTS_KEY_PREFIX + first, String.valueOf(second), count);
+                    redis.hIncrBy(COUNTS_KEY_PREFIX + second, String.valueOf(first), count);
+                  });
+              redis.exec();
+              return null;
+            });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void materialize(List<Integer> productIds) {
+
+    // the string connection already converts the replies, so no result serializer is needed
+    List<Object> counts =
+        stringRedisTemplate.executePipelined(
+            (RedisCallback<Object>)
+                connection -> {
+                  StringRedisConnection redis = (StringRedisConnection) connection;
+                  productIds.forEach(productId -> redis.hGetAll(COUNTS_KEY_PREFIX + productId));
+                  return null;
+                },
+            null);
+    stringRedisTemplate.executePipelined(
+        (RedisCallback<Object>)
+            connection -> {
+              StringRedisConnection redis = (StringRedisConnection) connection;
+              for (int i = 0; i < productIds.size(); i++) {
+                List<String> related = byCount((Map<String, String>) counts.get(i));
+                redis.set(
+                    RELATED_KEY_PREFIX + productIds.get(i),
+                    String.join(",", related.subList(0, Math.min(topK, related.size()))));
+                if (related.size() > maxCountsPerProduct) {
+                  redis.hDel(
+                      COUNTS_KEY_PREFIX + productIds.get(i),
+                      related
+                          .subList(maxCountsPerProduct, related.size())
+                          .toArray(String[]::new));
+                }
+              }
+              return null;
+            });
+  }
+
+  /** Returns the related product ids of a co-occurrence hash, most frequently co-bought first. */
+  static List<String> byCount(Map<String, String> counts) {
+
+    return counts.entrySet().stream()
+        .map(entry -> Map.entry(entry.getKey(), Long.parseLong(entry.getValue())))
+        .sorted(
+            Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+}
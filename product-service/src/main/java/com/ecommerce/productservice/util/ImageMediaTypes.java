@@ -0,0 +1,88 @@
+package com.ecommerce.productservice.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Detects the media type of a stored image from its leading bytes. The media type an uploader
+ * declares is never trusted, since an image served inline under a type such as {@code
+ * image/svg+xml} can run script in the origin of the service. Only raster formats that browsers
+ * cannot execute are recognized; everything else, SVG included, has no detected type and is
+ * served as an attachment.
+ */
+public final class ImageMediaTypes {
+
+  /** The media types that are served inline. */
+  public static final Set<String> INLINE =
+      Set.of("image/png", "image/jpeg", "image/gif", "image/webp", "image/bmp");
+
+  private static final int HEADER_LENGTH = 12;
+
+  private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+  private static final byte[] JPEG = {(byte) 0xff, (byte) 0xd8, (byte) 0xff};
+
+  private static final byte[] GIF87A = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] GIF89A = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte[] BMP = "BM".getBytes(StandardCharsets.US_ASCII);
+
+  private ImageMediaTypes() {}
+
+  /**
+   * Detects the media type of an image file.
+   *
+   * @param image the image file
+   * @return the detected media type, or null if the file is not a recognized image
+   * @throws IOException if the file cannot be read
+   */
+  public static String detect(Path image) throws IOException {
+
+    try (InputStream content = Files.newInputStream(image)) {
+      return detect(content.readNBytes(HEADER_LENGTH));
+    }
+  }
+
+  /**
+   * Detects the media type of an image from its leading bytes.
+   *
+   * @param header at least the first 12 bytes of the image, or all of it if it is shorter
+   * @return the detected media type, or null if the bytes do not start a recognized image
+   */
+  public static String detect(byte[] header) {
+
+    if (startsWith(header, 0, PNG)) {
+      return "image/png";
+    }
+    if (startsWith(header, 0, JPEG)) {
+      return "image/jpeg";
+    }
+    if (startsWith(header, 0, GIF87A) || startsWith(header, 0, GIF89A)) {
+      return "image/gif";
+    }
+    if (startsWith(header, 0, RIFF) && startsWith(header, 8, WEBP)) {
+      return "image/webp";
+    }
+    if (startsWith(header, 0, BMP) && header.length >= HEADER_LENGTH) {
+      return "image/bmp";
+    }
+    return null;
+  }
+
+  private static boolean startsWith(byte[] header, int offset, byte[] signature) {
+
+    return header.length >= offset + signature.length
+        && Arrays.equals(
+            header, offset, offset + signature.length, signature, 0, signature.length);
+  }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.productservice.util;
+
+import java.util.Arrays;
+
+/**
+ * A minimal open-addressing hash map from primitive {@code long} keys to {@code int} values, used
+ * to accumulate counters without boxing every key and value. Not thread-safe; callers synchronize.
+ * {@link Long#MIN_VALUE} is reserved as the empty-slot marker and cannot be used as a key.
+ */
+public class LongIntHashMap {
+
+  private static final long EMPTY = Long.MIN_VALUE;
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+
+  private int[] values;
+
+  private int size;
+
+  /**
+   * Creates a map sized for the given number of keys before its first resize.
+   *
+   * @param expectedSize the expected number of keys
+   */
+  public LongIntHashMap(int expectedSize) {
+
+    int minimumCapacity = Math.max(16, (int) (expectedSize / LOAD_FACTOR));
+    int capacity = Integer.highestOneBit(minimumCapacity - 1) << 1;
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+  }
+
+  /**
+   * Adds the given delta to the value of a key, starting from 0 for new keys.
+   *
+   * @param key the key, must not be {@link Long#MIN_VALUE}
+   * @param delta the amount to add
+   */
+  public void addTo(long key, int delta) {
+
+    int slot = slotOf(key, keys);
+    if (keys[slot] == EMPTY) {
+      if (size + 1 > keys.length * LOAD_FACTOR) {
+        resize();
+        slot = slotOf(key, keys);
+      }
+      keys[slot] = key;
+      size++;
+    }
+    values[slot] += delta;
+  }
+
+  /**
+   * Returns the number of keys in the map.
+   *
+   * @return the number of keys
+   */
+  public int size() {
+
+    return size;
+  }
+
+  /**
+   * Calls the consumer for every key and value in the map.
+   *
+   * @param consumer the consumer of the entries
+   */
+  public void forEach(LongIntConsumer consumer) {
+
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != EMPTY) {
+        consumer.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  private void resize() {
+
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new long[oldKeys.length * 2];
+    values = new int[oldValues.length * 2];
+    Arrays.fill(keys, EMPTY);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int slot = slotOf(oldKeys[i], keys);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private static int slotOf(long key, long[] table) {
+
+    int mask = table.length - 1;
+    int slot = (int) (mix(key) & mask);
+    while (table[slot] != EMPTY && table[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static long mix(long key) {
+
+    long hash = key * 0x9e3779b97f4a7c15L;
+    return hash ^ (hash >>> 32);
+  }
+
+  /** Consumer of a primitive key and value. */
+  @FunctionalInterface
+  public interface LongIntConsumer {
+
+    void accept(long key, int value);
+  }
+}
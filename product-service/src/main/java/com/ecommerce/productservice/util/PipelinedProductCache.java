@@ -0,0 +1,109 @@
+package com.ecommerce.productservice.util;
+
+import static com.ecommerce.productservice.config.RedisConfig.CACHE_NAME;
+import static com.ecommerce.productservice.config.RedisConfig.CACHE_TTL;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes many entries of the Redis {@code products} cache in one round trip, for batch
+ * lookups and cache warm-up. Entries are stored under the same {@code products::<key>} keys and
+ * with the same serialization as the {@code @Cacheable} entries, so they are interchangeable.
+ *
+ * <p>Lookups use a single {@code MGET}; writes are pipelined {@code SETEX} commands that Lettuce
+ * flushes to the socket together when the pipeline is closed. Redis failures are logged and
+ * treated as misses, the same way the cache error handler does.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelinedProductCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipelinedProductCache.class);
+
+  private final RedisTemplate<String, Object> productCacheTemplate;
+
+  /**
+   * Looks up the entries cached under the given keys.
+   *
+   * @param keys the cache keys, as passed to the {@code products} cache
+   * @param <K> the type of the cache keys
+   * @return the cached values by key, holding only the keys that were found
+   */
+  public <K> Map<K, Object> getAll(Collection<K> keys) {
+
+    Map<K, Object> found = new LinkedHashMap<>();
+    if (keys.isEmpty()) {
+      return found;
+    }
+    List<String> redisKeys = keys.stream().map(PipelinedProductCache::redisKey).toList();
+    List<Object> values;
+    try {
+      values = productCacheTemplate.opsForValue().multiGet(redisKeys);
+    } catch (RuntimeException exception) {
+      LOGGER.error(
+          "Failure getting from cache: {}, exception: {}", CACHE_NAME, exception.toString());
+      return found;
+    }
+    if (values == null) {
+      return found;
+    }
+    int index = 0;
+    for (K key : keys) {
+      Object value = values.get(index++);
+      if (value != null) {
+        found.put(key, value);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Caches the given entries with the {@code products} cache time to live, in one pipeline.
+   *
+   * @param entries the values to cache by cache key
+   */
+  @SuppressWarnings("unchecked")
+  public void putAll(Map<?, ?> entries) {
+
+    if (entries.isEmpty()) {
+      return;
+    }
+    RedisSerializer<String> keySerializer =
+        (RedisSerializer<String>) productCacheTemplate.getKeySerializer();
+    RedisSerializer<Object> valueSerializer =
+        (RedisSerializer<Object>) productCacheTemplate.getValueSerializer();
+    try {
+      productCacheTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                entries.forEach(
+                    (key, value) ->
+                        connection
+                            .stringCommands()
+                            .setEx(
+                                keySerializer.serialize(redisKey(key)),
+                                CACHE_TTL.getSeconds(),
+                                valueSerializer.serialize(value)));
+                return null;
+              });
+    } catch (RuntimeException exception) {
+      LOGGER.error(
+          "Failure putting into cache: {}, exception: {}", CACHE_NAME, exception.toString());
+    }
+  }
+
+  private static String redisKey(Object key) {
+
+    return CACHE_NAME + "::" + key;
+  }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.productservice.util;
+
+import com.ecommerce.productservice.model.PriceHistory;
+import com.ecommerce.productservice.model.Product;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends price observations to the {@code price_history} time-series collection. Recording is
+ * best effort: a failure is logged and never fails the catalog write that triggered it.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceHistoryRecorder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PriceHistoryRecorder.class);
+
+  private final MongoTemplate mongoTemplate;
+
+  /**
+   * Records the current price of a product if it differs from the previous one.
+   *
+   * @param previousPrice the price before the write, or null for a new product
+   * @param previousDiscountPercent the discount before the write, or null for a new product
+   * @param product the product after the write
+   */
+  public void recordIfChanged(
+      Float previousPrice, Integer previousDiscountPercent, Product product) {
+
+    if (Objects.equals(previousPrice, product.getProductPrice())
+        && Objects.equals(previousDiscountPercent, product.getDiscountPercent())) {
+      return;
+    }
+    recordAll(List.of(product));
+  }
+
+  /**
+   * Records the current price of each of the given products with a single insert.
+   *
+   * @param products the products whose price changed
+   */
+  public void recordAll(Collection<Product> products) {
+
+    if (products.isEmpty()) {
+      return;
+    }
+    Instant now = Instant.now();
+    List<PriceHistory> samples =
+        products.stream()
+            .map(
+                product ->
+                    new PriceHistory(
+                        null,
+                        now,
+                        product.getProductId(),
+                        product.getProductPrice(),
+                        product.getDiscountPercent(),
+                        product.getProductPrice()
+                            - product.getProductPrice() * product.getDiscountPercent() / 100))
+            .toList();
+    try {
+      mongoTemplate.insertAll(samples);
+    } catch (DataAccessException exception) {
+      LOGGER.error("Failed to record price history: {}", exception.getMessage());
+    }
+  }
+}
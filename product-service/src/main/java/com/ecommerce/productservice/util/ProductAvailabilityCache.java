@@ -0,0 +1,243 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.model.Size;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the available quantity of every size of a product in a small Redis hash, {@code
+ * availability:<productId>} with one field per size name, so that stock checks never need the full
+ * product document.
+ *
+ * <p>The reservation, release and confirmation paths write the new quantities through as soon as
+ * they have changed them in MongoDB, and admin updates rewrite or drop the hash. Hashes that are
+ * missing are loaded for all requested products with a single {@code $in} query and written back in
+ * one pipeline. Hashes expire after {@code product.availability.ttl-minutes} as a safety net
+ * against lost writes. Redis failures are logged and lookups fall back to MongoDB.
+ *
+ * <p>Every stock write increments the {@code stock_version} of the product, and the hash keeps the
+ * version its quantities were read at in its {@code @version} field. A Lua script only writes
+ * quantities whose version is not older than the stored one, so a concurrent reservation or a
+ * lookup that read an older document cannot overwrite newer quantities. Dropping a hash keeps its
+ * version for the same reason.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductAvailabilityCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductAvailabilityCache.class);
+
+  private static final String KEY_PREFIX = "availability:";
+
+  private static final String VERSION_FIELD = "@version";
+
+  /**
+   * Replaces the hash with the given version and size quantities unless it holds a newer version.
+   * KEYS[1] is the hash, ARGV[1] the version, ARGV[2] the TTL in seconds and the remaining
+   * arguments alternate size names and quantities.
+   */
+  private static final String WRITE_SCRIPT =
+      """
+      local stored = redis.call('HGET', KEYS[1], '@version')
+      if stored and tonumber(stored) > tonumber(ARGV[1]) then
+        return 0
+      end
+      redis.call('DEL', KEYS[1])
+      redis.call('HSET', KEYS[1], '@version', ARGV[1], unpack(ARGV, 3))
+      redis.call('EXPIRE', KEYS[1], ARGV[2])
+      return 1
+      """;
+
+  /** Drops the quantities of the hash and keeps its version. KEYS[1] is the hash. */
+  private static final String EVICT_SCRIPT =
+      """
+      local stored = redis.call('HGET', KEYS[1], '@version')
+      redis.call('DEL', KEYS[1])
+      if stored then
+        redis.call('HSET', KEYS[1], '@version', stored)
+        redis.call('EXPIRE', KEYS[1], ARGV[1])
+      end
+      return 1
+      """;
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  private final MongoTemplate mongoTemplate;
+
+  private final ProductExistenceFilter productExistenceFilter;
+
+  @Value(value = "${product.availability.ttl-minutes}")
+  private long ttlMinutes;
+
+  /**
+   * Returns the available quantity per size of the given enabled products.
+   *
+   * @param productIds the ids of the products to look up
+   * @return the available quantities by size name, keyed by product id; products that do not exist
+   *     or are disabled are absent
+   */
+  @SuppressWarnings("unchecked")
+  public Map<Integer, Map<String, Integer>> availableBySize(Collection<Integer> productIds) {
+
+    List<Integer> ids = productIds.stream().distinct().toList();
+    Map<Integer, Map<String, Integer>> availability = new HashMap<>();
+    List<Integer> missingIds = new ArrayList<>();
+    try {
+      List<Object> hashes =
+          stringRedisTemplate.executePipelined(
+              (RedisCallback<Object>)
+                  connection -> {
+                    StringRedisConnection redis = (StringRedisConnection) connection;
+                    ids.forEach(productId -> redis.hGetAll(KEY_PREFIX + productId));
+                    return null;
+                  },
+              null);
+      for (int i = 0; i < ids.size(); i++) {
+        Map<String, String> hash = (Map<String, String>) hashes.get(i);
+        Map<String, Integer> sizes = new HashMap<>();
+        if (!isNull(hash)) {
+          hash.forEach(
+              (size, available) -> {
+                if (!VERSION_FIELD.equals(size)) {
+                  sizes.put(size, Integer.parseInt(available));
+                }
+              });
+        }
+        if (sizes.isEmpty()) {
+          missingIds.add(ids.get(i));
+        } else {
+          availability.put(ids.get(i), sizes);
+        }
+      }
+    } catch (DataAccessException exception) {
+      LOGGER.error("Failed to read product availability: {}", exception.getMessage());
+      missingIds = new ArrayList<>(ids);
+    }
+    // skip the database for ids that are known not to exist
+    missingIds.removeIf(productId -> !productExistenceFilter.mightExist(productId));
+    if (!missingIds.isEmpty()) {
+      Query missingQuery = query(where("_id").in(missingIds).and("is_enabled").is(true));
+      missingQuery.fields().include("product_sizes", "is_enabled", "stock_version");
+      List<Product> products = mongoTemplate.find(missingQuery, Product.class);
+      products.forEach(product -> availability.put(product.getProductId(), available(product)));
+      updateAll(products);
+    }
+    return availability;
+  }
+
+  /**
+   * Writes the available quantities of a product through to Redis after its stock changed, or
+   * drops its hash if the product is disabled.
+   *
+   * @param product the product as stored after the change, may be null if nothing was updated
+   */
+  public void update(Product product) {
+
+    if (!isNull(product)) {
+      updateAll(List.of(product));
+    }
+  }
+
+  /**
+   * Drops the cached availability of the given products, so it is reloaded on the next lookup.
+   *
+   * @param productIds the ids of the products
+   */
+  public void evict(Collection<Integer> productIds) {
+
+    if (productIds.isEmpty()) {
+      return;
+    }
+    String ttlSeconds = String.valueOf(Duration.ofMinutes(ttlMinutes).toSeconds());
+    try {
+      stringRedisTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                productIds.forEach(
+                    productId ->
+                        redis.eval(
+                            EVICT_SCRIPT,
+                            ReturnType.INTEGER,
+                            1,
+                            KEY_PREFIX + productId,
+                            ttlSeconds));
+                return null;
+              });
+    } catch (DataAccessException exception) {
+      LOGGER.error("Failed to evict product availability: {}", exception.getMessage());
+    }
+  }
+
+  private void updateAll(List<Product> products) {
+
+    if (products.isEmpty()) {
+      return;
+    }
+    long ttlSeconds = Duration.ofMinutes(ttlMinutes).toSeconds();
+    try {
+      stringRedisTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (Product product : products) {
+                  List<String> keysAndArgs = new ArrayList<>();
+                  keysAndArgs.add(KEY_PREFIX + product.getProductId());
+                  keysAndArgs.add(
+                      String.valueOf(
+                          isNull(product.getStockVersion()) ? 0 : product.getStockVersion()));
+                  keysAndArgs.add(String.valueOf(ttlSeconds));
+                  // a disabled product keeps only its version, so it reads as missing
+                  if (product.isEnabled()) {
+                    available(product)
+                        .forEach(
+                            (size, available) -> {
+                              keysAndArgs.add(size);
+                              keysAndArgs.add(String.valueOf(available));
+                            });
+                  }
+                  redis.eval(
+                      WRITE_SCRIPT, ReturnType.INTEGER, 1, keysAndArgs.toArray(String[]::new));
+                }
+                return null;
+              });
+    } catch (DataAccessException exception) {
+      LOGGER.error("Failed to write product availability: {}", exception.getMessage());
+    }
+  }
+
+  private static Map<String, Integer> available(Product product) {
+
+    Map<String, Integer> sizes = new HashMap<>();
+    if (isNull(product.getProductSizes())) {
+      return sizes;
+    }
+    for (Size size : product.getProductSizes()) {
+      int reserved = isNull(size.getReservedQuantity()) ? 0 : size.getReservedQuantity();
+      int quantity = isNull(size.getQuantity()) ? 0 : size.getQuantity();
+      sizes.put(size.getName(), Math.max(0, quantity - reserved));
+    }
+    return sizes;
+  }
+}
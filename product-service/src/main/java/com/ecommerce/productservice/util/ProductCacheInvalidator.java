@@ -0,0 +1,103 @@
+package com.ecommerce.productservice.util;
+
+import static com.ecommerce.productservice.config.RedisConfig.CACHE_NAME;
+
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts only the entries of the {@code products} cache that a write actually affects, instead of
+ * clearing the whole cache.
+ *
+ * <p>Single products are cached under their id, all-products listing pages under {@code
+ * pageNumber,pageSize,searchKey} and category listing pages under {@code
+ * categoryId,pageNumber,pageSize,searchKey,role}. A change to a product therefore evicts its own
+ * entry, every all-products page and the listing pages of its category, while the listing pages of
+ * other categories stay cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductCacheInvalidator.class);
+
+  private static final String LISTING_KEY_PATTERN = CACHE_NAME + "::*,*";
+
+  private static final int CATEGORY_LISTING_KEY_PARTS = 5;
+
+  private final CacheManager cacheManager;
+
+  private final RedisTemplate<String, ProductResponseDTO> redisTemplate;
+
+  private final ProductNearCache productNearCache;
+
+  /**
+   * Evicts the cached entries of the given products.
+   *
+   * @param productIds the ids of the products whose entries should be evicted
+   */
+  public void evictProducts(Collection<Integer> productIds) {
+
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    if (cache == null) {
+      return;
+    }
+    productIds.forEach(cache::evict);
+  }
+
+  /**
+   * Evicts the all-products listing pages and the listing pages of the given categories with a
+   * single scan over the cached listing keys.
+   *
+   * @param categoryIds the categories whose listing pages should be evicted
+   */
+  public void evictListings(Collection<Integer> categoryIds) {
+
+    Set<String> categories =
+        categoryIds.stream().map(String::valueOf).collect(Collectors.toSet());
+    productNearCache.evictListings(categories);
+    List<String> staleKeys = new ArrayList<>();
+    ScanOptions options = ScanOptions.scanOptions().match(LISTING_KEY_PATTERN).count(500).build();
+    try (Cursor<String> keys = redisTemplate.scan(options)) {
+      keys.forEachRemaining(
+          key -> {
+            String[] parts = key.substring(CACHE_NAME.length() + 2).split(",", -1);
+            if (parts.length != CATEGORY_LISTING_KEY_PARTS || categories.contains(parts[0])) {
+              staleKeys.add(key);
+            }
+          });
+    } catch (RuntimeException exception) {
+      LOGGER.error("Failure scanning cache: {}, exception: {}", CACHE_NAME, exception.toString());
+      return;
+    }
+    if (!staleKeys.isEmpty()) {
+      redisTemplate.delete(staleKeys);
+    }
+    LOGGER.info("Evicted {} cached listing pages for categories: {}", staleKeys.size(), categories);
+  }
+
+  /**
+   * Evicts the given products together with the listing pages that may contain them.
+   *
+   * @param productIds the ids of the changed products
+   * @param categoryIds the categories the changed products belong to
+   */
+  public void evict(Collection<Integer> productIds, Collection<Integer> categoryIds) {
+
+    evictProducts(productIds);
+    evictListings(categoryIds);
+  }
+}
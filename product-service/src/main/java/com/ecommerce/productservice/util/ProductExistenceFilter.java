@@ -0,0 +1,220 @@
+package com.ecommerce.productservice.util;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.ecommerce.productservice.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Guards product lookups against ids that do not exist. A {@link BloomFilter} built from the ids of
+ * all enabled products answers "definitely absent" without touching MongoDB, and a short-lived
+ * negative cache absorbs the false positives that still reach the database. The filter is built
+ * once the application is ready, extended on every insert and rebuilt periodically so that
+ * disabled products eventually drop out of it.
+ *
+ * <p>Until the first build completes every id is reported as possibly existing, so lookups fall
+ * through to the database as before.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductExistenceFilter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductExistenceFilter.class);
+
+  private final MongoTemplate mongoTemplate;
+
+  private final MeterRegistry meterRegistry;
+
+  private final Map<Integer, Long> negativeCache = new ConcurrentHashMap<>();
+
+  @Value(value = "${product.bloom-filter.expected-insertions}")
+  private long expectedInsertions;
+
+  @Value(value = "${product.bloom-filter.false-positive-probability}")
+  private double falsePositiveProbability;
+
+  @Value(value = "${product.negative-cache.ttl-seconds}")
+  private long negativeCacheTtlSeconds;
+
+  @Value(value = "${product.negative-cache.max-entries}")
+  private int negativeCacheMaxEntries;
+
+  private volatile BloomFilter filter;
+
+  private volatile BloomFilter filterUnderConstruction;
+
+  private Counter rejectedLookups;
+
+  private Counter passedLookups;
+
+  private Counter falsePositives;
+
+  private Counter negativeCacheHits;
+
+  @PostConstruct
+  void registerMetrics() {
+
+    rejectedLookups =
+        Counter.builder("product.lookup.bloom.rejected")
+            .description("Lookups answered as absent by the bloom filter")
+            .register(meterRegistry);
+    passedLookups =
+        Counter.builder("product.lookup.bloom.passed")
+            .description("Lookups the bloom filter let through to the database")
+            .register(meterRegistry);
+    falsePositives =
+        Counter.builder("product.lookup.bloom.false-positives")
+            .description("Lookups let through by the bloom filter that found no enabled product")
+            .register(meterRegistry);
+    negativeCacheHits =
+        Counter.builder("product.lookup.negative-cache.hits")
+            .description("Lookups answered as absent by the negative cache")
+            .register(meterRegistry);
+    Gauge.builder(
+            "product.lookup.bloom.false-positive-rate",
+            this,
+            ProductExistenceFilter::observedFalsePositiveRate)
+        .description("Observed share of filter passes that turned out to be absent")
+        .register(meterRegistry);
+    Gauge.builder(
+            "product.lookup.bloom.expected-false-positive-probability",
+            this,
+            f -> f.filter == null ? 0 : f.filter.expectedFalsePositiveProbability())
+        .description("False-positive probability estimated from the filter's fill ratio")
+        .register(meterRegistry);
+    Gauge.builder("product.lookup.negative-cache.size", negativeCache, Map::size)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Checks whether an enabled product with the given id might exist.
+   *
+   * @param productId the id of the product being looked up
+   * @return false if the product definitely does not exist and the database can be skipped
+   */
+  public boolean mightExist(Integer productId) {
+
+    BloomFilter current = filter;
+    if (current == null) {
+      return true;
+    }
+    if (!current.mightContain(productId)) {
+      rejectedLookups.increment();
+      return false;
+    }
+    Long expiresAt = negativeCache.get(productId);
+    if (expiresAt != null) {
+      if (expiresAt > System.currentTimeMillis()) {
+        negativeCacheHits.increment();
+        return false;
+      }
+      negativeCache.remove(productId, expiresAt);
+    }
+    passedLookups.increment();
+    return true;
+  }
+
+  /**
+   * Records that a lookup passed the filter but found no enabled product, so repeated lookups for
+   * the same id are answered from the negative cache until its entry expires.
+   *
+   * @param productId the id that was not found
+   */
+  public void recordMiss(Integer productId) {
+
+    if (filter == null) {
+      return;
+    }
+    falsePositives.increment();
+    if (negativeCache.size() >= negativeCacheMaxEntries) {
+      purgeExpiredEntries();
+      if (negativeCache.size() >= negativeCacheMaxEntries) {
+        return;
+      }
+    }
+    negativeCache.put(productId, System.currentTimeMillis() + negativeCacheTtlSeconds * 1000);
+  }
+
+  /**
+   * Records a newly inserted or re-enabled product so that lookups for it are let through.
+   *
+   * @param productId the id of the product
+   */
+  public void recordInsert(Integer productId) {
+
+    negativeCache.remove(productId);
+    BloomFilter current = filter;
+    if (current != null) {
+      current.put(productId);
+    }
+    BloomFilter next = filterUnderConstruction;
+    if (next != null) {
+      next.put(productId);
+    }
+  }
+
+  /** Builds the filter as soon as the application is ready to serve requests. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildOnStartup() {
+
+    rebuild();
+  }
+
+  /**
+   * Rebuilds the filter from the ids of all enabled products and swaps it in once complete.
+   * Inserts recorded while the rebuild is running are applied to both the old and the new filter.
+   */
+  @Scheduled(
+      initialDelayString = "${product.bloom-filter.rebuild-interval-ms}",
+      fixedDelayString = "${product.bloom-filter.rebuild-interval-ms}")
+  public synchronized void rebuild() {
+
+    Query query = new Query(where("is_enabled").is(true));
+    query.fields().include("_id");
+    try {
+      long enabledProducts = mongoTemplate.count(query, Product.class);
+      BloomFilter next =
+          new BloomFilter(Math.max(expectedInsertions, enabledProducts), falsePositiveProbability);
+      filterUnderConstruction = next;
+      try (Stream<Document> ids = mongoTemplate.stream(query, Document.class, "products")) {
+        ids.forEach(id -> next.put(((Number) id.get("_id")).intValue()));
+      }
+      filter = next;
+      purgeExpiredEntries();
+      LOGGER.info("Product bloom filter rebuilt with {} ids", enabledProducts);
+    } catch (RuntimeException exception) {
+      LOGGER.error("Failed to rebuild product bloom filter: {}", exception.getMessage());
+    } finally {
+      filterUnderConstruction = null;
+    }
+  }
+
+  private double observedFalsePositiveRate() {
+
+    double passed = passedLookups.count();
+    return passed == 0 ? 0 : falsePositives.count() / passed;
+  }
+
+  private void purgeExpiredEntries() {
+
+    long now = System.currentTimeMillis();
+    negativeCache.values().removeIf(expiresAt -> expiresAt <= now);
+  }
+}
@@ -0,0 +1,285 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import com.ecommerce.productservice.exception.InvalidProductPatchException;
+import com.ecommerce.productservice.exception.ReservedStockViolationException;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.model.Size;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Compiles an RFC 7396 JSON merge patch for a product into a minimal MongoDB update. Only the
+ * members present in the patch are written with {@code $set}; members set to {@code null} are
+ * removed with {@code $unset} where the field is optional. Derived price fields are recomputed
+ * whenever the price or the discount changes.
+ *
+ * <p>Size quantities are patched in place with array filters when the patch keeps the same set of
+ * size names, so concurrent reservations on {@code product_sizes} are never overwritten. Adding or
+ * removing sizes replaces the array and carries the reserved quantities over from the current
+ * document. A size quantity below the quantity currently reserved of that size, or the removal of
+ * a size with reserved items, is rejected, and {@link #reservedStockCriteria(Map)} keeps a
+ * reservation made after the product was read from being undercut.
+ */
+public final class ProductMergePatch {
+
+  private static final Map<String, String> PATCHABLE_FIELDS = new LinkedHashMap<>();
+
+  static {
+    PATCHABLE_FIELDS.put("product_name", "product_name");
+    PATCHABLE_FIELDS.put("product_brand", "product_brand");
+    PATCHABLE_FIELDS.put("product_main_image", "product_main_image");
+    PATCHABLE_FIELDS.put("extra_product_images", "product_images");
+    PATCHABLE_FIELDS.put("short_description", "short_desc");
+    PATCHABLE_FIELDS.put("long_description", "long_desc");
+    PATCHABLE_FIELDS.put("product_color", "product_color");
+    PATCHABLE_FIELDS.put("product_sizes", "product_sizes");
+    PATCHABLE_FIELDS.put("discount_percent", "discount_percent");
+    PATCHABLE_FIELDS.put("product_price", "product_price");
+  }
+
+  private ProductMergePatch() {}
+
+  /**
+   * Builds the update for the given merge patch.
+   *
+   * @param mergePatch the merge patch document, keyed by the snake_case product property names
+   * @param current the product as currently stored, used for derived fields and reserved stock
+   * @return the update to apply, or {@code null} if the patch changes nothing
+   * @throws InvalidProductPatchException if the patch touches unknown or read-only members, or
+   *     holds values of the wrong type
+   * @throws ReservedStockViolationException if a size quantity is below its reserved quantity
+   */
+  public static Update toUpdate(Map<String, Object> mergePatch, Product current) {
+
+    if (isNull(mergePatch) || mergePatch.isEmpty()) {
+      return null;
+    }
+    for (String member : mergePatch.keySet()) {
+      if (!PATCHABLE_FIELDS.containsKey(member)) {
+        throw new InvalidProductPatchException("Product member cannot be patched: " + member);
+      }
+    }
+    Update update = new Update();
+    setText(update, mergePatch, "product_name");
+    if (mergePatch.containsKey("product_name")) {
+      update.set(
+          "normalized_name",
+          ProductNameNormalizer.normalize((String) mergePatch.get("product_name")));
+    }
+    setText(update, mergePatch, "product_brand");
+    setText(update, mergePatch, "product_main_image");
+    setText(update, mergePatch, "short_description");
+    if (mergePatch.containsKey("product_color")) {
+      update.set(
+          "product_color",
+          requireText("product_color", mergePatch.get("product_color")).toLowerCase());
+    }
+    if (mergePatch.containsKey("extra_product_images")) {
+      Object images = mergePatch.get("extra_product_images");
+      if (isNull(images)) {
+        update.unset("product_images");
+      } else {
+        update.set("product_images", requireTextList("extra_product_images", images));
+      }
+    }
+    if (mergePatch.containsKey("long_description")) {
+      update.set(
+          "long_desc", requireTextList("long_description", mergePatch.get("long_description")));
+    }
+    if (mergePatch.containsKey("product_sizes")) {
+      patchSizes(update, requireSizes(mergePatch.get("product_sizes")), current);
+    }
+    if (mergePatch.containsKey("product_price") || mergePatch.containsKey("discount_percent")) {
+      Float productPrice =
+          mergePatch.containsKey("product_price")
+              ? requirePositive("product_price", mergePatch.get("product_price")).floatValue()
+              : current.getProductPrice();
+      Integer discountPercent =
+          mergePatch.containsKey("discount_percent")
+              ? requirePercent("discount_percent", mergePatch.get("discount_percent"))
+              : current.getDiscountPercent();
+      Float discountedPrice = productPrice * discountPercent / 100;
+      update
+          .set("product_price", productPrice)
+          .set("discount_percent", discountPercent)
+          .set("discount_price", discountedPrice)
+          .set("total_price", productPrice - discountedPrice);
+    }
+    return update;
+  }
+
+  /**
+   * Returns the criteria a product must still match for the patch to apply: no patched size may
+   * have more reserved items than its patched quantity, and no removed size may have reserved
+   * items. Must only be called after the patch has been validated by {@link #toUpdate(Map,
+   * Product)}.
+   *
+   * @param mergePatch the merge patch document
+   * @return the criteria, or {@code null} if the patch leaves the sizes alone
+   */
+  public static Criteria reservedStockCriteria(Map<String, Object> mergePatch) {
+
+    if (isNull(mergePatch) || !mergePatch.containsKey("product_sizes")) {
+      return null;
+    }
+    List<Size> sizes = requireSizes(mergePatch.get("product_sizes"));
+    List<Criteria> criteria = new ArrayList<>();
+    for (Size size : sizes) {
+      criteria.add(
+          where("product_sizes")
+              .not()
+              .elemMatch(
+                  where("name")
+                      .is(size.getName())
+                      .and("reservedQuantity")
+                      .gt(size.getQuantity())));
+    }
+    criteria.add(
+        where("product_sizes")
+            .not()
+            .elemMatch(
+                where("name")
+                    .nin(sizes.stream().map(Size::getName).toList())
+                    .and("reservedQuantity")
+                    .gt(0)));
+    return new Criteria().andOperator(criteria);
+  }
+
+  /**
+   * Returns the new product name if the patch renames the product. Must only be called after
+   * the patch has been validated by {@link #toUpdate(Map, Product)}.
+   *
+   * @param mergePatch the merge patch document
+   * @return the patched product name, or {@code null} if the name is not part of the patch
+   */
+  public static String patchedProductName(Map<String, Object> mergePatch) {
+
+    return isNull(mergePatch) ? null : (String) mergePatch.get("product_name");
+  }
+
+  private static void patchSizes(Update update, List<Size> sizes, Product current) {
+
+    Map<String, Size> currentSizes = new HashMap<>();
+    if (!isNull(current.getProductSizes())) {
+      current.getProductSizes().forEach(size -> currentSizes.put(size.getName(), size));
+    }
+    Map<String, Integer> patchedQuantities =
+        sizes.stream().collect(Collectors.toMap(Size::getName, Size::getQuantity));
+    currentSizes.forEach(
+        (name, existing) -> {
+          int reserved =
+              isNull(existing.getReservedQuantity()) ? 0 : existing.getReservedQuantity();
+          int quantity = patchedQuantities.getOrDefault(name, 0);
+          if (quantity < reserved) {
+            throw new ReservedStockViolationException(
+                "Size "
+                    + name
+                    + " has "
+                    + reserved
+                    + " reserved items, its quantity cannot be "
+                    + quantity);
+          }
+        });
+    int productCount = sizes.stream().mapToInt(Size::getQuantity).sum();
+    Set<String> patchedNames = sizes.stream().map(Size::getName).collect(Collectors.toSet());
+    if (patchedNames.equals(currentSizes.keySet())) {
+      // same sizes: update the quantities in place and leave reservedQuantity untouched
+      for (int i = 0; i < sizes.size(); i++) {
+        Size size = sizes.get(i);
+        update.set("product_sizes.$[size" + i + "].quantity", size.getQuantity());
+        update.filterArray(where("size" + i + ".name").is(size.getName()));
+      }
+    } else {
+      List<Document> replacement =
+          sizes.stream()
+              .map(
+                  size -> {
+                    Size existing = currentSizes.get(size.getName());
+                    int reserved =
+                        isNull(existing) || isNull(existing.getReservedQuantity())
+                            ? 0
+                            : existing.getReservedQuantity();
+                    return new Document("name", size.getName())
+                        .append("quantity", size.getQuantity())
+                        .append("reservedQuantity", reserved);
+                  })
+              .toList();
+      update.set("product_sizes", replacement);
+    }
+    update.set("product_count", productCount).set("in_stock", productCount > 0);
+  }
+
+  private static void setText(Update update, Map<String, Object> mergePatch, String member) {
+
+    if (mergePatch.containsKey(member)) {
+      update.set(PATCHABLE_FIELDS.get(member), requireText(member, mergePatch.get(member)));
+    }
+  }
+
+  private static String requireText(String member, Object value) {
+
+    if (!(value instanceof String text) || text.isBlank()) {
+      throw new InvalidProductPatchException(member + " must be a non-blank string");
+    }
+    return text.trim();
+  }
+
+  private static List<String> requireTextList(String member, Object value) {
+
+    if (!(value instanceof List<?> values) || values.isEmpty()) {
+      throw new InvalidProductPatchException(member + " must be a non-empty array of strings");
+    }
+    return values.stream().map(element -> requireText(member, element)).toList();
+  }
+
+  private static Number requirePositive(String member, Object value) {
+
+    if (!(value instanceof Number number) || number.doubleValue() <= 0) {
+      throw new InvalidProductPatchException(member + " must be a positive number");
+    }
+    return number;
+  }
+
+  private static int requirePercent(String member, Object value) {
+
+    if (!(value instanceof Integer percent) || percent < 0 || percent > 100) {
+      throw new InvalidProductPatchException(member + " must be an integer between 0 and 100");
+    }
+    return percent;
+  }
+
+  private static List<Size> requireSizes(Object value) {
+
+    if (!(value instanceof List<?> values) || values.isEmpty()) {
+      throw new InvalidProductPatchException("product_sizes must be a non-empty array");
+    }
+    List<Size> sizes =
+        values.stream()
+            .map(
+                element -> {
+                  if (!(element instanceof Map<?, ?> size)
+                      || !(size.get("quantity") instanceof Integer quantity)
+                      || quantity < 0) {
+                    throw new InvalidProductPatchException(
+                        "product_sizes entries need a name and a non-negative quantity");
+                  }
+                  return new Size(requireText("product_sizes", size.get("name")), quantity, null);
+                })
+            .toList();
+    if (sizes.stream().map(Size::getName).distinct().count() != sizes.size()) {
+      throw new InvalidProductPatchException("product_sizes must not repeat a size name");
+    }
+    return sizes;
+  }
+}
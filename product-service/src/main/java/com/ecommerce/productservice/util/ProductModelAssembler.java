@@ -22,7 +22,7 @@ public class ProductModelAssembler
         productResponseDTO,
         linkTo(
                 methodOn(ProductServiceController.class)
-                    .getProductById(productResponseDTO.getProductId()))
+                    .getProductById(productResponseDTO.getProductId(), null))
             .withSelfRel());
   }
 }
@@ -0,0 +1,34 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Derives the {@code normalized_name} stored next to every product name. Two names that only
+ * differ in case, surrounding or repeated whitespace, or Unicode compatibility forms normalize to
+ * the same value, and the unique index on {@code normalized_name} treats them as duplicates.
+ */
+public final class ProductNameNormalizer {
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private ProductNameNormalizer() {}
+
+  /**
+   * Normalizes a product name.
+   *
+   * @param productName the product name as entered
+   * @return the normalized name, or null if the name is null
+   */
+  public static String normalize(String productName) {
+
+    if (isNull(productName)) {
+      return null;
+    }
+    String normalized = Normalizer.normalize(productName, Normalizer.Form.NFKC);
+    return WHITESPACE.matcher(normalized.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+  }
+}
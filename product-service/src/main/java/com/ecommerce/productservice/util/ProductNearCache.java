@@ -0,0 +1,256 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * An in-process cache in front of the Redis {@code products} cache. Evictions and clears are
+ * published on the {@code product-near-cache:evictions} Redis channel and applied by every other
+ * replica, so a write made through one replica is not served stale by the others. Redis pub/sub
+ * does not deliver messages to a replica that is disconnected, so entries also live for a short
+ * TTL, which bounds how stale such a replica can be. Keys are normalized the same way the Redis
+ * cache renders them, so listing pages are stored under {@code pageNumber,pageSize,searchKey} or
+ * {@code categoryId,pageNumber,pageSize,searchKey,role} and single products under their id.
+ *
+ * <p>Every entry counts its hits, which lets the {@link CatalogSnapshot} pick the hottest entries
+ * when it writes a warm-up snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductNearCache {
+
+  /** The Redis channel the evictions of all replicas are published on. */
+  public static final String EVICTION_CHANNEL = "product-near-cache:evictions";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductNearCache.class);
+
+  private static final int CATEGORY_LISTING_KEY_PARTS = 5;
+
+  private static final String EVICT_KEY = "key";
+
+  private static final String EVICT_LISTINGS = "listings";
+
+  private static final String CLEAR = "clear";
+
+  /** Identifies the evictions published by this replica, which it has already applied. */
+  private final String replicaId = UUID.randomUUID().toString();
+
+  private final MeterRegistry meterRegistry;
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  @Value(value = "${product.near-cache.ttl-seconds}")
+  private long ttlSeconds;
+
+  @Value(value = "${product.near-cache.max-entries}")
+  private int maxEntries;
+
+  @PostConstruct
+  void registerMetrics() {
+
+    Gauge.builder("product.near-cache.size", entries, Map::size).register(meterRegistry);
+  }
+
+  /**
+   * Returns the cached value for the given key and counts the hit.
+   *
+   * @param key the cache key, as passed to the Spring cache
+   * @return the cached value, or null if absent or expired
+   */
+  public Object get(Object key) {
+
+    String normalizedKey = keyOf(key);
+    Entry entry = entries.get(normalizedKey);
+    if (isNull(entry)) {
+      return null;
+    }
+    if (entry.expiresAt <= System.currentTimeMillis()) {
+      entries.remove(normalizedKey, entry);
+      return null;
+    }
+    entry.hits.increment();
+    return entry.value;
+  }
+
+  /**
+   * Caches a value for the configured TTL. Values are dropped while the cache is full of live
+   * entries.
+   *
+   * @param key the cache key, as passed to the Spring cache
+   * @param value the value to cache
+   */
+  public void put(Object key, Object value) {
+
+    if (isNull(value)) {
+      return;
+    }
+    if (entries.size() >= maxEntries) {
+      purgeExpiredEntries();
+      if (entries.size() >= maxEntries) {
+        return;
+      }
+    }
+    entries.put(keyOf(key), new Entry(value, System.currentTimeMillis() + ttlSeconds * 1000));
+  }
+
+  /**
+   * Removes the entry for the given key, on every replica.
+   *
+   * @param key the cache key, as passed to the Spring cache
+   */
+  public void evict(Object key) {
+
+    String normalizedKey = keyOf(key);
+    entries.remove(normalizedKey);
+    publish(EVICT_KEY, normalizedKey);
+  }
+
+  /** Removes all entries, on every replica. */
+  public void clear() {
+
+    entries.clear();
+    publish(CLEAR, "");
+  }
+
+  /**
+   * Removes the all-products listing pages and the listing pages of the given categories, using
+   * the same rule as {@link ProductCacheInvalidator#evictListings(Collection)}, on every replica.
+   *
+   * @param categories the categories whose listing pages should be removed, as strings
+   */
+  public void evictListings(Set<String> categories) {
+
+    evictListingsLocally(categories);
+    publish(EVICT_LISTINGS, String.join(",", categories));
+  }
+
+  /**
+   * Applies an eviction published by a replica, unless it was published by this one.
+   *
+   * @param message the message received on {@link #EVICTION_CHANNEL}
+   */
+  public void applyEviction(String message) {
+
+    String[] parts = message.split("\\|", 3);
+    if (parts.length != 3 || replicaId.equals(parts[0])) {
+      return;
+    }
+    switch (parts[1]) {
+      case EVICT_KEY -> entries.remove(parts[2]);
+      case EVICT_LISTINGS ->
+          evictListingsLocally(
+              parts[2].isEmpty()
+                  ? Set.of()
+                  : Arrays.stream(parts[2].split(",")).collect(Collectors.toSet()));
+      case CLEAR -> entries.clear();
+      default -> LOGGER.warn("Unknown near cache eviction: {}", message);
+    }
+  }
+
+  private void evictListingsLocally(Set<String> categories) {
+
+    entries
+        .keySet()
+        .removeIf(
+            key -> {
+              String[] parts = key.split(",", -1);
+              return parts.length > 1
+                  && (parts.length != CATEGORY_LISTING_KEY_PARTS
+                      || categories.contains(parts[0]));
+            });
+  }
+
+  /**
+   * Removes every entry whose value matches the given predicate.
+   *
+   * @param stale the predicate selecting the values to remove
+   */
+  public void evictValues(Predicate<Object> stale) {
+
+    entries.values().removeIf(entry -> stale.test(entry.value));
+  }
+
+  /**
+   * Returns the live entries with the most hits, hottest first.
+   *
+   * @param limit the maximum number of entries to return
+   * @return the keys and values of the hottest entries
+   */
+  public List<Map.Entry<String, Object>> hottest(int limit) {
+
+    long now = System.currentTimeMillis();
+    return entries.entrySet().stream()
+        .filter(entry -> entry.getValue().expiresAt > now)
+        .sorted(
+            Comparator.comparingLong(
+                    (Map.Entry<String, Entry> entry) -> entry.getValue().hits.sum())
+                .reversed())
+        .limit(limit)
+        .map(
+            entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().value))
+        .collect(Collectors.toList());
+  }
+
+  private void publish(String eviction, String argument) {
+
+    try {
+      stringRedisTemplate.convertAndSend(
+          EVICTION_CHANNEL, replicaId + "|" + eviction + "|" + argument);
+    } catch (RuntimeException exception) {
+      // the other replicas fall back to the TTL
+      LOGGER.error("Failed to publish near cache eviction: {}", exception.toString());
+    }
+  }
+
+  private static String keyOf(Object key) {
+
+    if (key instanceof Collection<?> parts) {
+      return parts.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+    return String.valueOf(key);
+  }
+
+  private void purgeExpiredEntries() {
+
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> entry.expiresAt <= now);
+  }
+
+  private static final class Entry {
+
+    private final Object value;
+
+    private final long expiresAt;
+
+    private final LongAdder hits = new LongAdder();
+
+    private Entry(Object value, long expiresAt) {
+
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a capped "recently viewed" list per user in a Redis sorted set scored by view time. Views
+ * are buffered in memory and written in one pipelined batch per flush interval, so a product view
+ * never waits on Redis and never writes to MongoDB. Each flush trims every touched set to the
+ * configured size and refreshes its expiry.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecentlyViewedProducts {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RecentlyViewedProducts.class);
+
+  private static final String KEY_PREFIX = "recently-viewed:";
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, Map<Integer, Long>> pendingViews = new ConcurrentHashMap<>();
+
+  @Value(value = "${product.recently-viewed.max-items}")
+  private int maxItems;
+
+  @Value(value = "${product.recently-viewed.ttl-days}")
+  private long ttlDays;
+
+  @Value(value = "${product.recently-viewed.max-pending-users}")
+  private int maxPendingUsers;
+
+  private Counter droppedViews;
+
+  @PostConstruct
+  void registerMetrics() {
+
+    droppedViews =
+        Counter.builder("product.recently-viewed.dropped")
+            .description("Views dropped because the write buffer was full")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Buffers a product view of a user. Views of anonymous users are ignored.
+   *
+   * @param username the user who viewed the product, as injected by the gateway
+   * @param productId the viewed product
+   */
+  public void recordView(String username, Integer productId) {
+
+    if (isNull(username) || username.isBlank()) {
+      return;
+    }
+    if (pendingViews.size() >= maxPendingUsers && !pendingViews.containsKey(username)) {
+      droppedViews.increment();
+      return;
+    }
+    pendingViews
+        .computeIfAbsent(username, user -> new ConcurrentHashMap<>())
+        .put(productId, System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the ids of the products a user viewed most recently, newest first.
+   *
+   * @param username the user
+   * @param limit the maximum number of ids to return
+   * @return the product ids
+   */
+  public List<Integer> recentProductIds(String username, int limit) {
+
+    Set<String> productIds =
+        stringRedisTemplate.opsForZSet().reverseRange(KEY_PREFIX + username, 0, limit - 1L);
+    return isNull(productIds) ? List.of() : productIds.stream().map(Integer::valueOf).toList();
+  }
+
+  /** Writes the buffered views to Redis in a single pipeline. */
+  @Scheduled(fixedDelayString = "${product.recently-viewed.flush-interval-ms}")
+  @PreDestroy
+  public void flush() {
+
+    if (pendingViews.isEmpty()) {
+      return;
+    }
+    Map<String, Map<Integer, Long>> batch = new HashMap<>();
+    for (String username : pendingViews.keySet()) {
+      Map<Integer, Long> views = pendingViews.remove(username);
+      if (!isNull(views)) {
+        batch.put(username, views);
+      }
+    }
+    long ttlSeconds = TimeUnit.DAYS.toSeconds(ttlDays);
+    try {
+      stringRedisTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                batch.forEach(
+                    (username, views) -> {
+                      String key = KEY_PREFIX + username;
+                      views.forEach(
+                          (productId, viewedAt) ->
+                              redis.zAdd(key, viewedAt, String.valueOf(productId)));
+                      redis.zRemRange(key, 0, -(maxItems + 1L));
+                      redis.expire(key, ttlSeconds);
+                    });
+                return null;
+              });
+    } catch (DataAccessException exception) {
+      LOGGER.error("Failed to write recently viewed products: {}", exception.getMessage());
+    }
+  }
+}
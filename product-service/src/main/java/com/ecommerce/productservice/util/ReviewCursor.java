@@ -0,0 +1,80 @@
+package com.ecommerce.productservice.util;
+
+import static java.util.Objects.isNull;
+
+import com.ecommerce.productservice.exception.InvalidReviewCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import org.bson.types.ObjectId;
+
+/**
+ * An opaque position in the review listing of a product. Reviews are listed newest first by
+ * {@code (created_at, _id)}, so a cursor holds the creation time and id of the last review a
+ * client has seen and the next page starts strictly after it.
+ *
+ * @param createdAt the {@code created_at} of the last review seen, in epoch milliseconds
+ * @param reviewId the id of the last review seen
+ */
+public record ReviewCursor(long createdAt, ObjectId reviewId) {
+
+  /**
+   * Parses a cursor received from a client.
+   *
+   * @param cursor the cursor, or blank for the first page
+   * @return the parsed position, or null for the first page
+   * @throws InvalidReviewCursorException if the cursor was not issued by this service
+   */
+  public static ReviewCursor parse(String cursor) {
+
+    if (isNull(cursor) || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = decoded.indexOf(':');
+      return new ReviewCursor(
+          Long.parseLong(decoded.substring(0, separator)),
+          new ObjectId(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException exception) {
+      throw new InvalidReviewCursorException("Invalid review cursor: " + cursor);
+    }
+  }
+
+  /**
+   * Creates the cursor pointing at the given review.
+   *
+   * @param createdAt the review's {@code created_at}
+   * @param reviewId the review's id
+   * @return the cursor
+   */
+  public static ReviewCursor of(LocalDateTime createdAt, ObjectId reviewId) {
+
+    return new ReviewCursor(
+        createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), reviewId);
+  }
+
+  /**
+   * Returns the {@code created_at} of this position as stored by the service.
+   *
+   * @return the creation time of the last review seen
+   */
+  public LocalDateTime createdAtTime() {
+
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAt), ZoneId.systemDefault());
+  }
+
+  /**
+   * Encodes this position for a client.
+   *
+   * @return the URL-safe cursor
+   */
+  public String encode() {
+
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((createdAt + ":" + reviewId.toHexString()).getBytes(StandardCharsets.UTF_8));
+  }
+}
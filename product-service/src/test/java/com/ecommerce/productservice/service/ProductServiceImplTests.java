@@ -0,0 +1,111 @@
+package com.ecommerce.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ecommerce.productservice.exception.ProductVersionConflictException;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.util.DetachedMongoDatabaseFactory;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+/** Tests the optimistic concurrency of merge patches, whose base version comes from If-Match. */
+class ProductServiceImplTests {
+
+  private static final Map<String, Object> PATCH = Map.of("short_description", "Linen shirt");
+
+  private final ConcurrentWriter mongoTemplate = new ConcurrentWriter();
+
+  private ProductServiceImpl productService;
+
+  @BeforeEach
+  void setUp() {
+
+    Product product = new Product();
+    product.setProductId(7);
+    product.setVersion(3L);
+    product.setEnabled(true);
+    ProductRepository productRepository =
+        (ProductRepository)
+            Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[] {ProductRepository.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("findById")) {
+                    return Optional.of(product);
+                  }
+                  throw new UnsupportedOperationException(method.getName());
+                });
+    productService =
+        new ProductServiceImpl(
+            productRepository, null, mongoTemplate, null, null, null, null, null, null, null, null,
+            null, null, null);
+  }
+
+  @Test
+  void staleIfMatchIsRejectedWithoutWriting() {
+
+    assertThrows(
+        ProductVersionConflictException.class,
+        () -> productService.patchProductById(7, PATCH, 2L, "ROLE_ADMIN"));
+
+    assertNull(mongoTemplate.patchQuery);
+  }
+
+  @Test
+  void patchOnlyAppliesToTheVersionItWasBasedOn() {
+
+    assertThrows(
+        ProductVersionConflictException.class,
+        () -> productService.patchProductById(7, PATCH, 3L, "ROLE_ADMIN"));
+
+    Document patchQuery = mongoTemplate.patchQuery.getQueryObject();
+    assertEquals(7, patchQuery.get("_id"));
+    assertEquals(3L, patchQuery.get("version"));
+    assertEquals(true, patchQuery.get("is_enabled"));
+    Document update = mongoTemplate.update.getUpdateObject();
+    assertEquals(Map.of("version", 1, "stock_version", 1), update.get("$inc"));
+  }
+
+  @Test
+  void patchWithoutIfMatchIsBasedOnTheVersionRead() {
+
+    assertThrows(
+        ProductVersionConflictException.class,
+        () -> productService.patchProductById(7, PATCH, null, "ROLE_ADMIN"));
+
+    assertEquals(3L, mongoTemplate.patchQuery.getQueryObject().get("version"));
+  }
+
+  /** Loses every patch to a write made since the product was read. */
+  private static class ConcurrentWriter extends MongoTemplate {
+
+    private Query patchQuery;
+
+    private UpdateDefinition update;
+
+    ConcurrentWriter() {
+
+      super(DetachedMongoDatabaseFactory.create());
+    }
+
+    @Override
+    public <T> T findAndModify(
+        Query query, UpdateDefinition update, FindAndModifyOptions options, Class<T> entityClass) {
+
+      this.patchQuery = query;
+      this.update = update;
+      return null;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.productservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ecommerce.productservice.model.Size;
+import com.ecommerce.productservice.payload.response.ProductResponseDTO;
+import java.io.InvalidClassException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+class CatalogSnapshotTests {
+
+  @Test
+  void productSurvivesRoundTrip() throws Exception {
+
+    ProductResponseDTO product = product(7);
+
+    Object restored = CatalogSnapshot.deserialize(CatalogSnapshot.serialize(product));
+
+    assertTrue(restored instanceof ProductResponseDTO);
+    ProductResponseDTO copy = (ProductResponseDTO) restored;
+    assertEquals(product.getProductId(), copy.getProductId());
+    assertEquals(product.getCreatedAt(), copy.getCreatedAt());
+    assertEquals(product.getProductSizes(), copy.getProductSizes());
+    assertEquals(List.of(product.getLongDescription()), List.of(copy.getLongDescription()));
+  }
+
+  @Test
+  void sortedPageSurvivesRoundTrip() throws Exception {
+
+    Page<ProductResponseDTO> page =
+        new PageImpl<>(
+            List.of(product(1), product(2)),
+            PageRequest.of(0, 2, Sort.by(Sort.Order.desc("created_at"))),
+            5);
+
+    Object restored = CatalogSnapshot.deserialize(CatalogSnapshot.serialize(page));
+
+    assertTrue(restored instanceof Page<?>);
+    Page<?> copy = (Page<?>) restored;
+    assertEquals(5, copy.getTotalElements());
+    assertEquals(page.getPageable(), copy.getPageable());
+    assertEquals(
+        2, ((ProductResponseDTO) copy.getContent().get(1)).getProductId().intValue());
+  }
+
+  @Test
+  void classOutsideAllowlistIsRejected() throws Exception {
+
+    Map<String, String> value = new HashMap<>(Map.of("product", "7"));
+
+    byte[] serialized = CatalogSnapshot.serialize(value);
+
+    assertThrows(InvalidClassException.class, () -> CatalogSnapshot.deserialize(serialized));
+  }
+
+  private static ProductResponseDTO product(int productId) {
+
+    ProductResponseDTO product = new ProductResponseDTO();
+    product.setProductId(productId);
+    product.setProductName("Runner " + productId);
+    product.setCategoryId(3);
+    product.setShortDescription("Light running shoe");
+    product.setLongDescription(new String[] {"Mesh upper", "Foam sole"});
+    product.setExtraProductImages(new HashSet<>(Set.of("side.png")));
+    product.setProductSizes(new HashSet<>(Set.of(new Size("42", 5, 1))));
+    product.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30));
+    product.setProductPrice(59.9f);
+    product.setProductCount(5L);
+    product.setVersion(2L);
+    return product;
+  }
+}
@@ -0,0 +1,338 @@
+package com.ecommerce.productservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ecommerce.productservice.model.ImageBlob;
+import com.ecommerce.productservice.model.ProductImage;
+import com.mongodb.client.result.UpdateResult;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ContentAddressedImageStoreTests {
+
+  private static final byte[] RED = png("red");
+
+  private static final byte[] BLUE = png("blue");
+
+  @TempDir Path blobDirectory;
+
+  private final InMemoryImages images = new InMemoryImages();
+
+  private ContentAddressedImageStore store;
+
+  @BeforeEach
+  void setUp() throws IOException {
+
+    store = new ContentAddressedImageStore(images);
+    ReflectionTestUtils.setField(store, "blobDirectory", blobDirectory);
+    ReflectionTestUtils.setField(store, "gcGraceMinutes", 0L);
+    store.createDirectories();
+  }
+
+  @Test
+  void identicalImagesAreStoredOnce() throws IOException {
+
+    String first = store(1, "front.png", RED);
+    String second = store(2, "side.png", RED);
+
+    assertEquals(first, second);
+    assertEquals(2L, images.blob(first).getRefCount().longValue());
+    assertEquals("image/png", images.blob(first).getContentType());
+    Path blob = store.findByName(2, "side.png").orElseThrow().path();
+    assertEquals((long) RED.length, Files.size(blob));
+  }
+
+  @Test
+  void replacingAnImageReleasesThePreviousContent() throws IOException {
+
+    String red = store(1, "front.png", RED);
+    String blue = store(1, "front.png", BLUE);
+
+    assertNotEquals(red, blue);
+    assertEquals(0L, images.blob(red).getRefCount().longValue());
+    assertNotNull(images.blob(red).getReleasedAt());
+    assertEquals(1L, images.blob(blue).getRefCount().longValue());
+    assertEquals(blue, store.findByName(1, "front.png").orElseThrow().hash());
+  }
+
+  @Test
+  void namesNoLongerReferencedAreReleased() throws IOException {
+
+    String red = store(1, "front.png", RED);
+    String blue = store(1, "back.png", BLUE);
+
+    store.releaseUnreferenced(1, List.of("back.png"), LocalDateTime.now().plusSeconds(1));
+
+    assertEquals(0L, images.blob(red).getRefCount().longValue());
+    assertEquals(1L, images.blob(blue).getRefCount().longValue());
+    assertTrue(store.findByName(1, "front.png").isEmpty());
+  }
+
+  @Test
+  void namesMappedDuringAProductWriteAreKept() throws IOException {
+
+    LocalDateTime writeStarted = LocalDateTime.now().minusSeconds(1);
+    String red = store(1, "front.png", RED);
+
+    store.releaseUnreferenced(1, List.of(), writeStarted);
+
+    assertEquals(1L, images.blob(red).getRefCount().longValue());
+  }
+
+  @Test
+  void onlyUnreferencedBlobsAreCollected() throws IOException {
+
+    String red = store(1, "front.png", RED);
+    String blue = store(1, "front.png", BLUE);
+    Path redFile = blobDirectory.resolve(red.substring(0, 2)).resolve(red);
+
+    store.collectGarbage();
+
+    assertNull(images.blob(red));
+    assertFalse(Files.exists(redFile));
+    assertTrue(store.findByHash(blue).isPresent());
+  }
+
+  @Test
+  void referenceIsGivenBackWhenTheBlobCannotBeWritten() throws IOException {
+
+    String hash = store(1, "front.png", RED);
+    store(1, "front.png", BLUE);
+    store.collectGarbage();
+    Path shard = blobDirectory.resolve(hash.substring(0, 2));
+    Files.delete(shard);
+    Files.writeString(shard, "not a directory");
+
+    assertThrows(IOException.class, () -> store(2, "front.png", RED));
+
+    assertEquals(0L, images.blob(hash).getRefCount().longValue());
+    assertTrue(store.findByName(2, "front.png").isEmpty());
+  }
+
+  @Test
+  void declaredTypesAreNotTrusted() throws IOException {
+
+    String hash =
+        store(1, "logo.png", "<svg onload=\"alert(1)\"/>".getBytes(StandardCharsets.US_ASCII));
+
+    assertNull(store.findByHash(hash).orElseThrow().contentType());
+  }
+
+  private String store(int productId, String imageName, byte[] content) throws IOException {
+
+    return store.store(productId, imageName, new ByteArrayInputStream(content));
+  }
+
+  private static byte[] png(String pixels) {
+
+    byte[] signature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    byte[] content = new byte[signature.length + pixels.length()];
+    System.arraycopy(signature, 0, content, 0, signature.length);
+    System.arraycopy(
+        pixels.getBytes(StandardCharsets.US_ASCII), 0, content, signature.length, pixels.length());
+    return content;
+  }
+
+  /**
+   * Holds the image blobs and image names in memory, implementing the queries and updates the
+   * store sends: equality, {@code $lt}, {@code $lte} and {@code $nin} conditions, and {@code $inc},
+   * {@code $set}, {@code $setOnInsert} and {@code $unset} updates.
+   */
+  private static class InMemoryImages extends MongoTemplate {
+
+    private final List<Document> blobs = new ArrayList<>();
+
+    private final List<Document> names = new ArrayList<>();
+
+    InMemoryImages() {
+
+      super(DetachedMongoDatabaseFactory.create());
+    }
+
+    ImageBlob blob(String hash) {
+
+      return findById(hash, ImageBlob.class);
+    }
+
+    @Override
+    public UpdateResult upsert(Query query, UpdateDefinition update, Class<?> entityClass) {
+
+      findAndModify(query, update, FindAndModifyOptions.options().upsert(true), entityClass);
+      return UpdateResult.acknowledged(1, 1L, null);
+    }
+
+    @Override
+    public UpdateResult updateFirst(Query query, UpdateDefinition update, Class<?> entityClass) {
+
+      Object updated = findAndModify(query, update, FindAndModifyOptions.none(), entityClass);
+      long matched = updated == null ? 0 : 1;
+      return UpdateResult.acknowledged(matched, matched, null);
+    }
+
+    @Override
+    public <T> T findAndModify(
+        Query query, UpdateDefinition update, FindAndModifyOptions options, Class<T> entityClass) {
+
+      List<Document> documents = collection(entityClass);
+      Document document = first(documents, query);
+      boolean inserted = document == null;
+      if (inserted) {
+        if (!options.isUpsert()) {
+          return null;
+        }
+        document = new Document(equalities(query));
+        document.putIfAbsent("_id", new ObjectId());
+        documents.add(document);
+      }
+      Document before = new Document(document);
+      apply(document, update.getUpdateObject(), inserted);
+      return inserted && !options.isReturnNew()
+          ? null
+          : toEntity(options.isReturnNew() ? document : before, entityClass);
+    }
+
+    @Override
+    public <T> T findAndRemove(Query query, Class<T> entityClass) {
+
+      Document removed = first(collection(entityClass), query);
+      collection(entityClass).remove(removed);
+      return removed == null ? null : toEntity(removed, entityClass);
+    }
+
+    @Override
+    public <T> T findById(Object id, Class<T> entityClass) {
+
+      return findOne(new Query(Criteria.where("_id").is(id)), entityClass);
+    }
+
+    @Override
+    public <T> T findOne(Query query, Class<T> entityClass) {
+
+      Document document = first(collection(entityClass), query);
+      return document == null ? null : toEntity(document, entityClass);
+    }
+
+    @Override
+    public <T> List<T> find(Query query, Class<T> entityClass) {
+
+      return collection(entityClass).stream()
+          .filter(document -> matches(document, query.getQueryObject()))
+          .map(document -> toEntity(document, entityClass))
+          .toList();
+    }
+
+    private List<Document> collection(Class<?> entityClass) {
+
+      return entityClass == ImageBlob.class ? blobs : names;
+    }
+
+    private static Document first(List<Document> documents, Query query) {
+
+      return documents.stream()
+          .filter(document -> matches(document, query.getQueryObject()))
+          .findFirst()
+          .orElse(null);
+    }
+
+    private static Map<String, Object> equalities(Query query) {
+
+      Document fields = new Document();
+      query.getQueryObject().forEach((field, value) -> {
+        if (!(value instanceof Document)) {
+          fields.put(field, value);
+        }
+      });
+      return fields;
+    }
+
+    private static boolean matches(Document document, Document query) {
+
+      return query.entrySet().stream()
+          .allMatch(condition -> matches(document.get(condition.getKey()), condition.getValue()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean matches(Object value, Object condition) {
+
+      if (!(condition instanceof Document operators)) {
+        return Objects.equals(value, condition);
+      }
+      return operators.entrySet().stream()
+          .allMatch(
+              operator ->
+                  switch (operator.getKey()) {
+                    case "$lt" -> value != null && compare(value, operator.getValue()) < 0;
+                    case "$lte" -> value != null && compare(value, operator.getValue()) <= 0;
+                    case "$nin" -> !((Collection<Object>) operator.getValue()).contains(value);
+                    default -> throw new UnsupportedOperationException(operator.getKey());
+                  });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object value, Object other) {
+
+      if (value instanceof Number number) {
+        return Double.compare(number.doubleValue(), ((Number) other).doubleValue());
+      }
+      return ((Comparable<Object>) value).compareTo(other);
+    }
+
+    private static void apply(Document document, Document update, boolean inserted) {
+
+      update.get("$inc", new Document()).forEach((field, amount) ->
+          document.put(field, ((Number) document.getOrDefault(field, 0L)).longValue()
+              + ((Number) amount).longValue()));
+      document.putAll(update.get("$set", new Document()));
+      if (inserted) {
+        document.putAll(update.get("$setOnInsert", new Document()));
+      }
+      update.get("$unset", new Document()).keySet().forEach(document::remove);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T toEntity(Document document, Class<T> entityClass) {
+
+      if (entityClass == ImageBlob.class) {
+        return (T) new ImageBlob(
+            document.getString("_id"),
+            ((Number) document.get("ref_count")).longValue(),
+            (Long) document.get("size"),
+            document.getString("content_type"),
+            (LocalDateTime) document.get("created_at"),
+            (LocalDateTime) document.get("released_at"));
+      }
+      return (T) new ProductImage(
+          document.getObjectId("_id"),
+          document.getInteger("product_id"),
+          document.getString("image_name"),
+          document.getString("hash"),
+          (LocalDateTime) document.get("updated_at"));
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.productservice.util;
+
+import java.lang.reflect.Proxy;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+
+/**
+ * Creates a database factory without a database, for tests overriding the {@code MongoTemplate}
+ * operations the code under test calls.
+ */
+public final class DetachedMongoDatabaseFactory {
+
+  private DetachedMongoDatabaseFactory() {}
+
+  public static MongoDatabaseFactory create() {
+
+    MongoExceptionTranslator exceptionTranslator = new MongoExceptionTranslator();
+    return (MongoDatabaseFactory)
+        Proxy.newProxyInstance(
+            MongoDatabaseFactory.class.getClassLoader(),
+            new Class<?>[] {MongoDatabaseFactory.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getExceptionTranslator")) {
+                return exceptionTranslator;
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.productservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class FrequentlyBoughtTogetherTests {
+
+  @Test
+  void relatedProductsAreOrderedByCount() {
+
+    assertEquals(
+        List.of("12", "9", "4", "5"),
+        FrequentlyBoughtTogether.byCount(Map.of("4", "2", "9", "7", "5", "2", "12", "7")));
+  }
+
+  @Test
+  void countsOfFailedFlushAreKeptForNextFlush() {
+
+    int[] attempts = new int[1];
+    StringRedisTemplate unavailable =
+        new StringRedisTemplate() {
+          @Override
+          public List<Object> executePipelined(RedisCallback<?> action) {
+
+            attempts[0]++;
+            throw new RedisConnectionFailureException("Redis is down");
+          }
+        };
+    FrequentlyBoughtTogether frequentlyBoughtTogether = new FrequentlyBoughtTogether(unavailable);
+    ReflectionTestUtils.setField(frequentlyBoughtTogether, "maxItemsPerOrder", 50);
+    frequentlyBoughtTogether.recordOrder(List.of(1, 2, 3));
+
+    frequentlyBoughtTogether.flush();
+    frequentlyBoughtTogether.flush();
+
+    assertEquals(2, attempts[0]);
+    LongIntHashMap pending =
+        (LongIntHashMap) ReflectionTestUtils.getField(frequentlyBoughtTogether, "pendingPairs");
+    assertEquals(3, pending.size());
+  }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.productservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class ImageMediaTypesTests {
+
+  @Test
+  void rasterFormatsAreDetected() {
+
+    assertEquals(
+        "image/png",
+        ImageMediaTypes.detect(
+            new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13}));
+    assertEquals(
+        "image/jpeg", ImageMediaTypes.detect(new byte[] {(byte) 0xff, (byte) 0xd8, (byte) 0xff}));
+    assertEquals("image/gif", ImageMediaTypes.detect(ascii("GIF89a\u0001\u0000")));
+    assertEquals("image/webp", ImageMediaTypes.detect(ascii("RIFF$\u0000\u0000\u0000WEBP")));
+    assertEquals(
+        "image/bmp", ImageMediaTypes.detect(new byte[] {'B', 'M', 54, 0, 0, 0, 0, 0, 0, 0, 54, 0}));
+  }
+
+  @Test
+  void svgIsNotAnInlineImage() {
+
+    assertNull(
+        ImageMediaTypes.detect(
+            ascii("<svg xmlns=\"http://www.w3.org/2000/svg\" onload=\"alert(1)\"/>")));
+    assertNull(ImageMediaTypes.detect(ascii("<?xml version=\"1.0\"?><svg/>")));
+  }
+
+  @Test
+  void truncatedSignaturesAreNotDetected() {
+
+    assertNull(ImageMediaTypes.detect(new byte[0]));
+    assertNull(ImageMediaTypes.detect(ascii("RIFF")));
+    assertNull(ImageMediaTypes.detect(ascii("BM")));
+  }
+
+  private static byte[] ascii(String value) {
+
+    return value.getBytes(StandardCharsets.ISO_8859_1);
+  }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.productservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ProductExistenceFilterTests {
+
+  private final EnabledProducts enabledProducts = new EnabledProducts();
+
+  private ProductExistenceFilter filter;
+
+  @BeforeEach
+  void setUp() {
+
+    filter = new ProductExistenceFilter(enabledProducts, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+    ReflectionTestUtils.setField(filter, "falsePositiveProbability", 0.01);
+    ReflectionTestUtils.setField(filter, "negativeCacheTtlSeconds", 60L);
+    ReflectionTestUtils.setField(filter, "negativeCacheMaxEntries", 100);
+    filter.registerMetrics();
+    enabledProducts.ids = IntStream.rangeClosed(1, 100).boxed().toList();
+  }
+
+  @Test
+  void everyIdMightExistUntilTheFilterIsBuilt() {
+
+    filter.recordMiss(5000);
+
+    assertTrue(filter.mightExist(5000));
+  }
+
+  @Test
+  void absentIdsAreRejectedWithoutTheDatabase() {
+
+    filter.rebuild();
+
+    assertTrue(IntStream.rangeClosed(1, 100).allMatch(filter::mightExist));
+    long passed = IntStream.rangeClosed(1001, 2000).filter(filter::mightExist).count();
+    assertTrue(passed < 50, passed + " absent ids passed the filter");
+  }
+
+  @Test
+  void missesAreAnsweredFromTheNegativeCacheUntilTheyExpire() {
+
+    filter.rebuild();
+
+    filter.recordMiss(7);
+
+    assertFalse(filter.mightExist(7));
+    ReflectionTestUtils.setField(filter, "negativeCacheTtlSeconds", 0L);
+    filter.recordMiss(8);
+    assertTrue(filter.mightExist(8));
+  }
+
+  @Test
+  void negativeCacheStopsGrowingAtItsLimit() {
+
+    ReflectionTestUtils.setField(filter, "negativeCacheMaxEntries", 1);
+    filter.rebuild();
+
+    filter.recordMiss(7);
+    filter.recordMiss(8);
+
+    assertFalse(filter.mightExist(7));
+    assertTrue(filter.mightExist(8));
+  }
+
+  @Test
+  void insertedProductsAreLetThrough() {
+
+    filter.rebuild();
+    filter.recordMiss(7);
+    int inserted = IntStream.rangeClosed(5000, 6000).filter(id -> !filter.mightExist(id))
+        .findFirst().orElseThrow();
+
+    filter.recordInsert(7);
+    filter.recordInsert(inserted);
+
+    assertTrue(filter.mightExist(7));
+    assertTrue(filter.mightExist(inserted));
+  }
+
+  @Test
+  void disabledProductsDropOutOnRebuild() {
+
+    filter.rebuild();
+    enabledProducts.ids = List.of(1, 2, 3);
+
+    filter.rebuild();
+
+    assertTrue(filter.mightExist(2));
+    assertTrue(IntStream.rangeClosed(4, 100).filter(filter::mightExist).count() < 10);
+  }
+
+  @Test
+  void failedRebuildKeepsTheCurrentFilter() {
+
+    filter.rebuild();
+    enabledProducts.failing = true;
+
+    filter.rebuild();
+
+    assertTrue(filter.mightExist(50));
+    assertTrue(IntStream.rangeClosed(1001, 2000).filter(filter::mightExist).count() < 50);
+  }
+
+  /** Serves the ids of the enabled products without a database. */
+  private static class EnabledProducts extends MongoTemplate {
+
+    private List<Integer> ids = List.of();
+
+    private boolean failing;
+
+    EnabledProducts() {
+
+      super(DetachedMongoDatabaseFactory.create());
+    }
+
+    @Override
+    public long count(Query query, Class<?> entityClass) {
+
+      return ids.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> stream(Query query, Class<T> entityType, String collectionName) {
+
+      if (failing) {
+        throw new IllegalStateException("connection refused");
+      }
+      return ids.stream().map(id -> (T) new Document("_id", id));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.productservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ecommerce.productservice.exception.InvalidProductPatchException;
+import com.ecommerce.productservice.exception.ReservedStockViolationException;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.model.Size;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+class ProductMergePatchTests {
+
+  @Test
+  void emptyPatchChangesNothing() {
+
+    assertNull(ProductMergePatch.toUpdate(Map.of(), product()));
+  }
+
+  @Test
+  void unknownMemberIsRejected() {
+
+    assertThrows(
+        InvalidProductPatchException.class,
+        () -> ProductMergePatch.toUpdate(Map.of("version", 3), product()));
+  }
+
+  @Test
+  void discountRecomputesDerivedPrices() {
+
+    Document set = set(ProductMergePatch.toUpdate(Map.of("discount_percent", 25), product()));
+
+    assertEquals(25, set.get("discount_percent"));
+    assertEquals(25f, set.get("discount_price"));
+    assertEquals(75f, set.get("total_price"));
+  }
+
+  @Test
+  void discountAcceptsZeroToHundred() {
+
+    assertEquals(
+        0, set(ProductMergePatch.toUpdate(Map.of("discount_percent", 0), product()))
+            .get("discount_percent"));
+    assertEquals(
+        100, set(ProductMergePatch.toUpdate(Map.of("discount_percent", 100), product()))
+            .get("discount_percent"));
+    assertThrows(
+        InvalidProductPatchException.class,
+        () -> ProductMergePatch.toUpdate(Map.of("discount_percent", 101), product()));
+    assertThrows(
+        InvalidProductPatchException.class,
+        () -> ProductMergePatch.toUpdate(Map.of("discount_percent", -1), product()));
+  }
+
+  @Test
+  void nullRemovesOptionalMember() {
+
+    Map<String, Object> patch = new HashMap<>();
+    patch.put("extra_product_images", null);
+
+    Document update = ProductMergePatch.toUpdate(patch, product()).getUpdateObject();
+    Document unset = update.get("$unset", Document.class);
+
+    assertTrue(unset.containsKey("product_images"));
+  }
+
+  @Test
+  void sameSizesArePatchedInPlace() {
+
+    Document set =
+        set(ProductMergePatch.toUpdate(Map.of("product_sizes", sizes(4, 6)), product()));
+
+    assertEquals(4, set.get("product_sizes.$[size0].quantity"));
+    assertEquals(10, set.get("product_count"));
+  }
+
+  @Test
+  void quantityBelowReservedIsRejected() {
+
+    assertThrows(
+        ReservedStockViolationException.class,
+        () -> ProductMergePatch.toUpdate(Map.of("product_sizes", sizes(1, 6)), product()));
+  }
+
+  @Test
+  void removingReservedSizeIsRejected() {
+
+    List<Map<String, Object>> onlyMedium = List.of(Map.of("name", "M", "quantity", 6));
+
+    assertThrows(
+        ReservedStockViolationException.class,
+        () -> ProductMergePatch.toUpdate(Map.of("product_sizes", onlyMedium), product()));
+  }
+
+  @Test
+  void reservedStockCriteriaGuardEverySize() {
+
+    Map<String, Object> patch = Map.of("product_sizes", sizes(4, 6));
+
+    Document criteria = ProductMergePatch.reservedStockCriteria(patch).getCriteriaObject();
+
+    assertEquals(3, criteria.getList("$and", Document.class).size());
+    assertNull(ProductMergePatch.reservedStockCriteria(Map.of("product_price", 10)));
+  }
+
+  private static Document set(Update update) {
+
+    return update.getUpdateObject().get("$set", Document.class);
+  }
+
+  private static List<Map<String, Object>> sizes(int small, int medium) {
+
+    return List.of(Map.of("name", "S", "quantity", small), Map.of("name", "M", "quantity", medium));
+  }
+
+  private static Product product() {
+
+    Product product = new Product();
+    product.setProductId(1);
+    product.setProductPrice(100f);
+    product.setDiscountPercent(10);
+    product.setProductSizes(Set.of(new Size("S", 5, 2), new Size("M", 6, 0)));
+    return product;
+  }
+}
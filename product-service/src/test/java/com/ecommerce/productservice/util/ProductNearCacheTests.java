@@ -0,0 +1,97 @@
+package com.ecommerce.productservice.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ProductNearCacheTests {
+
+  private final List<ProductNearCache> replicas = new ArrayList<>();
+
+  private ProductNearCache first;
+
+  private ProductNearCache second;
+
+  @BeforeEach
+  void setUp() {
+
+    replicas.clear();
+    first = replica();
+    second = replica();
+  }
+
+  @Test
+  void evictionReachesOtherReplicas() {
+
+    first.put("7", "first");
+    second.put("7", "second");
+
+    first.evict("7");
+
+    assertNull(first.get("7"));
+    assertNull(second.get("7"));
+  }
+
+  @Test
+  void listingEvictionKeepsOtherCategories() {
+
+    second.put(List.of(0, 10, ""), "all products");
+    second.put(List.of(3, 0, 10, "", "USER"), "category 3");
+    second.put(List.of(4, 0, 10, "", "USER"), "category 4");
+    second.put("7", "product");
+
+    first.evictListings(Set.of("3"));
+
+    assertNull(second.get(List.of(0, 10, "")));
+    assertNull(second.get(List.of(3, 0, 10, "", "USER")));
+    assertEquals("category 4", second.get(List.of(4, 0, 10, "", "USER")));
+    assertEquals("product", second.get("7"));
+  }
+
+  @Test
+  void clearReachesOtherReplicas() {
+
+    second.put("7", "product");
+
+    first.clear();
+
+    assertNull(second.get("7"));
+  }
+
+  @Test
+  void ownAndMalformedMessagesAreIgnored() {
+
+    first.put("7", "product");
+
+    first.applyEviction("garbage");
+    first.applyEviction("other|unknown|7");
+
+    assertEquals("product", first.get("7"));
+  }
+
+  private ProductNearCache replica() {
+
+    StringRedisTemplate channel =
+        new StringRedisTemplate() {
+          @Override
+          public Long convertAndSend(String destination, Object message) {
+
+            replicas.forEach(replica -> replica.applyEviction((String) message));
+            return (long) replicas.size();
+          }
+        };
+    ProductNearCache cache = new ProductNearCache(new SimpleMeterRegistry(), channel);
+    ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+    ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    replicas.add(cache);
+    return cache;
+  }
+}